@@ -159,7 +159,8 @@ public class AnthropicChatModel extends
 
 		ChatCompletionRequest request = createRequest(prompt, true);
 
-		Flux<StreamResponse> response = this.anthropicApi.chatCompletionStream(request);
+		Flux<StreamResponse> response = this.anthropicApi.chatCompletionStream(request)
+			.retryWhen(RetryUtils.streamRetry(this.retryTemplate));
 
 		AtomicReference<ChatCompletionBuilder> chatCompletionReference = new AtomicReference<>();
 
@@ -402,20 +403,11 @@ public class AnthropicChatModel extends
 
 		List<MediaContent> toolResults = new ArrayList<>();
 
-		for (MediaContent toolToUse : toolToUseList) {
+		List<String> functionResponses = this.executeFunctionCalls(toolToUseList, MediaContent::name,
+				toolToUse -> ModelOptionsUtils.toJsonString(toolToUse.input()));
 
-			var functionCallId = toolToUse.id();
-			var functionName = toolToUse.name();
-			var functionArguments = toolToUse.input();
-
-			if (!this.functionCallbackRegister.containsKey(functionName)) {
-				throw new IllegalStateException("No function callback found for function name: " + functionName);
-			}
-
-			String functionResponse = this.functionCallbackRegister.get(functionName)
-				.call(ModelOptionsUtils.toJsonString(functionArguments));
-
-			toolResults.add(new MediaContent(Type.TOOL_RESULT, functionCallId, functionResponse));
+		for (int i = 0; i < toolToUseList.size(); i++) {
+			toolResults.add(new MediaContent(Type.TOOL_RESULT, toolToUseList.get(i).id(), functionResponses.get(i)));
 		}
 
 		// Add the function response to the conversation.
@@ -537,19 +537,14 @@ public class AzureOpenAiChatModel
 
 		// Every tool-call item requires a separate function call and a response (TOOL)
 		// message.
-		for (ChatCompletionsToolCall toolCall : ((ChatRequestAssistantMessage) responseMessage).getToolCalls()) {
-
-			var functionName = ((ChatCompletionsFunctionToolCall) toolCall).getFunction().getName();
-			String functionArguments = ((ChatCompletionsFunctionToolCall) toolCall).getFunction().getArguments();
-
-			if (!this.functionCallbackRegister.containsKey(functionName)) {
-				throw new IllegalStateException("No function callback found for function name: " + functionName);
-			}
-
-			String functionResponse = this.functionCallbackRegister.get(functionName).call(functionArguments);
+		List<ChatCompletionsToolCall> toolCalls = ((ChatRequestAssistantMessage) responseMessage).getToolCalls();
+		List<String> functionResponses = this.executeFunctionCalls(toolCalls,
+				toolCall -> ((ChatCompletionsFunctionToolCall) toolCall).getFunction().getName(),
+				toolCall -> ((ChatCompletionsFunctionToolCall) toolCall).getFunction().getArguments());
 
+		for (int i = 0; i < toolCalls.size(); i++) {
 			// Add the function response to the conversation.
-			conversationHistory.add(new ChatRequestToolMessage(functionResponse, toolCall.getId()));
+			conversationHistory.add(new ChatRequestToolMessage(functionResponses.get(i), toolCalls.get(i).getId()));
 		}
 
 		// Recursively call chatCompletionWithTools until the model doesn't call a
@@ -34,6 +34,7 @@ import org.springframework.ai.embedding.EmbeddingOptions;
 import org.springframework.ai.embedding.EmbeddingRequest;
 import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.ai.embedding.EmbeddingResponseMetadata;
+import org.springframework.ai.embedding.EmbeddingUtils;
 import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.util.Assert;
 
@@ -76,6 +77,11 @@ public class AzureOpenAiEmbeddingModel extends AbstractEmbeddingModel {
 		return response.getResults().stream().map(embedding -> embedding.getOutput()).flatMap(List::stream).toList();
 	}
 
+	@Override
+	public String getEmbeddingContent(Document document) {
+		return document.getFormattedContent(this.metadataMode);
+	}
+
 	@Override
 	public EmbeddingResponse call(EmbeddingRequest embeddingRequest) {
 		logger.debug("Retrieving embeddings");
@@ -114,8 +120,7 @@ public class AzureOpenAiEmbeddingModel extends AbstractEmbeddingModel {
 		for (EmbeddingItem nativeDatum : nativeData) {
 			List<Float> nativeDatumEmbedding = nativeDatum.getEmbedding();
 			int nativeIndex = nativeDatum.getPromptIndex();
-			Embedding embedding = new Embedding(nativeDatumEmbedding.stream().map(f -> f.doubleValue()).toList(),
-					nativeIndex);
+			Embedding embedding = new Embedding(EmbeddingUtils.toFloatArray(nativeDatumEmbedding), nativeIndex);
 			data.add(embedding);
 		}
 		return data;
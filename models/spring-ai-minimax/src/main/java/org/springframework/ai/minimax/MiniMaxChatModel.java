@@ -161,7 +161,8 @@ public class MiniMaxChatModel extends
 
 		return this.retryTemplate.execute(ctx -> {
 
-			Flux<ChatCompletionChunk> completionChunks = this.miniMaxApi.chatCompletionStream(request);
+			Flux<ChatCompletionChunk> completionChunks = this.miniMaxApi.chatCompletionStream(request)
+				.retryWhen(RetryUtils.streamRetry(this.retryTemplate));
 
 			// For chunked responses, only the first chunk contains the choice role.
 			// The rest of the chunks with same ID share the same role.
@@ -287,20 +288,16 @@ public class MiniMaxChatModel extends
 
 		// Every tool-call item requires a separate function call and a response (TOOL)
 		// message.
-		for (ToolCall toolCall : responseMessage.toolCalls()) {
+		List<ToolCall> toolCalls = responseMessage.toolCalls();
+		List<String> functionResponses = this.executeFunctionCalls(toolCalls, toolCall -> toolCall.function().name(),
+				toolCall -> toolCall.function().arguments());
 
-			var functionName = toolCall.function().name();
-			String functionArguments = toolCall.function().arguments();
-
-			if (!this.functionCallbackRegister.containsKey(functionName)) {
-				throw new IllegalStateException("No function callback found for function name: " + functionName);
-			}
-
-			String functionResponse = this.functionCallbackRegister.get(functionName).call(functionArguments);
+		for (int i = 0; i < toolCalls.size(); i++) {
+			ToolCall toolCall = toolCalls.get(i);
 
 			// Add the function response to the conversation.
-			conversationHistory
-				.add(new ChatCompletionMessage(functionResponse, Role.TOOL, functionName, toolCall.id(), null));
+			conversationHistory.add(new ChatCompletionMessage(functionResponses.get(i), Role.TOOL,
+					toolCall.function().name(), toolCall.id(), null));
 		}
 
 		// Recursively call chatCompletionWithTools until the model doesn't call a
@@ -108,6 +108,11 @@ public class MiniMaxEmbeddingModel extends AbstractEmbeddingModel {
 		return this.embed(document.getFormattedContent(this.metadataMode));
 	}
 
+	@Override
+	public String getEmbeddingContent(Document document) {
+		return document.getFormattedContent(this.metadataMode);
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public EmbeddingResponse call(EmbeddingRequest request) {
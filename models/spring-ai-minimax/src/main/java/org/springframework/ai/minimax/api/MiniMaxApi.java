@@ -22,9 +22,11 @@ import com.fasterxml.jackson.annotation.JsonValue;
 
 import org.springframework.ai.model.ModelDescription;
 import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.model.streaming.SseJsonDecoder;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.boot.context.properties.bind.ConstructorBinding;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -36,8 +38,6 @@ import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Predicate;
 
 // @formatter:off
 /**
@@ -51,7 +51,8 @@ public class MiniMaxApi {
 
 	public static final String DEFAULT_CHAT_MODEL = ChatModel.ABAB_5_5_Chat.getValue();
 	public static final String DEFAULT_EMBEDDING_MODEL = EmbeddingModel.Embo_01.getValue();
-	private static final Predicate<String> SSE_DONE_PREDICATE = "[DONE]"::equals;
+	private static final SseJsonDecoder<ChatCompletionChunk> CHUNK_DECODER = new SseJsonDecoder<>(
+			ChatCompletionChunk.class);
 
 	private final RestClient restClient;
 
@@ -695,36 +696,13 @@ public class MiniMaxApi {
 		Assert.notNull(chatRequest, "The request body can not be null.");
 		Assert.isTrue(chatRequest.stream(), "Request must set the steam property to true.");
 
-		AtomicBoolean isInsideTool = new AtomicBoolean(false);
-
-		return this.webClient.post()
+		Flux<DataBuffer> body = this.webClient.post()
 				.uri("/v1/text/chatcompletion_v2")
 				.body(Mono.just(chatRequest), ChatCompletionRequest.class)
 				.retrieve()
-				.bodyToFlux(String.class)
-				.takeUntil(SSE_DONE_PREDICATE)
-				.filter(SSE_DONE_PREDICATE.negate())
-				.map(content -> ModelOptionsUtils.jsonToObject(content, ChatCompletionChunk.class))
- 				.map(chunk -> {
-					if (this.chunkMerger.isStreamingToolFunctionCall(chunk)) {
-						isInsideTool.set(true);
-					}
-					return chunk;
-				})
-				.windowUntil(chunk -> {
-					if (isInsideTool.get() && this.chunkMerger.isStreamingToolFunctionCallFinish(chunk)) {
-						isInsideTool.set(false);
-						return true;
-					}
-					return !isInsideTool.get();
-				})
-				.concatMapIterable(window -> {
-					Mono<ChatCompletionChunk> monoChunk = window.reduce(
-							new ChatCompletionChunk(null, null, null, null, null, null),
-							this.chunkMerger::merge);
-					return List.of(monoChunk);
-				})
-				.flatMap(mono -> mono);
+				.bodyToFlux(DataBuffer.class);
+
+		return this.chunkMerger.mergeToolCalls(CHUNK_DECODER.decode(body));
 	}
 
 	/**
@@ -15,7 +15,20 @@
  */
 package org.springframework.ai.minimax.api;
 
+import org.springframework.ai.minimax.api.MiniMaxApi.ChatCompletionChunk;
+import org.springframework.ai.minimax.api.MiniMaxApi.ChatCompletionChunk.ChunkChoice;
+import org.springframework.ai.minimax.api.MiniMaxApi.ChatCompletionFinishReason;
+import org.springframework.ai.minimax.api.MiniMaxApi.ChatCompletionMessage;
+import org.springframework.ai.minimax.api.MiniMaxApi.ChatCompletionMessage.ChatCompletionFunction;
+import org.springframework.ai.minimax.api.MiniMaxApi.ChatCompletionMessage.Role;
+import org.springframework.ai.minimax.api.MiniMaxApi.ChatCompletionMessage.ToolCall;
+import org.springframework.ai.minimax.api.MiniMaxApi.LogProbs;
+import org.springframework.ai.model.streaming.StreamingToolCallAggregator;
+import org.springframework.ai.model.streaming.StreamingToolCallAggregator.ChunkMerger;
+import org.springframework.ai.model.streaming.ToolCallBuilder;
+import org.springframework.ai.model.streaming.ToolCallChunkBuilder;
 import org.springframework.util.CollectionUtils;
+import reactor.core.publisher.Flux;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -29,6 +42,19 @@ import java.util.List;
  */
 public class MiniMaxStreamFunctionCallingHelper {
 
+	private final ToolCallAggregator toolCallAggregator = new ToolCallAggregator();
+
+	/**
+	 * Merge the chunks of each streamed tool call into a single chunk, as the pairwise
+	 * {@link #merge(MiniMaxApi.ChatCompletionChunk, MiniMaxApi.ChatCompletionChunk)}
+	 * does, but accumulating the chunks in place. The other chunks are passed through.
+	 * @param chunks the streamed chunks
+	 * @return the chunks with each tool call merged in a single chunk
+	 */
+	public Flux<MiniMaxApi.ChatCompletionChunk> mergeToolCalls(Flux<MiniMaxApi.ChatCompletionChunk> chunks) {
+		return this.toolCallAggregator.aggregate(chunks);
+	}
+
 	/**
 	 * Merge the previous and current ChatCompletionChunk into a single one.
 	 * @param previous the previous ChatCompletionChunk
@@ -183,6 +209,129 @@ public class MiniMaxStreamFunctionCallingHelper {
 		return choice.finishReason() == MiniMaxApi.ChatCompletionFinishReason.TOOL_CALLS;
 	}
 
+	/**
+	 * Keep only the first choice of a chunk, as merging it with an empty chunk does.
+	 */
+	private static MiniMaxApi.ChatCompletionChunk withFirstChoiceOnly(MiniMaxApi.ChatCompletionChunk chunk) {
+		if (chunk.choices() != null && chunk.choices().size() == 1) {
+			return chunk;
+		}
+		List<MiniMaxApi.ChatCompletionChunk.ChunkChoice> choices = CollectionUtils.isEmpty(chunk.choices()) ? List.of()
+				: List.of(chunk.choices().get(0));
+		return new MiniMaxApi.ChatCompletionChunk(chunk.id(), choices, chunk.created(), chunk.model(),
+				chunk.systemFingerprint(), chunk.object());
+	}
+
+	private class ToolCallAggregator extends StreamingToolCallAggregator<MiniMaxApi.ChatCompletionChunk> {
+
+		@Override
+		protected boolean isToolCall(MiniMaxApi.ChatCompletionChunk chunk) {
+			return isStreamingToolFunctionCall(chunk);
+		}
+
+		@Override
+		protected boolean isToolCallFinish(MiniMaxApi.ChatCompletionChunk chunk) {
+			return isStreamingToolFunctionCallFinish(chunk);
+		}
+
+		@Override
+		protected ChunkMerger<MiniMaxApi.ChatCompletionChunk> newMerger() {
+			return new ChunkBuilder();
+		}
+
+		@Override
+		protected MiniMaxApi.ChatCompletionChunk passThrough(MiniMaxApi.ChatCompletionChunk chunk) {
+			return withFirstChoiceOnly(chunk);
+		}
+
+	}
+
+	/**
+	 * Merges the chunks of a tool call into a ChatCompletionChunk.
+	 */
+	private static final class ChunkBuilder
+			extends ToolCallChunkBuilder<ChatCompletionChunk, ChunkChoice, ChatCompletionMessage, ToolCall> {
+
+		private final Field<ChatCompletionChunk, String> id = chunkField(ChatCompletionChunk::id);
+
+		private final Field<ChatCompletionChunk, Long> created = chunkField(ChatCompletionChunk::created);
+
+		private final Field<ChatCompletionChunk, String> model = chunkField(ChatCompletionChunk::model);
+
+		private final Field<ChatCompletionChunk, String> systemFingerprint = chunkField(
+				ChatCompletionChunk::systemFingerprint);
+
+		private final Field<ChatCompletionChunk, String> object = chunkField(ChatCompletionChunk::object);
+
+		private final Field<ChunkChoice, ChatCompletionFinishReason> finishReason = choiceField(
+				ChunkChoice::finishReason);
+
+		private final Field<ChunkChoice, Integer> index = choiceField(ChunkChoice::index);
+
+		private final Field<ChunkChoice, LogProbs> logprobs = choiceField(ChunkChoice::logprobs);
+
+		private final Field<ChatCompletionMessage, String> content = deltaField(ChatCompletionMessage::content);
+
+		private final Field<ChatCompletionMessage, Role> role = deltaField(ChatCompletionMessage::role);
+
+		private final Field<ChatCompletionMessage, String> name = deltaField(ChatCompletionMessage::name);
+
+		private final Field<ChatCompletionMessage, String> toolCallId = deltaField(ChatCompletionMessage::toolCallId);
+
+		@Override
+		protected List<ChunkChoice> choices(ChatCompletionChunk chunk) {
+			return chunk.choices();
+		}
+
+		@Override
+		protected ChatCompletionMessage delta(ChunkChoice choice) {
+			return choice.delta();
+		}
+
+		@Override
+		protected List<ToolCall> toolCalls(ChatCompletionMessage delta) {
+			return delta.toolCalls();
+		}
+
+		@Override
+		protected String toolCallId(ToolCall toolCall) {
+			return toolCall.id();
+		}
+
+		@Override
+		protected void mergeToolCall(ToolCallBuilder builder, ToolCall toolCall) {
+			builder.merge(toolCall.id(), toolCall.type());
+			if (toolCall.function() != null) {
+				builder.mergeFunction(toolCall.function().name(), toolCall.function().arguments());
+			}
+		}
+
+		@Override
+		protected ChatCompletionChunk firstChoiceOnly(ChatCompletionChunk chunk) {
+			return withFirstChoiceOnly(chunk);
+		}
+
+		@Override
+		protected ChunkChoice buildChoice(List<ToolCallBuilder> builders) {
+			List<ToolCall> toolCalls = new ArrayList<>(builders.size());
+			for (ToolCallBuilder builder : builders) {
+				ChatCompletionFunction function = builder.hasFunction()
+						? new ChatCompletionFunction(builder.getName(), builder.getArguments()) : null;
+				toolCalls.add(new ToolCall(builder.getId(), builder.getType(), function));
+			}
+			ChatCompletionMessage message = new ChatCompletionMessage(this.content.getOrDefault(""),
+					this.role.getOrDefault(Role.ASSISTANT), this.name.get(), this.toolCallId.get(), toolCalls);
+			return new ChunkChoice(this.finishReason.get(), this.index.get(), message, this.logprobs.get());
+		}
+
+		@Override
+		protected ChatCompletionChunk buildChunk(ChunkChoice choice) {
+			return new ChatCompletionChunk(this.id.get(), choice == null ? List.of() : List.of(choice),
+					this.created.get(), this.model.get(), this.systemFingerprint.get(), this.object.get());
+		}
+
+	}
+
 	/**
 	 * Convert the ChatCompletionChunk into a ChatCompletion. The Usage is set to null.
 	 * @param chunk the ChatCompletionChunk to convert
@@ -142,7 +142,8 @@ public class MistralAiChatModel extends
 
 		return retryTemplate.execute(ctx -> {
 
-			var completionChunks = this.mistralAiApi.chatCompletionStream(request);
+			var completionChunks = this.mistralAiApi.chatCompletionStream(request)
+				.retryWhen(RetryUtils.streamRetry(retryTemplate));
 
 			// For chunked responses, only the first chunk contains the choice role.
 			// The rest of the chunks with same ID share the same role.
@@ -253,21 +254,16 @@ public class MistralAiChatModel extends
 
 		// Every tool-call item requires a separate function call and a response (TOOL)
 		// message.
-		for (ToolCall toolCall : responseMessage.toolCalls()) {
+		List<ToolCall> toolCalls = responseMessage.toolCalls();
+		List<String> functionResponses = this.executeFunctionCalls(toolCalls, toolCall -> toolCall.function().name(),
+				toolCall -> toolCall.function().arguments());
 
-			String id = toolCall.id();
-			String functionName = toolCall.function().name();
-			String functionArguments = toolCall.function().arguments();
-
-			if (!this.functionCallbackRegister.containsKey(functionName)) {
-				throw new IllegalStateException("No function callback found for function name: " + functionName);
-			}
-
-			String functionResponse = this.functionCallbackRegister.get(functionName).call(functionArguments);
+		for (int i = 0; i < toolCalls.size(); i++) {
+			ToolCall toolCall = toolCalls.get(i);
 
 			// Add the function response to the conversation.
-			conversationHistory.add(new ChatCompletionMessage(functionResponse, ChatCompletionMessage.Role.TOOL,
-					functionName, null, id));
+			conversationHistory.add(new ChatCompletionMessage(functionResponses.get(i), ChatCompletionMessage.Role.TOOL,
+					toolCall.function().name(), null, toolCall.id()));
 		}
 
 		// Recursively call chatCompletionWithTools until the model doesn't call a
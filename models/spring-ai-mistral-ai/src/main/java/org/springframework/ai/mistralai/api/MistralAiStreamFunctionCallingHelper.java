@@ -20,6 +20,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import reactor.core.publisher.Flux;
+
 import org.springframework.ai.mistralai.api.MistralAiApi.ChatCompletionChunk;
 import org.springframework.ai.mistralai.api.MistralAiApi.ChatCompletionChunk.ChunkChoice;
 import org.springframework.ai.mistralai.api.MistralAiApi.ChatCompletionFinishReason;
@@ -28,6 +30,7 @@ import org.springframework.ai.mistralai.api.MistralAiApi.ChatCompletionMessage.C
 import org.springframework.ai.mistralai.api.MistralAiApi.ChatCompletionMessage.Role;
 import org.springframework.ai.mistralai.api.MistralAiApi.ChatCompletionMessage.ToolCall;
 import org.springframework.ai.mistralai.api.MistralAiApi.LogProbs;
+import org.springframework.ai.model.streaming.StreamingToolCallAggregator;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -40,6 +43,21 @@ import org.springframework.util.CollectionUtils;
  */
 public class MistralAiStreamFunctionCallingHelper {
 
+	private static final ChatCompletionChunk EMPTY_CHUNK = new ChatCompletionChunk(null, null, null, null, null);
+
+	private final ToolCallAggregator toolCallAggregator = new ToolCallAggregator();
+
+	/**
+	 * Merge the chunks of each streamed tool call into a single chunk with
+	 * {@link #merge(ChatCompletionChunk, ChatCompletionChunk)}, starting from an empty
+	 * chunk. The other chunks are merged alone with an empty chunk.
+	 * @param chunks the streamed chunks
+	 * @return the chunks with each tool call merged in a single chunk
+	 */
+	public Flux<ChatCompletionChunk> mergeToolCalls(Flux<ChatCompletionChunk> chunks) {
+		return this.toolCallAggregator.aggregate(chunks);
+	}
+
 	/**
 	 * Merge the previous and current ChatCompletionChunk into a single one.
 	 * @param previous the previous ChatCompletionChunk
@@ -197,5 +215,29 @@ public class MistralAiStreamFunctionCallingHelper {
 		return choice.finishReason() == ChatCompletionFinishReason.TOOL_CALLS;
 	}
 
+	private class ToolCallAggregator extends StreamingToolCallAggregator<ChatCompletionChunk> {
+
+		@Override
+		protected boolean isToolCall(ChatCompletionChunk chunk) {
+			return isStreamingToolFunctionCall(chunk);
+		}
+
+		@Override
+		protected boolean isToolCallFinish(ChatCompletionChunk chunk) {
+			return isStreamingToolFunctionCallFinish(chunk);
+		}
+
+		@Override
+		protected ChunkMerger<ChatCompletionChunk> newMerger() {
+			// Mistral streams the tool calls whole, merging them pairwise is cheap
+			return ChunkMerger.reducing(EMPTY_CHUNK, MistralAiStreamFunctionCallingHelper.this::merge);
+		}
+
+		@Override
+		protected ChatCompletionChunk passThrough(ChatCompletionChunk chunk) {
+			return merge(EMPTY_CHUNK, chunk);
+		}
+
+	}
+
 }
-// ---
\ No newline at end of file
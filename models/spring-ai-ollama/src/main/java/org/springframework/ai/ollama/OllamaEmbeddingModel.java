@@ -17,7 +17,14 @@ package org.springframework.ai.ollama;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +37,7 @@ import org.springframework.ai.embedding.EmbeddingOptions;
 import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaApi.EmbedRequest;
 import org.springframework.ai.ollama.api.OllamaApi.EmbeddingRequest;
 import org.springframework.ai.ollama.api.OllamaOptions;
 import org.springframework.util.Assert;
@@ -53,6 +61,10 @@ import org.springframework.util.StringUtils;
  */
 public class OllamaEmbeddingModel extends AbstractEmbeddingModel {
 
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
 	private final OllamaApi ollamaApi;
@@ -62,6 +74,26 @@ public class OllamaEmbeddingModel extends AbstractEmbeddingModel {
 	 */
 	private OllamaOptions defaultOptions = OllamaOptions.create().withModel(OllamaOptions.DEFAULT_MODEL);
 
+	/**
+	 * The maximum number of texts sent in a single /embed request.
+	 */
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	/**
+	 * The maximum number of requests sent to the server at once.
+	 */
+	private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+
+	/**
+	 * Sends the concurrent requests beside the calling thread.
+	 */
+	private Executor executor = DefaultExecutor.INSTANCE;
+
+	/**
+	 * Whether the server provides the /embed endpoint, until it answers otherwise.
+	 */
+	private volatile boolean embedEndpointSupported = true;
+
 	public OllamaEmbeddingModel(OllamaApi ollamaApi) {
 		this.ollamaApi = ollamaApi;
 	}
@@ -89,6 +121,37 @@ public class OllamaEmbeddingModel extends AbstractEmbeddingModel {
 		return this;
 	}
 
+	/**
+	 * Set the maximum number of texts sent in a single request to servers providing the
+	 * /embed endpoint, 256 by default.
+	 * @param batchSize the maximum number of texts per request
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "The batch size must be positive!");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set the maximum number of requests sent to the server at once, 4 by default. The
+	 * texts are embedded one request each by the servers that do not provide the /embed
+	 * endpoint, preceding Ollama 0.3.0.
+	 * @param maxConcurrentRequests the maximum number of requests in flight
+	 */
+	public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+		Assert.isTrue(maxConcurrentRequests > 0, "The max concurrent requests must be positive!");
+		this.maxConcurrentRequests = maxConcurrentRequests;
+	}
+
+	/**
+	 * Set the executor sending the concurrent requests beside the calling thread. By
+	 * default the requests are sent on daemon threads shared by all the models.
+	 * @param executor the executor
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "The executor must not be null!");
+		this.executor = executor;
+	}
+
 	@Override
 	public List<Double> embed(Document document) {
 		return embed(document.getContent());
@@ -97,20 +160,28 @@ public class OllamaEmbeddingModel extends AbstractEmbeddingModel {
 	@Override
 	public EmbeddingResponse call(org.springframework.ai.embedding.EmbeddingRequest request) {
 		Assert.notEmpty(request.getInstructions(), "At least one text is required!");
-		if (request.getInstructions().size() != 1) {
-			logger.warn(
-					"Ollama Embedding does not support batch embedding. Will make multiple API calls to embed(Document)");
-		}
-
-		List<List<Double>> embeddingList = new ArrayList<>();
-		for (String inputContent : request.getInstructions()) {
-
-			EmbeddingRequest ollamaEmbeddingRequest = ollamaEmbeddingRequest(inputContent, request.getOptions());
-
-			OllamaApi.EmbeddingResponse response = this.ollamaApi.embeddings(ollamaEmbeddingRequest);
 
-			embeddingList.add(response.embedding());
+		List<List<Double>> embeddingList = null;
+		boolean embedNotFound = false;
+		if (this.embedEndpointSupported) {
+			try {
+				embeddingList = embedInBatches(request.getInstructions(), request.getOptions());
+			}
+			catch (OllamaApi.EmbedNotFoundException ex) {
+				embedNotFound = true;
+			}
 		}
+		if (embeddingList == null) {
+			embeddingList = embedOneByOne(request.getInstructions(), request.getOptions());
+			// The /embed endpoint is missing rather than the model, which the /embeddings
+			// endpoint would not have found either
+			if (embedNotFound && this.embedEndpointSupported) {
+				logger.warn("Ollama server does not support batch embedding (requires Ollama 0.3.0 or later). "
+						+ "Will make concurrent API calls for each text instead.");
+				this.embedEndpointSupported = false;
+			}
+		}
+
 		AtomicInteger indexCounter = new AtomicInteger(0);
 
 		List<Embedding> embeddings = embeddingList.stream()
@@ -119,10 +190,110 @@ public class OllamaEmbeddingModel extends AbstractEmbeddingModel {
 		return new EmbeddingResponse(embeddings);
 	}
 
+	/**
+	 * Embed the texts with the /embed endpoint, batch size texts per request.
+	 */
+	private List<List<Double>> embedInBatches(List<String> texts, EmbeddingOptions options) {
+		List<List<String>> batches = new ArrayList<>();
+		for (int start = 0; start < texts.size(); start += this.batchSize) {
+			batches.add(texts.subList(start, Math.min(texts.size(), start + this.batchSize)));
+		}
+		List<List<Double>> embeddings = new ArrayList<>(texts.size());
+		for (OllamaApi.EmbedResponse response : sendConcurrently(batches,
+				batch -> this.ollamaApi.embed(ollamaEmbedRequest(batch, options)))) {
+			embeddings.addAll(response.embeddings());
+		}
+		return embeddings;
+	}
+
+	/**
+	 * Embed the texts one by one with the /embeddings endpoint. The embeddings are
+	 * normalized like those of the /embed endpoint, so that both endpoints yield
+	 * comparable vectors.
+	 */
+	private List<List<Double>> embedOneByOne(List<String> texts, EmbeddingOptions options) {
+		return sendConcurrently(texts,
+				text -> normalize(this.ollamaApi.embeddings(ollamaEmbeddingRequest(text, options)).embedding()));
+	}
+
+	/**
+	 * Send a blocking request for each input, up to the max concurrent requests at once.
+	 * The calling thread sends requests too, the others are sent on the executor.
+	 * @return the responses, in the order of the inputs
+	 */
+	private <I, O> List<O> sendConcurrently(List<I> inputs, Function<I, O> request) {
+		AtomicReferenceArray<O> responses = new AtomicReferenceArray<>(inputs.size());
+		AtomicInteger next = new AtomicInteger();
+		AtomicReference<RuntimeException> failure = new AtomicReference<>();
+		Runnable sender = () -> {
+			int i;
+			while (failure.get() == null && (i = next.getAndIncrement()) < inputs.size()) {
+				try {
+					responses.set(i, request.apply(inputs.get(i)));
+				}
+				catch (RuntimeException ex) {
+					failure.compareAndSet(null, ex);
+				}
+			}
+		};
+
+		int helpers = Math.min(this.maxConcurrentRequests, inputs.size()) - 1;
+		List<CompletableFuture<Void>> futures = new ArrayList<>(helpers);
+		for (int i = 0; i < helpers; i++) {
+			futures.add(CompletableFuture.runAsync(sender, this.executor));
+		}
+		sender.run();
+		CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+
+		List<O> result = new ArrayList<>(inputs.size());
+		for (int i = 0; i < inputs.size(); i++) {
+			result.add(responses.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Scale the embedding to a unit L2 norm, as the /embed endpoint does. Package access
+	 * for testing.
+	 */
+	static List<Double> normalize(List<Double> embedding) {
+		double sum = 0;
+		for (Double value : embedding) {
+			sum += value * value;
+		}
+		if (sum == 0) {
+			return embedding;
+		}
+		double norm = Math.sqrt(sum);
+		List<Double> normalized = new ArrayList<>(embedding.size());
+		for (Double value : embedding) {
+			normalized.add(value / norm);
+		}
+		return normalized;
+	}
+
 	/**
 	 * Package access for testing.
 	 */
 	OllamaApi.EmbeddingRequest ollamaEmbeddingRequest(String inputContent, EmbeddingOptions options) {
+		OllamaOptions mergedOptions = mergedOptions(options);
+		return new EmbeddingRequest(mergedOptions.getModel(), inputContent, null,
+				OllamaOptions.filterNonSupportedFields(mergedOptions.toMap()));
+	}
+
+	/**
+	 * Package access for testing.
+	 */
+	OllamaApi.EmbedRequest ollamaEmbedRequest(List<String> inputContents, EmbeddingOptions options) {
+		OllamaOptions mergedOptions = mergedOptions(options);
+		return new EmbedRequest(mergedOptions.getModel(), inputContents, null,
+				OllamaOptions.filterNonSupportedFields(mergedOptions.toMap()));
+	}
+
+	private OllamaOptions mergedOptions(EmbeddingOptions options) {
 
 		// runtime options
 		OllamaOptions runtimeOptions = null;
@@ -143,9 +314,20 @@ public class OllamaEmbeddingModel extends AbstractEmbeddingModel {
 		if (!StringUtils.hasText(mergedOptions.getModel())) {
 			throw new IllegalArgumentException("Model is not set!");
 		}
-		String model = mergedOptions.getModel();
-		return new EmbeddingRequest(model, inputContent, null,
-				OllamaOptions.filterNonSupportedFields(mergedOptions.toMap()));
+		return mergedOptions;
+	}
+
+	/**
+	 * Lazily created executor shared by the models not configured with their own.
+	 */
+	private static final class DefaultExecutor {
+
+		static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "ollama-embedding");
+			thread.setDaemon(true);
+			return thread;
+		});
+
 	}
 
-}
\ No newline at end of file
+}
@@ -32,6 +32,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.util.Assert;
@@ -622,5 +623,126 @@ public class OllamaApi {
 			.body(EmbeddingResponse.class);
 	}
 
+	/**
+	 * Generate embeddings from a model, without blocking.
+	 * @param embeddingRequest Embedding request.
+	 * @return Embedding response.
+	 */
+	public Mono<EmbeddingResponse> embeddingsAsync(EmbeddingRequest embeddingRequest) {
+		Assert.notNull(embeddingRequest, REQUEST_BODY_NULL_ERROR);
+
+		return this.webClient.post()
+			.uri("/api/embeddings")
+			.body(Mono.just(embeddingRequest), EmbeddingRequest.class)
+			.retrieve()
+			.onStatus(HttpStatusCode::isError, response -> response.bodyToMono(String.class)
+				.defaultIfEmpty("")
+				.map(message -> errorResponse(response.statusCode(), message)))
+			.bodyToMono(EmbeddingResponse.class);
+	}
+
+	// --------------------------------------------------------------------------
+	// Embed
+	// --------------------------------------------------------------------------
+	/**
+	 * Generate embeddings for several inputs from a model, with the /embed endpoint
+	 * available since Ollama 0.3.0. Unlike the /embeddings endpoint, the embeddings are
+	 * normalized to unit length.
+	 *
+	 * @param model The name of model to generate embeddings from.
+	 * @param input The texts to generate embeddings for.
+	 * @param keepAlive Controls how long the model will stay loaded into memory following the request (default: 5m).
+	 * @param options Additional model parameters listed in the documentation for the
+	 * Modelfile such as temperature.
+	 */
+	@JsonInclude(Include.NON_NULL)
+	public record EmbedRequest(
+			@JsonProperty("model") String model,
+			@JsonProperty("input") List<String> input,
+			@JsonProperty("keep_alive") Duration keepAlive,
+			@JsonProperty("options") Map<String, Object> options) {
+
+		/**
+		 * short cut constructor to create a EmbedRequest without options.
+		 * @param model The name of model to generate embeddings from.
+		 * @param input The texts to generate embeddings for.
+		 */
+		public EmbedRequest(String model, List<String> input) {
+			this(model, input, null, null);
+		}
+	}
+
+	/**
+	 * The response object returned from the /embed endpoint.
+	 *
+	 * @param model The model that generated the embeddings.
+	 * @param embeddings The embeddings generated from the model, in the order of the inputs.
+	 */
+	@JsonInclude(Include.NON_NULL)
+	public record EmbedResponse(
+			@JsonProperty("model") String model,
+			@JsonProperty("embeddings") List<List<Double>> embeddings) {
+	}
+
+	/**
+	 * Generate embeddings for several inputs from a model.
+	 * @param embedRequest Embed request.
+	 * @return Embed response.
+	 * @throws EmbedNotFoundException if the server answers with a 404 Not Found status.
+	 */
+	public EmbedResponse embed(EmbedRequest embedRequest) {
+		Assert.notNull(embedRequest, REQUEST_BODY_NULL_ERROR);
+
+		return this.restClient.post()
+			.uri("/api/embed")
+			.body(embedRequest)
+			.retrieve()
+			.onStatus(status -> status.value() == 404, (request, response) -> {
+				throw new EmbedNotFoundException(
+						StreamUtils.copyToString(response.getBody(), java.nio.charset.StandardCharsets.UTF_8));
+			})
+			.onStatus(this.responseErrorHandler)
+			.body(EmbedResponse.class);
+	}
+
+	/**
+	 * Generate embeddings for several inputs from a model, without blocking.
+	 * @param embedRequest Embed request.
+	 * @return Embed response, failing with an {@link EmbedNotFoundException} if the
+	 * server answers with a 404 Not Found status.
+	 */
+	public Mono<EmbedResponse> embedAsync(EmbedRequest embedRequest) {
+		Assert.notNull(embedRequest, REQUEST_BODY_NULL_ERROR);
+
+		return this.webClient.post()
+			.uri("/api/embed")
+			.body(Mono.just(embedRequest), EmbedRequest.class)
+			.retrieve()
+			.onStatus(HttpStatusCode::isError, response -> response.bodyToMono(String.class)
+				.defaultIfEmpty("")
+				.map(message -> (response.statusCode().value() == 404) ? new EmbedNotFoundException(message)
+						: errorResponse(response.statusCode(), message)))
+			.bodyToMono(EmbedResponse.class);
+	}
+
+	/**
+	 * Thrown when the server answers a request to the /embed endpoint with a 404 Not
+	 * Found status. The servers preceding Ollama 0.3.0 do not provide the endpoint, while
+	 * the later ones answer so for an unknown model.
+	 */
+	public static class EmbedNotFoundException extends RuntimeException {
+
+		public EmbedNotFoundException(String message) {
+			super(String.format("[404] %s", message));
+		}
+
+	}
+
+	private static RuntimeException errorResponse(HttpStatusCode statusCode, String message) {
+		String error = String.format("[%s] %s", statusCode.value(), message);
+		logger.warn(error);
+		return new RuntimeException(error);
+	}
+
 }
 // @formatter:on
\ No newline at end of file
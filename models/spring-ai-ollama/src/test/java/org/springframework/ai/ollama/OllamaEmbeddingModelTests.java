@@ -0,0 +1,170 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.ollama;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OllamaEmbeddingModelTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final List<String> paths = new CopyOnWriteArrayList<>();
+
+	private MockWebServer server;
+
+	private OllamaEmbeddingModel embeddingModel;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		this.server = new MockWebServer();
+		this.server.start();
+		this.embeddingModel = new OllamaEmbeddingModel(new OllamaApi(this.server.url("/").toString()),
+				OllamaOptions.create().withModel("model"));
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void embedsTheBatchesConcurrentlyInOrder() {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		this.server.setDispatcher(dispatcher(request -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				List<Double> inputs = new ArrayList<>();
+				body(request).get("input").forEach(input -> inputs.add(input.asDouble()));
+				// The first batches are answered last
+				sleep((long) (50 * (7 - inputs.get(0))));
+				List<List<Double>> embeddings = inputs.stream().map(input -> List.of(input, 0.0)).toList();
+				return json(Map.of("model", "model", "embeddings", embeddings));
+			}
+			finally {
+				inFlight.decrementAndGet();
+			}
+		}));
+		this.embeddingModel.setBatchSize(2);
+		this.embeddingModel.setMaxConcurrentRequests(3);
+
+		List<List<Double>> embeddings = this.embeddingModel.embed(List.of("0", "1", "2", "3", "4", "5", "6"));
+
+		assertThat(embeddings).extracting(embedding -> embedding.get(0))
+			.containsExactly(0.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0);
+		assertThat(this.paths).containsOnly("/api/embed").hasSize(4);
+		assertThat(maxInFlight.get()).isBetween(2, 3);
+	}
+
+	@Test
+	public void fallsBackToTheEmbeddingsEndpointOfOlderServers() {
+		this.server.setDispatcher(dispatcher(request -> {
+			if (request.getPath().equals("/api/embed")) {
+				return new MockResponse().setResponseCode(404).setBody("404 page not found");
+			}
+			double value = Double.parseDouble(body(request).get("prompt").asText());
+			return json(Map.of("embedding", List.of(3 * value, 4 * value)));
+		}));
+
+		assertThat(this.embeddingModel.embed(List.of("1", "2"))).containsExactly(List.of(0.6, 0.8), List.of(0.6, 0.8));
+		assertThat(this.paths).containsExactlyInAnyOrder("/api/embed", "/api/embeddings", "/api/embeddings");
+
+		// The missing endpoint is remembered
+		this.paths.clear();
+		this.embeddingModel.embed(List.of("1"));
+		assertThat(this.paths).containsExactly("/api/embeddings");
+	}
+
+	@Test
+	public void keepsTheEmbedEndpointWhenTheModelIsNotFound() {
+		this.server.setDispatcher(dispatcher(request -> new MockResponse().setResponseCode(404)
+			.setHeader("Content-Type", "application/json")
+			.setBody("{\"error\":\"model 'model' not found\"}")));
+
+		assertThatThrownBy(() -> this.embeddingModel.embed(List.of("1"))).hasMessageContaining("not found");
+		assertThat(this.paths).containsExactly("/api/embed", "/api/embeddings");
+
+		this.paths.clear();
+		assertThatThrownBy(() -> this.embeddingModel.call(new EmbeddingRequest(List.of("1"), null)))
+			.hasMessageContaining("not found");
+		assertThat(this.paths).containsExactly("/api/embed", "/api/embeddings");
+	}
+
+	private Dispatcher dispatcher(Function<RecordedRequest, MockResponse> responses) {
+		return new Dispatcher() {
+
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				OllamaEmbeddingModelTests.this.paths.add(request.getPath());
+				return responses.apply(request);
+			}
+
+		};
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private JsonNode body(RecordedRequest request) {
+		try {
+			return this.objectMapper.readTree(request.getBody().readUtf8());
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private MockResponse json(Object body) {
+		try {
+			return new MockResponse().setHeader("Content-Type", "application/json")
+				.setBody(this.objectMapper.writeValueAsString(body));
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -15,6 +15,8 @@
  */
 package org.springframework.ai.ollama;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.ai.ollama.api.OllamaApi;
 import org.springframework.ai.ollama.api.OllamaOptions;
@@ -59,4 +61,20 @@ public class OllamaEmbeddingRequestTests {
 		assertThat(request.prompt()).isEqualTo("Hello");
 	}
 
+	@Test
+	public void ollamaEmbedRequestBatchesTheInputs() {
+
+		var request = chatModel.ollamaEmbedRequest(List.of("Hello", "World"), null);
+
+		assertThat(request.model()).isEqualTo("DEFAULT_MODEL");
+		assertThat(request.options().get("num_gpu")).isEqualTo(1);
+		assertThat(request.input()).containsExactly("Hello", "World");
+	}
+
+	@Test
+	public void normalizesTheEmbeddingsLikeTheEmbedEndpoint() {
+		assertThat(OllamaEmbeddingModel.normalize(List.of(3.0, 0.0, 4.0))).containsExactly(0.6, 0.0, 0.8);
+		assertThat(OllamaEmbeddingModel.normalize(List.of(0.0, 0.0))).containsExactly(0.0, 0.0);
+	}
+
 }
@@ -188,7 +188,8 @@ public class OpenAiChatModel extends
 
 		return this.retryTemplate.execute(ctx -> {
 
-			Flux<OpenAiApi.ChatCompletionChunk> completionChunks = this.openAiApi.chatCompletionStream(request);
+			Flux<OpenAiApi.ChatCompletionChunk> completionChunks = this.openAiApi.chatCompletionStream(request)
+				.retryWhen(RetryUtils.streamRetry(this.retryTemplate));
 
 			// For chunked responses, only the first chunk contains the choice role.
 			// The rest of the chunks with same ID share the same role.
@@ -337,20 +338,16 @@ public class OpenAiChatModel extends
 
 		// Every tool-call item requires a separate function call and a response (TOOL)
 		// message.
-		for (ToolCall toolCall : responseMessage.toolCalls()) {
+		List<ToolCall> toolCalls = responseMessage.toolCalls();
+		List<String> functionResponses = this.executeFunctionCalls(toolCalls, toolCall -> toolCall.function().name(),
+				toolCall -> toolCall.function().arguments());
 
-			var functionName = toolCall.function().name();
-			String functionArguments = toolCall.function().arguments();
-
-			if (!this.functionCallbackRegister.containsKey(functionName)) {
-				throw new IllegalStateException("No function callback found for function name: " + functionName);
-			}
-
-			String functionResponse = this.functionCallbackRegister.get(functionName).call(functionArguments);
+		for (int i = 0; i < toolCalls.size(); i++) {
+			ToolCall toolCall = toolCalls.get(i);
 
 			// Add the function response to the conversation.
-			conversationHistory
-				.add(new ChatCompletionMessage(functionResponse, Role.TOOL, functionName, toolCall.id(), null));
+			conversationHistory.add(new ChatCompletionMessage(functionResponses.get(i), Role.TOOL,
+					toolCall.function().name(), toolCall.id(), null));
 		}
 
 		// Recursively call chatCompletionWithTools until the model doesn't call a
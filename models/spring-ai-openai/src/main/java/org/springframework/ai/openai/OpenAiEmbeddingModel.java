@@ -109,6 +109,11 @@ public class OpenAiEmbeddingModel extends AbstractEmbeddingModel {
 		return this.embed(document.getFormattedContent(this.metadataMode));
 	}
 
+	@Override
+	public String getEmbeddingContent(Document document) {
+		return document.getFormattedContent(this.metadataMode);
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public EmbeddingResponse call(EmbeddingRequest request) {
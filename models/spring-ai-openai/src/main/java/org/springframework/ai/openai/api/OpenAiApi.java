@@ -17,8 +17,6 @@ package org.springframework.ai.openai.api;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Predicate;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
@@ -28,9 +26,11 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.ai.model.ModelDescription;
 import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.model.streaming.SseJsonDecoder;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.boot.context.properties.bind.ConstructorBinding;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -50,7 +50,8 @@ public class OpenAiApi {
 
 	public static final String DEFAULT_CHAT_MODEL = ChatModel.GPT_3_5_TURBO.getValue();
 	public static final String DEFAULT_EMBEDDING_MODEL = EmbeddingModel.TEXT_EMBEDDING_ADA_002.getValue();
-	private static final Predicate<String> SSE_DONE_PREDICATE = "[DONE]"::equals;
+	private static final SseJsonDecoder<ChatCompletionChunk> CHUNK_DECODER = new SseJsonDecoder<>(
+			ChatCompletionChunk.class);
 
 	private final RestClient restClient;
 
@@ -791,45 +792,15 @@ public class OpenAiApi {
 		Assert.notNull(chatRequest, "The request body can not be null.");
 		Assert.isTrue(chatRequest.stream(), "Request must set the steam property to true.");
 
-		AtomicBoolean isInsideTool = new AtomicBoolean(false);
-
-		return this.webClient.post()
+		Flux<DataBuffer> body = this.webClient.post()
 				.uri("/v1/chat/completions")
 				.body(Mono.just(chatRequest), ChatCompletionRequest.class)
 				.retrieve()
-				.bodyToFlux(String.class)
-				// cancels the flux stream after the "[DONE]" is received.
-				.takeUntil(SSE_DONE_PREDICATE)
-				// filters out the "[DONE]" message.
-				.filter(SSE_DONE_PREDICATE.negate())
-				.map(content -> ModelOptionsUtils.jsonToObject(content, ChatCompletionChunk.class))
-				// Detect is the chunk is part of a streaming function call.
- 				.map(chunk -> {
-					if (this.chunkMerger.isStreamingToolFunctionCall(chunk)) {
-						isInsideTool.set(true);
-					}
-					return chunk;
-				})
-				// Group all chunks belonging to the same function call.
-				// Flux<ChatCompletionChunk> -> Flux<Flux<ChatCompletionChunk>>
-				.windowUntil(chunk -> {
-					if (isInsideTool.get() && this.chunkMerger.isStreamingToolFunctionCallFinish(chunk)) {
-						isInsideTool.set(false);
-						return true;
-					}
-					return !isInsideTool.get();
-				})
-				// Merging the window chunks into a single chunk.
-				// Reduce the inner Flux<ChatCompletionChunk> window into a single Mono<ChatCompletionChunk>,
-				// Flux<Flux<ChatCompletionChunk>> -> Flux<Mono<ChatCompletionChunk>>
-				.concatMapIterable(window -> {
-					Mono<ChatCompletionChunk> monoChunk = window.reduce(
-							new ChatCompletionChunk(null, null, null, null, null, null),
-							(previous, current) -> this.chunkMerger.merge(previous, current));
-					return List.of(monoChunk);
-				})
-				// Flux<Mono<ChatCompletionChunk>> -> Flux<ChatCompletionChunk>
-				.flatMap(mono -> mono);
+				.bodyToFlux(DataBuffer.class);
+
+		// Decodes the events up to the "[DONE]" one and merges the chunks of each
+		// streamed function call into a single chunk.
+		return this.chunkMerger.mergeToolCalls(CHUNK_DECODER.decode(body));
 	}
 
 	// Embeddings API
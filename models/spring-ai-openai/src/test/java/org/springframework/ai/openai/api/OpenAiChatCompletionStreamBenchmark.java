@@ -0,0 +1,177 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.openai.api;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionChunk;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage.Role;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionRequest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Compares {@link OpenAiApi#chatCompletionStream(ChatCompletionRequest)} with its
+ * previous implementation, which decoded each event to a string, parsed it with
+ * {@link ModelOptionsUtils#jsonToObject(String, Class)} and merged the tool call chunks
+ * with {@code windowUntil} and {@code reduce}. Both read a recorded stream served in 512
+ * bytes buffers. The setup fails unless both produce the same chunks.
+ *
+ * The content stream measures the decoding of the events alone, the tool calls stream
+ * adds the merging of their chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenAiChatCompletionStreamBenchmark {
+
+	static final String CONTENT_STREAM = "stream/chat-completion-content.sse";
+
+	static final String TOOL_CALLS_STREAM = "stream/chat-completion-tool-calls.sse";
+
+	private static final int BUFFER_SIZE = 512;
+
+	@Param({ CONTENT_STREAM, TOOL_CALLS_STREAM })
+	public String stream;
+
+	private OpenAiApi openAiApi;
+
+	private WebClient webClient;
+
+	private final OpenAiStreamFunctionCallingHelper chunkMerger = new OpenAiStreamFunctionCallingHelper();
+
+	private final ChatCompletionRequest request = new ChatCompletionRequest(
+			List.of(new ChatCompletionMessage("What's the weather like?", Role.USER)), true);
+
+	@Setup
+	public void setup() throws IOException {
+		WebClient.Builder webClientBuilder = replaying(this.stream);
+		this.openAiApi = new OpenAiApi("https://api.openai.com", "key", RestClient.builder(), webClientBuilder);
+		this.webClient = webClientBuilder.build();
+		if (!previous().equals(current())) {
+			throw new IllegalStateException("The streams produce different chunks");
+		}
+	}
+
+	@Benchmark
+	public List<ChatCompletionChunk> previous() {
+		return previousChatCompletionStream(this.webClient, this.chunkMerger, this.request).collectList().block();
+	}
+
+	@Benchmark
+	public List<ChatCompletionChunk> current() {
+		return this.openAiApi.chatCompletionStream(this.request).collectList().block();
+	}
+
+	/**
+	 * @param stream the class path of a recorded event stream
+	 * @return a builder of clients receiving the recorded stream for every request
+	 */
+	static WebClient.Builder replaying(String stream) throws IOException {
+		byte[] body = new ClassPathResource(stream).getContentAsByteArray();
+		Flux<DataBuffer> buffers = Flux.defer(() -> {
+			List<DataBuffer> slices = new ArrayList<>();
+			for (int i = 0; i < body.length; i += BUFFER_SIZE) {
+				ByteBuffer slice = ByteBuffer.wrap(body, i, Math.min(BUFFER_SIZE, body.length - i)).slice();
+				slices.add(DefaultDataBufferFactory.sharedInstance.wrap(slice));
+			}
+			return Flux.fromIterable(slices);
+		});
+		return WebClient.builder()
+			.exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+				.body(buffers)
+				.build()));
+	}
+
+	/**
+	 * The previous implementation of
+	 * {@link OpenAiApi#chatCompletionStream(ChatCompletionRequest)}.
+	 */
+	static Flux<ChatCompletionChunk> previousChatCompletionStream(WebClient webClient,
+			OpenAiStreamFunctionCallingHelper chunkMerger, ChatCompletionRequest chatRequest) {
+
+		AtomicBoolean isInsideTool = new AtomicBoolean(false);
+
+		return webClient.post()
+			.uri("/v1/chat/completions")
+			.body(Mono.just(chatRequest), ChatCompletionRequest.class)
+			.retrieve()
+			.bodyToFlux(String.class)
+			.takeUntil("[DONE]"::equals)
+			.filter(content -> !"[DONE]".equals(content))
+			.map(content -> ModelOptionsUtils.jsonToObject(content, ChatCompletionChunk.class))
+			.map(chunk -> {
+				if (chunkMerger.isStreamingToolFunctionCall(chunk)) {
+					isInsideTool.set(true);
+				}
+				return chunk;
+			})
+			.windowUntil(chunk -> {
+				if (isInsideTool.get() && chunkMerger.isStreamingToolFunctionCallFinish(chunk)) {
+					isInsideTool.set(false);
+					return true;
+				}
+				return !isInsideTool.get();
+			})
+			.concatMapIterable(window -> {
+				Mono<ChatCompletionChunk> monoChunk = window
+					.reduce(new ChatCompletionChunk(null, null, null, null, null, null), chunkMerger::merge);
+				return List.of(monoChunk);
+			})
+			.flatMap(mono -> mono);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(OpenAiChatCompletionStreamBenchmark.class.getSimpleName()).build())
+			.run();
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.openai.api;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionChunk;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage.Role;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage.ToolCall;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionRequest;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenAiChatCompletionStreamTests {
+
+	private final ChatCompletionRequest request = new ChatCompletionRequest(
+			List.of(new ChatCompletionMessage("What's the weather like?", Role.USER)), true);
+
+	@ParameterizedTest
+	@ValueSource(strings = { OpenAiChatCompletionStreamBenchmark.CONTENT_STREAM,
+			OpenAiChatCompletionStreamBenchmark.TOOL_CALLS_STREAM })
+	public void streamsLikeThePreviousImplementation(String stream) throws IOException {
+		WebClient.Builder webClientBuilder = OpenAiChatCompletionStreamBenchmark.replaying(stream);
+		var openAiApi = new OpenAiApi("https://api.openai.com", "key", RestClient.builder(), webClientBuilder);
+
+		List<ChatCompletionChunk> chunks = openAiApi.chatCompletionStream(this.request).collectList().block();
+
+		assertThat(chunks).isNotEmpty()
+			.isEqualTo(OpenAiChatCompletionStreamBenchmark
+				.previousChatCompletionStream(webClientBuilder.build(), new OpenAiStreamFunctionCallingHelper(),
+						this.request)
+				.collectList()
+				.block());
+	}
+
+	@Test
+	public void mergesTheToolCallChunks() throws IOException {
+		var openAiApi = new OpenAiApi("https://api.openai.com", "key", RestClient.builder(),
+				OpenAiChatCompletionStreamBenchmark.replaying(OpenAiChatCompletionStreamBenchmark.TOOL_CALLS_STREAM));
+
+		List<ChatCompletionChunk> chunks = openAiApi.chatCompletionStream(this.request).collectList().block();
+
+		assertThat(chunks).hasSize(2);
+		List<ToolCall> toolCalls = chunks.get(1).choices().get(0).delta().toolCalls();
+		assertThat(toolCalls).extracting(ToolCall::id)
+			.containsExactly("call_00Q2wXkGmrT4bN3zP8v", "call_01Q2wXkGmrT4bN3zP8v", "call_02Q2wXkGmrT4bN3zP8v");
+		assertThat(toolCalls).extracting(toolCall -> toolCall.function().arguments())
+			.containsExactly("{\"location\": \"San Francisco, CA\", \"unit\": \"C\"}",
+					"{\"location\": \"Tokyo, Japan\", \"unit\": \"C\"}",
+					"{\"location\": \"Paris, France\", \"unit\": \"C\"}");
+	}
+
+}
@@ -15,12 +15,14 @@
  */
 package org.springframework.ai.postgresml;
 
-import java.sql.Array;
+import java.nio.ByteBuffer;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.MetadataMode;
@@ -30,8 +32,10 @@ import org.springframework.ai.embedding.EmbeddingOptions;
 import org.springframework.ai.embedding.EmbeddingRequest;
 import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.ai.embedding.EmbeddingResponseMetadata;
+import org.springframework.ai.embedding.EmbeddingUtils;
 import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.util.Assert;
@@ -48,35 +52,84 @@ public class PostgresMlEmbeddingModel extends AbstractEmbeddingModel implements
 
 	public static final String DEFAULT_TRANSFORMER_MODEL = "distilbert-base-uncased";
 
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
 	private final PostgresMlEmbeddingOptions defaultOptions;
 
 	private final JdbcTemplate jdbcTemplate;
 
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	/**
+	 * The embeddings are selected in the binary format of their type, as returned by its
+	 * send function, and decoded without parsing their text representation.
+	 */
 	public enum VectorType {
 
-		PG_ARRAY("", null, (rs, i) -> {
-			Array embedding = rs.getArray("embedding");
-			return Arrays.stream((Float[]) embedding.getArray()).map(Float::doubleValue).toList();
-		}),
+		PG_ARRAY("", null, "array_send", (rs, i) -> decodeArray(rs.getBytes("embedding"))),
 
-		PG_VECTOR("::vector", "vector", (rs, i) -> {
-			String embedding = rs.getString("embedding");
-			return Arrays.stream((embedding.substring(1, embedding.length() - 1)
-				/* remove leading '[' and trailing ']' */.split(","))).map(Double::parseDouble).toList();
-		});
+		PG_VECTOR("::vector", "vector", "vector_send", (rs, i) -> decodeVector(rs.getBytes("embedding")));
 
 		private final String cast;
 
 		private final String extensionName;
 
-		private final RowMapper<List<Double>> rowMapper;
+		private final String sendFunction;
 
-		VectorType(String cast, String extensionName, RowMapper<List<Double>> rowMapper) {
+		private final RowMapper<float[]> rowMapper;
+
+		VectorType(String cast, String extensionName, String sendFunction, RowMapper<float[]> rowMapper) {
 			this.cast = cast;
 			this.extensionName = extensionName;
+			this.sendFunction = sendFunction;
 			this.rowMapper = rowMapper;
 		}
 
+		/**
+		 * @param embedding the SQL expression of the embedding
+		 * @return the SQL expression of the embedding in binary format
+		 */
+		private String select(String embedding) {
+			return this.sendFunction + "(" + embedding + this.cast + ") AS embedding";
+		}
+
+		/**
+		 * Decode a one-dimensional {@code real[]} array in the binary format of
+		 * {@code array_send}: the number of dimensions, a has-nulls flag and the element
+		 * type, the size and lower bound of each dimension, then the length and value of
+		 * each element.
+		 */
+		static float[] decodeArray(byte[] bytes) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			int dimensions = buffer.getInt();
+			if (dimensions == 0) {
+				return EmbeddingUtils.EMPTY_FLOAT_ARRAY;
+			}
+			Assert.isTrue(dimensions == 1, "The embedding must be a one-dimensional array!");
+			buffer.position(buffer.position() + 8); // has-nulls flag and element type
+			float[] embedding = new float[buffer.getInt()];
+			buffer.position(buffer.position() + 4); // lower bound
+			for (int i = 0; i < embedding.length; i++) {
+				Assert.isTrue(buffer.getInt() == Float.BYTES, "The embedding must not contain nulls!");
+				embedding[i] = buffer.getFloat();
+			}
+			return embedding;
+		}
+
+		/**
+		 * Decode a pgvector {@code vector} in the binary format of {@code vector_send}:
+		 * the number of dimensions, an unused short, then the value of each dimension.
+		 */
+		static float[] decodeVector(byte[] bytes) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			float[] embedding = new float[buffer.getShort()];
+			buffer.getShort(); // unused
+			for (int i = 0; i < embedding.length; i++) {
+				embedding[i] = buffer.getFloat();
+			}
+			return embedding;
+		}
+
 	}
 
 	/**
@@ -153,13 +206,24 @@ public class PostgresMlEmbeddingModel extends AbstractEmbeddingModel implements
 			.build();
 	}
 
+	/**
+	 * Set the maximum number of texts embedded by a single query. Larger requests are
+	 * embedded in batches, one query after the other over the same connection. Defaults
+	 * to 256.
+	 * @param batchSize the maximum number of texts per query
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "The batch size must be positive!");
+		this.batchSize = batchSize;
+	}
+
 	@SuppressWarnings("null")
 	@Override
 	public List<Double> embed(String text) {
-		return this.jdbcTemplate.queryForObject(
-				"SELECT pgml.embed(?, ?, ?::JSONB)" + this.defaultOptions.getVectorType().cast + " AS embedding",
+		return EmbeddingUtils.toDoubleList(this.jdbcTemplate.queryForObject(
+				"SELECT " + this.defaultOptions.getVectorType().select("pgml.embed(?, ?, ?::JSONB)"),
 				this.defaultOptions.getVectorType().rowMapper, this.defaultOptions.getTransformer(), text,
-				this.defaultOptions.getKwargs());
+				this.defaultOptions.getKwargs()));
 	}
 
 	@Override
@@ -167,6 +231,11 @@ public class PostgresMlEmbeddingModel extends AbstractEmbeddingModel implements
 		return this.embed(document.getFormattedContent(this.defaultOptions.getMetadataMode()));
 	}
 
+	@Override
+	public String getEmbeddingContent(Document document) {
+		return document.getFormattedContent(this.defaultOptions.getMetadataMode());
+	}
+
 	@SuppressWarnings("null")
 	@Override
 	public EmbeddingResponse call(EmbeddingRequest request) {
@@ -174,32 +243,16 @@ public class PostgresMlEmbeddingModel extends AbstractEmbeddingModel implements
 		final PostgresMlEmbeddingOptions optionsToUse = this.mergeOptions(request.getOptions());
 
 		List<Embedding> data = new ArrayList<>();
-		List<List<Double>> embed = List.of();
 
 		List<String> texts = request.getInstructions();
 		if (!CollectionUtils.isEmpty(texts)) {
-			embed = this.jdbcTemplate.query(connection -> {
-				PreparedStatement preparedStatement = connection.prepareStatement("SELECT pgml.embed(?, text, ?::JSONB)"
-						+ optionsToUse.getVectorType().cast + " AS embedding FROM (SELECT unnest(?) AS text) AS texts");
-				preparedStatement.setString(1, optionsToUse.getTransformer());
-				preparedStatement.setString(2, ModelOptionsUtils.toJsonString(optionsToUse.getKwargs()));
-				preparedStatement.setArray(3, connection.createArrayOf("TEXT", texts.toArray(Object[]::new)));
-				return preparedStatement;
-			}, rs -> {
-				List<List<Double>> result = new ArrayList<>();
-				while (rs.next()) {
-					result.add(optionsToUse.getVectorType().rowMapper.mapRow(rs, -1));
+			embedInBatches(texts.iterator(), optionsToUse, (batch, embeddings) -> {
+				for (float[] embedding : embeddings) {
+					data.add(new Embedding(embedding, data.size()));
 				}
-				return result;
 			});
 		}
 
-		if (!CollectionUtils.isEmpty(embed)) {
-			for (int i = 0; i < embed.size(); i++) {
-				data.add(new Embedding(embed.get(i), i));
-			}
-		}
-
 		var metadata = new EmbeddingResponseMetadata(
 				Map.of("transformer", optionsToUse.getTransformer(), "vector-type", optionsToUse.getVectorType().name(),
 						"kwargs", ModelOptionsUtils.toJsonString(optionsToUse.getKwargs())));
@@ -207,6 +260,51 @@ public class PostgresMlEmbeddingModel extends AbstractEmbeddingModel implements
 		return new EmbeddingResponse(data, metadata);
 	}
 
+	/**
+	 * Embed the texts with the default options, in batches of at most
+	 * {@link #setBatchSize(int) batch size} texts embedded one after the other over a
+	 * single connection. Meant for large backfills: the texts are read, and the
+	 * embeddings handed to the consumer, one batch at a time.
+	 * @param texts the texts to embed
+	 * @param batchConsumer receives each batch of texts with their embeddings, in order
+	 */
+	public void embedInBatches(Iterator<String> texts, BiConsumer<List<String>, List<float[]>> batchConsumer) {
+		Assert.notNull(texts, "The texts must not be null!");
+		Assert.notNull(batchConsumer, "The batch consumer must not be null!");
+		embedInBatches(texts, this.defaultOptions, batchConsumer);
+	}
+
+	private void embedInBatches(Iterator<String> texts, PostgresMlEmbeddingOptions options,
+			BiConsumer<List<String>, List<float[]>> batchConsumer) {
+
+		String sql = "SELECT " + options.getVectorType().select("pgml.embed(?, text, ?::JSONB)")
+				+ " FROM (SELECT unnest(?) AS text) AS texts";
+
+		this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			// The statement is reused for all the batches, so that the driver prepares it
+			// on the server once and then only binds the texts of each batch.
+			try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+				preparedStatement.setString(1, options.getTransformer());
+				preparedStatement.setString(2, ModelOptionsUtils.toJsonString(options.getKwargs()));
+				while (texts.hasNext()) {
+					List<String> batch = new ArrayList<>(this.batchSize);
+					while (texts.hasNext() && batch.size() < this.batchSize) {
+						batch.add(texts.next());
+					}
+					preparedStatement.setArray(3, connection.createArrayOf("TEXT", batch.toArray(Object[]::new)));
+					List<float[]> embeddings = new ArrayList<>(batch.size());
+					try (ResultSet rs = preparedStatement.executeQuery()) {
+						while (rs.next()) {
+							embeddings.add(options.getVectorType().rowMapper.mapRow(rs, embeddings.size()));
+						}
+					}
+					batchConsumer.accept(batch, embeddings);
+				}
+			}
+			return null;
+		});
+	}
+
 	/**
 	 * Merge the default and request options.
 	 * @param requestOptions request options to merge.
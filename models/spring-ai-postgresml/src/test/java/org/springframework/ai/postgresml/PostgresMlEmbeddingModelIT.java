@@ -17,6 +17,7 @@ package org.springframework.ai.postgresml;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -154,6 +155,31 @@ class PostgresMlEmbeddingModelIT {
 		assertThat(embeddingResponse.getResults().get(2).getOutput()).hasSize(768);
 	}
 
+	@ParameterizedTest
+	@ValueSource(strings = { "PG_ARRAY", "PG_VECTOR" })
+	void embedInBatches(String vectorType) {
+		PostgresMlEmbeddingModel embeddingModel = new PostgresMlEmbeddingModel(this.jdbcTemplate,
+				PostgresMlEmbeddingOptions.builder()
+					.withTransformer("distilbert-base-uncased")
+					.withVectorType(VectorType.valueOf(vectorType))
+					.build());
+		embeddingModel.setBatchSize(2);
+		embeddingModel.afterPropertiesSet();
+
+		List<String> texts = List.of("Hello World!", "Spring AI!", "LLM!", "Hello World!", "PostgresML!");
+		List<List<String>> batches = new ArrayList<>();
+		List<float[]> embeddings = new ArrayList<>();
+		embeddingModel.embedInBatches(texts.iterator(), (batch, batchEmbeddings) -> {
+			batches.add(batch);
+			embeddings.addAll(batchEmbeddings);
+		});
+
+		assertThat(batches).containsExactly(texts.subList(0, 2), texts.subList(2, 4), texts.subList(4, 5));
+		assertThat(embeddings).hasSize(5).allSatisfy(embedding -> assertThat(embedding).hasSize(768));
+		assertThat(embeddings.get(3)).isEqualTo(embeddings.get(0)).isNotEqualTo(embeddings.get(1));
+		assertThat(embeddings.get(0)).isEqualTo(embeddingModel.embedAsFloatArray("Hello World!"));
+	}
+
 	@Test
 	void embedCallWithRequestOptionsOverride() {
 
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.postgresml;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.postgresml.PostgresMlEmbeddingModel.VectorType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PostgresMlVectorTypeTests {
+
+	private static final int FLOAT4_OID = 700;
+
+	@Test
+	public void decodesRealArrays() {
+		// array_send('{0.5,-1.25,3}'::real[])
+		ByteBuffer bytes = ByteBuffer.allocate(20 + 3 * 8).putInt(1).putInt(0).putInt(FLOAT4_OID).putInt(3).putInt(1);
+		for (float value : new float[] { 0.5f, -1.25f, 3f }) {
+			bytes.putInt(Float.BYTES).putFloat(value);
+		}
+
+		assertThat(VectorType.decodeArray(bytes.array())).containsExactly(0.5f, -1.25f, 3f);
+	}
+
+	@Test
+	public void decodesEmptyRealArrays() {
+		// array_send('{}'::real[])
+		byte[] bytes = ByteBuffer.allocate(12).putInt(0).putInt(0).putInt(FLOAT4_OID).array();
+
+		assertThat(VectorType.decodeArray(bytes)).isEmpty();
+	}
+
+	@Test
+	public void rejectsRealArraysWithNulls() {
+		// array_send('{0.5,NULL}'::real[])
+		byte[] bytes = ByteBuffer.allocate(20 + 8 + 4)
+			.putInt(1)
+			.putInt(1)
+			.putInt(FLOAT4_OID)
+			.putInt(2)
+			.putInt(1)
+			.putInt(Float.BYTES)
+			.putFloat(0.5f)
+			.putInt(-1)
+			.array();
+
+		assertThatThrownBy(() -> VectorType.decodeArray(bytes)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void decodesVectors() {
+		// vector_send('[0.5,-1.25,3]'::vector)
+		byte[] bytes = ByteBuffer.allocate(4 + 3 * 4)
+			.putShort((short) 3)
+			.putShort((short) 0)
+			.putFloat(0.5f)
+			.putFloat(-1.25f)
+			.putFloat(3f)
+			.array();
+
+		assertThat(VectorType.decodeVector(bytes)).containsExactly(0.5f, -1.25f, 3f);
+	}
+
+}
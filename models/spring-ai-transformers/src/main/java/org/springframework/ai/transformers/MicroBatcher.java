@@ -0,0 +1,199 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.transformers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+
+import org.springframework.util.Assert;
+
+/**
+ * Coalesces the inputs of concurrent callers into batches run on a pool of workers, such
+ * as inference sessions.
+ * <p>
+ * A caller queues its inputs and, if a worker is free, runs the queued batches itself
+ * until its own inputs are embedded, then hands the worker over to a waiting caller.
+ * Otherwise it waits for a running caller to pick its inputs up with the next batch, or
+ * for a worker to be handed over. The inputs are batched only while all the workers are
+ * busy, so a lone caller is never delayed, and no caller runs more batches than those
+ * queued before its own last input.
+ *
+ * @param <W> the type of the workers
+ * @param <I> the type of the inputs
+ * @since 1.0.0
+ */
+final class MicroBatcher<W, I> {
+
+	/**
+	 * The free workers, guarded by the pending monitor.
+	 */
+	private final Deque<W> workers;
+
+	private final int maxBatchSize;
+
+	private final BiFunction<W, List<I>, List<float[]>> runner;
+
+	/**
+	 * The queued inputs. Its monitor guards the free workers too, and is notified when a
+	 * worker is returned or a batch is run.
+	 */
+	private final Deque<Pending> pending = new ArrayDeque<>();
+
+	/**
+	 * @param workers the workers, each running one batch at a time
+	 * @param maxBatchSize the maximum number of inputs in a batch
+	 * @param runner embeds a batch of inputs with a worker, in order
+	 */
+	MicroBatcher(Collection<W> workers, int maxBatchSize, BiFunction<W, List<I>, List<float[]>> runner) {
+		Assert.notEmpty(workers, "The workers must not be empty!");
+		Assert.isTrue(maxBatchSize > 0, "The max batch size must be positive!");
+		Assert.notNull(runner, "The runner must not be null!");
+		this.workers = new ArrayDeque<>(workers);
+		this.maxBatchSize = maxBatchSize;
+		this.runner = runner;
+	}
+
+	/**
+	 * Embed the inputs, possibly in batches with the inputs of concurrent callers.
+	 * @param inputs the inputs to embed
+	 * @return the embeddings, in the order of the inputs
+	 */
+	List<float[]> embed(List<I> inputs) {
+		List<Pending> parts = new ArrayList<>();
+		synchronized (this.pending) {
+			for (int start = 0; start < inputs.size(); start += this.maxBatchSize) {
+				Pending part = new Pending(inputs.subList(start, Math.min(inputs.size(), start + this.maxBatchSize)));
+				this.pending.add(part);
+				parts.add(part);
+			}
+		}
+
+		while (true) {
+			W worker;
+			synchronized (this.pending) {
+				while (!isDone(parts) && (this.pending.isEmpty() || this.workers.isEmpty())) {
+					awaitChange();
+				}
+				if (isDone(parts)) {
+					break;
+				}
+				worker = this.workers.poll();
+			}
+			try {
+				// Serve the other callers' inputs queued first too, stop once ours are
+				// done
+				List<Pending> batch;
+				while (!isDone(parts) && !(batch = nextBatch()).isEmpty()) {
+					run(worker, batch);
+				}
+			}
+			finally {
+				synchronized (this.pending) {
+					this.workers.add(worker);
+					this.pending.notifyAll();
+				}
+			}
+		}
+
+		List<float[]> embeddings = new ArrayList<>(inputs.size());
+		for (Pending part : parts) {
+			try {
+				embeddings.addAll(part.embeddings.join());
+			}
+			catch (CompletionException ex) {
+				if (ex.getCause() instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				throw ex;
+			}
+		}
+		return embeddings;
+	}
+
+	private boolean isDone(List<Pending> parts) {
+		for (Pending part : parts) {
+			if (!part.embeddings.isDone()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void awaitChange() {
+		try {
+			this.pending.wait();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the embeddings", ex);
+		}
+	}
+
+	private List<Pending> nextBatch() {
+		synchronized (this.pending) {
+			List<Pending> batch = new ArrayList<>();
+			int size = 0;
+			while (!this.pending.isEmpty() && size + this.pending.peek().inputs.size() <= this.maxBatchSize) {
+				Pending next = this.pending.poll();
+				batch.add(next);
+				size += next.inputs.size();
+			}
+			return batch;
+		}
+	}
+
+	private void run(W worker, List<Pending> batch) {
+		try {
+			List<I> inputs = new ArrayList<>();
+			for (Pending part : batch) {
+				inputs.addAll(part.inputs);
+			}
+			List<float[]> embeddings = this.runner.apply(worker, inputs);
+			int start = 0;
+			for (Pending part : batch) {
+				part.embeddings.complete(embeddings.subList(start, start + part.inputs.size()));
+				start += part.inputs.size();
+			}
+		}
+		catch (Throwable ex) {
+			for (Pending part : batch) {
+				part.embeddings.completeExceptionally(ex);
+			}
+		}
+		synchronized (this.pending) {
+			this.pending.notifyAll();
+		}
+	}
+
+	private final class Pending {
+
+		private final List<I> inputs;
+
+		private final CompletableFuture<List<float[]>> embeddings = new CompletableFuture<>();
+
+		Pending(List<I> inputs) {
+			this.inputs = inputs;
+		}
+
+	}
+
+}
@@ -15,26 +15,29 @@
  */
 package org.springframework.ai.transformers;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import ai.djl.huggingface.tokenizers.Encoding;
 import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
 import ai.djl.modality.nlp.preprocess.Tokenizer;
-import ai.djl.ndarray.NDArray;
-import ai.djl.ndarray.NDManager;
-import ai.djl.ndarray.types.DataType;
-import ai.djl.ndarray.types.Shape;
 import ai.onnxruntime.OnnxTensor;
-import ai.onnxruntime.OnnxValue;
 import ai.onnxruntime.OrtEnvironment;
 import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
+import ai.onnxruntime.TensorInfo;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -45,6 +48,7 @@ import org.springframework.ai.embedding.Embedding;
 import org.springframework.ai.embedding.EmbeddingOptions;
 import org.springframework.ai.embedding.EmbeddingRequest;
 import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
@@ -56,7 +60,7 @@ import org.springframework.util.StringUtils;
  *
  * @author Christian Tzolov
  */
-public class TransformersEmbeddingModel extends AbstractEmbeddingModel implements InitializingBean {
+public class TransformersEmbeddingModel extends AbstractEmbeddingModel implements InitializingBean, DisposableBean {
 
 	private static final Log logger = LogFactory.getLog(TransformersEmbeddingModel.class);
 
@@ -69,7 +73,9 @@ public class TransformersEmbeddingModel extends AbstractEmbeddingModel implement
 
 	public final static String DEFAULT_MODEL_OUTPUT_NAME = "last_hidden_state";
 
-	private final static int EMBEDDING_AXIS = 1;
+	public final static int DEFAULT_MAX_BATCH_SIZE = 32;
+
+	public final static int DEFAULT_MAX_TOKENS_PER_BATCH = 4096;
 
 	private Resource tokenizerResource = toResource(DEFAULT_ONNX_TOKENIZER_URI);
 
@@ -89,9 +95,27 @@ public class TransformersEmbeddingModel extends AbstractEmbeddingModel implement
 	private OrtEnvironment environment;
 
 	/**
-	 * Runtime session that wraps the ONNX generative and enables inference calls.
+	 * Runtime sessions that wrap the ONNX generative and enable inference calls, one per
+	 * concurrent inference.
 	 */
-	private OrtSession session;
+	private final List<InferenceSession> sessions = new ArrayList<>();
+
+	private OrtSession.SessionOptions sessionOptions;
+
+	/**
+	 * Coalesces the texts of the concurrent calls into batches run on the sessions.
+	 */
+	private MicroBatcher<InferenceSession, Encoding> batcher;
+
+	private int sessionPoolSize = 1;
+
+	private int intraOpNumThreads = 0;
+
+	private int interOpNumThreads = 0;
+
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+	private int maxTokensPerBatch = DEFAULT_MAX_TOKENS_PER_BATCH;
 
 	/**
 	 * Specifies what parts of the {@link Document}'s content and metadata will be used
@@ -126,6 +150,8 @@ public class TransformersEmbeddingModel extends AbstractEmbeddingModel implement
 
 	private Set<String> onnxModelInputs;
 
+	private int embeddingDimensions;
+
 	public TransformersEmbeddingModel() {
 		this(MetadataMode.NONE);
 	}
@@ -171,6 +197,59 @@ public class TransformersEmbeddingModel extends AbstractEmbeddingModel implement
 		this.modelOutputName = modelOutputName;
 	}
 
+	/**
+	 * Set the number of ONNX sessions, each running one inference at a time. Every
+	 * session holds its own copy of the model. Defaults to 1.
+	 * @param sessionPoolSize the number of concurrent inferences
+	 */
+	public void setSessionPoolSize(int sessionPoolSize) {
+		Assert.isTrue(sessionPoolSize > 0, "The session pool size must be positive!");
+		this.sessionPoolSize = sessionPoolSize;
+	}
+
+	/**
+	 * Set the number of threads used to parallelize the execution within the operators of
+	 * an inference. Defaults to 0, letting ONNX runtime decide.
+	 * @param intraOpNumThreads the number of intra-op threads
+	 */
+	public void setIntraOpNumThreads(int intraOpNumThreads) {
+		Assert.isTrue(intraOpNumThreads >= 0, "The intra-op number of threads must not be negative!");
+		this.intraOpNumThreads = intraOpNumThreads;
+	}
+
+	/**
+	 * Set the number of threads used to parallelize the execution of the operators of an
+	 * inference. Defaults to 0, letting ONNX runtime decide.
+	 * @param interOpNumThreads the number of inter-op threads
+	 */
+	public void setInterOpNumThreads(int interOpNumThreads) {
+		Assert.isTrue(interOpNumThreads >= 0, "The inter-op number of threads must not be negative!");
+		this.interOpNumThreads = interOpNumThreads;
+	}
+
+	/**
+	 * Set the maximum number of texts embedded in a single inference. The larger requests
+	 * are split, the smaller concurrent ones are embedded together while all the sessions
+	 * are busy. Defaults to 32.
+	 * @param maxBatchSize the maximum number of texts per inference
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "The max batch size must be positive!");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Set the maximum number of tokens, padding included, embedded in a single inference.
+	 * The texts of a batch are sorted by length and run in sub-batches of similar lengths
+	 * under this limit, so the short texts are not padded to the length of the longest
+	 * one. A text longer than the limit is embedded alone. Defaults to 4096.
+	 * @param maxTokensPerBatch the maximum number of tokens per inference
+	 */
+	public void setMaxTokensPerBatch(int maxTokensPerBatch) {
+		Assert.isTrue(maxTokensPerBatch > 0, "The max tokens per batch must be positive!");
+		this.maxTokensPerBatch = maxTokensPerBatch;
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 
@@ -185,22 +264,51 @@ public class TransformersEmbeddingModel extends AbstractEmbeddingModel implement
 		// onnxruntime
 		this.environment = OrtEnvironment.getEnvironment();
 
-		var sessionOptions = new OrtSession.SessionOptions();
+		this.sessionOptions = new OrtSession.SessionOptions();
 		if (this.gpuDeviceId >= 0) {
-			sessionOptions.addCUDA(this.gpuDeviceId); // Run on a GPU or with another
-														// provider
+			this.sessionOptions.addCUDA(this.gpuDeviceId); // Run on a GPU or with another
+															// provider
+		}
+		if (this.intraOpNumThreads > 0) {
+			this.sessionOptions.setIntraOpNumThreads(this.intraOpNumThreads);
 		}
-		this.session = this.environment.createSession(getCachedResource(this.modelResource).getContentAsByteArray(),
-				sessionOptions);
+		if (this.interOpNumThreads > 0) {
+			this.sessionOptions.setInterOpNumThreads(this.interOpNumThreads);
+		}
+		byte[] model = getCachedResource(this.modelResource).getContentAsByteArray();
+		for (int i = 0; i < this.sessionPoolSize; i++) {
+			this.sessions.add(new InferenceSession(this.environment.createSession(model, this.sessionOptions)));
+		}
+		OrtSession session = this.sessions.get(0).session;
 
-		this.onnxModelInputs = this.session.getInputNames();
-		Set<String> onnxModelOutputs = this.session.getOutputNames();
+		this.onnxModelInputs = session.getInputNames();
+		Set<String> onnxModelOutputs = session.getOutputNames();
 
 		logger.info("Model input names: " + this.onnxModelInputs.stream().collect(Collectors.joining(", ")));
 		logger.info("Model output names: " + onnxModelOutputs.stream().collect(Collectors.joining(", ")));
 
 		Assert.isTrue(onnxModelOutputs.contains(this.modelOutputName),
 				"The generative output names doesn't contain expected: " + this.modelOutputName);
+
+		// The size of the embeddings, when fixed by the model, to allocate their buffer
+		long[] outputShape = ((TensorInfo) session.getOutputInfo().get(this.modelOutputName).getInfo()).getShape();
+		this.embeddingDimensions = (outputShape.length == 3 && outputShape[2] > 0) ? (int) outputShape[2] : -1;
+
+		this.batcher = new MicroBatcher<>(this.sessions, this.maxBatchSize, this::infer);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		for (InferenceSession session : this.sessions) {
+			session.session.close();
+		}
+		this.sessions.clear();
+		if (this.sessionOptions != null) {
+			this.sessionOptions.close();
+		}
+		if (this.tokenizer != null) {
+			this.tokenizer.close();
+		}
 	}
 
 	private Resource getCachedResource(Resource resource) {
@@ -217,6 +325,11 @@ public class TransformersEmbeddingModel extends AbstractEmbeddingModel implement
 		return this.embed(document.getFormattedContent(this.metadataMode));
 	}
 
+	@Override
+	public String getEmbeddingContent(Document document) {
+		return document.getFormattedContent(this.metadataMode);
+	}
+
 	@Override
 	public EmbeddingResponse embedForResponse(List<String> texts) {
 		List<Embedding> data = new ArrayList<>();
@@ -239,63 +352,138 @@ public class TransformersEmbeddingModel extends AbstractEmbeddingModel implement
 	@Override
 	public EmbeddingResponse call(EmbeddingRequest request) {
 
-		List<List<Double>> resultEmbeddings = new ArrayList<>();
-
-		try {
-
-			Encoding[] encodings = this.tokenizer.batchEncode(request.getInstructions());
+		Encoding[] encodings = this.tokenizer.batchEncode(request.getInstructions());
 
-			long[][] input_ids0 = new long[encodings.length][];
-			long[][] attention_mask0 = new long[encodings.length][];
-			long[][] token_type_ids0 = new long[encodings.length][];
-
-			for (int i = 0; i < encodings.length; i++) {
-				input_ids0[i] = encodings[i].getIds();
-				attention_mask0[i] = encodings[i].getAttentionMask();
-				token_type_ids0[i] = encodings[i].getTypeIds();
-			}
+		// Sort the texts by length, so that the batches of a large request group texts of
+		// similar lengths, and scatter the embeddings back to the order of the texts.
+		List<Integer> order = IntStream.range(0, encodings.length)
+			.boxed()
+			.sorted(Comparator.comparingInt(i -> encodings[i].getIds().length))
+			.toList();
+		List<float[]> sortedEmbeddings = this.batcher.embed(order.stream().map(i -> encodings[i]).toList());
+		float[][] resultEmbeddings = new float[encodings.length][];
+		for (int i = 0; i < order.size(); i++) {
+			resultEmbeddings[order.get(i)] = sortedEmbeddings.get(i);
+		}
 
-			OnnxTensor inputIds = OnnxTensor.createTensor(this.environment, input_ids0);
-			OnnxTensor attentionMask = OnnxTensor.createTensor(this.environment, attention_mask0);
-			OnnxTensor tokenTypeIds = OnnxTensor.createTensor(this.environment, token_type_ids0);
+		var indexCounter = new AtomicInteger(0);
+		return new EmbeddingResponse(
+				Stream.of(resultEmbeddings).map(e -> new Embedding(e, indexCounter.incrementAndGet())).toList());
+	}
 
-			Map<String, OnnxTensor> modelInputs = Map.of("input_ids", inputIds, "attention_mask", attentionMask,
-					"token_type_ids", tokenTypeIds);
+	/**
+	 * Embed a batch of tokenized texts with a session, in sub-batches of similar lengths.
+	 */
+	private List<float[]> infer(InferenceSession session, List<Encoding> encodings) {
 
-			modelInputs = removeUnknownModelInputs(modelInputs);
+		int[] lengths = encodings.stream().mapToInt(encoding -> encoding.getIds().length).toArray();
 
-			// The Run result object is AutoCloseable to prevent references from leaking
-			// out. Once the Result object is
-			// closed, all it’s child OnnxValues are closed too.
-			try (OrtSession.Result results = this.session.run(modelInputs)) {
+		float[][] embeddings = new float[encodings.size()][];
+		for (List<Integer> bucket : lengthBuckets(lengths, this.maxTokensPerBatch)) {
+			List<float[]> bucketEmbeddings = inferBatch(session, bucket.stream().map(encodings::get).toList());
+			for (int i = 0; i < bucket.size(); i++) {
+				embeddings[bucket.get(i)] = bucketEmbeddings.get(i);
+			}
+		}
+		return Arrays.asList(embeddings);
+	}
 
-				// OnnxValue lastHiddenState = results.get(0);
-				OnnxValue lastHiddenState = results.get(this.modelOutputName).get();
+	/**
+	 * Group the sequences by length, shortest first, into buckets whose padded size stays
+	 * within the maximum number of tokens. A sequence longer than the maximum gets a
+	 * bucket of its own.
+	 * @param lengths the lengths of the sequences
+	 * @param maxTokensPerBatch the maximum number of tokens, padding included, per bucket
+	 * @return the indices of the sequences in each bucket
+	 */
+	static List<List<Integer>> lengthBuckets(int[] lengths, int maxTokensPerBatch) {
 
-				// 0 - batch_size (1..x)
-				// 1 - sequence_length (128)
-				// 2 - embedding dimensions (384)
-				float[][][] tokenEmbeddings = (float[][][]) lastHiddenState.getValue();
+		List<Integer> order = IntStream.range(0, lengths.length)
+			.boxed()
+			.sorted(Comparator.comparingInt(i -> lengths[i]))
+			.toList();
 
-				try (NDManager manager = NDManager.newBaseManager()) {
-					NDArray ndTokenEmbeddings = create(tokenEmbeddings, manager);
-					NDArray ndAttentionMask = manager.create(attention_mask0);
+		List<List<Integer>> buckets = new ArrayList<>();
+		List<Integer> bucket = new ArrayList<>();
+		for (int index : order) {
+			// Sorted, the bucket is padded to the length of its last sequence
+			if (!bucket.isEmpty() && (long) (bucket.size() + 1) * lengths[index] > maxTokensPerBatch) {
+				buckets.add(bucket);
+				bucket = new ArrayList<>();
+			}
+			bucket.add(index);
+		}
+		if (!bucket.isEmpty()) {
+			buckets.add(bucket);
+		}
+		return buckets;
+	}
 
-					NDArray embedding = meanPooling(ndTokenEmbeddings, ndAttentionMask);
+	/**
+	 * Embed a batch of tokenized texts with a single inference of the session.
+	 */
+	private List<float[]> inferBatch(InferenceSession session, List<Encoding> encodings) {
 
-					for (int i = 0; i < embedding.size(0); i++) {
-						resultEmbeddings.add(toDoubleList(embedding.get(i).toFloatArray()));
-					}
+		int batchSize = encodings.size();
+		int sequenceLength = 0;
+		for (Encoding encoding : encodings) {
+			sequenceLength = Math.max(sequenceLength, encoding.getIds().length);
+		}
+		long[] inputShape = { batchSize, sequenceLength };
+
+		// Fill the reused direct buffers, padding the shorter sequences
+		LongBuffer inputIds = session.inputIds(batchSize * sequenceLength);
+		LongBuffer attentionMask = session.attentionMask(batchSize * sequenceLength);
+		LongBuffer tokenTypeIds = session.tokenTypeIds(batchSize * sequenceLength);
+		for (Encoding encoding : encodings) {
+			int padding = sequenceLength - encoding.getIds().length;
+			inputIds.put(encoding.getIds());
+			attentionMask.put(encoding.getAttentionMask());
+			tokenTypeIds.put(encoding.getTypeIds());
+			for (int i = 0; i < padding; i++) {
+				inputIds.put(0);
+				attentionMask.put(0);
+				tokenTypeIds.put(0);
+			}
+		}
+		inputIds.flip();
+		attentionMask.flip();
+		tokenTypeIds.flip();
+
+		// The tensors wrap the direct buffers without copying them, and must be closed
+		// to release their native memory.
+		try (OnnxTensor inputIdsTensor = OnnxTensor.createTensor(this.environment, inputIds, inputShape);
+				OnnxTensor attentionMaskTensor = OnnxTensor.createTensor(this.environment, attentionMask, inputShape);
+				OnnxTensor tokenTypeIdsTensor = OnnxTensor.createTensor(this.environment, tokenTypeIds, inputShape)) {
+
+			Map<String, OnnxTensor> modelInputs = removeUnknownModelInputs(Map.of("input_ids", inputIdsTensor,
+					"attention_mask", attentionMaskTensor, "token_type_ids", tokenTypeIdsTensor));
+
+			if (this.embeddingDimensions < 0) {
+				// The Run result object is AutoCloseable to prevent references from
+				// leaking out. Once the Result object is closed, all it’s child
+				// OnnxValues are closed too.
+				try (OrtSession.Result results = session.session.run(modelInputs, Set.of(this.modelOutputName))) {
+					OnnxTensor lastHiddenState = (OnnxTensor) results.get(this.modelOutputName).get();
+					long[] outputShape = lastHiddenState.getInfo().getShape();
+					return meanPooling(lastHiddenState.getFloatBuffer(), attentionMask, batchSize, sequenceLength,
+							(int) outputShape[2]);
 				}
 			}
+
+			// The inference writes the last hidden state straight to a reused buffer
+			long[] outputShape = { batchSize, sequenceLength, this.embeddingDimensions };
+			FloatBuffer lastHiddenState = session
+				.lastHiddenState(batchSize * sequenceLength * this.embeddingDimensions);
+			try (OnnxTensor lastHiddenStateTensor = OnnxTensor.createTensor(this.environment, lastHiddenState,
+					outputShape)) {
+				session.session.run(modelInputs, Map.of(this.modelOutputName, lastHiddenStateTensor)).close();
+			}
+			return meanPooling(lastHiddenState, attentionMask, batchSize, sequenceLength, this.embeddingDimensions);
 		}
 		catch (OrtException ex) {
 			throw new RuntimeException(ex);
 		}
-
-		var indexCounter = new AtomicInteger(0);
-		return new EmbeddingResponse(
-				resultEmbeddings.stream().map(e -> new Embedding(e, indexCounter.incrementAndGet())).toList());
 	}
 
 	private Map<String, OnnxTensor> removeUnknownModelInputs(Map<String, OnnxTensor> modelInputs) {
@@ -307,48 +495,93 @@ public class TransformersEmbeddingModel extends AbstractEmbeddingModel implement
 
 	}
 
-	// Build a NDArray from 3D float array.
-	private NDArray create(float[][][] data3d, NDManager manager) {
-
-		FloatBuffer buffer = FloatBuffer.allocate(data3d.length * data3d[0].length * data3d[0][0].length);
-
-		for (float[][] data2d : data3d) {
-			for (float[] data1d : data2d) {
-				buffer.put(data1d);
+	/**
+	 * Average the token embeddings of each text, weighted by the attention mask, reading
+	 * the last hidden state buffer in place.
+	 * @param lastHiddenState the token embeddings, of shape (batch, sequence, dimensions)
+	 * @param attentionMask the attention mask, of shape (batch, sequence)
+	 */
+	static List<float[]> meanPooling(FloatBuffer lastHiddenState, LongBuffer attentionMask, int batchSize,
+			int sequenceLength, int dimensions) {
+
+		List<float[]> embeddings = new ArrayList<>(batchSize);
+		for (int b = 0; b < batchSize; b++) {
+			float[] embedding = new float[dimensions];
+			float maskSum = 0;
+			for (int t = 0; t < sequenceLength; t++) {
+				float mask = attentionMask.get(b * sequenceLength + t);
+				if (mask == 0) {
+					continue;
+				}
+				maskSum += mask;
+				int offset = (b * sequenceLength + t) * dimensions;
+				for (int d = 0; d < dimensions; d++) {
+					embedding[d] += lastHiddenState.get(offset + d) * mask;
+				}
+			}
+			// Clamp the attention mask sum to avoid division by zero
+			maskSum = Math.max(maskSum, 1e-9f);
+			for (int d = 0; d < dimensions; d++) {
+				embedding[d] /= maskSum;
 			}
+			embeddings.add(embedding);
 		}
-		buffer.rewind();
-
-		return manager.create(buffer, new Shape(data3d.length, data3d[0].length, data3d[0][0].length));
+		return embeddings;
 	}
 
-	private NDArray meanPooling(NDArray tokenEmbeddings, NDArray attentionMask) {
+	/**
+	 * A session with the direct buffers of its inference tensors, reused from one
+	 * inference to the next.
+	 */
+	private static final class InferenceSession {
 
-		NDArray attentionMaskExpanded = attentionMask.expandDims(-1)
-			.broadcast(tokenEmbeddings.getShape())
-			.toType(DataType.FLOAT32, false);
+		private final OrtSession session;
 
-		// Multiply token embeddings with expanded attention mask
-		NDArray weightedEmbeddings = tokenEmbeddings.mul(attentionMaskExpanded);
+		private LongBuffer inputIds;
 
-		// Sum along the appropriate axis
-		NDArray sumEmbeddings = weightedEmbeddings.sum(new int[] { EMBEDDING_AXIS });
+		private LongBuffer attentionMask;
 
-		// Clamp the attention mask sum to avoid division by zero
-		NDArray sumMask = attentionMaskExpanded.sum(new int[] { EMBEDDING_AXIS }).clip(1e-9f, Float.MAX_VALUE);
+		private LongBuffer tokenTypeIds;
 
-		// Divide sum embeddings by sum mask
-		return sumEmbeddings.div(sumMask);
-	}
+		private FloatBuffer lastHiddenState;
 
-	private List<Double> toDoubleList(float[] floats) {
-		List<Double> result = new ArrayList<>();
-		if (floats != null && floats.length > 0) {
-			for (int i = 0; i < floats.length; i++) {
-				result.add((double) floats[i]);
+		InferenceSession(OrtSession session) {
+			this.session = session;
+		}
+
+		LongBuffer inputIds(int size) {
+			this.inputIds = ensureCapacity(this.inputIds, size);
+			return this.inputIds;
+		}
+
+		LongBuffer attentionMask(int size) {
+			this.attentionMask = ensureCapacity(this.attentionMask, size);
+			return this.attentionMask;
+		}
+
+		LongBuffer tokenTypeIds(int size) {
+			this.tokenTypeIds = ensureCapacity(this.tokenTypeIds, size);
+			return this.tokenTypeIds;
+		}
+
+		FloatBuffer lastHiddenState(int size) {
+			if (this.lastHiddenState == null || this.lastHiddenState.capacity() < size) {
+				this.lastHiddenState = ByteBuffer.allocateDirect(size * Float.BYTES)
+					.order(ByteOrder.nativeOrder())
+					.asFloatBuffer();
+			}
+			this.lastHiddenState.clear().limit(size);
+			return this.lastHiddenState;
+		}
+
+		private static LongBuffer ensureCapacity(LongBuffer buffer, int size) {
+			if (buffer == null || buffer.capacity() < size) {
+				buffer = ByteBuffer.allocateDirect(size * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
 			}
+			buffer.clear();
+			return buffer;
 		}
-		return result;
+
 	}
 
 	private static Resource toResource(String uri) {
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.transformers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MicroBatcherTests {
+
+	@Test
+	public void splitsLargeRequests() {
+		List<Integer> batchSizes = new ArrayList<>();
+		MicroBatcher<String, String> batcher = new MicroBatcher<>(List.of("worker"), 3, (worker, texts) -> {
+			batchSizes.add(texts.size());
+			return embed(texts);
+		});
+
+		List<float[]> embeddings = batcher.embed(texts("a", 8));
+
+		assertThat(batchSizes).containsExactly(3, 3, 2);
+		assertThat(embeddings).extracting(embedding -> (int) embedding[0]).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+	}
+
+	@Test
+	public void batchesConcurrentRequestsWhileTheWorkersAreBusy() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+		AtomicInteger concurrency = new AtomicInteger();
+		AtomicInteger maxConcurrency = new AtomicInteger();
+
+		MicroBatcher<String, String> batcher = new MicroBatcher<>(List.of("worker"), 16, (worker, texts) -> {
+			maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+			try {
+				running.countDown();
+				release.await(10, TimeUnit.SECONDS);
+				batchSizes.add(texts.size());
+				return embed(texts);
+			}
+			catch (InterruptedException ex) {
+				throw new IllegalStateException(ex);
+			}
+			finally {
+				concurrency.decrementAndGet();
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(5);
+		try {
+			CompletableFuture<List<float[]>> first = CompletableFuture.supplyAsync(() -> batcher.embed(texts("a", 1)),
+					executor);
+			assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+
+			List<CompletableFuture<List<float[]>>> others = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				String prefix = "b" + i;
+				others.add(CompletableFuture.supplyAsync(() -> batcher.embed(texts(prefix, 2)), executor));
+			}
+			// Let the requests queue up behind the busy worker
+			Thread.sleep(200);
+			release.countDown();
+
+			assertThat(first.get(10, TimeUnit.SECONDS)).hasSize(1);
+			for (CompletableFuture<List<float[]>> other : others) {
+				assertThat(other.get(10, TimeUnit.SECONDS)).extracting(embedding -> (int) embedding[0])
+					.containsExactly(0, 1);
+			}
+			assertThat(batchSizes).containsExactly(1, 8);
+			assertThat(maxConcurrency).hasValue(1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void handsTheWorkerOverOnceTheCallerInputsAreEmbedded() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Map<String, Thread> threads = new ConcurrentHashMap<>();
+
+		MicroBatcher<String, String> batcher = new MicroBatcher<>(List.of("worker"), 4, (worker, texts) -> {
+			try {
+				running.countDown();
+				release.await(10, TimeUnit.SECONDS);
+				texts.forEach(text -> threads.put(text, Thread.currentThread()));
+				return embed(texts);
+			}
+			catch (InterruptedException ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Thread> first = executor.submit(() -> {
+				batcher.embed(texts("a", 1));
+				return Thread.currentThread();
+			});
+			assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+			Future<Thread> second = executor.submit(() -> {
+				batcher.embed(texts("b", 2));
+				return Thread.currentThread();
+			});
+			// Let the second request queue up behind the busy worker
+			Thread.sleep(200);
+			release.countDown();
+
+			Thread firstThread = first.get(10, TimeUnit.SECONDS);
+			Thread secondThread = second.get(10, TimeUnit.SECONDS);
+			assertThat(threads.get("a:0")).isSameAs(firstThread);
+			assertThat(threads.get("b:0")).isSameAs(secondThread);
+			assertThat(threads.get("b:1")).isSameAs(secondThread);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void propagatesTheFailures() {
+		MicroBatcher<String, String> batcher = new MicroBatcher<>(List.of("worker"), 4, (worker, texts) -> {
+			throw new IllegalStateException("Inference failed");
+		});
+
+		assertThatThrownBy(() -> batcher.embed(texts("a", 2))).isInstanceOf(IllegalStateException.class)
+			.hasMessage("Inference failed");
+		// The worker is returned to the pool
+		assertThatThrownBy(() -> batcher.embed(texts("a", 2))).isInstanceOf(IllegalStateException.class);
+	}
+
+	private static List<String> texts(String prefix, int count) {
+		List<String> texts = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			texts.add(prefix + ":" + i);
+		}
+		return texts;
+	}
+
+	/**
+	 * Embed each text as its index within its request.
+	 */
+	private static List<float[]> embed(List<String> texts) {
+		return texts.stream()
+			.map(text -> new float[] { Integer.parseInt(text.substring(text.indexOf(':') + 1)) })
+			.toList();
+	}
+
+}
@@ -87,6 +87,28 @@ public class TransformersEmbeddingModelTests {
 		assertThat(DF.format(embed.getResults().get(1).getOutput().get(383))).isEqualTo(DF.format(0.05501303821802139));
 	}
 
+	@Test
+	void embedListOfMixedLengths() throws Exception {
+		TransformersEmbeddingModel embeddingModel = new TransformersEmbeddingModel();
+		embeddingModel.setMaxTokensPerBatch(8);
+		embeddingModel.afterPropertiesSet();
+		List<List<Double>> embed = embeddingModel
+			.embed(List.of("World is big, and the sky is blue", "Hello world", "World is big", "Hello world"));
+		assertThat(embed).hasSize(4);
+		assertThat(DF.format(embed.get(1).get(0))).isEqualTo(DF.format(-0.19744634628295898));
+		assertThat(DF.format(embed.get(2).get(0))).isEqualTo(DF.format(0.4293745160102844));
+		assertThat(DF.format(embed.get(3).get(383))).isEqualTo(DF.format(0.17298996448516846));
+		assertThat(embed.get(0)).isNotEqualTo(embed.get(2));
+	}
+
+	@Test
+	void lengthBuckets() {
+		assertThat(TransformersEmbeddingModel.lengthBuckets(new int[] { 500, 5, 7, 130, 6, 600, 128 }, 1000))
+			.containsExactly(List.of(1, 4, 2, 6, 3), List.of(0), List.of(5));
+		assertThat(TransformersEmbeddingModel.lengthBuckets(new int[] { 3, 3, 3 }, 6)).containsExactly(List.of(0, 1),
+				List.of(2));
+	}
+
 	@Test
 	void dimensions() throws Exception {
 
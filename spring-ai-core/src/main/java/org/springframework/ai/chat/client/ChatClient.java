@@ -28,6 +28,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.ai.chat.messages.Media;
 import org.springframework.ai.chat.messages.Message;
@@ -40,6 +41,7 @@ import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.ai.converter.StreamingBeanOutputConverter;
 import org.springframework.ai.converter.StructuredOutputConverter;
 import org.springframework.ai.model.function.FunctionCallback;
 import org.springframework.ai.model.function.FunctionCallbackWrapper;
@@ -512,11 +514,7 @@ public interface ChatClient {
 			ChatClientRequest advisedRequest = inputRequest;
 
 			if (!CollectionUtils.isEmpty(inputRequest.advisors)) {
-				AdvisedRequest adviseRequest = new AdvisedRequest(inputRequest.chatModel, inputRequest.userText,
-						inputRequest.systemText, inputRequest.chatOptions, inputRequest.media,
-						inputRequest.functionNames, inputRequest.functionCallbacks, inputRequest.messages,
-						inputRequest.userParams, inputRequest.systemParams, inputRequest.advisors,
-						inputRequest.advisorParams);
+				AdvisedRequest adviseRequest = toAdvisedRequest(inputRequest);
 
 				// apply the advisors onRequest
 				var currentAdvisors = new ArrayList<>(inputRequest.advisors);
@@ -524,16 +522,43 @@ public interface ChatClient {
 					adviseRequest = advisor.adviseRequest(adviseRequest, context);
 				}
 
-				advisedRequest = new ChatClientRequest(adviseRequest.chatModel(), adviseRequest.userText(),
-						adviseRequest.userParams(), adviseRequest.systemText(), adviseRequest.systemParams(),
-						adviseRequest.functionCallbacks(), adviseRequest.messages(), adviseRequest.functionNames(),
-						adviseRequest.media(), adviseRequest.chatOptions(), adviseRequest.advisors(),
-						adviseRequest.advisorParams());
+				advisedRequest = toChatClientRequest(adviseRequest);
 			}
 
 			return advisedRequest;
 		}
 
+		private static Mono<ChatClientRequest> adviseOnRequestReactive(ChatClientRequest inputRequest,
+				Map<String, Object> context) {
+
+			if (CollectionUtils.isEmpty(inputRequest.advisors)) {
+				return Mono.just(inputRequest);
+			}
+
+			// compose the advisors onRequest, they run once the result is subscribed to
+			Mono<AdvisedRequest> adviseRequest = Mono.fromSupplier(() -> toAdvisedRequest(inputRequest));
+			var currentAdvisors = new ArrayList<>(inputRequest.advisors);
+			for (RequestResponseAdvisor advisor : currentAdvisors) {
+				adviseRequest = advisor.adviseRequest(adviseRequest, context);
+			}
+
+			return adviseRequest.map(ChatClientRequest::toChatClientRequest);
+		}
+
+		private static AdvisedRequest toAdvisedRequest(ChatClientRequest request) {
+			return new AdvisedRequest(request.chatModel, request.userText, request.systemText, request.chatOptions,
+					request.media, request.functionNames, request.functionCallbacks, request.messages,
+					request.userParams, request.systemParams, request.advisors, request.advisorParams);
+		}
+
+		private static ChatClientRequest toChatClientRequest(AdvisedRequest adviseRequest) {
+			return new ChatClientRequest(adviseRequest.chatModel(), adviseRequest.userText(),
+					adviseRequest.userParams(), adviseRequest.systemText(), adviseRequest.systemParams(),
+					adviseRequest.functionCallbacks(), adviseRequest.messages(), adviseRequest.functionNames(),
+					adviseRequest.media(), adviseRequest.chatOptions(), adviseRequest.advisors(),
+					adviseRequest.advisorParams());
+		}
+
 		public static class CallResponseSpec {
 
 			private final ChatClientRequest request;
@@ -649,13 +674,39 @@ public interface ChatClient {
 			}
 
 			private Flux<ChatResponse> doGetFluxChatResponse(ChatClientRequest inputRequest) {
+				return doGetFluxChatResponse(inputRequest, "");
+			}
 
-				Map<String, Object> context = new ConcurrentHashMap<>();
-				context.putAll(inputRequest.advisorParams);
-				ChatClientRequest advisedRequest = adviseOnRequest(inputRequest, context);
+			private Flux<ChatResponse> doGetFluxChatResponse(ChatClientRequest inputRequest, String formatParam) {
+				return Flux.defer(() -> {
+					Map<String, Object> context = new ConcurrentHashMap<>();
+					context.putAll(inputRequest.advisorParams);
+
+					Flux<ChatResponse> advisedResponse = adviseOnRequestReactive(inputRequest, context).flatMapMany(
+							advisedRequest -> this.chatModel.stream(createPrompt(advisedRequest, formatParam)));
+
+					// apply the advisors on response
+					if (!CollectionUtils.isEmpty(inputRequest.advisors)) {
+						var currentAdvisors = new ArrayList<>(inputRequest.advisors);
+						for (RequestResponseAdvisor advisor : currentAdvisors) {
+							advisedResponse = advisor.adviseResponse(advisedResponse, context);
+						}
+					}
+
+					return advisedResponse;
+				});
+			}
+
+			private Prompt createPrompt(ChatClientRequest advisedRequest, String formatParam) {
+
+				String processedUserText = StringUtils.hasText(formatParam)
+						? advisedRequest.userText + System.lineSeparator() + "{spring_ai_soc_format}"
+						: advisedRequest.userText;
 
-				String processedUserText = advisedRequest.userText;
 				Map<String, Object> userParams = new HashMap<>(advisedRequest.userParams);
+				if (StringUtils.hasText(formatParam)) {
+					userParams.put("spring_ai_soc_format", formatParam);
+				}
 
 				var messages = new ArrayList<Message>(advisedRequest.messages);
 				var textsAreValid = (StringUtils.hasText(processedUserText)
@@ -687,20 +738,7 @@ public interface ChatClient {
 						functionCallingOptions.setFunctionCallbacks(advisedRequest.functionCallbacks);
 					}
 				}
-				var prompt = new Prompt(messages, advisedRequest.chatOptions);
-
-				var fluxChatResponse = this.chatModel.stream(prompt);
-
-				Flux<ChatResponse> advisedResponse = fluxChatResponse;
-				// apply the advisors on response
-				if (!CollectionUtils.isEmpty(inputRequest.advisors)) {
-					var currentAdvisors = new ArrayList<>(inputRequest.advisors);
-					for (RequestResponseAdvisor advisor : currentAdvisors) {
-						advisedResponse = advisor.adviseResponse(advisedResponse, context);
-					}
-				}
-
-				return advisedResponse;
+				return new Prompt(messages, advisedRequest.chatOptions);
 			}
 
 			public Flux<ChatResponse> chatResponse() {
@@ -708,7 +746,43 @@ public interface ChatClient {
 			}
 
 			public Flux<String> content() {
-				return doGetFluxChatResponse(this.request).map(r -> {
+				return doGetFluxContent(this.request, "");
+			}
+
+			/**
+			 * Stream the response as a JSON object of the given type, emitted partially
+			 * populated as its properties are parsed. The last one is complete.
+			 */
+			public <T> Flux<T> entity(Class<T> type) {
+				Assert.notNull(type, "the class must be non-null");
+				return entity(StreamingBeanOutputConverter.forObject(type));
+			}
+
+			/**
+			 * Stream the response as a JSON array whose elements of the given type are
+			 * emitted as soon as they are parsed.
+			 */
+			public <T> Flux<T> entities(Class<T> elementType) {
+				Assert.notNull(elementType, "the class must be non-null");
+				return entity(StreamingBeanOutputConverter.forArrayElements(elementType));
+			}
+
+			/**
+			 * Stream the response as a JSON array whose elements of the given type are
+			 * emitted as soon as they are parsed.
+			 */
+			public <T> Flux<T> entities(ParameterizedTypeReference<T> elementType) {
+				Assert.notNull(elementType, "the type must be non-null");
+				return entity(StreamingBeanOutputConverter.forArrayElements(elementType));
+			}
+
+			public <T> Flux<T> entity(StreamingBeanOutputConverter<T> converter) {
+				Assert.notNull(converter, "the converter must be non-null");
+				return converter.convert(doGetFluxContent(this.request, converter.getFormat()));
+			}
+
+			private Flux<String> doGetFluxContent(ChatClientRequest inputRequest, String formatParam) {
+				return doGetFluxChatResponse(inputRequest, formatParam).map(r -> {
 					if (r.getResult() == null || r.getResult().getOutput() == null
 							|| r.getResult().getOutput().getContent() == null) {
 						return "";
@@ -19,6 +19,7 @@ package org.springframework.ai.chat.client;
 import java.util.Map;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.ai.chat.client.ChatClient.ChatClientRequest;
 import org.springframework.ai.chat.model.ChatResponse;
@@ -46,6 +47,23 @@ public interface RequestResponseAdvisor {
 		return request;
 	}
 
+	/**
+	 * Reactive variant of {@link #adviseRequest(AdvisedRequest, Map)}, used when the
+	 * {@link ChatClient} streams. It is composed into the returned stream and only runs
+	 * once the stream is subscribed to. The default implementation runs the blocking
+	 * variant on the subscribing thread: advisors that block, e.g. on a vector store or a
+	 * chat memory, should override it to run on a scheduler, or be wrapped in a
+	 * {@link org.springframework.ai.chat.client.advisor.SchedulingAdvisor}, so that they
+	 * never run on an event loop thread.
+	 * @param request the {@link AdvisedRequest} data to be advised.
+	 * @param context the shared data between the advisors in the chain. It is shared
+	 * between all request and response advising points of all advisors in the chain.
+	 * @return the advised {@link AdvisedRequest}.
+	 */
+	default Mono<AdvisedRequest> adviseRequest(Mono<AdvisedRequest> request, Map<String, Object> context) {
+		return request.map(advised -> adviseRequest(advised, context));
+	}
+
 	/**
 	 * @param response the {@link ChatResponse} data to be advised. Represents the row
 	 * {@link ChatResponse} data after the {@link ChatModel#call(Prompt)} method is
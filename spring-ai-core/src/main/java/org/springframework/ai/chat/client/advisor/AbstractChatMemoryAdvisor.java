@@ -18,11 +18,16 @@ package org.springframework.ai.chat.client.advisor;
 
 import java.util.Map;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.ai.chat.client.AdvisedRequest;
 import org.springframework.ai.chat.client.RequestResponseAdvisor;
 import org.springframework.util.Assert;
 
 /**
- * Abstract class that serves as a base for chat memory advisors.
+ * Abstract class that serves as a base for chat memory advisors. The chat memories may
+ * block, so the streaming requests are advised on the bounded elastic scheduler.
  *
  * @author Christian Tzolov
  * @since 1.0.0 M1
@@ -58,6 +63,11 @@ public abstract class AbstractChatMemoryAdvisor<T> implements RequestResponseAdv
 		this.defaultChatMemoryRetrieveSize = defaultChatMemoryRetrieveSize;
 	}
 
+	@Override
+	public Mono<AdvisedRequest> adviseRequest(Mono<AdvisedRequest> request, Map<String, Object> context) {
+		return request.publishOn(Schedulers.boundedElastic()).map(advised -> adviseRequest(advised, context));
+	}
+
 	protected T getChatMemoryStore() {
 		return this.chatMemoryStore;
 	}
@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
 
 import org.springframework.ai.chat.client.AdvisedRequest;
 import org.springframework.ai.chat.client.RequestResponseAdvisor;
+import org.springframework.ai.chat.client.advisor.TokenBudgetContextPacker.PackedContext;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.model.Content;
@@ -30,10 +31,13 @@ import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Context for the question is retrieved from a Vector Store and added to the prompt's
- * user text.
+ * user text. The streaming requests are advised on the bounded elastic scheduler, as the
+ * vector store search blocks.
  *
  * @author Christian Tzolov
  * @since 1.0.0 M1
@@ -56,8 +60,14 @@ public class QuestionAnswerAdvisor implements RequestResponseAdvisor {
 
 	private final SearchRequest searchRequest;
 
+	private final TokenBudgetContextPacker contextPacker;
+
 	public static String RETRIEVED_DOCUMENTS = "qa_retrieved_documents";
 
+	public static final String CONTEXT_TOKENS = "qa_context_tokens";
+
+	public static final String CONTEXT_SAVED_TOKENS = "qa_context_saved_tokens";
+
 	public QuestionAnswerAdvisor(VectorStore vectorStore, SearchRequest searchRequest) {
 		this(vectorStore, searchRequest, DEFAULT_USER_TEXT_ADVISE);
 	}
@@ -73,6 +83,28 @@ public class QuestionAnswerAdvisor implements RequestResponseAdvisor {
 	 *
 	 */
 	public QuestionAnswerAdvisor(VectorStore vectorStore, SearchRequest searchRequest, String userTextAdvise) {
+		this(vectorStore, searchRequest, userTextAdvise, null);
+	}
+
+	public QuestionAnswerAdvisor(VectorStore vectorStore, SearchRequest searchRequest,
+			TokenBudgetContextPacker contextPacker) {
+		this(vectorStore, searchRequest, DEFAULT_USER_TEXT_ADVISE, contextPacker);
+	}
+
+	/**
+	 * The QuestionAnswerAdvisor retrieves context information from a Vector Store and
+	 * combines it with the user's text.
+	 * @param vectorStore The vector store to use
+	 * @param searchRequest The search request defined using the portable filter
+	 * expression syntax
+	 * @param userTextAdvise the user text to append to the existing user prompt. The text
+	 * should contain a placeholder named "question_answer_context".
+	 * @param contextPacker packs the retrieved documents into a token budget, in which
+	 * case the used and saved tokens are added to the response metadata. If null, all the
+	 * retrieved documents are added to the context.
+	 */
+	public QuestionAnswerAdvisor(VectorStore vectorStore, SearchRequest searchRequest, String userTextAdvise,
+			TokenBudgetContextPacker contextPacker) {
 
 		Assert.notNull(vectorStore, "The vectorStore must not be null!");
 		Assert.notNull(searchRequest, "The searchRequest must not be null!");
@@ -81,6 +113,7 @@ public class QuestionAnswerAdvisor implements RequestResponseAdvisor {
 		this.vectorStore = vectorStore;
 		this.searchRequest = searchRequest;
 		this.userTextAdvise = userTextAdvise;
+		this.contextPacker = contextPacker;
 	}
 
 	@Override
@@ -95,9 +128,18 @@ public class QuestionAnswerAdvisor implements RequestResponseAdvisor {
 		context.put(RETRIEVED_DOCUMENTS, documents);
 
 		// 3. Create the context from the documents.
-		String documentContext = documents.stream()
-			.map(Content::getContent)
-			.collect(Collectors.joining(System.lineSeparator()));
+		String documentContext;
+		if (this.contextPacker != null) {
+			PackedContext packedContext = this.contextPacker.pack(documents);
+			documentContext = packedContext.content();
+			context.put(CONTEXT_TOKENS, packedContext.usedTokens());
+			context.put(CONTEXT_SAVED_TOKENS, packedContext.savedTokens());
+		}
+		else {
+			documentContext = documents.stream()
+				.map(Content::getContent)
+				.collect(Collectors.joining(System.lineSeparator()));
+		}
 
 		// 4. Advise the user parameters.
 		Map<String, Object> advisedUserParams = new HashMap<>(request.userParams());
@@ -111,18 +153,31 @@ public class QuestionAnswerAdvisor implements RequestResponseAdvisor {
 		return advisedRequest;
 	}
 
+	@Override
+	public Mono<AdvisedRequest> adviseRequest(Mono<AdvisedRequest> request, Map<String, Object> context) {
+		return request.publishOn(Schedulers.boundedElastic()).map(advised -> adviseRequest(advised, context));
+	}
+
 	@Override
 	public ChatResponse adviseResponse(ChatResponse response, Map<String, Object> context) {
-		response.getMetadata().put(RETRIEVED_DOCUMENTS, context.get(RETRIEVED_DOCUMENTS));
+		addMetadata(response, context);
 		return response;
 	}
 
 	@Override
 	public Flux<ChatResponse> adviseResponse(Flux<ChatResponse> fluxResponse, Map<String, Object> context) {
 		return fluxResponse.map(cr -> {
-			cr.getMetadata().put(RETRIEVED_DOCUMENTS, context.get(RETRIEVED_DOCUMENTS));
+			addMetadata(cr, context);
 			return cr;
 		});
 	}
 
+	private void addMetadata(ChatResponse response, Map<String, Object> context) {
+		response.getMetadata().put(RETRIEVED_DOCUMENTS, context.get(RETRIEVED_DOCUMENTS));
+		if (context.containsKey(CONTEXT_TOKENS)) {
+			response.getMetadata().put(CONTEXT_TOKENS, context.get(CONTEXT_TOKENS));
+			response.getMetadata().put(CONTEXT_SAVED_TOKENS, context.get(CONTEXT_SAVED_TOKENS));
+		}
+	}
+
 }
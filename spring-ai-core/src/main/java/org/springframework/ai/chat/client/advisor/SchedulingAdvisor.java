@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.chat.client.advisor;
+
+import java.util.Map;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import org.springframework.ai.chat.client.AdvisedRequest;
+import org.springframework.ai.chat.client.RequestResponseAdvisor;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.util.Assert;
+
+/**
+ * Adapts a blocking {@link RequestResponseAdvisor} to streaming calls by running its
+ * request advice on the given {@link Scheduler}, e.g. a dedicated bounded elastic
+ * scheduler or, on Java 21, one backed by virtual threads:
+ * {@code Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor())}.
+ * Blocking calls are passed through to the delegate unchanged.
+ *
+ * @since 1.0.0
+ */
+public class SchedulingAdvisor implements RequestResponseAdvisor {
+
+	private final RequestResponseAdvisor delegate;
+
+	private final Scheduler scheduler;
+
+	public SchedulingAdvisor(RequestResponseAdvisor delegate, Scheduler scheduler) {
+		Assert.notNull(delegate, "The delegate must not be null");
+		Assert.notNull(scheduler, "The scheduler must not be null");
+		this.delegate = delegate;
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	public AdvisedRequest adviseRequest(AdvisedRequest request, Map<String, Object> context) {
+		return this.delegate.adviseRequest(request, context);
+	}
+
+	@Override
+	public Mono<AdvisedRequest> adviseRequest(Mono<AdvisedRequest> request, Map<String, Object> context) {
+		return request.publishOn(this.scheduler).map(advised -> this.delegate.adviseRequest(advised, context));
+	}
+
+	@Override
+	public ChatResponse adviseResponse(ChatResponse response, Map<String, Object> context) {
+		return this.delegate.adviseResponse(response, context);
+	}
+
+	@Override
+	public Flux<ChatResponse> adviseResponse(Flux<ChatResponse> fluxResponse, Map<String, Object> context) {
+		return this.delegate.adviseResponse(fluxResponse, context);
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.chat.client.advisor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Packs the retrieved documents into a context that fits a token budget.
+ * <p>
+ * The documents are added in score order, i.e. by ascending {@code distance} metadata
+ * when all the documents have one, otherwise in the order returned by the vector store.
+ * Documents that are near-duplicates of an already packed one, by the Jaccard similarity
+ * of their word shingles, are skipped. The first document exceeding the remaining budget
+ * is truncated to the whole sentences that fit, and packing stops there.
+ *
+ * @since 1.0.0
+ */
+public class TokenBudgetContextPacker {
+
+	public static final String DISTANCE_METADATA_KEY = "distance";
+
+	public static final double DEFAULT_DUPLICATE_THRESHOLD = 0.9;
+
+	private static final Pattern SENTENCE_BOUNDARY = Pattern.compile("(?<=[.!?])\\s+");
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private static final int SHINGLE_SIZE = 3;
+
+	private final TokenCountEstimator tokenCountEstimator;
+
+	private final int maxTokens;
+
+	private final double duplicateThreshold;
+
+	private final String separator;
+
+	public TokenBudgetContextPacker(int maxTokens) {
+		this(new JTokkitTokenCountEstimator(), maxTokens, DEFAULT_DUPLICATE_THRESHOLD);
+	}
+
+	/**
+	 * @param tokenCountEstimator the estimator of the document tokens
+	 * @param maxTokens the token budget of the packed context
+	 * @param duplicateThreshold the shingle similarity, between 0 and 1, above which a
+	 * document is a duplicate of another one. Use a value greater than 1 to keep all the
+	 * documents.
+	 */
+	public TokenBudgetContextPacker(TokenCountEstimator tokenCountEstimator, int maxTokens, double duplicateThreshold) {
+		Assert.notNull(tokenCountEstimator, "The tokenCountEstimator must not be null!");
+		Assert.isTrue(maxTokens > 0, "The maxTokens must be greater than 0!");
+		Assert.isTrue(duplicateThreshold > 0, "The duplicateThreshold must be greater than 0!");
+		this.tokenCountEstimator = tokenCountEstimator;
+		this.maxTokens = maxTokens;
+		this.duplicateThreshold = duplicateThreshold;
+		this.separator = System.lineSeparator();
+	}
+
+	public PackedContext pack(List<Document> documents) {
+
+		List<Document> ordered = new ArrayList<>(documents);
+		if (!ordered.isEmpty() && ordered.stream().allMatch(TokenBudgetContextPacker::hasDistance)) {
+			ordered.sort(Comparator.comparingDouble(TokenBudgetContextPacker::distance));
+		}
+
+		List<Document> packed = new ArrayList<>();
+		List<Set<String>> packedShingles = new ArrayList<>();
+		StringBuilder content = new StringBuilder();
+		int usedTokens = 0;
+		int totalTokens = 0;
+		boolean full = false;
+
+		for (Document document : ordered) {
+			String text = document.getContent();
+			int tokens = this.tokenCountEstimator.estimate(text);
+			totalTokens += tokens;
+			if (full || !StringUtils.hasText(text)) {
+				continue;
+			}
+
+			Set<String> shingles = shingles(text);
+			if (isDuplicate(shingles, packedShingles)) {
+				continue;
+			}
+
+			if (usedTokens + tokens > this.maxTokens) {
+				full = true;
+				text = truncate(text, this.maxTokens - usedTokens);
+				if (text.isEmpty()) {
+					continue;
+				}
+				tokens = this.tokenCountEstimator.estimate(text);
+			}
+
+			if (!packed.isEmpty()) {
+				content.append(this.separator);
+			}
+			content.append(text);
+			usedTokens += tokens;
+			packed.add(document);
+			packedShingles.add(shingles);
+		}
+
+		return new PackedContext(content.toString(), packed, usedTokens, totalTokens);
+	}
+
+	/**
+	 * Return the longest run of leading sentences that fits the given number of tokens,
+	 * or an empty string if even the first sentence does not fit. The whole text is known
+	 * not to fit, and the sentence ends are binary searched.
+	 */
+	private String truncate(String text, int maxTokens) {
+		List<Integer> sentenceEnds = new ArrayList<>();
+		Matcher matcher = SENTENCE_BOUNDARY.matcher(text);
+		while (matcher.find()) {
+			sentenceEnds.add(matcher.start());
+		}
+		String truncated = "";
+		int low = 0;
+		int high = sentenceEnds.size() - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			String candidate = text.substring(0, sentenceEnds.get(middle));
+			if (this.tokenCountEstimator.estimate(candidate) <= maxTokens) {
+				truncated = candidate;
+				low = middle + 1;
+			}
+			else {
+				high = middle - 1;
+			}
+		}
+		return truncated;
+	}
+
+	private boolean isDuplicate(Set<String> shingles, List<Set<String>> packedShingles) {
+		for (Set<String> other : packedShingles) {
+			if (similarity(shingles, other) >= this.duplicateThreshold) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static double similarity(Set<String> a, Set<String> b) {
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0;
+		}
+		Set<String> smaller = (a.size() <= b.size()) ? a : b;
+		Set<String> larger = (smaller == a) ? b : a;
+		int intersection = 0;
+		for (String shingle : smaller) {
+			if (larger.contains(shingle)) {
+				intersection++;
+			}
+		}
+		return (double) intersection / (a.size() + b.size() - intersection);
+	}
+
+	private static Set<String> shingles(String text) {
+		String[] words = WHITESPACE.split(text.toLowerCase(Locale.ROOT).strip());
+		Set<String> shingles = new HashSet<>();
+		if (words.length < SHINGLE_SIZE) {
+			shingles.add(String.join(" ", words));
+			return shingles;
+		}
+		List<String> wordList = List.of(words);
+		for (int i = 0; i + SHINGLE_SIZE <= words.length; i++) {
+			shingles.add(String.join(" ", wordList.subList(i, i + SHINGLE_SIZE)));
+		}
+		return shingles;
+	}
+
+	private static boolean hasDistance(Document document) {
+		return document.getMetadata().get(DISTANCE_METADATA_KEY) instanceof Number;
+	}
+
+	private static double distance(Document document) {
+		return ((Number) document.getMetadata().get(DISTANCE_METADATA_KEY)).doubleValue();
+	}
+
+	/**
+	 * The packed context.
+	 *
+	 * @param content the packed text of the documents
+	 * @param documents the packed documents, in packing order. The last one may be
+	 * truncated.
+	 * @param usedTokens the estimated tokens of the packed text
+	 * @param totalTokens the estimated tokens of all the retrieved documents
+	 */
+	public record PackedContext(String content, List<Document> documents, int usedTokens, int totalTokens) {
+
+		/**
+		 * @return the estimated tokens left out of the context
+		 */
+		public int savedTokens() {
+			return Math.max(0, this.totalTokens - this.usedTokens);
+		}
+
+	}
+
+}
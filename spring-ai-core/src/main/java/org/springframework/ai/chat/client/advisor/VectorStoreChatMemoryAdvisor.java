@@ -21,6 +21,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 
 import org.springframework.ai.chat.client.AdvisedRequest;
@@ -30,18 +32,28 @@ import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.MessageAggregator;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentWriter;
+import org.springframework.ai.document.WriteBehindDocumentWriter;
 import org.springframework.ai.model.Content;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.util.Assert;
 
 /**
  * Memory is retrieved from a VectorStore added into the prompt's system text.
+ * <p>
+ * By default the messages are written to the VectorStore on the calling thread. With a
+ * {@link WriteBehindDocumentWriter}, see {@link #writeBehindBuilder(VectorStore)}, they
+ * are written in the background instead, and each request waits only for the pending
+ * writes of its own conversation before retrieving the memory.
  *
  * @author Christian Tzolov
  * @since 1.0.0 M1
  */
 public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<VectorStore> {
 
+	private static final Logger logger = LoggerFactory.getLogger(VectorStoreChatMemoryAdvisor.class);
+
 	private static final String DOCUMENT_METADATA_CONVERSATION_ID = "conversationId";
 
 	private static final String DOCUMENT_METADATA_MESSAGE_TYPE = "messageType";
@@ -59,6 +71,10 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 
 	private final String systemTextAdvise;
 
+	private final DocumentWriter memoryWriter;
+
+	private final WriteBehindDocumentWriter writeBehindWriter;
+
 	public VectorStoreChatMemoryAdvisor(VectorStore vectorStore) {
 		this(vectorStore, DEFAULT_SYSTEM_TEXT_ADVISE);
 	}
@@ -66,6 +82,8 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 	public VectorStoreChatMemoryAdvisor(VectorStore vectorStore, String systemTextAdvise) {
 		super(vectorStore);
 		this.systemTextAdvise = systemTextAdvise;
+		this.memoryWriter = vectorStore;
+		this.writeBehindWriter = null;
 	}
 
 	public VectorStoreChatMemoryAdvisor(VectorStore vectorStore, String defaultConversationId,
@@ -77,17 +95,50 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 			int chatHistoryWindowSize, String systemTextAdvise) {
 		super(vectorStore, defaultConversationId, chatHistoryWindowSize);
 		this.systemTextAdvise = systemTextAdvise;
+		this.memoryWriter = vectorStore;
+		this.writeBehindWriter = null;
+	}
+
+	/**
+	 * Create an advisor writing the memory through the given write-behind writer, which
+	 * must write to the given vector store and be keyed by conversation id, e.g. built
+	 * with {@link #writeBehindBuilder(VectorStore)}.
+	 */
+	public VectorStoreChatMemoryAdvisor(VectorStore vectorStore, String defaultConversationId,
+			int chatHistoryWindowSize, String systemTextAdvise, WriteBehindDocumentWriter writeBehindWriter) {
+		super(vectorStore, defaultConversationId, chatHistoryWindowSize);
+		Assert.notNull(writeBehindWriter, "The writeBehindWriter must not be null!");
+		this.systemTextAdvise = systemTextAdvise;
+		this.memoryWriter = writeBehindWriter;
+		this.writeBehindWriter = writeBehindWriter;
+	}
+
+	/**
+	 * Return a builder for a {@link WriteBehindDocumentWriter} writing the memory to the
+	 * given vector store, keyed by conversation id. The built writer should be closed on
+	 * shutdown to flush the pending messages.
+	 * @param vectorStore the vector store holding the memory
+	 * @return the write-behind writer builder
+	 */
+	public static WriteBehindDocumentWriter.Builder writeBehindBuilder(VectorStore vectorStore) {
+		return WriteBehindDocumentWriter.builder(vectorStore)
+			.withKeyExtractor(document -> (String) document.getMetadata().get(DOCUMENT_METADATA_CONVERSATION_ID));
 	}
 
 	@Override
 	public AdvisedRequest adviseRequest(AdvisedRequest request, Map<String, Object> context) {
 
+		String conversationId = this.doGetConversationId(context);
+
+		if (this.writeBehindWriter != null && !this.writeBehindWriter.awaitWritten(conversationId)) {
+			logger.warn("Timed out waiting for the pending memory writes of conversation {}", conversationId);
+		}
+
 		String advisedSystemText = request.systemText() + System.lineSeparator() + this.systemTextAdvise;
 
 		var searchRequest = SearchRequest.query(request.userText())
 			.withTopK(this.doGetChatMemoryRetrieveSize(context))
-			.withFilterExpression(
-					"'" + DOCUMENT_METADATA_CONVERSATION_ID + "'=='" + this.doGetConversationId(context) + "'");
+			.withFilterExpression("'" + DOCUMENT_METADATA_CONVERSATION_ID + "'=='" + conversationId + "'");
 
 		List<Document> documents = this.getChatMemoryStore().similaritySearch(searchRequest);
 
@@ -104,7 +155,7 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 			.build();
 
 		UserMessage userMessage = new UserMessage(request.userText(), request.media());
-		this.getChatMemoryStore().write(toDocuments(List.of(userMessage), this.doGetConversationId(context)));
+		this.memoryWriter.write(toDocuments(List.of(userMessage), conversationId));
 
 		return advisedRequest;
 	}
@@ -114,7 +165,7 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 
 		List<Message> assistantMessages = chatResponse.getResults().stream().map(g -> (Message) g.getOutput()).toList();
 
-		this.getChatMemoryStore().write(toDocuments(assistantMessages, this.doGetConversationId(context)));
+		this.memoryWriter.write(toDocuments(assistantMessages, this.doGetConversationId(context)));
 
 		return chatResponse;
 	}
@@ -128,7 +179,7 @@ public class VectorStoreChatMemoryAdvisor extends AbstractChatMemoryAdvisor<Vect
 				.map(g -> (Message) g.getOutput())
 				.toList();
 
-			this.getChatMemoryStore().write(toDocuments(assistantMessages, this.doGetConversationId(context)));
+			this.memoryWriter.write(toDocuments(assistantMessages, this.doGetConversationId(context)));
 		});
 	}
 
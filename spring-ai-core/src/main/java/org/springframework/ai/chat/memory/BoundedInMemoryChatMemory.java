@@ -0,0 +1,391 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.chat.memory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ChatMemory} keeping the conversations in memory within fixed bounds.
+ * <p>
+ * Each conversation is a ring buffer holding its last messages, up to a maximum number of
+ * messages and, optionally, a maximum number of estimated tokens. The oldest messages are
+ * dropped to make room for new ones.
+ * <p>
+ * The number of conversations is bounded too: once exceeded, the least recently used
+ * conversations are evicted, as approximated by a second chance queue in creation order.
+ * Conversations idle for longer than the optional time to idle expire.
+ * <p>
+ * Each conversation is guarded by its own lock, so that concurrent calls only contend on
+ * the same conversation.
+ *
+ * @see InMemoryChatMemory
+ * @since 1.0.0
+ */
+public class BoundedInMemoryChatMemory implements ChatMemory {
+
+	public static final int DEFAULT_MAX_MESSAGES = 100;
+
+	public static final int DEFAULT_MAX_CONVERSATIONS = 10_000;
+
+	private final Map<String, Conversation> conversations = new ConcurrentHashMap<>();
+
+	/**
+	 * The conversations in creation order. The ones used since they were last reached get
+	 * a second chance at the tail rather than being evicted.
+	 */
+	private final Queue<Conversation> evictionQueue = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger createdCount = new AtomicInteger();
+
+	private final int maxMessages;
+
+	private final int maxConversations;
+
+	private final int maxTokens;
+
+	private final TokenCountEstimator tokenCountEstimator;
+
+	private final long timeToIdleNanos;
+
+	private final LongSupplier nanoClock;
+
+	private final AtomicLong lastExpiration;
+
+	private BoundedInMemoryChatMemory(Builder builder) {
+		this.maxMessages = builder.maxMessages;
+		this.maxConversations = builder.maxConversations;
+		this.maxTokens = builder.maxTokens;
+		this.tokenCountEstimator = (builder.maxTokens > 0) ? builder.tokenCountEstimator : null;
+		this.timeToIdleNanos = (builder.timeToIdle != null) ? builder.timeToIdle.toNanos() : 0;
+		this.nanoClock = builder.nanoClock;
+		this.lastExpiration = new AtomicLong(this.nanoClock.getAsLong());
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public void add(String conversationId, List<Message> messages) {
+		Assert.hasText(conversationId, "The conversationId must not be empty!");
+		Assert.notNull(messages, "The messages must not be null!");
+
+		long now = this.nanoClock.getAsLong();
+		int[] tokens = estimateTokens(messages);
+		while (true) {
+			Conversation conversation = this.conversations.get(conversationId);
+			boolean created = false;
+			if (conversation == null) {
+				conversation = new Conversation(conversationId, this.maxMessages, now);
+				Conversation existing = this.conversations.putIfAbsent(conversationId, conversation);
+				if (existing != null) {
+					conversation = existing;
+				}
+				else {
+					created = true;
+					evict(now);
+					this.evictionQueue.offer(conversation);
+				}
+			}
+			synchronized (conversation) {
+				// Evicted concurrently, retry with a new conversation
+				if (conversation.removed) {
+					continue;
+				}
+				if (isExpired(conversation, now)) {
+					conversation.clear();
+				}
+				for (int i = 0; i < messages.size(); i++) {
+					conversation.add(messages.get(i), tokens[i]);
+				}
+				conversation.trimTokens(this.maxTokens);
+				conversation.lastAccess = now;
+				conversation.used |= !created;
+				return;
+			}
+		}
+	}
+
+	@Override
+	public List<Message> get(String conversationId, int lastN) {
+		Conversation conversation = this.conversations.get(conversationId);
+		if (conversation == null) {
+			return List.of();
+		}
+		long now = this.nanoClock.getAsLong();
+		synchronized (conversation) {
+			if (conversation.removed) {
+				return List.of();
+			}
+			if (isExpired(conversation, now)) {
+				remove(conversationId, conversation);
+				return List.of();
+			}
+			conversation.lastAccess = now;
+			conversation.used = true;
+			return conversation.last(lastN);
+		}
+	}
+
+	@Override
+	public void clear(String conversationId) {
+		Conversation conversation = this.conversations.get(conversationId);
+		if (conversation != null) {
+			synchronized (conversation) {
+				remove(conversationId, conversation);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of conversations currently held
+	 */
+	public int size() {
+		return this.conversations.size();
+	}
+
+	private int[] estimateTokens(List<Message> messages) {
+		int[] tokens = new int[messages.size()];
+		if (this.tokenCountEstimator != null) {
+			for (int i = 0; i < tokens.length; i++) {
+				tokens[i] = this.tokenCountEstimator.estimate(messages.get(i).getContent());
+			}
+		}
+		return tokens;
+	}
+
+	private boolean isExpired(Conversation conversation, long now) {
+		return this.timeToIdleNanos > 0 && now - conversation.lastAccess > this.timeToIdleNanos;
+	}
+
+	/**
+	 * Called whenever a conversation is created, before it is queued. Removes the expired
+	 * conversations, at most once per time to idle, then the least recently used ones
+	 * beyond the maximum.
+	 */
+	private void evict(long now) {
+		long lastExpiration = this.lastExpiration.get();
+		if (this.timeToIdleNanos > 0 && now - lastExpiration > this.timeToIdleNanos
+				&& this.lastExpiration.compareAndSet(lastExpiration, now)) {
+			this.conversations.forEach((id, conversation) -> {
+				if (isExpired(conversation, now)) {
+					synchronized (conversation) {
+						if (isExpired(conversation, now)) {
+							remove(id, conversation);
+						}
+					}
+				}
+			});
+		}
+
+		// The queue keeps the conversations removed otherwise until they are reached,
+		// purge them once in a while
+		if (this.createdCount.incrementAndGet() % this.maxConversations == 0) {
+			this.evictionQueue.removeIf(conversation -> conversation.removed);
+		}
+
+		while (this.conversations.size() > this.maxConversations) {
+			Conversation candidate = this.evictionQueue.poll();
+			if (candidate == null) {
+				return;
+			}
+			synchronized (candidate) {
+				if (candidate.used) {
+					candidate.used = false;
+					this.evictionQueue.offer(candidate);
+				}
+				else if (!candidate.removed) {
+					remove(candidate.id, candidate);
+				}
+			}
+		}
+	}
+
+	private void remove(String conversationId, Conversation conversation) {
+		conversation.removed = true;
+		this.conversations.remove(conversationId, conversation);
+	}
+
+	/**
+	 * Ring buffer of the last messages of a conversation, guarded by its own monitor.
+	 */
+	private static final class Conversation {
+
+		private final String id;
+
+		private final Message[] messages;
+
+		private final int[] tokens;
+
+		private int head;
+
+		private int size;
+
+		private long totalTokens;
+
+		private volatile long lastAccess;
+
+		private volatile boolean removed;
+
+		/**
+		 * Whether the conversation was used since it was created or last reached in the
+		 * eviction queue.
+		 */
+		private boolean used;
+
+		Conversation(String id, int capacity, long now) {
+			this.id = id;
+			this.messages = new Message[capacity];
+			this.tokens = new int[capacity];
+			this.lastAccess = now;
+		}
+
+		void add(Message message, int messageTokens) {
+			if (this.size == this.messages.length) {
+				removeOldest();
+			}
+			int index = (this.head + this.size) % this.messages.length;
+			this.messages[index] = message;
+			this.tokens[index] = messageTokens;
+			this.totalTokens += messageTokens;
+			this.size++;
+		}
+
+		/**
+		 * Drop the oldest messages until the conversation fits the token limit, always
+		 * keeping the last message.
+		 */
+		void trimTokens(int maxTokens) {
+			while (maxTokens > 0 && this.totalTokens > maxTokens && this.size > 1) {
+				removeOldest();
+			}
+		}
+
+		List<Message> last(int n) {
+			int count = Math.max(0, Math.min(n, this.size));
+			List<Message> last = new ArrayList<>(count);
+			for (int i = this.size - count; i < this.size; i++) {
+				last.add(this.messages[(this.head + i) % this.messages.length]);
+			}
+			return last;
+		}
+
+		void clear() {
+			while (this.size > 0) {
+				removeOldest();
+			}
+		}
+
+		private void removeOldest() {
+			this.totalTokens -= this.tokens[this.head];
+			this.messages[this.head] = null;
+			this.head = (this.head + 1) % this.messages.length;
+			this.size--;
+		}
+
+	}
+
+	public static class Builder {
+
+		private int maxMessages = DEFAULT_MAX_MESSAGES;
+
+		private int maxConversations = DEFAULT_MAX_CONVERSATIONS;
+
+		private int maxTokens;
+
+		private TokenCountEstimator tokenCountEstimator;
+
+		private Duration timeToIdle;
+
+		private LongSupplier nanoClock = System::nanoTime;
+
+		private Builder() {
+		}
+
+		/**
+		 * Maximum number of messages kept per conversation, e.g. the chat memory window.
+		 */
+		public Builder withMaxMessages(int maxMessages) {
+			Assert.isTrue(maxMessages > 0, "The maxMessages must be greater than 0!");
+			this.maxMessages = maxMessages;
+			return this;
+		}
+
+		public Builder withMaxConversations(int maxConversations) {
+			Assert.isTrue(maxConversations > 0, "The maxConversations must be greater than 0!");
+			this.maxConversations = maxConversations;
+			return this;
+		}
+
+		/**
+		 * Maximum number of estimated tokens kept per conversation. Not limited by
+		 * default.
+		 */
+		public Builder withMaxTokens(int maxTokens) {
+			Assert.isTrue(maxTokens > 0, "The maxTokens must be greater than 0!");
+			this.maxTokens = maxTokens;
+			return this;
+		}
+
+		/**
+		 * Estimator of the message tokens, JTokkit by default.
+		 */
+		public Builder withTokenCountEstimator(TokenCountEstimator tokenCountEstimator) {
+			Assert.notNull(tokenCountEstimator, "The tokenCountEstimator must not be null!");
+			this.tokenCountEstimator = tokenCountEstimator;
+			return this;
+		}
+
+		/**
+		 * Time after which a conversation that is neither read nor written expires. Never
+		 * expires by default.
+		 */
+		public Builder withTimeToIdle(Duration timeToIdle) {
+			Assert.isTrue(timeToIdle != null && !timeToIdle.isNegative() && !timeToIdle.isZero(),
+					"The timeToIdle must be positive!");
+			this.timeToIdle = timeToIdle;
+			return this;
+		}
+
+		Builder withNanoClock(LongSupplier nanoClock) {
+			this.nanoClock = nanoClock;
+			return this;
+		}
+
+		public BoundedInMemoryChatMemory build() {
+			if (this.maxTokens > 0 && this.tokenCountEstimator == null) {
+				this.tokenCountEstimator = new JTokkitTokenCountEstimator();
+			}
+			return new BoundedInMemoryChatMemory(this);
+		}
+
+	}
+
+}
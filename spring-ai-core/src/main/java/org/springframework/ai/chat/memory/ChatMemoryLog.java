@@ -0,0 +1,706 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.chat.memory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+import org.springframework.util.Assert;
+
+/**
+ * One shard of a {@link FileChatMemory}: an append-only log of the messages of the
+ * conversations hashed to the shard, split into fixed size memory-mapped segment files.
+ * <p>
+ * Each message record holds the address of the previous message record of the same
+ * conversation, and an in-memory index holds the address of the last one, so that the
+ * last N messages of a conversation are read by following N links back. Clearing a
+ * conversation appends a clear record.
+ * <p>
+ * The index is checkpointed to a file whenever a segment is full, so that reopening the
+ * log only replays the records appended after the checkpoint. Records are checksummed,
+ * and replay stops at the first torn or corrupted one. Once the log is larger than the
+ * live records by the compaction ratio, the live records are copied to new segments and
+ * the old ones are deleted.
+ * <p>
+ * The mappings of the deleted segments, and of all of them once the log is closed, are
+ * released right away rather than when their buffers are garbage collected, so that the
+ * log must not be used once closed.
+ * <p>
+ * The methods are synchronized, so that each shard is locked independently.
+ *
+ * @since 1.0.0
+ */
+final class ChatMemoryLog {
+
+	private static final int CHECKPOINT_MAGIC = 0x43484D43;
+
+	private static final int VERSION = 1;
+
+	private static final int RECORD_HEADER_LENGTH = 8;
+
+	private static final byte MESSAGE_RECORD = 1;
+
+	private static final byte CLEAR_RECORD = 2;
+
+	private static final long NO_ADDRESS = -1;
+
+	private static final String LOG_SUFFIX = ".log";
+
+	private static final String COMPACT_SUFFIX = ".compact";
+
+	private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+	/**
+	 * {@code sun.misc.Unsafe#invokeCleaner(ByteBuffer)}, or null if not available.
+	 */
+	private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+	private final Path directory;
+
+	private final String prefix;
+
+	private final int segmentSize;
+
+	private final int maxMessages;
+
+	private final double compactionRatio;
+
+	private final boolean syncWrites;
+
+	private TreeMap<Integer, Segment> segments = new TreeMap<>();
+
+	private Segment active;
+
+	private Map<String, Head> index = new HashMap<>();
+
+	private long writtenBytes;
+
+	private long liveBytes;
+
+	private boolean closed;
+
+	ChatMemoryLog(Path directory, int shard, int segmentSize, int maxMessages, double compactionRatio,
+			boolean syncWrites) throws IOException {
+		this.directory = directory;
+		this.prefix = "shard-" + shard + "-";
+		this.segmentSize = segmentSize;
+		this.maxMessages = maxMessages;
+		this.compactionRatio = compactionRatio;
+		this.syncWrites = syncWrites;
+		open();
+	}
+
+	synchronized void add(String conversationId, List<byte[]> messages) throws IOException {
+		assertOpen();
+		int idLength = conversationId.getBytes(StandardCharsets.UTF_8).length;
+		for (byte[] message : messages) {
+			// Reserve first, since rolling the segment may compact the log and move the
+			// previous message
+			reserve(RECORD_HEADER_LENGTH + 1 + 4 + idLength + 8 + message.length);
+			Head head = this.index.get(conversationId);
+			byte[] payload = messagePayload(conversationId, (head != null) ? head.address : NO_ADDRESS, message);
+			long address = append(payload);
+			applyMessage(conversationId, address, RECORD_HEADER_LENGTH + payload.length);
+		}
+	}
+
+	/**
+	 * @return the last messages of the conversation, oldest first
+	 */
+	synchronized List<byte[]> get(String conversationId, int lastN) {
+		assertOpen();
+		Head head = this.index.get(conversationId);
+		if (head == null || lastN <= 0) {
+			return List.of();
+		}
+		List<byte[]> messages = new ArrayList<>();
+		for (Record record : chain(head, lastN)) {
+			messages.add(record.message());
+		}
+		Collections.reverse(messages);
+		return messages;
+	}
+
+	synchronized void clear(String conversationId) throws IOException {
+		assertOpen();
+		if (!this.index.containsKey(conversationId)) {
+			return;
+		}
+		byte[] payload = clearPayload(conversationId);
+		reserve(RECORD_HEADER_LENGTH + payload.length);
+		append(payload);
+		applyClear(conversationId, RECORD_HEADER_LENGTH + payload.length);
+	}
+
+	/**
+	 * Copy the live records to new segments and delete the old ones.
+	 */
+	synchronized void compact() throws IOException {
+		assertOpen();
+		int firstId = this.active.id + 1;
+		TreeMap<Integer, Segment> compacted = new TreeMap<>();
+		Segment out = Segment.open(path(firstId, COMPACT_SUFFIX), firstId, this.segmentSize);
+		compacted.put(firstId, out);
+		Map<String, Head> compactedIndex = new HashMap<>();
+		long compactedBytes = 0;
+		try {
+			for (Map.Entry<String, Head> entry : this.index.entrySet()) {
+				List<Record> records = chain(entry.getValue(), entry.getValue().count);
+				Head head = new Head();
+				for (int i = records.size() - 1; i >= 0; i--) {
+					byte[] payload = messagePayload(entry.getKey(), head.address, records.get(i).message());
+					int length = RECORD_HEADER_LENGTH + payload.length;
+					if (out.end + length > out.capacity()) {
+						out = Segment.open(path(out.id + 1, COMPACT_SUFFIX), out.id + 1, this.segmentSize);
+						compacted.put(out.id, out);
+					}
+					head.address = write(out, payload);
+					head.count++;
+					head.bytes += length;
+				}
+				compactedIndex.put(entry.getKey(), head);
+				compactedBytes += head.bytes;
+			}
+			for (Segment segment : compacted.values()) {
+				segment.buffer.force();
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			for (Segment segment : compacted.values()) {
+				segment.release();
+				Files.deleteIfExists(segment.path);
+			}
+			throw ex;
+		}
+
+		TreeMap<Integer, Segment> obsolete = this.segments;
+		this.segments = compacted;
+		this.active = out;
+		this.index = compactedIndex;
+		this.writtenBytes = compactedBytes;
+		this.liveBytes = compactedBytes;
+
+		// The checkpoint commits the compaction. The first compacted segment is renamed
+		// last, so that a compaction interrupted while renaming is completed on open.
+		writeCheckpoint();
+		for (Segment segment : compacted.descendingMap().values()) {
+			Path target = path(segment.id, LOG_SUFFIX);
+			Files.move(segment.path, target, StandardCopyOption.REPLACE_EXISTING);
+			segment.path = target;
+		}
+		for (Segment segment : obsolete.values()) {
+			segment.release();
+			Files.deleteIfExists(segment.path);
+		}
+	}
+
+	/**
+	 * Write the data to the disk, checkpoint the index and release the segments.
+	 */
+	synchronized void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		this.active.buffer.force();
+		writeCheckpoint();
+		this.closed = true;
+		for (Segment segment : this.segments.values()) {
+			segment.release();
+		}
+	}
+
+	private void assertOpen() {
+		Assert.state(!this.closed, "The chat memory log is closed");
+	}
+
+	synchronized long getWrittenBytes() {
+		return this.writtenBytes;
+	}
+
+	synchronized int getSegmentCount() {
+		return this.segments.size();
+	}
+
+	private void open() throws IOException {
+		TreeSet<Integer> logIds = segmentIds(LOG_SUFFIX);
+		TreeSet<Integer> compactIds = segmentIds(COMPACT_SUFFIX);
+		Checkpoint checkpoint = readCheckpoint();
+		if (checkpoint != null) {
+			int coveredId = segmentId(checkpoint.coveredAddress());
+			if (!logIds.contains(coveredId) && !compactIds.contains(coveredId)) {
+				// Inconsistent with the segments, replay them all
+				checkpoint = null;
+			}
+		}
+
+		if (checkpoint != null && compactIds.contains(checkpoint.firstSegmentId())
+				&& !logIds.contains(checkpoint.firstSegmentId())) {
+			// The compaction was committed, but its segments were not all renamed
+			for (int id : compactIds) {
+				Files.move(path(id, COMPACT_SUFFIX), path(id, LOG_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+				logIds.add(id);
+			}
+		}
+		else {
+			for (int id : compactIds) {
+				Files.delete(path(id, COMPACT_SUFFIX));
+			}
+		}
+
+		int firstId = (checkpoint != null) ? checkpoint.firstSegmentId() : logIds.isEmpty() ? 0 : logIds.first();
+		for (int id : logIds) {
+			if (id < firstId) {
+				Files.delete(path(id, LOG_SUFFIX));
+			}
+			else {
+				this.segments.put(id, Segment.open(path(id, LOG_SUFFIX), id, this.segmentSize));
+			}
+		}
+		if (this.segments.isEmpty()) {
+			this.segments.put(firstId, Segment.open(path(firstId, LOG_SUFFIX), firstId, this.segmentSize));
+		}
+
+		long start = NO_ADDRESS;
+		if (checkpoint != null) {
+			this.index = checkpoint.index();
+			this.writtenBytes = checkpoint.writtenBytes();
+			start = checkpoint.coveredAddress();
+		}
+		for (Segment segment : this.segments.values()) {
+			if (start != NO_ADDRESS && segment.id < segmentId(start)) {
+				// Covered by the checkpoint, and full
+				segment.end = segment.capacity();
+				continue;
+			}
+			int position = (start != NO_ADDRESS && segment.id == segmentId(start)) ? position(start) : 0;
+			segment.end = replay(segment, position);
+		}
+		this.active = this.segments.lastEntry().getValue();
+		for (Head head : this.index.values()) {
+			this.liveBytes += head.bytes;
+		}
+
+		clearTail(this.active);
+	}
+
+	/**
+	 * Clear any torn record after the end of the segment, so that it cannot follow the
+	 * next appended one. Only the non-zero words are written.
+	 */
+	private static void clearTail(Segment segment) {
+		int position = segment.end;
+		while (position < segment.capacity() && (position & 7) != 0) {
+			segment.buffer.put(position++, (byte) 0);
+		}
+		for (; position + 8 <= segment.capacity(); position += 8) {
+			if (segment.buffer.getLong(position) != 0) {
+				segment.buffer.putLong(position, 0);
+			}
+		}
+		for (; position < segment.capacity(); position++) {
+			segment.buffer.put(position, (byte) 0);
+		}
+	}
+
+	private int replay(Segment segment, int position) {
+		while (true) {
+			Record record = read(segment, position);
+			if (record == null) {
+				return position;
+			}
+			if (record.kind() == MESSAGE_RECORD) {
+				applyMessage(record.conversationId(), address(segment.id, position), record.length());
+			}
+			else {
+				applyClear(record.conversationId(), record.length());
+			}
+			position += record.length();
+		}
+	}
+
+	private void applyMessage(String conversationId, long address, int length) {
+		Head head = this.index.computeIfAbsent(conversationId, id -> new Head());
+		head.address = address;
+		if (head.count < this.maxMessages) {
+			head.count++;
+			head.bytes += length;
+			this.liveBytes += length;
+		}
+		else {
+			// Assume the dropped message was of average size
+			long dropped = head.bytes / head.count;
+			head.bytes += length - dropped;
+			this.liveBytes += length - dropped;
+		}
+		this.writtenBytes += length;
+	}
+
+	private void applyClear(String conversationId, int length) {
+		Head head = this.index.remove(conversationId);
+		if (head != null) {
+			this.liveBytes -= head.bytes;
+		}
+		this.writtenBytes += length;
+	}
+
+	/**
+	 * @return the records of the conversation, newest first
+	 */
+	private List<Record> chain(Head head, int limit) {
+		List<Record> records = new ArrayList<>(Math.min(limit, head.count));
+		long address = head.address;
+		while (address != NO_ADDRESS && records.size() < Math.min(limit, head.count)) {
+			Segment segment = this.segments.get(segmentId(address));
+			Record record = (segment != null) ? read(segment, position(address)) : null;
+			if (record == null || record.kind() != MESSAGE_RECORD) {
+				throw new IllegalStateException("Corrupted chat memory log at address " + address);
+			}
+			records.add(record);
+			address = record.previous();
+		}
+		return records;
+	}
+
+	/**
+	 * Make room for a record of the given length in the active segment.
+	 */
+	private void reserve(int length) throws IOException {
+		if (length > this.segmentSize) {
+			throw new IllegalArgumentException(
+					"The message of " + length + " bytes exceeds the segment size of " + this.segmentSize);
+		}
+		// Rolling may compact the live records into a segment that is nearly full, roll
+		// again to a fresh one then
+		while (this.active.end + length > this.active.capacity()) {
+			roll();
+		}
+	}
+
+	/**
+	 * Append a record to the active segment, in which room was reserved.
+	 */
+	private long append(byte[] payload) {
+		long address = write(this.active, payload);
+		if (this.syncWrites) {
+			this.active.buffer.force(position(address), RECORD_HEADER_LENGTH + payload.length);
+		}
+		return address;
+	}
+
+	private void roll() throws IOException {
+		this.active.buffer.force();
+		int id = this.active.id + 1;
+		this.active = Segment.open(path(id, LOG_SUFFIX), id, this.segmentSize);
+		this.segments.put(id, this.active);
+		writeCheckpoint();
+		if (this.writtenBytes > this.compactionRatio * this.liveBytes) {
+			compact();
+		}
+	}
+
+	private static long write(Segment segment, byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		int position = segment.end;
+		segment.buffer.put(position + RECORD_HEADER_LENGTH, payload);
+		segment.buffer.putInt(position + 4, (int) crc.getValue());
+		// The length is written last, a record is only visible once complete
+		segment.buffer.putInt(position, payload.length);
+		segment.end += RECORD_HEADER_LENGTH + payload.length;
+		return address(segment.id, position);
+	}
+
+	private static Record read(Segment segment, int position) {
+		if (position + RECORD_HEADER_LENGTH > segment.capacity()) {
+			return null;
+		}
+		int length = segment.buffer.getInt(position);
+		if (length <= 0 || length > segment.capacity() - position - RECORD_HEADER_LENGTH) {
+			return null;
+		}
+		byte[] payload = new byte[length];
+		segment.buffer.get(position + RECORD_HEADER_LENGTH, payload);
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		if ((int) crc.getValue() != segment.buffer.getInt(position + 4)) {
+			return null;
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN);
+		byte kind = buffer.get();
+		byte[] conversationId = new byte[buffer.getInt()];
+		buffer.get(conversationId);
+		long previous = NO_ADDRESS;
+		byte[] message = null;
+		if (kind == MESSAGE_RECORD) {
+			previous = buffer.getLong();
+			message = new byte[buffer.remaining()];
+			buffer.get(message);
+		}
+		return new Record(kind, new String(conversationId, StandardCharsets.UTF_8), previous, message,
+				RECORD_HEADER_LENGTH + length);
+	}
+
+	private static byte[] messagePayload(String conversationId, long previous, byte[] message) {
+		byte[] id = conversationId.getBytes(StandardCharsets.UTF_8);
+		return ByteBuffer.allocate(1 + 4 + id.length + 8 + message.length)
+			.order(ByteOrder.LITTLE_ENDIAN)
+			.put(MESSAGE_RECORD)
+			.putInt(id.length)
+			.put(id)
+			.putLong(previous)
+			.put(message)
+			.array();
+	}
+
+	private static byte[] clearPayload(String conversationId) {
+		byte[] id = conversationId.getBytes(StandardCharsets.UTF_8);
+		return ByteBuffer.allocate(1 + 4 + id.length)
+			.order(ByteOrder.LITTLE_ENDIAN)
+			.put(CLEAR_RECORD)
+			.putInt(id.length)
+			.put(id)
+			.array();
+	}
+
+	private void writeCheckpoint() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(CHECKPOINT_MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(this.segments.firstKey());
+		out.writeLong(address(this.active.id, this.active.end));
+		out.writeLong(this.writtenBytes);
+		out.writeInt(this.index.size());
+		for (Map.Entry<String, Head> entry : this.index.entrySet()) {
+			byte[] id = entry.getKey().getBytes(StandardCharsets.UTF_8);
+			out.writeInt(id.length);
+			out.write(id);
+			out.writeLong(entry.getValue().address);
+			out.writeInt(entry.getValue().count);
+			out.writeLong(entry.getValue().bytes);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(bytes.toByteArray());
+		out.writeInt((int) crc.getValue());
+		out.flush();
+
+		Path target = this.directory.resolve(this.prefix + "index" + CHECKPOINT_SUFFIX);
+		Path temporary = Files.createTempFile(this.directory, target.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(true);
+			}
+			try {
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * @return the checkpoint, or null if there is none or it is not valid
+	 */
+	private Checkpoint readCheckpoint() throws IOException {
+		Path path = this.directory.resolve(this.prefix + "index" + CHECKPOINT_SUFFIX);
+		if (!Files.exists(path)) {
+			return null;
+		}
+		byte[] bytes = Files.readAllBytes(path);
+		if (bytes.length < 4) {
+			return null;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length - 4);
+		if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+			return null;
+		}
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4));
+		if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != VERSION) {
+			return null;
+		}
+		int firstSegmentId = in.readInt();
+		long coveredAddress = in.readLong();
+		long writtenBytes = in.readLong();
+		int size = in.readInt();
+		Map<String, Head> index = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			byte[] id = new byte[in.readInt()];
+			in.readFully(id);
+			Head head = new Head();
+			head.address = in.readLong();
+			head.count = in.readInt();
+			head.bytes = in.readLong();
+			index.put(new String(id, StandardCharsets.UTF_8), head);
+		}
+		return new Checkpoint(firstSegmentId, coveredAddress, writtenBytes, index);
+	}
+
+	private TreeSet<Integer> segmentIds(String suffix) throws IOException {
+		TreeSet<Integer> ids = new TreeSet<>();
+		try (DirectoryStream<Path> paths = Files.newDirectoryStream(this.directory, this.prefix + "*" + suffix)) {
+			for (Path path : paths) {
+				String name = path.getFileName().toString();
+				String id = name.substring(this.prefix.length(), name.length() - suffix.length());
+				try {
+					ids.add(Integer.parseInt(id));
+				}
+				catch (NumberFormatException ex) {
+					// Not a segment
+				}
+			}
+		}
+		return ids;
+	}
+
+	private Path path(int segmentId, String suffix) {
+		return this.directory.resolve(this.prefix + String.format("%010d", segmentId) + suffix);
+	}
+
+	private static long address(int segmentId, int position) {
+		return ((long) segmentId << 32) | (position & 0xFFFFFFFFL);
+	}
+
+	private static int segmentId(long address) {
+		return (int) (address >>> 32);
+	}
+
+	private static int position(long address) {
+		return (int) address;
+	}
+
+	private static MethodHandle invokeCleaner() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			return MethodHandles.lookup()
+				.findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+				.bindTo(theUnsafe.get(null));
+		}
+		catch (ReflectiveOperationException | RuntimeException ex) {
+			return null;
+		}
+	}
+
+	private static final class Segment {
+
+		private final int id;
+
+		private final MappedByteBuffer buffer;
+
+		private Path path;
+
+		private int end;
+
+		private Segment(int id, Path path, MappedByteBuffer buffer) {
+			this.id = id;
+			this.path = path;
+			this.buffer = buffer;
+		}
+
+		/**
+		 * Map the segment file, creating it or growing it to the segment size if needed.
+		 * The mapping stays valid once the channel is closed.
+		 */
+		static Segment open(Path path, int id, int segmentSize) throws IOException {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE)) {
+				long length = Math.max(channel.size(), segmentSize);
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+				buffer.order(ByteOrder.LITTLE_ENDIAN);
+				return new Segment(id, path, buffer);
+			}
+		}
+
+		int capacity() {
+			return this.buffer.capacity();
+		}
+
+		/**
+		 * Unmap the segment. It must not be read or written afterwards.
+		 */
+		void release() {
+			if (INVOKE_CLEANER == null) {
+				// Unmapped once the buffer is garbage collected
+				return;
+			}
+			try {
+				INVOKE_CLEANER.invokeExact((ByteBuffer) this.buffer);
+			}
+			catch (Throwable ex) {
+				// Unmapped once the buffer is garbage collected
+			}
+		}
+
+	}
+
+	/**
+	 * The last message record of a conversation, and the number and approximate size of
+	 * the retained ones.
+	 */
+	private static final class Head {
+
+		private long address = NO_ADDRESS;
+
+		private int count;
+
+		private long bytes;
+
+	}
+
+	private record Record(byte kind, String conversationId, long previous, byte[] message, int length) {
+	}
+
+	private record Checkpoint(int firstSegmentId, long coveredAddress, long writtenBytes, Map<String, Head> index) {
+	}
+
+}
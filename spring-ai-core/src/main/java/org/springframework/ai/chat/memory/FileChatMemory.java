@@ -0,0 +1,368 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.chat.memory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.ai.chat.messages.AbstractMessage;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.FunctionMessage;
+import org.springframework.ai.chat.messages.Media;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * {@link ChatMemory} persisted to a directory, so that the conversations survive restarts
+ * and can be shared by the instances of a service using the same volume one at a time.
+ * <p>
+ * The conversations are hashed to shards, each one being an append-only log of
+ * memory-mapped segment files, locked independently. Each message links to the previous
+ * message of its conversation, so that {@link #get(String, int)} reads the last N
+ * messages in O(N). The index of the last message of each conversation is checkpointed
+ * whenever a segment is full and on {@link #close()}, so that opening the memory only
+ * replays the messages written since. The logs are compacted once the cleared and dropped
+ * messages outweigh the retained ones.
+ * <p>
+ * The content, metadata and media of the messages are persisted. The metadata are
+ * serialized to JSON, so their values are read back as JSON types. Writes reach the disk
+ * when the operating system flushes the mapped files, at the latest on {@link #close()},
+ * unless synchronous writes are enabled.
+ * <p>
+ * The directory is locked by one instance at a time.
+ *
+ * @see InMemoryChatMemory
+ * @since 1.0.0
+ */
+public class FileChatMemory implements ChatMemory, AutoCloseable {
+
+	public static final int DEFAULT_SHARD_COUNT = 16;
+
+	public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	public static final double DEFAULT_COMPACTION_RATIO = 2.0;
+
+	private static final byte BYTES_MEDIA = 0;
+
+	private static final byte URL_MEDIA = 1;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+	};
+
+	private final ChatMemoryLog[] shards;
+
+	private final FileChannel lockChannel;
+
+	private final FileLock lock;
+
+	private FileChatMemory(Builder builder) throws IOException {
+		Files.createDirectories(builder.directory);
+		this.lockChannel = FileChannel.open(builder.directory.resolve(".lock"), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE);
+		try {
+			this.lock = tryLock(this.lockChannel);
+			if (this.lock == null) {
+				throw new IllegalStateException("The chat memory directory is in use: " + builder.directory);
+			}
+			this.shards = new ChatMemoryLog[builder.shardCount];
+			for (int i = 0; i < this.shards.length; i++) {
+				this.shards[i] = new ChatMemoryLog(builder.directory, i, builder.segmentSize, builder.maxMessages,
+						builder.compactionRatio, builder.syncWrites);
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			this.lockChannel.close();
+			throw ex;
+		}
+	}
+
+	private static FileLock tryLock(FileChannel channel) throws IOException {
+		try {
+			return channel.tryLock();
+		}
+		catch (OverlappingFileLockException ex) {
+			// Locked by this JVM
+			return null;
+		}
+	}
+
+	public static Builder builder(Path directory) {
+		return new Builder(directory);
+	}
+
+	@Override
+	public void add(String conversationId, List<Message> messages) {
+		Assert.hasText(conversationId, "The conversationId must not be empty!");
+		Assert.notNull(messages, "The messages must not be null!");
+		List<byte[]> encoded = new ArrayList<>(messages.size());
+		for (Message message : messages) {
+			encoded.add(encode(message));
+		}
+		try {
+			shard(conversationId).add(conversationId, encoded);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to write the chat memory", ex);
+		}
+	}
+
+	@Override
+	public List<Message> get(String conversationId, int lastN) {
+		List<Message> messages = new ArrayList<>();
+		for (byte[] message : shard(conversationId).get(conversationId, lastN)) {
+			messages.add(decode(message));
+		}
+		return messages;
+	}
+
+	@Override
+	public void clear(String conversationId) {
+		try {
+			shard(conversationId).clear(conversationId);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to write the chat memory", ex);
+		}
+	}
+
+	/**
+	 * Compact all the shards now, rather than once they are worth it.
+	 */
+	public void compact() {
+		try {
+			for (ChatMemoryLog shard : this.shards) {
+				shard.compact();
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to compact the chat memory", ex);
+		}
+	}
+
+	/**
+	 * Write the pending changes to the disk, checkpoint the indexes and release the
+	 * directory.
+	 */
+	@Override
+	public void close() {
+		try {
+			for (ChatMemoryLog shard : this.shards) {
+				shard.close();
+			}
+			this.lock.release();
+			this.lockChannel.close();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to close the chat memory", ex);
+		}
+	}
+
+	private ChatMemoryLog shard(String conversationId) {
+		return this.shards[Math.floorMod(conversationId.hashCode(), this.shards.length)];
+	}
+
+	private static byte[] encode(Message message) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeUTF(message.getMessageType().getValue());
+			writeBytes(out,
+					(message.getContent() != null) ? message.getContent().getBytes(StandardCharsets.UTF_8) : null);
+			Map<String, Object> metadata = new HashMap<>(message.getMetadata());
+			metadata.remove(AbstractMessage.MESSAGE_TYPE);
+			writeBytes(out, OBJECT_MAPPER.writeValueAsBytes(metadata));
+			Collection<Media> media = message.getMedia();
+			out.writeInt(media.size());
+			for (Media item : media) {
+				out.writeUTF(item.getMimeType().toString());
+				if (item.getData() instanceof byte[] data) {
+					out.writeByte(BYTES_MEDIA);
+					writeBytes(out, data);
+				}
+				else {
+					out.writeByte(URL_MEDIA);
+					writeBytes(out, item.getData().toString().getBytes(StandardCharsets.UTF_8));
+				}
+			}
+			out.flush();
+			return bytes.toByteArray();
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException("The message cannot be serialized: " + message, ex);
+		}
+	}
+
+	private static Message decode(byte[] bytes) {
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+			MessageType messageType = MessageType.fromValue(in.readUTF());
+			byte[] contentBytes = readBytes(in);
+			String content = (contentBytes != null) ? new String(contentBytes, StandardCharsets.UTF_8) : null;
+			Map<String, Object> metadata = OBJECT_MAPPER.readValue(readBytes(in), METADATA_TYPE);
+			int mediaCount = in.readInt();
+			List<Media> media = new ArrayList<>(mediaCount);
+			for (int i = 0; i < mediaCount; i++) {
+				var mimeType = MimeTypeUtils.parseMimeType(in.readUTF());
+				byte kind = in.readByte();
+				byte[] data = readBytes(in);
+				if (kind == BYTES_MEDIA) {
+					media.add(new Media(mimeType, new ByteArrayResource(data)));
+				}
+				else {
+					media.add(new Media(mimeType, URI.create(new String(data, StandardCharsets.UTF_8)).toURL()));
+				}
+			}
+			return switch (messageType) {
+				case USER -> new UserMessage(content, media, metadata);
+				case ASSISTANT -> new AssistantMessage(content, metadata);
+				case SYSTEM -> new SystemMessage(content);
+				case FUNCTION -> new FunctionMessage(content, metadata);
+			};
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to read the chat memory", ex);
+		}
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		if (bytes == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	public static class Builder {
+
+		private final Path directory;
+
+		private int shardCount = DEFAULT_SHARD_COUNT;
+
+		private int segmentSize = DEFAULT_SEGMENT_SIZE;
+
+		private int maxMessages = Integer.MAX_VALUE;
+
+		private double compactionRatio = DEFAULT_COMPACTION_RATIO;
+
+		private boolean syncWrites;
+
+		private Builder(Path directory) {
+			Assert.notNull(directory, "The directory must not be null!");
+			this.directory = directory;
+		}
+
+		/**
+		 * Number of logs, i.e. of independently locked conversation groups. Must not
+		 * change once the directory is written.
+		 */
+		public Builder withShardCount(int shardCount) {
+			Assert.isTrue(shardCount > 0, "The shardCount must be greater than 0!");
+			this.shardCount = shardCount;
+			return this;
+		}
+
+		/**
+		 * Size of the segment files, which bounds the size of a message.
+		 */
+		public Builder withSegmentSize(int segmentSize) {
+			Assert.isTrue(segmentSize >= 1024 && segmentSize <= 1 << 30,
+					"The segmentSize must be between 1 KiB and 1 GiB!");
+			this.segmentSize = segmentSize;
+			return this;
+		}
+
+		/**
+		 * Maximum number of messages retained per conversation. Unlimited by default.
+		 */
+		public Builder withMaxMessages(int maxMessages) {
+			Assert.isTrue(maxMessages > 0, "The maxMessages must be greater than 0!");
+			this.maxMessages = maxMessages;
+			return this;
+		}
+
+		/**
+		 * Ratio of the log size to the retained messages size above which a log is
+		 * compacted.
+		 */
+		public Builder withCompactionRatio(double compactionRatio) {
+			Assert.isTrue(compactionRatio > 1, "The compactionRatio must be greater than 1!");
+			this.compactionRatio = compactionRatio;
+			return this;
+		}
+
+		/**
+		 * Whether each write is forced to the disk before returning.
+		 */
+		public Builder withSyncWrites(boolean syncWrites) {
+			this.syncWrites = syncWrites;
+			return this;
+		}
+
+		/**
+		 * Open the chat memory, creating the directory if needed.
+		 * @throws UncheckedIOException if the directory cannot be read
+		 * @throws IllegalStateException if the directory is used by another instance
+		 */
+		public FileChatMemory build() {
+			try {
+				return new FileChatMemory(this);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Failed to open the chat memory in " + this.directory, ex);
+			}
+		}
+
+	}
+
+}
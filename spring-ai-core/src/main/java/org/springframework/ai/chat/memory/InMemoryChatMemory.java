@@ -29,7 +29,9 @@ import org.springframework.ai.chat.messages.Message;
  *
  * This class stores the conversation history in a ConcurrentHashMap, where the keys are
  * the conversation IDs and the values are lists of messages representing the conversation
- * history.
+ * history. Each list is guarded by its own lock and the readers get a copy of the last
+ * messages. The history is unbounded, see {@link BoundedInMemoryChatMemory} for a bounded
+ * alternative.
  *
  * @see ChatMemory
  * @author Christian Tzolov
@@ -41,14 +43,21 @@ public class InMemoryChatMemory implements ChatMemory {
 
 	@Override
 	public void add(String conversationId, List<Message> messages) {
-		this.conversationHistory.putIfAbsent(conversationId, new ArrayList<>());
-		this.conversationHistory.get(conversationId).addAll(messages);
+		List<Message> history = this.conversationHistory.computeIfAbsent(conversationId, id -> new ArrayList<>());
+		synchronized (history) {
+			history.addAll(messages);
+		}
 	}
 
 	@Override
 	public List<Message> get(String conversationId, int lastN) {
 		List<Message> all = this.conversationHistory.get(conversationId);
-		return all != null ? all.stream().skip(Math.max(0, all.size() - lastN)).toList() : List.of();
+		if (all == null) {
+			return List.of();
+		}
+		synchronized (all) {
+			return all.stream().skip(Math.max(0, all.size() - lastN)).toList();
+		}
 	}
 
 	@Override
@@ -30,7 +30,7 @@ public class ChatPromptTemplate implements PromptTemplateActions, PromptTemplate
 	private final List<PromptTemplate> promptTemplates;
 
 	public ChatPromptTemplate(List<PromptTemplate> promptTemplates) {
-		this.promptTemplates = promptTemplates;
+		this.promptTemplates = List.copyOf(promptTemplates);
 	}
 
 	@Override
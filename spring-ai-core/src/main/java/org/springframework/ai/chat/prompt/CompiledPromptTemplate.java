@@ -0,0 +1,201 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.chat.prompt;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenStream;
+import org.stringtemplate.v4.ST;
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.compiler.STLexer;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Immutable, compiled form of a template string, shared by all the
+ * {@link PromptTemplate}s with the same template.
+ * <p>
+ * The template is compiled once into its own {@link STGroup}, declaring every identifier
+ * of the template as a formal argument. Each render then gets a fresh {@link ST} instance
+ * from the group, which shares the compiled byte code but holds its own attributes, so a
+ * compiled template can be rendered by many threads at once. Since all the attributes are
+ * declared up front, adding them does not alter the shared compiled form. The input
+ * variables are extracted from the token stream once, when compiling.
+ * <p>
+ * Compiled templates are cached by template string. The cache is bounded: once full, the
+ * least recently used entry makes room for a new one. Templates without any attribute,
+ * such as user texts, are not cached, so that they do not evict the shared ones.
+ *
+ * @since 1.0.0
+ */
+final class CompiledPromptTemplate {
+
+	static final int MAX_CACHE_SIZE = 1024;
+
+	/**
+	 * Access ordered, guarded by its own monitor.
+	 */
+	private static final Map<String, CompiledPromptTemplate> cache = new LinkedHashMap<>(16, 0.75f, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CompiledPromptTemplate> eldest) {
+			return size() > MAX_CACHE_SIZE;
+		}
+
+	};
+
+	private static final String TEMPLATE_NAME = "prompt";
+
+	private final STGroup group;
+
+	private final Set<String> arguments;
+
+	private final Set<String> inputVariables;
+
+	private CompiledPromptTemplate(String template) {
+		// If the template string is not valid, an exception will be thrown
+		TokenStream tokens = new ST(template, '{', '}').impl.tokens;
+		this.inputVariables = Collections.unmodifiableSet(extractInputVariables(tokens));
+		this.arguments = Collections.unmodifiableSet(extractIdentifiers(tokens));
+		this.group = new STGroup('{', '}');
+		if (this.arguments.isEmpty()) {
+			this.group.defineTemplate(TEMPLATE_NAME, template);
+		}
+		else {
+			this.group.defineTemplate(TEMPLATE_NAME, String.join(",", this.arguments), template);
+		}
+	}
+
+	/**
+	 * Return the compiled form of the given template, compiling it on first use.
+	 * @param template the template string
+	 * @return the compiled template
+	 * @throws IllegalArgumentException if the template string is not valid
+	 */
+	static CompiledPromptTemplate compile(String template) {
+		CompiledPromptTemplate compiled;
+		synchronized (cache) {
+			compiled = cache.get(template);
+		}
+		if (compiled != null) {
+			return compiled;
+		}
+		try {
+			compiled = new CompiledPromptTemplate(template);
+		}
+		catch (Exception ex) {
+			throw new IllegalArgumentException("The template string is not valid.", ex);
+		}
+		if (compiled.arguments.isEmpty()) {
+			return compiled;
+		}
+		CompiledPromptTemplate existing;
+		synchronized (cache) {
+			existing = cache.putIfAbsent(template, compiled);
+		}
+		return (existing != null) ? existing : compiled;
+	}
+
+	static int cacheSize() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * @return the unmodifiable names of the variables used by the template
+	 */
+	Set<String> getInputVariables() {
+		return this.inputVariables;
+	}
+
+	String render(Map<String, Object> model) {
+		ST st = this.group.getInstanceOf(TEMPLATE_NAME);
+		for (Entry<String, Object> entry : model.entrySet()) {
+			if (!this.arguments.contains(entry.getKey())) {
+				// Not referenced by the template
+				continue;
+			}
+			if (entry.getValue() instanceof Resource resource) {
+				st.add(entry.getKey(), renderResource(resource));
+			}
+			else {
+				st.add(entry.getKey(), entry.getValue());
+			}
+		}
+		return st.render();
+	}
+
+	private static String renderResource(Resource resource) {
+		try {
+			return resource.getContentAsString(Charset.defaultCharset());
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static Set<String> extractInputVariables(TokenStream tokens) {
+		Set<String> inputVariables = new HashSet<>();
+		boolean isInsideList = false;
+
+		for (int i = 0; i < tokens.size(); i++) {
+			Token token = tokens.get(i);
+
+			if (token.getType() == STLexer.LDELIM && i + 1 < tokens.size()
+					&& tokens.get(i + 1).getType() == STLexer.ID) {
+				if (i + 2 < tokens.size() && tokens.get(i + 2).getType() == STLexer.COLON) {
+					inputVariables.add(tokens.get(i + 1).getText());
+					isInsideList = true;
+				}
+			}
+			else if (token.getType() == STLexer.RDELIM) {
+				isInsideList = false;
+			}
+			else if (!isInsideList && token.getType() == STLexer.ID) {
+				inputVariables.add(token.getText());
+			}
+		}
+
+		return inputVariables;
+	}
+
+	/**
+	 * Every attribute reference is an identifier, so declaring all of them covers the
+	 * attributes used anywhere in the template, including nested templates. The extra
+	 * ones, e.g. property or option names, are harmless.
+	 */
+	private static Set<String> extractIdentifiers(TokenStream tokens) {
+		Set<String> identifiers = new LinkedHashSet<>();
+		for (int i = 0; i < tokens.size(); i++) {
+			Token token = tokens.get(i);
+			if (token.getType() == STLexer.ID) {
+				identifiers.add(token.getText());
+			}
+		}
+		return identifiers;
+	}
+
+}
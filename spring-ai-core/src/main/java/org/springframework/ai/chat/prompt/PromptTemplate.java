@@ -25,11 +25,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import org.antlr.runtime.Token;
-import org.antlr.runtime.TokenStream;
-import org.stringtemplate.v4.ST;
-import org.stringtemplate.v4.compiler.STLexer;
-
 import org.springframework.ai.chat.messages.Media;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
@@ -38,7 +33,7 @@ import org.springframework.util.StreamUtils;
 
 public class PromptTemplate implements PromptTemplateActions, PromptTemplateMessageActions {
 
-	private ST st;
+	private final CompiledPromptTemplate compiledTemplate;
 
 	private Map<String, Object> dynamicModel = new HashMap<>();
 
@@ -53,60 +48,31 @@ public class PromptTemplate implements PromptTemplateActions, PromptTemplateMess
 		catch (IOException ex) {
 			throw new RuntimeException("Failed to read resource", ex);
 		}
-		try {
-			this.st = new ST(this.template, '{', '}');
-		}
-		catch (Exception ex) {
-			throw new IllegalArgumentException("The template string is not valid.", ex);
-		}
+		// If the template string is not valid, an exception will be thrown
+		this.compiledTemplate = CompiledPromptTemplate.compile(this.template);
 	}
 
 	public PromptTemplate(String template) {
 		this.template = template;
 		// If the template string is not valid, an exception will be thrown
-		try {
-			this.st = new ST(this.template, '{', '}');
-		}
-		catch (Exception ex) {
-			throw new IllegalArgumentException("The template string is not valid.", ex);
-		}
+		this.compiledTemplate = CompiledPromptTemplate.compile(this.template);
 	}
 
 	public PromptTemplate(String template, Map<String, Object> model) {
-		this.template = template;
-		// If the template string is not valid, an exception will be thrown
-		try {
-			this.st = new ST(this.template, '{', '}');
-			for (Entry<String, Object> entry : model.entrySet()) {
-				add(entry.getKey(), entry.getValue());
-			}
-		}
-		catch (Exception ex) {
-			throw new IllegalArgumentException("The template string is not valid.", ex);
+		this(template);
+		for (Entry<String, Object> entry : model.entrySet()) {
+			add(entry.getKey(), entry.getValue());
 		}
 	}
 
 	public PromptTemplate(Resource resource, Map<String, Object> model) {
-		try (InputStream inputStream = resource.getInputStream()) {
-			this.template = StreamUtils.copyToString(inputStream, Charset.defaultCharset());
-		}
-		catch (IOException ex) {
-			throw new RuntimeException("Failed to read resource", ex);
-		}
-		// If the template string is not valid, an exception will be thrown
-		try {
-			this.st = new ST(this.template, '{', '}');
-			for (Entry<String, Object> entry : model.entrySet()) {
-				this.add(entry.getKey(), entry.getValue());
-			}
-		}
-		catch (Exception ex) {
-			throw new IllegalArgumentException("The template string is not valid.", ex);
+		this(resource);
+		for (Entry<String, Object> entry : model.entrySet()) {
+			this.add(entry.getKey(), entry.getValue());
 		}
 	}
 
 	public void add(String name, Object value) {
-		this.st.add(name, value);
 		this.dynamicModel.put(name, value);
 	}
 
@@ -122,34 +88,18 @@ public class PromptTemplate implements PromptTemplateActions, PromptTemplateMess
 	@Override
 	public String render() {
 		validate(this.dynamicModel);
-		return st.render();
+		return this.compiledTemplate.render(this.dynamicModel);
 	}
 
 	@Override
 	public String render(Map<String, Object> model) {
 		validate(model);
-		for (Entry<String, Object> entry : model.entrySet()) {
-			if (this.st.getAttribute(entry.getKey()) != null) {
-				this.st.remove(entry.getKey());
-			}
-			if (entry.getValue() instanceof Resource) {
-				this.st.add(entry.getKey(), renderResource((Resource) entry.getValue()));
-			}
-			else {
-				this.st.add(entry.getKey(), entry.getValue());
-			}
-
-		}
-		return this.st.render();
-	}
-
-	private String renderResource(Resource resource) {
-		try {
-			return resource.getContentAsString(Charset.defaultCharset());
-		}
-		catch (IOException e) {
-			throw new RuntimeException(e);
+		if (this.dynamicModel.isEmpty()) {
+			return this.compiledTemplate.render(model);
 		}
+		Map<String, Object> combinedModel = new HashMap<>(this.dynamicModel);
+		combinedModel.putAll(model);
+		return this.compiledTemplate.render(combinedModel);
 	}
 
 	@Override
@@ -178,48 +128,22 @@ public class PromptTemplate implements PromptTemplateActions, PromptTemplateMess
 	}
 
 	public Set<String> getInputVariables() {
-		TokenStream tokens = this.st.impl.tokens;
-		Set<String> inputVariables = new HashSet<>();
-		boolean isInsideList = false;
-
-		for (int i = 0; i < tokens.size(); i++) {
-			Token token = tokens.get(i);
-
-			if (token.getType() == STLexer.LDELIM && i + 1 < tokens.size()
-					&& tokens.get(i + 1).getType() == STLexer.ID) {
-				if (i + 2 < tokens.size() && tokens.get(i + 2).getType() == STLexer.COLON) {
-					inputVariables.add(tokens.get(i + 1).getText());
-					isInsideList = true;
-				}
-			}
-			else if (token.getType() == STLexer.RDELIM) {
-				isInsideList = false;
-			}
-			else if (!isInsideList && token.getType() == STLexer.ID) {
-				inputVariables.add(token.getText());
-			}
-		}
-
-		return inputVariables;
-	}
-
-	private Set<String> getModelKeys(Map<String, Object> model) {
-		Set<String> dynamicVariableNames = new HashSet<>(this.dynamicModel.keySet());
-		Set<String> modelVariables = new HashSet<>(model.keySet());
-		modelVariables.addAll(dynamicVariableNames);
-		return modelVariables;
+		return new HashSet<>(this.compiledTemplate.getInputVariables());
 	}
 
 	protected void validate(Map<String, Object> model) {
 
-		Set<String> templateTokens = getInputVariables();
-		Set<String> modelKeys = getModelKeys(model);
+		Set<String> templateTokens = this.compiledTemplate.getInputVariables();
 
 		// Check if model provides all keys required by the template
-		if (!modelKeys.containsAll(templateTokens)) {
-			templateTokens.removeAll(modelKeys);
-			throw new IllegalStateException(
-					"Not all template variables were replaced. Missing variable names are " + templateTokens);
+		for (String templateToken : templateTokens) {
+			if (!model.containsKey(templateToken) && !this.dynamicModel.containsKey(templateToken)) {
+				Set<String> missingTokens = new HashSet<>(templateTokens);
+				missingTokens.removeAll(model.keySet());
+				missingTokens.removeAll(this.dynamicModel.keySet());
+				throw new IllegalStateException(
+						"Not all template variables were replaced. Missing variable names are " + missingTokens);
+			}
 		}
 	}
 
@@ -15,6 +15,8 @@
  */
 package org.springframework.ai.converter;
 
+import java.lang.reflect.Type;
+import java.util.Map;
 import java.util.Objects;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -24,9 +26,9 @@ import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.github.victools.jsonschema.generator.SchemaGenerator;
-import com.github.victools.jsonschema.generator.SchemaGeneratorConfig;
 import com.github.victools.jsonschema.generator.SchemaGeneratorConfigBuilder;
 import com.github.victools.jsonschema.module.jackson.JacksonModule;
 import org.slf4j.Logger;
@@ -34,7 +36,7 @@ import org.slf4j.LoggerFactory;
 
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.lang.NonNull;
-import java.lang.reflect.Type;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import static com.github.victools.jsonschema.generator.OptionPreset.PLAIN_JSON;
 import static com.github.victools.jsonschema.generator.SchemaVersion.DRAFT_2020_12;
@@ -44,6 +46,10 @@ import static com.github.victools.jsonschema.generator.SchemaVersion.DRAFT_2020_
  * to a specific object type using JSON schema. This parser works by generating a JSON
  * schema based on a given Java class or parameterized type reference, which is then used
  * to validate and transform the LLM output into the desired type.
+ * <p>
+ * The JSON schemas are generated once per target type and shared by all the converters.
+ * The converters using the default object mapper share it, as well as one object reader
+ * per target type, so creating a converter for an already seen type is cheap.
  *
  * @param <T> The target type to which the output will be converted.
  * @author Mark Pollack
@@ -56,6 +62,19 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 
 	private final Logger logger = LoggerFactory.getLogger(BeanOutputConverter.class);
 
+	private static final SchemaGenerator SCHEMA_GENERATOR = new SchemaGenerator(
+			new SchemaGeneratorConfigBuilder(DRAFT_2020_12, PLAIN_JSON).with(new JacksonModule()).build());
+
+	private static final ObjectWriter SCHEMA_WRITER = new ObjectMapper().writer(
+			new DefaultPrettyPrinter().withObjectIndenter(new DefaultIndenter().withLinefeed(System.lineSeparator())));
+
+	private static final ObjectMapper DEFAULT_OBJECT_MAPPER = new ObjectMapper()
+		.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	private static final Map<Type, String> SCHEMA_CACHE = new ConcurrentReferenceHashMap<>();
+
+	private static final Map<Type, ObjectReader> DEFAULT_READER_CACHE = new ConcurrentReferenceHashMap<>();
+
 	/** Holds the generated JSON schema for the target type. */
 	private String jsonSchema;
 
@@ -69,6 +88,9 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 	@SuppressWarnings("FieldMayBeFinal")
 	private ObjectMapper objectMapper;
 
+	/** The reader of the target type, from the object mapper. */
+	private final ObjectReader objectReader;
+
 	/**
 	 * Constructor to initialize with the target type's class.
 	 * @param clazz The target type's class.
@@ -131,24 +153,31 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 	private BeanOutputConverter(TypeReference<T> typeRef, ObjectMapper objectMapper) {
 		Objects.requireNonNull(typeRef, "Type reference cannot be null;");
 		this.typeRef = typeRef;
-		this.objectMapper = objectMapper != null ? objectMapper : getObjectMapper();
-		generateSchema();
+		// Subclasses may customize the mapper through getObjectMapper()
+		boolean sharedObjectMapper = (objectMapper == null && getClass() == BeanOutputConverter.class);
+		if (sharedObjectMapper) {
+			this.objectMapper = DEFAULT_OBJECT_MAPPER;
+			this.objectReader = DEFAULT_READER_CACHE.computeIfAbsent(typeRef.getType(),
+					BeanOutputConverter::defaultReaderFor);
+		}
+		else {
+			this.objectMapper = (objectMapper != null) ? objectMapper : getObjectMapper();
+			this.objectReader = this.objectMapper.readerFor(this.objectMapper.constructType(typeRef.getType()));
+		}
+		this.jsonSchema = SCHEMA_CACHE.computeIfAbsent(typeRef.getType(), this::generateSchema);
+	}
+
+	private static ObjectReader defaultReaderFor(Type type) {
+		return DEFAULT_OBJECT_MAPPER.readerFor(DEFAULT_OBJECT_MAPPER.constructType(type));
 	}
 
 	/**
 	 * Generates the JSON schema for the target type.
 	 */
-	private void generateSchema() {
-		JacksonModule jacksonModule = new JacksonModule();
-		SchemaGeneratorConfigBuilder configBuilder = new SchemaGeneratorConfigBuilder(DRAFT_2020_12, PLAIN_JSON)
-			.with(jacksonModule);
-		SchemaGeneratorConfig config = configBuilder.build();
-		SchemaGenerator generator = new SchemaGenerator(config);
-		JsonNode jsonNode = generator.generateSchema(this.typeRef.getType());
-		ObjectWriter objectWriter = new ObjectMapper().writer(new DefaultPrettyPrinter()
-			.withObjectIndenter(new DefaultIndenter().withLinefeed(System.lineSeparator())));
+	private String generateSchema(Type type) {
+		JsonNode jsonNode = SCHEMA_GENERATOR.generateSchema(type);
 		try {
-			this.jsonSchema = objectWriter.writeValueAsString(jsonNode);
+			return SCHEMA_WRITER.writeValueAsString(jsonNode);
 		}
 		catch (JsonProcessingException e) {
 			logger.error("Could not pretty print json schema for jsonNode: " + jsonNode);
@@ -167,7 +196,7 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 			if (text.startsWith("```json") && text.endsWith("```")) {
 				text = text.substring(7, text.length() - 3);
 			}
-			return (T) this.objectMapper.readValue(text, this.typeRef);
+			return this.objectReader.readValue(text);
 		}
 		catch (JsonProcessingException e) {
 			logger.error("Could not parse the given text to the desired target type:" + text + " into " + this.typeRef);
@@ -176,13 +205,20 @@ public class BeanOutputConverter<T> implements StructuredOutputConverter<T> {
 	}
 
 	/**
-	 * Configures and returns an object mapper for JSON operations.
+	 * Configures and returns an object mapper for JSON operations. By default, a copy of
+	 * the mapper shared by the converters that do not override this method, so that
+	 * configuring it does not affect them.
 	 * @return Configured object mapper.
 	 */
 	protected ObjectMapper getObjectMapper() {
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		return mapper;
+		return DEFAULT_OBJECT_MAPPER.copy();
+	}
+
+	/**
+	 * @return the object mapper used by this converter
+	 */
+	ObjectMapper objectMapper() {
+		return this.objectMapper;
 	}
 
 	/**
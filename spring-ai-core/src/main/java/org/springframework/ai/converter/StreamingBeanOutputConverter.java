@@ -0,0 +1,316 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.converter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.Assert;
+
+/**
+ * Converts the streamed LLM output to objects of a specific type as soon as they are
+ * parsed, rather than once the whole response is received.
+ * <p>
+ * The streamed text is fed to a non-blocking Jackson parser. When the output is a JSON
+ * array, each element is emitted as soon as it closes. When the output is a JSON object,
+ * a partially populated object is emitted whenever one of its properties closes, the last
+ * one being complete. The text around the JSON value, such as markdown code blocks, is
+ * ignored.
+ * <p>
+ * The format instructions, from a {@link BeanOutputConverter}, ask either for an array of
+ * the type or for the type itself, see {@link #forArrayElements(Class)} and
+ * {@link #forObject(Class)}.
+ *
+ * @param <T> the type of the array elements, or of the object
+ * @since 1.0.0
+ */
+public class StreamingBeanOutputConverter<T> implements FormatProvider {
+
+	private final BeanOutputConverter<?> formatConverter;
+
+	private final ObjectMapper objectMapper;
+
+	private final JavaType type;
+
+	private StreamingBeanOutputConverter(Type type, boolean arrayElements, ObjectMapper objectMapper) {
+		Assert.notNull(type, "The type must not be null!");
+		Type formatType = arrayElements
+				? ResolvableType.forClassWithGenerics(List.class, ResolvableType.forType(type)).getType() : type;
+		this.formatConverter = new BeanOutputConverter<>(ParameterizedTypeReference.forType(formatType), objectMapper);
+		this.objectMapper = this.formatConverter.objectMapper();
+		this.type = this.objectMapper.constructType(type);
+	}
+
+	/**
+	 * Ask for a JSON array and emit its elements as they close.
+	 * @param elementType the type of the array elements
+	 */
+	public static <T> StreamingBeanOutputConverter<T> forArrayElements(Class<T> elementType) {
+		return new StreamingBeanOutputConverter<>(elementType, true, null);
+	}
+
+	/**
+	 * Ask for a JSON array and emit its elements as they close.
+	 * @param elementType the type of the array elements
+	 */
+	public static <T> StreamingBeanOutputConverter<T> forArrayElements(ParameterizedTypeReference<T> elementType) {
+		Assert.notNull(elementType, "The elementType must not be null!");
+		return new StreamingBeanOutputConverter<>(elementType.getType(), true, null);
+	}
+
+	/**
+	 * Ask for a JSON array and emit its elements as they close.
+	 * @param elementType the type of the array elements
+	 * @param objectMapper the object mapper reading the elements
+	 */
+	public static <T> StreamingBeanOutputConverter<T> forArrayElements(ParameterizedTypeReference<T> elementType,
+			ObjectMapper objectMapper) {
+		Assert.notNull(elementType, "The elementType must not be null!");
+		Assert.notNull(objectMapper, "The objectMapper must not be null!");
+		return new StreamingBeanOutputConverter<>(elementType.getType(), true, objectMapper);
+	}
+
+	/**
+	 * Ask for a JSON object and emit it partially populated as its properties close.
+	 * @param type the type of the object
+	 */
+	public static <T> StreamingBeanOutputConverter<T> forObject(Class<T> type) {
+		return new StreamingBeanOutputConverter<>(type, false, null);
+	}
+
+	/**
+	 * Ask for a JSON object and emit it partially populated as its properties close.
+	 * @param type the type of the object
+	 */
+	public static <T> StreamingBeanOutputConverter<T> forObject(ParameterizedTypeReference<T> type) {
+		Assert.notNull(type, "The type must not be null!");
+		return new StreamingBeanOutputConverter<>(type.getType(), false, null);
+	}
+
+	/**
+	 * Ask for a JSON object and emit it partially populated as its properties close.
+	 * @param type the type of the object
+	 * @param objectMapper the object mapper reading the object
+	 */
+	public static <T> StreamingBeanOutputConverter<T> forObject(ParameterizedTypeReference<T> type,
+			ObjectMapper objectMapper) {
+		Assert.notNull(type, "The type must not be null!");
+		Assert.notNull(objectMapper, "The objectMapper must not be null!");
+		return new StreamingBeanOutputConverter<>(type.getType(), false, objectMapper);
+	}
+
+	@Override
+	public String getFormat() {
+		return this.formatConverter.getFormat();
+	}
+
+	/**
+	 * Parse the streamed text incrementally.
+	 * @param content the chunks of the LLM output
+	 * @return the array elements, or the partially populated objects, in parsing order.
+	 * Fails if the output is not valid JSON or ends before the JSON value is complete.
+	 */
+	public Flux<T> convert(Flux<String> content) {
+		return Flux.defer(() -> {
+			IncrementalReader reader = new IncrementalReader();
+			return content.concatMapIterable(reader::feed)
+				.concatWith(Flux.defer(() -> Flux.fromIterable(reader.end())));
+		});
+	}
+
+	private static int indexOfJsonStart(String chunk) {
+		for (int i = 0; i < chunk.length(); i++) {
+			char c = chunk.charAt(i);
+			if (c == '[' || c == '{') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Reads the values of the root JSON array or object as they close. Not thread-safe,
+	 * one per subscription.
+	 */
+	private final class IncrementalReader {
+
+		private final JsonParser parser;
+
+		private boolean started;
+
+		private boolean rootStarted;
+
+		private boolean ended;
+
+		private boolean rootArray;
+
+		private ObjectNode rootObject;
+
+		private boolean emitted;
+
+		private String fieldName;
+
+		private TokenBuffer value;
+
+		private int valueDepth;
+
+		IncrementalReader() {
+			try {
+				this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		List<T> feed(String chunk) {
+			if (this.ended) {
+				return List.of();
+			}
+			if (!this.started) {
+				// Skip any text before the JSON value, e.g. a markdown code block start
+				int start = indexOfJsonStart(chunk);
+				if (start < 0) {
+					return List.of();
+				}
+				chunk = chunk.substring(start);
+				this.started = true;
+			}
+			byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+			try {
+				((ByteArrayFeeder) this.parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+				return readAvailable();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Could not parse the streamed JSON output", ex);
+			}
+		}
+
+		List<T> end() {
+			if (this.ended) {
+				return List.of();
+			}
+			if (!this.started) {
+				throw new IllegalStateException("The streamed output contains no JSON array or object");
+			}
+			this.parser.getNonBlockingInputFeeder().endOfInput();
+			List<T> values;
+			try {
+				values = readAvailable();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Could not parse the streamed JSON output", ex);
+			}
+			if (!this.ended) {
+				throw new IllegalStateException("The streamed output ended before the JSON value was complete");
+			}
+			return values;
+		}
+
+		private List<T> readAvailable() throws IOException {
+			List<T> values = new ArrayList<>();
+			while (!this.ended) {
+				JsonToken token = this.parser.nextToken();
+				if (token == null || token == JsonToken.NOT_AVAILABLE) {
+					break;
+				}
+				read(token, values);
+			}
+			return values;
+		}
+
+		private void read(JsonToken token, List<T> values) throws IOException {
+			if (!this.rootStarted) {
+				if (token == JsonToken.START_ARRAY) {
+					this.rootArray = true;
+				}
+				else if (token == JsonToken.START_OBJECT) {
+					this.rootObject = objectMapper.createObjectNode();
+				}
+				else {
+					throw new IllegalStateException("Expected a JSON array or object but got " + token);
+				}
+				this.rootStarted = true;
+				return;
+			}
+			if (this.value == null) {
+				// Directly within the root value
+				if (token.isStructEnd()) {
+					this.ended = true;
+					if (this.rootObject != null && !this.emitted) {
+						values.add(readObject());
+					}
+					return;
+				}
+				if (token == JsonToken.FIELD_NAME) {
+					this.fieldName = this.parser.currentName();
+					return;
+				}
+				this.value = new TokenBuffer(this.parser);
+				this.valueDepth = 0;
+			}
+			this.value.copyCurrentEvent(this.parser);
+			if (token.isStructStart()) {
+				this.valueDepth++;
+			}
+			else if (token.isStructEnd()) {
+				this.valueDepth--;
+			}
+			if (this.valueDepth > 0) {
+				return;
+			}
+
+			// A value of the root closed
+			TokenBuffer closed = this.value;
+			this.value = null;
+			try (JsonParser valueParser = closed.asParser(objectMapper)) {
+				if (this.rootArray) {
+					values.add(objectMapper.readValue(valueParser, type));
+				}
+				else {
+					JsonNode node = objectMapper.readTree(valueParser);
+					this.rootObject.set(this.fieldName, node);
+					values.add(readObject());
+				}
+			}
+			this.emitted = true;
+		}
+
+		private T readObject() throws IOException {
+			try (JsonParser objectParser = objectMapper.treeAsTokens(this.rootObject)) {
+				return objectMapper.readValue(objectParser, type);
+			}
+		}
+
+	}
+
+}
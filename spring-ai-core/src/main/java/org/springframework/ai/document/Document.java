@@ -15,7 +15,6 @@
  */
 package org.springframework.ai.document;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +27,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.ai.chat.messages.Media;
 import org.springframework.ai.document.id.IdGenerator;
 import org.springframework.ai.document.id.RandomIdGenerator;
+import org.springframework.ai.embedding.EmbeddingUtils;
 import org.springframework.ai.model.Content;
 import org.springframework.util.Assert;
 
@@ -59,10 +59,17 @@ public class Document implements Content {
 	private List<Media> media;
 
 	/**
-	 * Embedding of the document. Note: ephemeral field.
+	 * Embedding of the document. Note: ephemeral field. Kept in primitive form, the
+	 * {@code List<Double>} accessors are views over this array.
 	 */
-	@JsonProperty(index = 100)
-	private List<Double> embedding = new ArrayList<>();
+	@JsonProperty(value = "embedding", index = 100)
+	private float[] embedding = EmbeddingUtils.EMPTY_FLOAT_ARRAY;
+
+	/**
+	 * Boxed view of the embedding, created on first use.
+	 */
+	@JsonIgnore
+	private List<Double> embeddingView;
 
 	/**
 	 * Mutable, ephemeral, content to text formatter. Defaults to Document text.
@@ -135,9 +142,22 @@ public class Document implements Content {
 		return formatter.format(this, metadataMode);
 	}
 
+	@JsonIgnore
 	public void setEmbedding(List<Double> embedding) {
+		Assert.notNull(embedding, "embedding must not be null");
+		this.embedding = EmbeddingUtils.toFloatArray(embedding);
+		this.embeddingView = null;
+	}
+
+	/**
+	 * Set the document's embedding without boxing. The array is retained as-is.
+	 * @param embedding the embedding vector.
+	 */
+	@JsonIgnore
+	public void setEmbedding(float[] embedding) {
 		Assert.notNull(embedding, "embedding must not be null");
 		this.embedding = embedding;
+		this.embeddingView = null;
 	}
 
 	/**
@@ -153,10 +173,35 @@ public class Document implements Content {
 		return this.metadata;
 	}
 
+	/**
+	 * Each element of the view is boxed when read: prefer
+	 * {@link #getEmbeddingAsFloatArray()} to compute with the embedding.
+	 * @return read-only {@code List<Double>} view of the document's embedding.
+	 */
+	@JsonIgnore
 	public List<Double> getEmbedding() {
+		List<Double> embeddingView = this.embeddingView;
+		if (embeddingView == null) {
+			embeddingView = EmbeddingUtils.toDoubleList(this.embedding);
+			this.embeddingView = embeddingView;
+		}
+		return embeddingView;
+	}
+
+	/**
+	 * @return the document's embedding as a primitive array, shared with this document:
+	 * it must not be modified.
+	 */
+	@JsonIgnore
+	public float[] getEmbeddingAsFloatArray() {
 		return this.embedding;
 	}
 
+	@JsonProperty(value = "embedding", index = 100)
+	private float[] getEmbeddingForJson() {
+		return getEmbeddingAsFloatArray();
+	}
+
 	public ContentFormatter getContentFormatter() {
 		return contentFormatter;
 	}
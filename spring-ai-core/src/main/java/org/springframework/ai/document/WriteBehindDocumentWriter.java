@@ -0,0 +1,361 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.document;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link DocumentWriter} that queues the documents and writes them to the delegate
+ * writer, e.g. a {@link org.springframework.ai.vectorstore.VectorStore}, in batches on a
+ * background {@link Executor}, taking the writes off the caller's critical path.
+ * <p>
+ * The queue is bounded: once full, {@link #write(List)} blocks until the background
+ * writer catches up, up to the configured offer timeout. Documents queued while a batch
+ * is being written are coalesced into the next batch.
+ * <p>
+ * Documents can be grouped by a key, e.g. a conversation id, so that readers can wait for
+ * the pending writes of one group only with {@link #awaitWritten(String)}, to read their
+ * own writes. {@link #close()} stops accepting documents and flushes the pending ones.
+ * <p>
+ * Failed batches are logged and dropped.
+ *
+ * @since 1.0.0
+ */
+public class WriteBehindDocumentWriter implements DocumentWriter, AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(WriteBehindDocumentWriter.class);
+
+	public static final int DEFAULT_BATCH_SIZE = 64;
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	public static final Duration DEFAULT_OFFER_TIMEOUT = Duration.ofSeconds(30);
+
+	public static final Duration DEFAULT_FLUSH_TIMEOUT = Duration.ofSeconds(30);
+
+	private final DocumentWriter delegate;
+
+	private final Executor executor;
+
+	private final ExecutorService ownedExecutor;
+
+	private final Function<Document, String> keyExtractor;
+
+	private final int batchSize;
+
+	private final Duration offerTimeout;
+
+	private final Duration flushTimeout;
+
+	private final BlockingQueue<Document> queue;
+
+	private final AtomicBoolean draining = new AtomicBoolean();
+
+	private volatile boolean closed;
+
+	/**
+	 * Number of the accepted documents not written yet, per key. Guarded by the
+	 * {@code pending} monitor, which is notified whenever a batch completes.
+	 */
+	private final Map<String, Integer> pending = new HashMap<>();
+
+	private int pendingTotal;
+
+	private WriteBehindDocumentWriter(Builder builder) {
+		this.delegate = builder.delegate;
+		if (builder.executor != null) {
+			this.executor = builder.executor;
+			this.ownedExecutor = null;
+		}
+		else {
+			this.ownedExecutor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "write-behind-document-writer");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.executor = this.ownedExecutor;
+		}
+		this.keyExtractor = builder.keyExtractor;
+		this.batchSize = builder.batchSize;
+		this.offerTimeout = builder.offerTimeout;
+		this.flushTimeout = builder.flushTimeout;
+		this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+	}
+
+	public static Builder builder(DocumentWriter delegate) {
+		return new Builder(delegate);
+	}
+
+	/**
+	 * Queue the documents to be written in the background.
+	 * @throws IllegalStateException if the writer is closed, or if the queue stays full
+	 * for longer than the offer timeout
+	 */
+	@Override
+	public void accept(List<Document> documents) {
+		Assert.notNull(documents, "Documents must not be null");
+		if (this.closed) {
+			throw new IllegalStateException("The writer is closed");
+		}
+		for (Document document : documents) {
+			addPending(document);
+			if (this.queue.remainingCapacity() == 0) {
+				scheduleDrain();
+			}
+			try {
+				if (!this.queue.offer(document, this.offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+					removePending(List.of(document));
+					throw new IllegalStateException(
+							"Timed out after " + this.offerTimeout + " waiting for the write-behind queue");
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				removePending(List.of(document));
+				throw new IllegalStateException("Interrupted while waiting for the write-behind queue", ex);
+			}
+			// Start writing as soon as one batch is queued, not after the whole list
+			if (this.queue.size() >= this.batchSize) {
+				scheduleDrain();
+			}
+		}
+		scheduleDrain();
+	}
+
+	/**
+	 * Wait until the accepted documents with the given key are written, using the
+	 * configured flush timeout.
+	 * @param key the key of the documents
+	 * @return {@code true} if they were written, {@code false} on timeout
+	 */
+	public boolean awaitWritten(String key) {
+		Assert.notNull(key, "Key must not be null");
+		return await(() -> !this.pending.containsKey(key), this.flushTimeout);
+	}
+
+	/**
+	 * Wait until all the accepted documents are written.
+	 * @param timeout the maximum time to wait
+	 * @return {@code true} if they were written, {@code false} on timeout
+	 */
+	public boolean flush(Duration timeout) {
+		Assert.notNull(timeout, "Timeout must not be null");
+		return await(() -> this.pendingTotal == 0, timeout);
+	}
+
+	/**
+	 * @return the number of accepted documents not written yet
+	 */
+	public int getPendingCount() {
+		synchronized (this.pending) {
+			return this.pendingTotal;
+		}
+	}
+
+	/**
+	 * Stop accepting documents and flush the pending ones, waiting up to the flush
+	 * timeout. The executor is shut down if it was created by this writer.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		scheduleDrain();
+		if (!flush(this.flushTimeout)) {
+			logger.warn("Closed with {} documents not written", getPendingCount());
+		}
+		if (this.ownedExecutor != null) {
+			this.ownedExecutor.shutdown();
+		}
+	}
+
+	private void scheduleDrain() {
+		if (!this.draining.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			this.executor.execute(this::drain);
+		}
+		catch (RejectedExecutionException ex) {
+			// Write on the caller thread rather than losing the documents
+			drain();
+		}
+	}
+
+	private void drain() {
+		do {
+			List<Document> batch = new ArrayList<>(this.batchSize);
+			while (this.queue.drainTo(batch, this.batchSize) > 0) {
+				writeBatch(batch);
+				batch = new ArrayList<>(this.batchSize);
+			}
+			this.draining.set(false);
+			// Documents queued after the last drain but before the flag was reset
+		}
+		while (!this.queue.isEmpty() && this.draining.compareAndSet(false, true));
+	}
+
+	private void writeBatch(List<Document> batch) {
+		try {
+			this.delegate.write(batch);
+		}
+		catch (RuntimeException ex) {
+			logger.error("Failed to write a batch of {} documents", batch.size(), ex);
+		}
+		finally {
+			removePending(batch);
+		}
+	}
+
+	private void addPending(Document document) {
+		synchronized (this.pending) {
+			this.pending.merge(keyOf(document), 1, Integer::sum);
+			this.pendingTotal++;
+		}
+	}
+
+	private void removePending(List<Document> documents) {
+		synchronized (this.pending) {
+			for (Document document : documents) {
+				this.pending.computeIfPresent(keyOf(document), (key, count) -> (count > 1) ? count - 1 : null);
+				this.pendingTotal--;
+			}
+			this.pending.notifyAll();
+		}
+	}
+
+	private String keyOf(Document document) {
+		String key = (this.keyExtractor != null) ? this.keyExtractor.apply(document) : null;
+		return (key != null) ? key : "";
+	}
+
+	private boolean await(BooleanSupplier condition, Duration timeout) {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		synchronized (this.pending) {
+			while (!condition.getAsBoolean()) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				try {
+					TimeUnit.NANOSECONDS.timedWait(this.pending, remaining);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	public static class Builder {
+
+		private final DocumentWriter delegate;
+
+		private Executor executor;
+
+		private Function<Document, String> keyExtractor;
+
+		private int batchSize = DEFAULT_BATCH_SIZE;
+
+		private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+		private Duration offerTimeout = DEFAULT_OFFER_TIMEOUT;
+
+		private Duration flushTimeout = DEFAULT_FLUSH_TIMEOUT;
+
+		private Builder(DocumentWriter delegate) {
+			Assert.notNull(delegate, "Delegate must not be null");
+			this.delegate = delegate;
+		}
+
+		/**
+		 * Executor writing the batches. Defaults to a dedicated daemon thread, shut down
+		 * on {@link WriteBehindDocumentWriter#close()}.
+		 */
+		public Builder withExecutor(Executor executor) {
+			Assert.notNull(executor, "Executor must not be null");
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Key grouping the documents for {@link WriteBehindDocumentWriter#awaitWritten}.
+		 */
+		public Builder withKeyExtractor(Function<Document, String> keyExtractor) {
+			Assert.notNull(keyExtractor, "Key extractor must not be null");
+			this.keyExtractor = keyExtractor;
+			return this;
+		}
+
+		public Builder withBatchSize(int batchSize) {
+			Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+			this.batchSize = batchSize;
+			return this;
+		}
+
+		public Builder withQueueCapacity(int queueCapacity) {
+			Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+			this.queueCapacity = queueCapacity;
+			return this;
+		}
+
+		/**
+		 * Maximum time {@link WriteBehindDocumentWriter#write(List)} blocks on a full
+		 * queue.
+		 */
+		public Builder withOfferTimeout(Duration offerTimeout) {
+			Assert.notNull(offerTimeout, "Offer timeout must not be null");
+			this.offerTimeout = offerTimeout;
+			return this;
+		}
+
+		/**
+		 * Maximum time readers and {@link WriteBehindDocumentWriter#close()} wait for the
+		 * pending writes.
+		 */
+		public Builder withFlushTimeout(Duration flushTimeout) {
+			Assert.notNull(flushTimeout, "Flush timeout must not be null");
+			this.flushTimeout = flushTimeout;
+			return this;
+		}
+
+		public WriteBehindDocumentWriter build() {
+			return new WriteBehindDocumentWriter(this);
+		}
+
+	}
+
+}
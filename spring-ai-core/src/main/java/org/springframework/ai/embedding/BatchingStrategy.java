@@ -0,0 +1,39 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.embedding;
+
+import java.util.List;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * Contract for grouping {@link Document}s into batches so that each batch can be embedded
+ * with a single {@link EmbeddingModel#call(EmbeddingRequest)}.
+ *
+ * @since 1.0.0
+ * @see TokenCountBatchingStrategy
+ */
+public interface BatchingStrategy {
+
+	/**
+	 * Split the given documents into batches. Implementations should preserve the
+	 * relative order of the documents.
+	 * @param documents the documents to batch.
+	 * @return the list of batches.
+	 */
+	List<List<Document>> batch(List<Document> documents);
+
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.embedding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.util.Assert;
+
+/**
+ * {@link EmbeddingModel} decorator that caches the embeddings computed by a delegate
+ * model.
+ *
+ * Entries are keyed by a SHA-256 hash of the cache namespace, the request options and the
+ * embedded text. The namespace identifies the delegate model and defaults to its class
+ * name: delegates of the same class configured with different default models must use
+ * distinct namespaces.
+ *
+ * The cache has a bounded in-memory tier, evicting the least recently used entries once
+ * their total size exceeds a limit, and an optional on-disk tier that keeps every entry
+ * as a file of float32 values. A batched {@link #call(EmbeddingRequest)} is answered from
+ * the cache where possible and only the missing texts are sent to the delegate.
+ *
+ * @since 1.0.0
+ */
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+	private static final Logger logger = LoggerFactory.getLogger(CachingEmbeddingModel.class);
+
+	/**
+	 * Approximate per entry overhead of the in-memory tier: the hex key, the map entry
+	 * and the array header.
+	 */
+	private static final int ENTRY_OVERHEAD = 256;
+
+	private final EmbeddingModel delegate;
+
+	private final String namespace;
+
+	private final long maxMemoryBytes;
+
+	private final Path directory;
+
+	private final LinkedHashMap<String, float[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long memoryBytes;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder diskHits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private CachingEmbeddingModel(Builder builder) {
+		this.delegate = builder.delegate;
+		this.namespace = (builder.namespace != null) ? builder.namespace : builder.delegate.getClass().getName();
+		this.maxMemoryBytes = builder.maxMemoryBytes;
+		this.directory = builder.directory;
+	}
+
+	/**
+	 * Start building a cache around the given model.
+	 * @param delegate the model computing the embeddings that are not cached.
+	 * @return The entry point for creating a new cache.
+	 */
+	public static Builder builder(EmbeddingModel delegate) {
+		return new Builder(delegate);
+	}
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+		Assert.notNull(request, "EmbeddingRequest must not be null");
+		List<String> inputs = request.getInstructions();
+		String optionsKey = optionsKey(request.getOptions());
+
+		float[][] vectors = new float[inputs.size()][];
+		Map<String, List<Integer>> missingPositions = new LinkedHashMap<>();
+		List<String> missingTexts = new ArrayList<>();
+		for (int i = 0; i < inputs.size(); i++) {
+			String key = key(optionsKey, inputs.get(i));
+			vectors[i] = get(key);
+			if (vectors[i] == null) {
+				List<Integer> positions = missingPositions.computeIfAbsent(key, k -> new ArrayList<>());
+				if (positions.isEmpty()) {
+					missingTexts.add(inputs.get(i));
+				}
+				positions.add(i);
+			}
+		}
+
+		EmbeddingResponseMetadata metadata = new EmbeddingResponseMetadata();
+		if (!missingTexts.isEmpty()) {
+			EmbeddingResponse response = this.delegate.call(new EmbeddingRequest(missingTexts, request.getOptions()));
+			List<Embedding> results = response.getResults();
+			Assert.isTrue(results.size() == missingTexts.size(),
+					"Expected " + missingTexts.size() + " embeddings but got " + results.size());
+			Iterator<Embedding> iterator = results.iterator();
+			for (Map.Entry<String, List<Integer>> missing : missingPositions.entrySet()) {
+				float[] vector = iterator.next().getOutputAsFloatArray();
+				put(missing.getKey(), vector);
+				for (int position : missing.getValue()) {
+					vectors[position] = vector;
+				}
+			}
+			metadata = response.getMetadata();
+		}
+
+		List<Embedding> embeddings = new ArrayList<>(vectors.length);
+		for (int i = 0; i < vectors.length; i++) {
+			embeddings.add(new Embedding(vectors[i], i));
+		}
+		return new EmbeddingResponse(embeddings, metadata);
+	}
+
+	@Override
+	public List<Double> embed(Document document) {
+		return EmbeddingUtils.toDoubleList(embedAsFloatArray(document));
+	}
+
+	@Override
+	public float[] embedAsFloatArray(Document document) {
+		Assert.notNull(document, "Document must not be null");
+		String key = key(optionsKey(EmbeddingOptions.EMPTY), getEmbeddingContent(document));
+		float[] vector = get(key);
+		if (vector == null) {
+			vector = this.delegate.embedAsFloatArray(document);
+			put(key, vector);
+		}
+		return vector;
+	}
+
+	/**
+	 * Embeds the given documents, sending only the documents that are not cached to the
+	 * delegate, so that its batches are filled with cache misses.
+	 */
+	@Override
+	public List<float[]> embed(List<Document> documents, EmbeddingOptions options, BatchingStrategy batchingStrategy) {
+		Assert.notNull(documents, "Documents must not be null");
+		Assert.notNull(batchingStrategy, "BatchingStrategy must not be null");
+		String optionsKey = optionsKey(options);
+
+		float[][] vectors = new float[documents.size()][];
+		String[] keys = new String[documents.size()];
+		List<Document> missingDocuments = new ArrayList<>();
+		for (int i = 0; i < documents.size(); i++) {
+			keys[i] = key(optionsKey, getEmbeddingContent(documents.get(i)));
+			vectors[i] = get(keys[i]);
+			if (vectors[i] == null) {
+				missingDocuments.add(documents.get(i));
+			}
+		}
+
+		if (!missingDocuments.isEmpty()) {
+			Iterator<float[]> computed = this.delegate.embed(missingDocuments, options, batchingStrategy).iterator();
+			for (int i = 0; i < vectors.length; i++) {
+				if (vectors[i] == null) {
+					vectors[i] = computed.next();
+					put(keys[i], vectors[i]);
+				}
+			}
+		}
+		return List.of(vectors);
+	}
+
+	@Override
+	public String getEmbeddingContent(Document document) {
+		return this.delegate.getEmbeddingContent(document);
+	}
+
+	@Override
+	public int dimensions() {
+		return this.delegate.dimensions();
+	}
+
+	/**
+	 * @return the hit and miss counts of the cache.
+	 */
+	public Stats getStats() {
+		synchronized (this.memory) {
+			return new Stats(this.hits.sum(), this.diskHits.sum(), this.misses.sum(), this.evictions.sum(),
+					this.memory.size(), this.memoryBytes);
+		}
+	}
+
+	/**
+	 * Removes all entries from the in-memory tier. The on-disk tier is left untouched.
+	 */
+	public void clear() {
+		synchronized (this.memory) {
+			this.memory.clear();
+			this.memoryBytes = 0;
+		}
+	}
+
+	private float[] get(String key) {
+		float[] vector;
+		synchronized (this.memory) {
+			vector = this.memory.get(key);
+		}
+		if (vector != null) {
+			this.hits.increment();
+			return vector;
+		}
+		vector = readFromDisk(key);
+		if (vector != null) {
+			this.diskHits.increment();
+			putInMemory(key, vector);
+			return vector;
+		}
+		this.misses.increment();
+		return null;
+	}
+
+	private void put(String key, float[] vector) {
+		putInMemory(key, vector);
+		writeToDisk(key, vector);
+	}
+
+	private void putInMemory(String key, float[] vector) {
+		long size = entrySize(vector);
+		if (size > this.maxMemoryBytes) {
+			return;
+		}
+		synchronized (this.memory) {
+			float[] previous = this.memory.put(key, vector);
+			if (previous != null) {
+				this.memoryBytes -= entrySize(previous);
+			}
+			this.memoryBytes += size;
+			Iterator<float[]> eldest = this.memory.values().iterator();
+			while (this.memoryBytes > this.maxMemoryBytes) {
+				this.memoryBytes -= entrySize(eldest.next());
+				eldest.remove();
+				this.evictions.increment();
+			}
+		}
+	}
+
+	private float[] readFromDisk(String key) {
+		if (this.directory == null) {
+			return null;
+		}
+		try {
+			ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(diskPath(key))).order(ByteOrder.LITTLE_ENDIAN);
+			float[] vector = new float[bytes.remaining() / Float.BYTES];
+			bytes.asFloatBuffer().get(vector);
+			return vector;
+		}
+		catch (NoSuchFileException ex) {
+			return null;
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to read cached embedding {}", key, ex);
+			return null;
+		}
+	}
+
+	private void writeToDisk(String key, float[] vector) {
+		if (this.directory == null) {
+			return;
+		}
+		Path path = diskPath(key);
+		try {
+			Files.createDirectories(path.getParent());
+			ByteBuffer bytes = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			bytes.asFloatBuffer().put(vector);
+			Path temporary = Files.createTempFile(path.getParent(), key, ".tmp");
+			try {
+				Files.write(temporary, bytes.array());
+				try {
+					Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException ex) {
+					Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			finally {
+				Files.deleteIfExists(temporary);
+			}
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to write cached embedding {}", key, ex);
+		}
+	}
+
+	/**
+	 * Entries are spread over 256 sub-directories named after the first byte of the key.
+	 */
+	private Path diskPath(String key) {
+		return this.directory.resolve(key.substring(0, 2)).resolve(key + ".bin");
+	}
+
+	private String optionsKey(EmbeddingOptions options) {
+		return (options != null) ? options.getClass().getName() + ModelOptionsUtils.toJsonString(options) : "";
+	}
+
+	private String key(String optionsKey, String text) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+		digest.update(this.namespace.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(optionsKey.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(text.getBytes(StandardCharsets.UTF_8));
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static long entrySize(float[] vector) {
+		return (long) vector.length * Float.BYTES + ENTRY_OVERHEAD;
+	}
+
+	/**
+	 * Cache statistics.
+	 *
+	 * @param hits the lookups answered by the in-memory tier.
+	 * @param diskHits the lookups answered by the on-disk tier.
+	 * @param misses the lookups answered by the delegate model.
+	 * @param evictions the entries evicted from the in-memory tier.
+	 * @param memoryEntries the number of entries in the in-memory tier.
+	 * @param memoryBytes the approximate size of the in-memory tier.
+	 */
+	public record Stats(long hits, long diskHits, long misses, long evictions, int memoryEntries, long memoryBytes) {
+
+		/**
+		 * @return the share of the lookups answered by either tier of the cache.
+		 */
+		public double hitRate() {
+			long lookups = this.hits + this.diskHits + this.misses;
+			return (lookups == 0) ? 0 : (this.hits + this.diskHits) / (double) lookups;
+		}
+
+	}
+
+	public static final class Builder {
+
+		private final EmbeddingModel delegate;
+
+		private String namespace;
+
+		private long maxMemoryBytes = 64L * 1024 * 1024;
+
+		private Path directory;
+
+		private Builder(EmbeddingModel delegate) {
+			Assert.notNull(delegate, "EmbeddingModel must not be null");
+			this.delegate = delegate;
+		}
+
+		/**
+		 * @param namespace the identity of the delegate model, part of every cache key.
+		 * Defaults to the delegate class name.
+		 * @return this builder.
+		 */
+		public Builder withNamespace(String namespace) {
+			Assert.hasText(namespace, "Namespace must not be empty");
+			this.namespace = namespace;
+			return this;
+		}
+
+		/**
+		 * @param maxMemoryBytes the approximate maximum size of the in-memory tier.
+		 * Defaults to 64 MiB.
+		 * @return this builder.
+		 */
+		public Builder withMaxMemoryBytes(long maxMemoryBytes) {
+			Assert.isTrue(maxMemoryBytes >= 0, "Max memory bytes must not be negative");
+			this.maxMemoryBytes = maxMemoryBytes;
+			return this;
+		}
+
+		/**
+		 * @param directory the directory of the on-disk tier. Entries are never removed
+		 * from it. Disabled by default.
+		 * @return this builder.
+		 */
+		public Builder withDirectory(Path directory) {
+			this.directory = directory;
+			return this;
+		}
+
+		public CachingEmbeddingModel build() {
+			return new CachingEmbeddingModel(this);
+		}
+
+	}
+
+}
@@ -27,6 +27,8 @@ public class Embedding implements ModelResult<List<Double>> {
 
 	private List<Double> embedding;
 
+	private float[] vector;
+
 	private Integer index;
 
 	private EmbeddingResultMetadata metadata;
@@ -41,6 +43,18 @@ public class Embedding implements ModelResult<List<Double>> {
 		this.index = index;
 	}
 
+	/**
+	 * Creates a new {@link Embedding} instance backed by a primitive vector. The
+	 * {@link #getOutput()} list is a read-only view over the given array.
+	 * @param embedding the embedding vector values.
+	 * @param index the embedding index in a list of embeddings.
+	 */
+	public Embedding(float[] embedding, Integer index) {
+		this.vector = embedding;
+		this.embedding = EmbeddingUtils.toDoubleList(embedding);
+		this.index = index;
+	}
+
 	/**
 	 * @return Get the embedding vector values.
 	 */
@@ -49,6 +63,17 @@ public class Embedding implements ModelResult<List<Double>> {
 		return embedding;
 	}
 
+	/**
+	 * @return Get the embedding vector values as a primitive float array. The array is
+	 * shared with this instance and must not be modified.
+	 */
+	public float[] getOutputAsFloatArray() {
+		if (this.vector == null) {
+			this.vector = EmbeddingUtils.toFloatArray(this.embedding);
+		}
+		return this.vector;
+	}
+
 	/**
 	 * @return Get the embedding index in a list of embeddings.
 	 */
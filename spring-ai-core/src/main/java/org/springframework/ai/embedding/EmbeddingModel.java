@@ -19,7 +19,9 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.model.Model;
 import org.springframework.util.Assert;
 
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * EmbeddingModel is a generic interface for embedding models.
@@ -60,6 +62,79 @@ public interface EmbeddingModel extends Model<EmbeddingRequest, EmbeddingRespons
 			.toList();
 	}
 
+	/**
+	 * Embeds the given text into a primitive vector, avoiding the boxed
+	 * {@code List<Double>} representation.
+	 * @param text the text to embed.
+	 * @return the embedded vector.
+	 */
+	default float[] embedAsFloatArray(String text) {
+		Assert.notNull(text, "Text must not be null");
+		return this.embedAsFloatArrays(List.of(text)).get(0);
+	}
+
+	/**
+	 * Embeds the given document's content into a primitive vector. The default
+	 * implementation adapts {@link #embed(Document)}.
+	 * @param document the document to embed.
+	 * @return the embedded vector.
+	 */
+	default float[] embedAsFloatArray(Document document) {
+		Assert.notNull(document, "Document must not be null");
+		return EmbeddingUtils.toFloatArray(this.embed(document));
+	}
+
+	/**
+	 * Embeds a batch of texts into primitive vectors.
+	 * @param texts list of texts to embed.
+	 * @return list of embedded vectors.
+	 */
+	default List<float[]> embedAsFloatArrays(List<String> texts) {
+		Assert.notNull(texts, "Texts must not be null");
+		return this.call(new EmbeddingRequest(texts, EmbeddingOptions.EMPTY))
+			.getResults()
+			.stream()
+			.map(Embedding::getOutputAsFloatArray)
+			.toList();
+	}
+
+	/**
+	 * Embeds the given documents, grouped into batches by the {@link BatchingStrategy},
+	 * so that each batch is sent with a single {@link #call(EmbeddingRequest)}.
+	 * @param documents the documents to embed.
+	 * @param options the embedding options to use for every batch.
+	 * @param batchingStrategy the strategy used to group the documents.
+	 * @return the embedded vectors, in the same order as the input documents.
+	 */
+	default List<float[]> embed(List<Document> documents, EmbeddingOptions options, BatchingStrategy batchingStrategy) {
+		Assert.notNull(documents, "Documents must not be null");
+		Assert.notNull(batchingStrategy, "BatchingStrategy must not be null");
+
+		Map<Document, float[]> embeddings = new IdentityHashMap<>(documents.size());
+		for (List<Document> batch : batchingStrategy.batch(documents)) {
+			List<String> texts = batch.stream().map(this::getEmbeddingContent).toList();
+			List<Embedding> results = this.call(new EmbeddingRequest(texts, options)).getResults();
+			Assert.isTrue(results.size() == batch.size(),
+					"Expected " + batch.size() + " embeddings but got " + results.size());
+			for (int i = 0; i < batch.size(); i++) {
+				embeddings.put(batch.get(i), results.get(i).getOutputAsFloatArray());
+			}
+		}
+		return documents.stream().map(embeddings::get).toList();
+	}
+
+	/**
+	 * Returns the text of the given document that is sent to the model by
+	 * {@link #embed(List, EmbeddingOptions, BatchingStrategy)}. Implementations that
+	 * format the document content in {@link #embed(Document)} should override this method
+	 * to apply the same formatting.
+	 * @param document the document to embed.
+	 * @return the text to embed.
+	 */
+	default String getEmbeddingContent(Document document) {
+		return document.getContent();
+	}
+
 	/**
 	 * Embeds a batch of texts into vectors and returns the {@link EmbeddingResponse}.
 	 * @param texts list of texts to embed.
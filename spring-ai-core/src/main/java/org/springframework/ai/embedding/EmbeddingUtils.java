@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.embedding;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.springframework.util.Assert;
+
+/**
+ * Utility methods for converting between the primitive {@code float[]} embedding
+ * representation and the boxed {@code List<Double>} / {@code List<Float>} views used by
+ * the public API.
+ *
+ * The lists returned by {@link #toDoubleList(float[])} and {@link #toFloatList(float[])}
+ * are read-only views backed by the array, so no per-element boxed copy of the vector is
+ * retained.
+ *
+ * @since 1.0.0
+ */
+public final class EmbeddingUtils {
+
+	/**
+	 * Shared empty embedding vector.
+	 */
+	public static final float[] EMPTY_FLOAT_ARRAY = new float[0];
+
+	private EmbeddingUtils() {
+
+	}
+
+	/**
+	 * Converts a list of numbers into a primitive float array.
+	 * @param numbers the numbers to convert.
+	 * @return the primitive float array. If the list is a view created by this class the
+	 * backing array is returned as-is, so callers must not modify it.
+	 */
+	public static float[] toFloatArray(List<? extends Number> numbers) {
+		Assert.notNull(numbers, "numbers must not be null");
+		if (numbers instanceof FloatArrayList<?> view) {
+			return view.array;
+		}
+		if (numbers.isEmpty()) {
+			return EMPTY_FLOAT_ARRAY;
+		}
+		float[] result = new float[numbers.size()];
+		int i = 0;
+		for (Number number : numbers) {
+			result[i++] = number.floatValue();
+		}
+		return result;
+	}
+
+	/**
+	 * Converts a primitive double array into a primitive float array.
+	 * @param doubles the doubles to convert.
+	 * @return the primitive float array.
+	 */
+	public static float[] toFloatArray(double[] doubles) {
+		Assert.notNull(doubles, "doubles must not be null");
+		float[] result = new float[doubles.length];
+		for (int i = 0; i < doubles.length; i++) {
+			result[i] = (float) doubles[i];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a read-only {@code List<Double>} view backed by the given array.
+	 * @param vector the embedding vector.
+	 * @return the list view.
+	 */
+	public static List<Double> toDoubleList(float[] vector) {
+		Assert.notNull(vector, "vector must not be null");
+		return new DoubleView(vector);
+	}
+
+	/**
+	 * Returns a read-only {@code List<Float>} view backed by the given array.
+	 * @param vector the embedding vector.
+	 * @return the list view.
+	 */
+	public static List<Float> toFloatList(float[] vector) {
+		Assert.notNull(vector, "vector must not be null");
+		return new FloatView(vector);
+	}
+
+	/**
+	 * Returns a boxed {@code Float[]} copy of the given array, for client libraries that
+	 * require object arrays.
+	 * @param vector the embedding vector.
+	 * @return the boxed array.
+	 */
+	public static Float[] toBoxedFloatArray(float[] vector) {
+		Assert.notNull(vector, "vector must not be null");
+		Float[] result = new Float[vector.length];
+		for (int i = 0; i < vector.length; i++) {
+			result[i] = vector[i];
+		}
+		return result;
+	}
+
+	private static abstract class FloatArrayList<T> extends AbstractList<T> implements RandomAccess {
+
+		protected final float[] array;
+
+		FloatArrayList(float[] array) {
+			this.array = array;
+		}
+
+		@Override
+		public int size() {
+			return this.array.length;
+		}
+
+	}
+
+	private static final class DoubleView extends FloatArrayList<Double> {
+
+		DoubleView(float[] array) {
+			super(array);
+		}
+
+		@Override
+		public Double get(int index) {
+			return (double) this.array[index];
+		}
+
+	}
+
+	private static final class FloatView extends FloatArrayList<Float> {
+
+		FloatView(float[] array) {
+			super(array);
+		}
+
+		@Override
+		public Float get(int index) {
+			return this.array[index];
+		}
+
+	}
+
+}
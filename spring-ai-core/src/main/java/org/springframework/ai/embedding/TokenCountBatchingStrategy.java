@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.embedding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.ContentFormatter;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.util.Assert;
+
+/**
+ * {@link BatchingStrategy} that groups documents by both a maximum number of documents
+ * and a token budget per batch. Token counts are estimated with a
+ * {@link TokenCountEstimator} over the formatted document content.
+ *
+ * A document whose estimated token count alone exceeds the budget is placed in a batch of
+ * its own and left to the model to accept, truncate or reject.
+ *
+ * @since 1.0.0
+ */
+public class TokenCountBatchingStrategy implements BatchingStrategy {
+
+	private static final Logger logger = LoggerFactory.getLogger(TokenCountBatchingStrategy.class);
+
+	/**
+	 * Default token budget per batch. Matches the input limit of the OpenAI embedding
+	 * models.
+	 */
+	public static final int DEFAULT_MAX_INPUT_TOKEN_COUNT = 8191;
+
+	/**
+	 * Default maximum number of documents per batch.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 96;
+
+	/**
+	 * Default percentage of the token budget kept in reserve to absorb estimation errors.
+	 */
+	public static final double DEFAULT_RESERVE_PERCENTAGE = 0.1;
+
+	private final TokenCountEstimator tokenCountEstimator;
+
+	private final int maxBatchTokenCount;
+
+	private final int maxBatchSize;
+
+	private final ContentFormatter contentFormatter;
+
+	private final MetadataMode metadataMode;
+
+	public TokenCountBatchingStrategy() {
+		this(DEFAULT_MAX_INPUT_TOKEN_COUNT, DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	public TokenCountBatchingStrategy(int maxInputTokenCount, int maxBatchSize) {
+		this(new JTokkitTokenCountEstimator(), maxInputTokenCount, DEFAULT_RESERVE_PERCENTAGE, maxBatchSize,
+				Document.DEFAULT_CONTENT_FORMATTER, MetadataMode.NONE);
+	}
+
+	/**
+	 * @param tokenCountEstimator the estimator used to count the document tokens.
+	 * @param maxInputTokenCount the token budget per batch.
+	 * @param reservePercentage the fraction of the token budget kept in reserve.
+	 * @param maxBatchSize the maximum number of documents per batch.
+	 * @param contentFormatter the formatter used to render the document text to count.
+	 * @param metadataMode the metadata mode used to render the document text to count.
+	 */
+	public TokenCountBatchingStrategy(TokenCountEstimator tokenCountEstimator, int maxInputTokenCount,
+			double reservePercentage, int maxBatchSize, ContentFormatter contentFormatter, MetadataMode metadataMode) {
+		Assert.notNull(tokenCountEstimator, "TokenCountEstimator must not be null");
+		Assert.isTrue(maxInputTokenCount > 0, "Max input token count must be greater than 0");
+		Assert.isTrue(reservePercentage >= 0 && reservePercentage < 1, "Reserve percentage must be in [0, 1)");
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+		Assert.notNull(contentFormatter, "ContentFormatter must not be null");
+		Assert.notNull(metadataMode, "MetadataMode must not be null");
+
+		this.tokenCountEstimator = tokenCountEstimator;
+		this.maxBatchTokenCount = (int) Math.round(maxInputTokenCount * (1 - reservePercentage));
+		this.maxBatchSize = maxBatchSize;
+		this.contentFormatter = contentFormatter;
+		this.metadataMode = metadataMode;
+	}
+
+	@Override
+	public List<List<Document>> batch(List<Document> documents) {
+		Assert.notNull(documents, "Documents must not be null");
+
+		List<List<Document>> batches = new ArrayList<>();
+		List<Document> currentBatch = new ArrayList<>();
+		int currentTokenCount = 0;
+
+		for (Document document : documents) {
+			int tokenCount = this.tokenCountEstimator
+				.estimate(document.getFormattedContent(this.contentFormatter, this.metadataMode));
+
+			if (tokenCount > this.maxBatchTokenCount) {
+				logger.warn("Document {} has an estimated {} tokens, exceeding the batch budget of {} tokens",
+						document.getId(), tokenCount, this.maxBatchTokenCount);
+			}
+
+			if (!currentBatch.isEmpty() && (currentTokenCount + tokenCount > this.maxBatchTokenCount
+					|| currentBatch.size() >= this.maxBatchSize)) {
+				batches.add(currentBatch);
+				currentBatch = new ArrayList<>();
+				currentTokenCount = 0;
+			}
+
+			currentBatch.add(document);
+			currentTokenCount += tokenCount;
+		}
+
+		if (!currentBatch.isEmpty()) {
+			batches.add(currentBatch);
+		}
+
+		return batches;
+	}
+
+}
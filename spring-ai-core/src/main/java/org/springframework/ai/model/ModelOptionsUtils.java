@@ -50,6 +50,7 @@ import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * Utility class for manipulating {@link ModelOptions} objects.
@@ -70,6 +71,8 @@ public final class ModelOptionsUtils {
 
 	private static AtomicReference<SchemaGenerator> SCHEMA_GENERATOR_CACHE = new AtomicReference<>();
 
+	private static final Map<JsonSchemaKey, String> JSON_SCHEMA_CACHE = new ConcurrentReferenceHashMap<>();
+
 	private ModelOptionsUtils() {
 
 	}
@@ -330,12 +333,18 @@ public final class ModelOptionsUtils {
 	}
 
 	/**
-	 * Generates JSON Schema (version 2020_12) for the given class.
+	 * Generates JSON Schema (version 2020_12) for the given class. The schemas are
+	 * generated once per class and cached.
 	 * @param clazz the class to generate JSON Schema for.
 	 * @param toUpperCaseTypeValues if true, the type values are converted to upper case.
 	 * @return the generated JSON Schema as a String.
 	 */
 	public static String getJsonSchema(Class<?> clazz, boolean toUpperCaseTypeValues) {
+		return JSON_SCHEMA_CACHE.computeIfAbsent(new JsonSchemaKey(clazz, toUpperCaseTypeValues),
+				key -> generateJsonSchema(key.type(), key.toUpperCaseTypeValues()));
+	}
+
+	private static String generateJsonSchema(Class<?> clazz, boolean toUpperCaseTypeValues) {
 
 		if (SCHEMA_GENERATOR_CACHE.get() == null) {
 
@@ -395,4 +404,7 @@ public final class ModelOptionsUtils {
 		}
 	}
 
+	private record JsonSchemaKey(Class<?> type, boolean toUpperCaseTypeValues) {
+	}
+
 }
@@ -15,16 +15,24 @@
  */
 package org.springframework.ai.model.function;
 
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 /**
  * @author Christian Tzolov
@@ -46,6 +54,19 @@ public abstract class AbstractFunctionCallSupport<Msg, Req, Resp> {
 	 */
 	protected final FunctionCallbackContext functionCallbackContext;
 
+	/**
+	 * Executor running the function calls requested by a single model response
+	 * concurrently. When {@code null}, the calls run one after the other on the calling
+	 * thread.
+	 */
+	private volatile Executor functionCallExecutor;
+
+	/**
+	 * Maximum duration of the function calls run by the {@link #functionCallExecutor},
+	 * from their submission. When {@code null}, the calls are not timed out.
+	 */
+	private volatile Duration functionCallTimeout;
+
 	protected AbstractFunctionCallSupport(FunctionCallbackContext functionCallbackContext) {
 		this.functionCallbackContext = functionCallbackContext;
 	}
@@ -54,6 +75,33 @@ public abstract class AbstractFunctionCallSupport<Msg, Req, Resp> {
 		return this.functionCallbackRegister;
 	}
 
+	/**
+	 * Set the executor used to run the function calls requested by a single model
+	 * response concurrently, for example
+	 * {@code Executors.newVirtualThreadPerTaskExecutor()} on Java 21 or later. The
+	 * function responses are still added to the conversation in the requested order.
+	 * @param functionCallExecutor the executor, or {@code null} to run the calls
+	 * sequentially on the calling thread (the default).
+	 */
+	public void setFunctionCallExecutor(Executor functionCallExecutor) {
+		this.functionCallExecutor = functionCallExecutor;
+	}
+
+	/**
+	 * Set the maximum duration of the function calls requested by a single model
+	 * response. Only applies to calls run by a {@link #setFunctionCallExecutor(Executor)
+	 * function call executor}. The timeout starts when the calls are submitted, so it
+	 * includes the time they wait for a thread of the executor. The calls still running
+	 * when it expires are interrupted.
+	 * @param functionCallTimeout the timeout, or {@code null} for no timeout (the
+	 * default).
+	 */
+	public void setFunctionCallTimeout(Duration functionCallTimeout) {
+		Assert.isTrue(functionCallTimeout == null || !functionCallTimeout.isNegative(),
+				"Function call timeout must not be negative");
+		this.functionCallTimeout = functionCallTimeout;
+	}
+
 	protected Set<String> handleFunctionCallbackConfigurations(FunctionCallingOptions options, boolean isRuntimeCall) {
 
 		Set<String> functionToCall = new HashSet<>();
@@ -122,6 +170,81 @@ public abstract class AbstractFunctionCallSupport<Msg, Req, Resp> {
 		return retrievedFunctionCallbacks;
 	}
 
+	/**
+	 * Calls the registered functions requested by a model response. The calls run
+	 * concurrently on the {@link #setFunctionCallExecutor(Executor) function call
+	 * executor} when one is set, and sequentially otherwise.
+	 * @param functionCalls the function calls requested by the model.
+	 * @param functionName extracts the name of the function to call.
+	 * @param functionArguments extracts the JSON arguments of the function call.
+	 * @param <T> the model specific type of function call.
+	 * @return the function responses, in the order of the function calls.
+	 */
+	protected <T> List<String> executeFunctionCalls(List<T> functionCalls, Function<T, String> functionName,
+			Function<T, String> functionArguments) {
+
+		List<FunctionCallback> functionCallbacks = new ArrayList<>(functionCalls.size());
+		for (T functionCall : functionCalls) {
+			String name = functionName.apply(functionCall);
+			FunctionCallback functionCallback = this.functionCallbackRegister.get(name);
+			if (functionCallback == null) {
+				throw new IllegalStateException("No function callback found for function name: " + name);
+			}
+			functionCallbacks.add(functionCallback);
+		}
+
+		Executor executor = this.functionCallExecutor;
+		if (executor == null) {
+			List<String> functionResponses = new ArrayList<>(functionCalls.size());
+			for (int i = 0; i < functionCalls.size(); i++) {
+				functionResponses.add(functionCallbacks.get(i).call(functionArguments.apply(functionCalls.get(i))));
+			}
+			return functionResponses;
+		}
+
+		Duration timeout = this.functionCallTimeout;
+		long deadline = (timeout != null) ? System.nanoTime() + timeout.toNanos() : 0;
+		List<FutureTask<String>> tasks = new ArrayList<>(functionCalls.size());
+		List<String> functionResponses = new ArrayList<>(functionCalls.size());
+		int i = 0;
+		try {
+			for (int j = 0; j < functionCalls.size(); j++) {
+				FunctionCallback functionCallback = functionCallbacks.get(j);
+				String arguments = functionArguments.apply(functionCalls.get(j));
+				FutureTask<String> task = new FutureTask<>(() -> functionCallback.call(arguments));
+				tasks.add(task);
+				executor.execute(task);
+			}
+			for (; i < tasks.size(); i++) {
+				FutureTask<String> task = tasks.get(i);
+				functionResponses
+					.add((timeout != null) ? task.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : task.get());
+			}
+		}
+		catch (TimeoutException ex) {
+			throw new IllegalStateException(
+					"Function call [" + functionCallbacks.get(i).getName() + "] timed out after " + timeout, ex);
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the function calls", ex);
+		}
+		finally {
+			// Interrupt the calls still running once one failed or timed out
+			tasks.forEach(task -> task.cancel(true));
+		}
+		return functionResponses;
+	}
+
 	///
 	protected Resp callWithFunctionSupport(Req request) {
 		Resp response = this.doChatCompletion(request);
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.model.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ChatModel} decorator that paces the calls of the delegate with a
+ * {@link RateLimiter}. Each call reserves the estimated tokens of its prompt before it is
+ * dispatched; streaming calls wait without blocking. The generated tokens reported in the
+ * response usage are charged once the response arrives, and the rate limit metadata of
+ * the response is fed back to the limiter.
+ *
+ * @since 1.0.0
+ */
+public class RateLimitedChatModel implements ChatModel {
+
+	private final ChatModel delegate;
+
+	private final RateLimiter rateLimiter;
+
+	private final TokenCountEstimator tokenCountEstimator;
+
+	public RateLimitedChatModel(ChatModel delegate, RateLimiter rateLimiter) {
+		this(delegate, rateLimiter, new JTokkitTokenCountEstimator());
+	}
+
+	public RateLimitedChatModel(ChatModel delegate, RateLimiter rateLimiter, TokenCountEstimator tokenCountEstimator) {
+		Assert.notNull(delegate, "Delegate must not be null");
+		Assert.notNull(rateLimiter, "RateLimiter must not be null");
+		Assert.notNull(tokenCountEstimator, "TokenCountEstimator must not be null");
+		this.delegate = delegate;
+		this.rateLimiter = rateLimiter;
+		this.tokenCountEstimator = tokenCountEstimator;
+	}
+
+	@Override
+	public ChatResponse call(Prompt prompt) {
+		this.rateLimiter.acquire(estimate(prompt));
+		ChatResponse response = this.delegate.call(prompt);
+		record(response);
+		return response;
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+		return Flux.defer(() -> {
+			AtomicReference<ChatResponse> lastResponse = new AtomicReference<>();
+			return this.rateLimiter.acquireAsync(estimate(prompt))
+				.thenMany(Flux.defer(() -> this.delegate.stream(prompt)))
+				.doOnNext(lastResponse::set)
+				.doOnComplete(() -> record(lastResponse.get()));
+		});
+	}
+
+	@Override
+	public ChatOptions getDefaultOptions() {
+		return this.delegate.getDefaultOptions();
+	}
+
+	private long estimate(Prompt prompt) {
+		long tokens = 0;
+		for (Message message : prompt.getInstructions()) {
+			tokens += this.tokenCountEstimator.estimate(message);
+		}
+		return tokens;
+	}
+
+	private void record(ChatResponse response) {
+		ChatResponseMetadata metadata = (response != null) ? response.getMetadata() : null;
+		if (metadata == null) {
+			return;
+		}
+		Usage usage = metadata.getUsage();
+		if (usage != null && usage.getGenerationTokens() != null) {
+			this.rateLimiter.consume(usage.getGenerationTokens());
+		}
+		this.rateLimiter.update(metadata.getRateLimit());
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.model.ratelimit;
+
+import java.util.List;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.util.Assert;
+
+/**
+ * {@link EmbeddingModel} decorator that paces the calls of the delegate with a
+ * {@link RateLimiter}, reserving the estimated tokens of the embedded texts before each
+ * call.
+ *
+ * @since 1.0.0
+ */
+public class RateLimitedEmbeddingModel implements EmbeddingModel {
+
+	private final EmbeddingModel delegate;
+
+	private final RateLimiter rateLimiter;
+
+	private final TokenCountEstimator tokenCountEstimator;
+
+	public RateLimitedEmbeddingModel(EmbeddingModel delegate, RateLimiter rateLimiter) {
+		this(delegate, rateLimiter, new JTokkitTokenCountEstimator());
+	}
+
+	public RateLimitedEmbeddingModel(EmbeddingModel delegate, RateLimiter rateLimiter,
+			TokenCountEstimator tokenCountEstimator) {
+		Assert.notNull(delegate, "Delegate must not be null");
+		Assert.notNull(rateLimiter, "RateLimiter must not be null");
+		Assert.notNull(tokenCountEstimator, "TokenCountEstimator must not be null");
+		this.delegate = delegate;
+		this.rateLimiter = rateLimiter;
+		this.tokenCountEstimator = tokenCountEstimator;
+	}
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+		long tokens = 0;
+		for (String text : request.getInstructions()) {
+			tokens += this.tokenCountEstimator.estimate(text);
+		}
+		this.rateLimiter.acquire(tokens);
+		return this.delegate.call(request);
+	}
+
+	@Override
+	public List<Double> embed(Document document) {
+		this.rateLimiter.acquire(this.tokenCountEstimator.estimate(getEmbeddingContent(document)));
+		return this.delegate.embed(document);
+	}
+
+	@Override
+	public String getEmbeddingContent(Document document) {
+		return this.delegate.getEmbeddingContent(document);
+	}
+
+	@Override
+	public int dimensions() {
+		return this.delegate.dimensions();
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.model.ratelimit;
+
+import java.time.Duration;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.ai.chat.metadata.RateLimit;
+
+/**
+ * Client side rate limiter that model clients consult before dispatching a request, so
+ * that clients sharing a provider quota pace their requests instead of running into rate
+ * limit errors. A single instance is meant to be shared by all the clients that draw from
+ * the same quota.
+ *
+ * @since 1.0.0
+ * @see TokenBucketRateLimiter
+ */
+public interface RateLimiter {
+
+	/**
+	 * Reserve capacity for one request consuming the given number of tokens. The capacity
+	 * is taken immediately, the caller must wait for the returned delay before
+	 * dispatching the request.
+	 * @param tokens the estimated number of tokens of the request
+	 * @return the time to wait before the request may be dispatched, zero if it may be
+	 * dispatched right away
+	 */
+	Duration reserve(long tokens);
+
+	/**
+	 * Record tokens that have been consumed without a reservation, such as the generated
+	 * tokens of a completion, which are only known once the response arrives.
+	 * @param tokens the number of consumed tokens
+	 */
+	void consume(long tokens);
+
+	/**
+	 * Adapt the limiter to the rate limit state reported by the server.
+	 * @param rateLimit the rate limit metadata of a response
+	 */
+	default void update(RateLimit rateLimit) {
+	}
+
+	/**
+	 * Block until capacity for one request consuming the given number of tokens is
+	 * available.
+	 * @param tokens the estimated number of tokens of the request
+	 */
+	default void acquire(long tokens) {
+		Duration delay = reserve(tokens);
+		if (delay.isZero()) {
+			return;
+		}
+		try {
+			Thread.sleep(delay.toMillis(), delay.toNanosPart() % 1_000_000);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the rate limit", ex);
+		}
+	}
+
+	/**
+	 * Non-blocking variant of {@link #acquire(long)}. The capacity is reserved when the
+	 * returned {@link Mono} is subscribed to.
+	 * @param tokens the estimated number of tokens of the request
+	 * @return a {@link Mono} completing once the request may be dispatched
+	 */
+	default Mono<Void> acquireAsync(long tokens) {
+		return Mono.defer(() -> {
+			Duration delay = reserve(tokens);
+			return delay.isZero() ? Mono.empty() : Mono.delay(delay).then();
+		});
+	}
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.model.ratelimit;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.springframework.ai.chat.metadata.RateLimit;
+import org.springframework.util.Assert;
+
+/**
+ * {@link RateLimiter} limiting the requests per minute and the tokens per minute with a
+ * token bucket each. A bucket holds up to a minute worth of capacity and refills
+ * continuously, so short bursts pass through while the sustained rate stays within the
+ * limit.
+ * <p>
+ * Reservations are taken in arrival order and may overdraw a bucket, in which case the
+ * caller is told how long to wait until the overdraft is refilled. Later callers queue up
+ * behind it rather than overtaking it, so large requests are not starved by small ones.
+ * <p>
+ * Limits that are not configured are learned from the {@link RateLimit} metadata of
+ * responses passed to {@link #update(RateLimit)}. Configured limits act as an upper
+ * bound, e.g. to give each of several instances sharing a quota a fraction of it. The
+ * remaining capacity reported by the server, which accounts for all clients of the quota,
+ * caps the capacity available locally.
+ *
+ * @since 1.0.0
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+	private static final long NANOS_PER_MINUTE = Duration.ofMinutes(1).toNanos();
+
+	private final LongSupplier nanoClock;
+
+	private final Bucket requests;
+
+	private final Bucket tokens;
+
+	private TokenBucketRateLimiter(Builder builder) {
+		this.nanoClock = builder.nanoClock;
+		long now = this.nanoClock.getAsLong();
+		this.requests = new Bucket(builder.requestsPerMinute, now);
+		this.tokens = new Bucket(builder.tokensPerMinute, now);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public synchronized Duration reserve(long tokens) {
+		Assert.isTrue(tokens >= 0, "Tokens must not be negative");
+		long now = this.nanoClock.getAsLong();
+		this.requests.refill(now);
+		this.tokens.refill(now);
+		long delay = Math.max(this.requests.take(1), this.tokens.take(tokens));
+		return Duration.ofNanos(delay);
+	}
+
+	@Override
+	public synchronized void consume(long tokens) {
+		Assert.isTrue(tokens >= 0, "Tokens must not be negative");
+		this.tokens.refill(this.nanoClock.getAsLong());
+		this.tokens.take(tokens);
+	}
+
+	@Override
+	public synchronized void update(RateLimit rateLimit) {
+		if (rateLimit == null) {
+			return;
+		}
+		long now = this.nanoClock.getAsLong();
+		this.requests.refill(now);
+		this.tokens.refill(now);
+		this.requests.update(rateLimit.getRequestsLimit(), rateLimit.getRequestsRemaining());
+		this.tokens.update(rateLimit.getTokensLimit(), rateLimit.getTokensRemaining());
+	}
+
+	/**
+	 * @return the requests per minute currently enforced, or {@code null} if unlimited
+	 */
+	public synchronized Long getRequestsPerMinute() {
+		return this.requests.getLimit();
+	}
+
+	/**
+	 * @return the tokens per minute currently enforced, or {@code null} if unlimited
+	 */
+	public synchronized Long getTokensPerMinute() {
+		return this.tokens.getLimit();
+	}
+
+	/**
+	 * Token bucket refilled continuously at a rate of its capacity per minute. The
+	 * available amount may go negative to record an overdraft.
+	 */
+	private static class Bucket {
+
+		private final long maxLimit;
+
+		private long limit;
+
+		private double available;
+
+		private long lastRefill;
+
+		Bucket(long maxLimit, long now) {
+			this.maxLimit = maxLimit;
+			this.limit = maxLimit;
+			this.available = maxLimit;
+			this.lastRefill = now;
+		}
+
+		void refill(long now) {
+			if (this.limit > 0) {
+				double refilled = (double) (now - this.lastRefill) * this.limit / NANOS_PER_MINUTE;
+				this.available = Math.min(this.limit, this.available + refilled);
+			}
+			this.lastRefill = now;
+		}
+
+		/**
+		 * Take the given amount and return the nanoseconds until it is covered.
+		 */
+		long take(long amount) {
+			if (this.limit <= 0) {
+				return 0;
+			}
+			this.available -= amount;
+			return (this.available >= 0) ? 0 : (long) Math.ceil(-this.available * NANOS_PER_MINUTE / this.limit);
+		}
+
+		void update(Long serverLimit, Long serverRemaining) {
+			if (serverLimit == null || serverLimit <= 0) {
+				return;
+			}
+			long newLimit = (this.maxLimit > 0) ? Math.min(this.maxLimit, serverLimit) : serverLimit;
+			if (this.limit <= 0) {
+				this.available = newLimit;
+			}
+			this.limit = newLimit;
+			this.available = Math.min(this.available, newLimit);
+			if (serverRemaining != null) {
+				this.available = Math.min(this.available, serverRemaining);
+			}
+		}
+
+		Long getLimit() {
+			return (this.limit > 0) ? this.limit : null;
+		}
+
+	}
+
+	public static class Builder {
+
+		private long requestsPerMinute;
+
+		private long tokensPerMinute;
+
+		private LongSupplier nanoClock = System::nanoTime;
+
+		/**
+		 * @param requestsPerMinute maximum number of requests per minute, zero to learn
+		 * the limit from the server
+		 * @return this builder
+		 */
+		public Builder withRequestsPerMinute(long requestsPerMinute) {
+			Assert.isTrue(requestsPerMinute >= 0, "Requests per minute must not be negative");
+			this.requestsPerMinute = requestsPerMinute;
+			return this;
+		}
+
+		/**
+		 * @param tokensPerMinute maximum number of tokens per minute, zero to learn the
+		 * limit from the server
+		 * @return this builder
+		 */
+		public Builder withTokensPerMinute(long tokensPerMinute) {
+			Assert.isTrue(tokensPerMinute >= 0, "Tokens per minute must not be negative");
+			this.tokensPerMinute = tokensPerMinute;
+			return this;
+		}
+
+		Builder withNanoClock(LongSupplier nanoClock) {
+			this.nanoClock = nanoClock;
+			return this;
+		}
+
+		public TokenBucketRateLimiter build() {
+			return new TokenBucketRateLimiter(this);
+		}
+
+	}
+
+}
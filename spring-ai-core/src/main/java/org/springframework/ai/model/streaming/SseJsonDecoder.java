@@ -0,0 +1,223 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.model.streaming;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.Assert;
+
+/**
+ * Decodes a stream of server-sent events carrying JSON data, such as the OpenAI
+ * compatible chat completion streams, straight from the response body buffers.
+ * <p>
+ * The event data are copied from the buffers into reused byte arrays and parsed by a
+ * shared {@link ObjectReader}, without being decoded to strings first. The stream ends at
+ * the {@code [DONE]} event, cancelling the response. The lines that are not event fields
+ * but start a JSON value, i.e. a stream of one JSON value per line, are parsed as events
+ * too.
+ *
+ * @param <T> the type of the event data
+ * @since 1.0.0
+ */
+public class SseJsonDecoder<T> {
+
+	private static final byte[] DATA_FIELD = "data:".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] DONE = "[DONE]".getBytes(StandardCharsets.US_ASCII);
+
+	private static final IntPredicate LINE_TERMINATOR = b -> b == '\n' || b == '\r';
+
+	private final ObjectReader reader;
+
+	/**
+	 * Decode the event data with the {@link ModelOptionsUtils#OBJECT_MAPPER}.
+	 * @param type the type of the event data
+	 */
+	public SseJsonDecoder(Class<T> type) {
+		this(ModelOptionsUtils.OBJECT_MAPPER.readerFor(type));
+	}
+
+	public SseJsonDecoder(ObjectReader reader) {
+		Assert.notNull(reader, "The reader must not be null!");
+		this.reader = reader;
+	}
+
+	/**
+	 * Decode the events of a response body, releasing its buffers.
+	 * @param body the response body, e.g. from {@code bodyToFlux(DataBuffer.class)}
+	 * @return the event data, up to the {@code [DONE]} event or the end of the body
+	 */
+	public Flux<T> decode(Flux<DataBuffer> body) {
+		return Flux.defer(() -> {
+			EventParser parser = new EventParser();
+			return body.doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+				.map(parser::feed)
+				.concatWith(Mono.fromCallable(parser::end))
+				.takeUntil(events -> parser.done)
+				.concatMapIterable(events -> events);
+		});
+	}
+
+	/**
+	 * Parses the events of one response body. Not thread-safe.
+	 */
+	private final class EventParser {
+
+		private byte[] line = new byte[256];
+
+		private int lineLength;
+
+		private byte[] data = new byte[1024];
+
+		private int dataLength;
+
+		private boolean hasData;
+
+		private boolean skipLineFeed;
+
+		private boolean done;
+
+		List<T> feed(DataBuffer buffer) {
+			try {
+				List<T> events = new ArrayList<>(2);
+				while (buffer.readableByteCount() > 0 && !this.done) {
+					int start = buffer.readPosition();
+					if (this.skipLineFeed) {
+						// The second byte of a CRLF line terminator
+						this.skipLineFeed = false;
+						if (buffer.getByte(start) == '\n') {
+							buffer.readPosition(start + 1);
+							continue;
+						}
+					}
+					int end = buffer.indexOf(LINE_TERMINATOR, start);
+					if (end < 0) {
+						appendLine(buffer, buffer.readableByteCount());
+						break;
+					}
+					appendLine(buffer, end - start);
+					this.skipLineFeed = (buffer.read() == '\r');
+					endLine(events);
+				}
+				return events;
+			}
+			finally {
+				DataBufferUtils.release(buffer);
+			}
+		}
+
+		List<T> end() {
+			List<T> events = new ArrayList<>(1);
+			if (!this.done && this.lineLength > 0) {
+				endLine(events);
+			}
+			if (!this.done) {
+				dispatch(events);
+			}
+			return events;
+		}
+
+		private void appendLine(DataBuffer buffer, int length) {
+			if (this.lineLength + length > this.line.length) {
+				this.line = Arrays.copyOf(this.line, Math.max(this.line.length * 2, this.lineLength + length));
+			}
+			buffer.read(this.line, this.lineLength, length);
+			this.lineLength += length;
+		}
+
+		private void endLine(List<T> events) {
+			if (this.lineLength == 0) {
+				// A blank line ends the event
+				dispatch(events);
+			}
+			else if (startsWith(this.line, this.lineLength, DATA_FIELD)) {
+				int from = DATA_FIELD.length;
+				if (from < this.lineLength && this.line[from] == ' ') {
+					from++;
+				}
+				appendData(from);
+			}
+			else if (this.line[0] == '{' || this.line[0] == '[') {
+				// Not an event field, one JSON value per line
+				dispatch(events);
+				appendData(0);
+				dispatch(events);
+			}
+			// The other fields and the comments are ignored
+			this.lineLength = 0;
+		}
+
+		private void appendData(int from) {
+			int length = this.lineLength - from;
+			int required = this.dataLength + length + (this.hasData ? 1 : 0);
+			if (required > this.data.length) {
+				this.data = Arrays.copyOf(this.data, Math.max(this.data.length * 2, required));
+			}
+			if (this.hasData) {
+				this.data[this.dataLength++] = '\n';
+			}
+			System.arraycopy(this.line, from, this.data, this.dataLength, length);
+			this.dataLength += length;
+			this.hasData = true;
+		}
+
+		private void dispatch(List<T> events) {
+			if (!this.hasData || this.done) {
+				return;
+			}
+			if (this.dataLength == DONE.length && startsWith(this.data, this.dataLength, DONE)) {
+				this.done = true;
+			}
+			else {
+				try {
+					events.add(SseJsonDecoder.this.reader.readValue(this.data, 0, this.dataLength));
+				}
+				catch (IOException ex) {
+					throw new RuntimeException(
+							"Failed to json: " + new String(this.data, 0, this.dataLength, StandardCharsets.UTF_8), ex);
+				}
+			}
+			this.dataLength = 0;
+			this.hasData = false;
+		}
+
+		private static boolean startsWith(byte[] bytes, int length, byte[] prefix) {
+			if (length < prefix.length) {
+				return false;
+			}
+			for (int i = 0; i < prefix.length; i++) {
+				if (bytes[i] != prefix[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
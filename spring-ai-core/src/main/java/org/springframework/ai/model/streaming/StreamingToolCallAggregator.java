@@ -0,0 +1,150 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.model.streaming;
+
+import java.util.function.BinaryOperator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+
+import org.springframework.util.Assert;
+
+/**
+ * Merges the chunks of a chat completion stream that carry the fragments of a tool call
+ * into a single chunk, passing the other chunks through.
+ * <p>
+ * The tool call chunks are accumulated in a mutable {@link ChunkMerger}, from the first
+ * tool call chunk up to the chunk finishing the tool call, or the end of the stream,
+ * instead of being windowed and reduced pairwise into a new chunk each.
+ *
+ * @param <C> the type of the chunks
+ * @since 1.0.0
+ */
+public abstract class StreamingToolCallAggregator<C> {
+
+	/**
+	 * Aggregate the tool call chunks of a stream.
+	 * @param chunks the chunks, as received
+	 * @return the chunks with each tool call merged in a single chunk
+	 */
+	public Flux<C> aggregate(Flux<C> chunks) {
+		return Flux.defer(() -> {
+			Window window = new Window();
+			return chunks.<C>handle(window::next).concatWith(Mono.fromSupplier(window::flush));
+		});
+	}
+
+	/**
+	 * @param chunk a chunk of the stream
+	 * @return true if the chunk carries a tool call fragment
+	 */
+	protected abstract boolean isToolCall(C chunk);
+
+	/**
+	 * @param chunk a chunk of the stream
+	 * @return true if the chunk finishes the current tool call
+	 */
+	protected abstract boolean isToolCallFinish(C chunk);
+
+	/**
+	 * @return a merger for the chunks of a tool call
+	 */
+	protected abstract ChunkMerger<C> newMerger();
+
+	/**
+	 * Adapt a chunk passed through the aggregation as is.
+	 * @param chunk a chunk not part of a tool call
+	 * @return the chunk to emit
+	 */
+	protected C passThrough(C chunk) {
+		return chunk;
+	}
+
+	/**
+	 * Accumulates the chunks of one tool call.
+	 *
+	 * @param <C> the type of the chunks
+	 */
+	public interface ChunkMerger<C> {
+
+		void add(C chunk);
+
+		C build();
+
+		/**
+		 * A merger reducing the chunks pairwise, for the streams whose tool calls arrive
+		 * whole or in a few chunks.
+		 * @param <C> the type of the chunks
+		 * @param initial the chunk the first chunk is merged with
+		 * @param merge merges the chunks received so far with the next one
+		 * @return a merger
+		 */
+		static <C> ChunkMerger<C> reducing(C initial, BinaryOperator<C> merge) {
+			Assert.notNull(initial, "The initial chunk must not be null!");
+			Assert.notNull(merge, "The merge function must not be null!");
+			return new ChunkMerger<>() {
+
+				private C merged = initial;
+
+				@Override
+				public void add(C chunk) {
+					this.merged = merge.apply(this.merged, chunk);
+				}
+
+				@Override
+				public C build() {
+					return this.merged;
+				}
+
+			};
+		}
+
+	}
+
+	/**
+	 * The tool call in progress on one stream.
+	 */
+	private final class Window {
+
+		private ChunkMerger<C> merger;
+
+		void next(C chunk, SynchronousSink<C> sink) {
+			if (this.merger == null) {
+				if (!isToolCall(chunk)) {
+					sink.next(passThrough(chunk));
+					return;
+				}
+				this.merger = newMerger();
+			}
+			this.merger.add(chunk);
+			if (isToolCallFinish(chunk)) {
+				sink.next(flush());
+			}
+		}
+
+		C flush() {
+			if (this.merger == null) {
+				return null;
+			}
+			C merged = this.merger.build();
+			this.merger = null;
+			return merged;
+		}
+
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.model.streaming;
+
+/**
+ * Accumulates the fragments of a streamed tool call, appending the function arguments to
+ * a single buffer. The provider specific tool call is created once, from the accumulated
+ * values, when the tool call is complete.
+ *
+ * @since 1.0.0
+ */
+public class ToolCallBuilder {
+
+	private String id;
+
+	private String type;
+
+	private boolean function;
+
+	private String name;
+
+	private final StringBuilder arguments = new StringBuilder();
+
+	private boolean hasArguments;
+
+	private int functionFragments;
+
+	/**
+	 * Merge the identification of a tool call fragment, the non null values replacing the
+	 * previous ones.
+	 * @param id the tool call id, or null
+	 * @param type the tool call type, or null
+	 * @return this builder
+	 */
+	public ToolCallBuilder merge(String id, String type) {
+		if (id != null) {
+			this.id = id;
+		}
+		if (type != null) {
+			this.type = type;
+		}
+		return this;
+	}
+
+	/**
+	 * Merge the function of a tool call fragment, the arguments being appended.
+	 * @param name the function name, or null
+	 * @param arguments the function arguments fragment, or null
+	 * @return this builder
+	 */
+	public ToolCallBuilder mergeFunction(String name, String arguments) {
+		this.function = true;
+		this.functionFragments++;
+		if (name != null) {
+			this.name = name;
+		}
+		if (arguments != null) {
+			this.arguments.append(arguments);
+			this.hasArguments = true;
+		}
+		return this;
+	}
+
+	public String getId() {
+		return this.id;
+	}
+
+	public String getType() {
+		return this.type;
+	}
+
+	/**
+	 * @return true if a fragment carried a function
+	 */
+	public boolean hasFunction() {
+		return this.function;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * @return the concatenated arguments, null if the only function fragment had none
+	 */
+	public String getArguments() {
+		return (this.functionFragments == 1 && !this.hasArguments) ? null : this.arguments.toString();
+	}
+
+}
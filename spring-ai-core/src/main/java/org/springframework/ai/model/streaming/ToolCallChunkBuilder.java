@@ -0,0 +1,247 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.model.streaming;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.ai.model.streaming.StreamingToolCallAggregator.ChunkMerger;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Accumulates the chunks of a tool call streamed in the OpenAI chat completion format,
+ * the non null values of a chunk replacing the previous ones and the tool call arguments
+ * being appended.
+ * <p>
+ * Only the first choice of the chunks is merged. A tool call with an id starts a new
+ * call, the others continue the last one. The provider specific values to merge are
+ * declared as {@link Field fields} of the chunk, of its choice or of its delta message,
+ * and the merged chunk is created from them once the tool call is complete.
+ *
+ * @param <C> the type of the chunks
+ * @param <H> the type of the chunk choices
+ * @param <M> the type of the choice delta messages
+ * @param <T> the type of the tool calls
+ * @since 1.0.0
+ */
+public abstract class ToolCallChunkBuilder<C, H, M, T> implements ChunkMerger<C> {
+
+	private final List<Field<C, ?>> chunkFields = new ArrayList<>();
+
+	private final List<Field<H, ?>> choiceFields = new ArrayList<>();
+
+	private final List<Field<M, ?>> deltaFields = new ArrayList<>();
+
+	private final List<ToolCallBuilder> toolCalls = new ArrayList<>();
+
+	private C firstChunk;
+
+	private int chunks;
+
+	private H firstChoice;
+
+	private int choices;
+
+	/**
+	 * Declare a value of the chunks to merge.
+	 * @param <V> the type of the value
+	 * @param accessor reads the value of a chunk
+	 * @return the merged value
+	 */
+	protected final <V> Field<C, V> chunkField(Function<C, V> accessor) {
+		return register(this.chunkFields, accessor);
+	}
+
+	/**
+	 * Declare a value of the chunk choices to merge.
+	 * @param <V> the type of the value
+	 * @param accessor reads the value of a choice
+	 * @return the merged value
+	 */
+	protected final <V> Field<H, V> choiceField(Function<H, V> accessor) {
+		return register(this.choiceFields, accessor);
+	}
+
+	/**
+	 * Declare a value of the choice delta messages to merge.
+	 * @param <V> the type of the value
+	 * @param accessor reads the value of a delta message
+	 * @return the merged value
+	 */
+	protected final <V> Field<M, V> deltaField(Function<M, V> accessor) {
+		return register(this.deltaFields, accessor);
+	}
+
+	private static <S, V> Field<S, V> register(List<Field<S, ?>> fields, Function<S, V> accessor) {
+		Field<S, V> field = new Field<>(accessor);
+		fields.add(field);
+		return field;
+	}
+
+	@Override
+	public final void add(C chunk) {
+		if (this.chunks++ == 0) {
+			this.firstChunk = chunk;
+		}
+		merge(this.chunkFields, chunk);
+
+		List<H> chunkChoices = choices(chunk);
+		H choice = (CollectionUtils.isEmpty(chunkChoices) ? null : chunkChoices.get(0));
+		if (choice == null) {
+			return;
+		}
+		if (this.choices++ == 0) {
+			this.firstChoice = choice;
+		}
+		merge(this.choiceFields, choice);
+
+		M delta = delta(choice);
+		if (delta == null) {
+			return;
+		}
+		merge(this.deltaFields, delta);
+
+		List<T> deltaToolCalls = toolCalls(delta);
+		if (CollectionUtils.isEmpty(deltaToolCalls)) {
+			return;
+		}
+		boolean first = (this.choices == 1);
+		if (!first && deltaToolCalls.size() > 1) {
+			throw new IllegalStateException("Currently only one tool call is supported per message!");
+		}
+		for (T toolCall : deltaToolCalls) {
+			if (first || toolCallId(toolCall) != null || this.toolCalls.isEmpty()) {
+				this.toolCalls.add(new ToolCallBuilder());
+			}
+			mergeToolCall(this.toolCalls.get(this.toolCalls.size() - 1), toolCall);
+		}
+	}
+
+	private static <S> void merge(List<Field<S, ?>> fields, S source) {
+		for (Field<S, ?> field : fields) {
+			field.merge(source);
+		}
+	}
+
+	@Override
+	public final C build() {
+		if (this.chunks == 1) {
+			return firstChoiceOnly(this.firstChunk);
+		}
+		H choice = (this.choices == 1) ? this.firstChoice : null;
+		if (this.choices > 1) {
+			choice = buildChoice(this.toolCalls);
+		}
+		return buildChunk(choice);
+	}
+
+	/**
+	 * @param chunk a chunk
+	 * @return the choices of the chunk, possibly null
+	 */
+	protected abstract List<H> choices(C chunk);
+
+	/**
+	 * @param choice a chunk choice
+	 * @return the delta message of the choice, possibly null
+	 */
+	protected abstract M delta(H choice);
+
+	/**
+	 * @param delta a delta message
+	 * @return the tool calls of the message, possibly null
+	 */
+	protected abstract List<T> toolCalls(M delta);
+
+	/**
+	 * @param toolCall a tool call fragment
+	 * @return the id of the tool call, null if the fragment continues the last call
+	 */
+	protected abstract String toolCallId(T toolCall);
+
+	/**
+	 * Merge a tool call fragment into the builder of the tool call it belongs to.
+	 * @param builder the tool call builder
+	 * @param toolCall the tool call fragment
+	 */
+	protected abstract void mergeToolCall(ToolCallBuilder builder, T toolCall);
+
+	/**
+	 * Adapt the chunk of a tool call received in a single chunk.
+	 * @param chunk the chunk
+	 * @return the chunk keeping its first choice only
+	 */
+	protected abstract C firstChoiceOnly(C chunk);
+
+	/**
+	 * Create the choice merged from the choices of several chunks, from the choice and
+	 * delta {@link Field fields}.
+	 * @param toolCalls the builders of the merged tool calls
+	 * @return the merged choice
+	 */
+	protected abstract H buildChoice(List<ToolCallBuilder> toolCalls);
+
+	/**
+	 * Create the merged chunk from the chunk {@link Field fields}.
+	 * @param choice the merged choice, or null if no chunk had a choice
+	 * @return the merged chunk
+	 */
+	protected abstract C buildChunk(H choice);
+
+	/**
+	 * The last non null value read from the merged chunks, choices or delta messages.
+	 *
+	 * @param <S> the type of the object the value is read from
+	 * @param <V> the type of the value
+	 */
+	public static final class Field<S, V> {
+
+		private final Function<S, V> accessor;
+
+		private V value;
+
+		private Field(Function<S, V> accessor) {
+			Assert.notNull(accessor, "The accessor must not be null!");
+			this.accessor = accessor;
+		}
+
+		private void merge(S source) {
+			V value = this.accessor.apply(source);
+			if (value != null) {
+				this.value = value;
+			}
+		}
+
+		/**
+		 * @return the last non null value, or null
+		 */
+		public V get() {
+			return this.value;
+		}
+
+		/**
+		 * @param defaultValue the value to return if none was merged
+		 * @return the last non null value, or the default value
+		 */
+		public V getOrDefault(V defaultValue) {
+			return (this.value != null) ? this.value : defaultValue;
+		}
+
+	}
+
+}
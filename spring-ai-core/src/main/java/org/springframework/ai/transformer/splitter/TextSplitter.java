@@ -26,7 +26,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 public abstract class TextSplitter implements DocumentTransformer {
 
@@ -38,6 +40,11 @@ public abstract class TextSplitter implements DocumentTransformer {
 	 */
 	private boolean copyContentFormatter = true;
 
+	/**
+	 * If set, the documents are split concurrently on this executor.
+	 */
+	private Executor executor;
+
 	@Override
 	public List<Document> apply(List<Document> documents) {
 		return doSplitDocuments(documents);
@@ -59,6 +66,22 @@ public abstract class TextSplitter implements DocumentTransformer {
 		return this.copyContentFormatter;
 	}
 
+	/**
+	 * Split the documents concurrently on the given executor, e.g. the common fork/join
+	 * pool or a virtual thread per task executor, rather than one at a time on the
+	 * calling thread. The chunks are returned in the same order either way. The
+	 * {@link #splitText(String)} implementation must be thread-safe.
+	 * @param executor the executor splitting the documents, or null to split them on the
+	 * calling thread
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
 	private List<Document> doSplitDocuments(List<Document> documents) {
 		List<String> texts = new ArrayList<>();
 		List<Map<String, Object>> metadataList = new ArrayList<>();
@@ -77,31 +100,56 @@ public abstract class TextSplitter implements DocumentTransformer {
 			List<Map<String, Object>> metadataList) {
 
 		// Process the data in a column oriented way and recreate the Document
-		List<Document> documents = new ArrayList<>();
+		if (this.executor == null || texts.size() < 2) {
+			List<Document> documents = new ArrayList<>();
+			for (int i = 0; i < texts.size(); i++) {
+				documents.addAll(createDocuments(texts.get(i), formatters.get(i), metadataList.get(i)));
+			}
+			return documents;
+		}
 
+		List<CompletableFuture<List<Document>>> futures = new ArrayList<>(texts.size());
 		for (int i = 0; i < texts.size(); i++) {
 			String text = texts.get(i);
+			ContentFormatter formatter = formatters.get(i);
 			Map<String, Object> metadata = metadataList.get(i);
-			List<String> chunks = splitText(text);
-			if (chunks.size() > 1) {
-				logger.info("Splitting up document into " + chunks.size() + " chunks.");
+			futures.add(CompletableFuture.supplyAsync(() -> createDocuments(text, formatter, metadata), this.executor));
+		}
+		List<Document> documents = new ArrayList<>();
+		try {
+			for (CompletableFuture<List<Document>> future : futures) {
+				documents.addAll(future.join());
+			}
+		}
+		catch (CompletionException ex) {
+			futures.forEach(future -> future.cancel(false));
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
 			}
-			for (String chunk : chunks) {
-				// only primitive values are in here -
-				Map<String, Object> metadataCopy = metadata.entrySet()
-					.stream()
-					.collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue()));
-				Document newDoc = new Document(chunk, metadataCopy);
-
-				if (this.copyContentFormatter) {
-					// Transfer the content-formatter of the parent to the chunked
-					// documents it was slit into.
-					newDoc.setContentFormatter(formatters.get(i));
-				}
-
-				// TODO copy over other properties.
-				documents.add(newDoc);
+			throw ex;
+		}
+		return documents;
+	}
+
+	private List<Document> createDocuments(String text, ContentFormatter formatter, Map<String, Object> metadata) {
+		List<String> chunks = splitText(text);
+		if (chunks.size() > 1) {
+			logger.debug("Splitting up document into " + chunks.size() + " chunks.");
+		}
+
+		List<Document> documents = new ArrayList<>(chunks.size());
+		for (String chunk : chunks) {
+			// only primitive values are in here -
+			Document newDoc = new Document(chunk, new HashMap<>(metadata));
+
+			if (this.copyContentFormatter) {
+				// Transfer the content-formatter of the parent to the chunked
+				// documents it was slit into.
+				newDoc.setContentFormatter(formatter);
 			}
+
+			// TODO copy over other properties.
+			documents.add(newDoc);
 		}
 		return documents;
 	}
@@ -15,7 +15,9 @@
  */
 package org.springframework.ai.transformer.splitter;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.knuddels.jtokkit.Encodings;
@@ -24,9 +26,14 @@ import com.knuddels.jtokkit.api.EncodingRegistry;
 import com.knuddels.jtokkit.api.EncodingType;
 import com.knuddels.jtokkit.api.IntArrayList;
 
-import org.springframework.util.Assert;
-
 /**
+ * Splits the text into chunks of a target number of tokens, ending at the last sentence
+ * end or line break past the minimum chunk size when there is one.
+ * <p>
+ * The text is encoded once. The chunks are decoded from the character offsets of their
+ * tokens, and the tokens of a truncated chunk are counted from these offsets rather than
+ * by encoding it again, unless the truncation point depends on the surrounding text.
+ *
  * @author Raphael Yu
  * @author Christian Tzolov
  */
@@ -76,22 +83,23 @@ public class TokenTextSplitter extends TextSplitter {
 			return new ArrayList<>();
 		}
 
-		List<Integer> tokens = getEncodedTokens(text);
+		TokenizedText tokenized = new TokenizedText(text, this.encoding);
+		int tokenCount = tokenized.size();
 		List<String> chunks = new ArrayList<>();
+		int start = 0;
 		int num_chunks = 0;
-		while (!tokens.isEmpty() && num_chunks < this.maxNumChunks) {
-			List<Integer> chunk = tokens.subList(0, Math.min(chunkSize, tokens.size()));
-			String chunkText = decodeTokens(chunk);
+		while (start < tokenCount && num_chunks < this.maxNumChunks) {
+			int end = Math.min(start + chunkSize, tokenCount);
+			String chunkText = tokenized.decode(start, end);
 
 			// Skip the chunk if it is empty or whitespace
 			if (chunkText.trim().isEmpty()) {
-				tokens = tokens.subList(chunk.size(), tokens.size());
+				start = end;
 				continue;
 			}
 
 			// Find the last period or punctuation mark in the chunk
-			int lastPunctuation = Math.max(chunkText.lastIndexOf('.'), Math.max(chunkText.lastIndexOf('?'),
-					Math.max(chunkText.lastIndexOf('!'), chunkText.lastIndexOf('\n'))));
+			int lastPunctuation = lastPunctuation(chunkText);
 
 			if (lastPunctuation != -1 && lastPunctuation > this.minChunkSizeChars) {
 				// Truncate the chunk text at the punctuation mark
@@ -105,14 +113,14 @@ public class TokenTextSplitter extends TextSplitter {
 			}
 
 			// Remove the tokens corresponding to the chunk text from the remaining tokens
-			tokens = tokens.subList(getEncodedTokens(chunkText).size(), tokens.size());
+			start += Math.min(countChunkTokens(tokenized, start, chunkText), tokenCount - start);
 
 			num_chunks++;
 		}
 
 		// Handle the remaining tokens
-		if (!tokens.isEmpty()) {
-			String remaining_text = decodeTokens(tokens).replace(System.lineSeparator(), " ").trim();
+		if (start < tokenCount) {
+			String remaining_text = tokenized.decode(start, tokenCount).replace(System.lineSeparator(), " ").trim();
 			if (remaining_text.length() > this.minChunkLengthToEmbed) {
 				chunks.add(remaining_text);
 			}
@@ -121,16 +129,148 @@ public class TokenTextSplitter extends TextSplitter {
 		return chunks;
 	}
 
-	private List<Integer> getEncodedTokens(String text) {
-		Assert.notNull(text, "Text must not be null");
-		return this.encoding.encode(text).boxed();
+	private static int lastPunctuation(String text) {
+		for (int i = text.length() - 1; i >= 0; i--) {
+			char c = text.charAt(i);
+			if (c == '.' || c == '?' || c == '!' || c == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Return the number of tokens of the chunk text when encoded on its own. That is the
+	 * number of text tokens it spans when it starts and ends on token boundaries that no
+	 * encoding context crosses, otherwise the chunk text is encoded.
+	 */
+	private int countChunkTokens(TokenizedText tokenized, int start, String chunkText) {
+		int end = tokenized.tokenEndingAt(start, chunkText);
+		if (end >= 0 && tokenized.isContextFreeBoundary(start) && tokenized.isContextFreeBoundary(end)) {
+			return end - start;
+		}
+		return this.encoding.countTokens(chunkText);
 	}
 
-	private String decodeTokens(List<Integer> tokens) {
-		Assert.notNull(tokens, "Tokens must not be null");
-		var tokensIntArray = new IntArrayList(tokens.size());
-		tokens.forEach(tokensIntArray::add);
-		return this.encoding.decode(tokensIntArray);
+	/**
+	 * A text encoded once, with the byte and character offsets of its tokens.
+	 */
+	private static final class TokenizedText {
+
+		private final String text;
+
+		private final byte[] bytes;
+
+		// The UTF-8 byte offset of each token, and of the text end
+		private final int[] byteOffsets;
+
+		// The character offset of each token, or -1 when it starts within a character
+		private final int[] charOffsets;
+
+		// Whether the text has unpaired surrogates, which do not survive decoding
+		private boolean malformed;
+
+		TokenizedText(String text, Encoding encoding) {
+			this.text = text;
+			this.bytes = text.getBytes(StandardCharsets.UTF_8);
+			IntArrayList tokens = encoding.encode(text);
+			int size = tokens.size();
+			this.byteOffsets = new int[size + 1];
+			this.charOffsets = new int[size + 1];
+
+			IntArrayList token = new IntArrayList(1);
+			token.add(0);
+			for (int i = 0; i < size; i++) {
+				token.set(0, tokens.get(i));
+				this.byteOffsets[i + 1] = this.byteOffsets[i] + encoding.decodeBytes(token).length;
+			}
+
+			int charIndex = 0;
+			int byteIndex = 0;
+			for (int i = 0; i <= size; i++) {
+				while (byteIndex < this.byteOffsets[i] && charIndex < text.length()) {
+					int codePoint = text.codePointAt(charIndex);
+					this.malformed |= isSurrogate(codePoint);
+					byteIndex += utf8Length(codePoint);
+					charIndex += Character.charCount(codePoint);
+				}
+				this.charOffsets[i] = (byteIndex == this.byteOffsets[i]) ? charIndex : -1;
+			}
+		}
+
+		int size() {
+			return this.byteOffsets.length - 1;
+		}
+
+		/**
+		 * Decode the tokens from start, inclusive, to end, exclusive.
+		 */
+		String decode(int start, int end) {
+			if (!this.malformed && this.charOffsets[start] >= 0 && this.charOffsets[end] >= 0) {
+				return this.text.substring(this.charOffsets[start], this.charOffsets[end]);
+			}
+			return new String(this.bytes, this.byteOffsets[start], this.byteOffsets[end] - this.byteOffsets[start],
+					StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * Return the token boundary where the given text, starting at the start token,
+		 * ends, or -1 if it does not end on a token boundary or is not a part of the
+		 * text.
+		 */
+		int tokenEndingAt(int start, String chunkText) {
+			int startChar = this.charOffsets[start];
+			if (startChar < 0 || !this.text.startsWith(chunkText, startChar)) {
+				return -1;
+			}
+			int endByte = this.byteOffsets[start];
+			for (int i = 0; i < chunkText.length();) {
+				int codePoint = chunkText.codePointAt(i);
+				endByte += utf8Length(codePoint);
+				i += Character.charCount(codePoint);
+			}
+			int end = Arrays.binarySearch(this.byteOffsets, start, this.byteOffsets.length, endByte);
+			return (end >= 0 && this.charOffsets[end] >= 0) ? end : -1;
+		}
+
+		/**
+		 * Whether the text is split the same way on both sides of the given token
+		 * boundary by the encoding pre-tokenizer, i.e. after a sentence end followed by a
+		 * space or after a line break followed by a non-space, so that encoding the text
+		 * up to or from the boundary yields the same tokens as encoding the whole text.
+		 */
+		boolean isContextFreeBoundary(int token) {
+			int index = this.charOffsets[token];
+			if (index <= 0 || index >= this.text.length()) {
+				return index >= 0;
+			}
+			char previous = this.text.charAt(index - 1);
+			char next = this.text.charAt(index);
+			if (previous == '.' || previous == '?' || previous == '!') {
+				return next == ' ';
+			}
+			return previous == '\n' && !Character.isWhitespace(next);
+		}
+
+		private static int utf8Length(int codePoint) {
+			if (codePoint < 0x80) {
+				return 1;
+			}
+			if (codePoint < 0x800) {
+				return 2;
+			}
+			if (isSurrogate(codePoint)) {
+				// Unpaired surrogates are replaced by a single byte
+				return 1;
+			}
+			return (codePoint < 0x10000) ? 3 : 4;
+		}
+
+		// Only unpaired surrogates are read as code points in the surrogate range
+		private static boolean isSurrogate(int codePoint) {
+			return codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE;
+		}
+
 	}
 
 }
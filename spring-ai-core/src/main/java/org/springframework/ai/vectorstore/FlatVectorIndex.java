@@ -0,0 +1,592 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import org.springframework.ai.document.Document;
+import org.springframework.util.Assert;
+
+/**
+ * Exact (brute force) cosine similarity index backing the {@link SimpleVectorStore}.
+ *
+ * Vectors are L2-normalized once on insertion and kept in a single contiguous
+ * {@code float[]}, so a similarity search is a sequence of dot products over primitive
+ * memory. The best {@code topK} hits are collected in a bounded min-heap instead of
+ * sorting the whole store, and large scans are split across the common
+ * {@link ForkJoinPool}. An optional document filter is evaluated before the similarity of
+ * a document is computed, so filtered searches skip the dot products of the rejected
+ * documents.
+ *
+ * Vectors loaded from a memory-mapped snapshot are searched in place: they are kept in
+ * separate read-only "mapped" slots that are scanned after the heap slots. Replacing or
+ * removing a mapped document only clears its slot.
+ *
+ * @since 1.0.0
+ */
+final class FlatVectorIndex implements VectorIndex {
+
+	/**
+	 * Default number of vectors below which a scan runs on the calling thread.
+	 */
+	static final int DEFAULT_PARALLELISM_THRESHOLD = 16_384;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final int parallelismThreshold;
+
+	private final Map<String, Integer> slots = new HashMap<>();
+
+	private Document[] documents = new Document[0];
+
+	private float[] vectors = new float[0];
+
+	private int dimensions = -1;
+
+	private int size;
+
+	private final Map<String, Integer> mappedSlots = new HashMap<>();
+
+	private Document[] mappedDocuments = new Document[0];
+
+	private FloatBuffer[] mappedVectors = new FloatBuffer[0];
+
+	private int[] mappedOffsets = new int[0];
+
+	private float[] mappedInverseNorms = new float[0];
+
+	private int mappedSize;
+
+	FlatVectorIndex() {
+		this(DEFAULT_PARALLELISM_THRESHOLD);
+	}
+
+	FlatVectorIndex(int parallelismThreshold) {
+		Assert.isTrue(parallelismThreshold > 0, "Parallelism threshold must be greater than 0");
+		this.parallelismThreshold = parallelismThreshold;
+	}
+
+	@Override
+	public void put(Document document, float[] embedding) {
+		Assert.notNull(document, "Document must not be null");
+		Assert.notNull(embedding, "Embedding must not be null");
+		float[] normalized = normalize(embedding);
+
+		this.lock.writeLock().lock();
+		try {
+			checkDimensions(normalized.length);
+			removeMapped(document.getId());
+			Integer slot = this.slots.get(document.getId());
+			if (slot == null) {
+				ensureCapacity(this.size + 1);
+				slot = this.size++;
+				this.slots.put(document.getId(), slot);
+			}
+			this.documents[slot] = document;
+			System.arraycopy(normalized, 0, this.vectors, slot * this.dimensions, this.dimensions);
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void checkEmbeddings(List<float[]> embeddings) {
+		int dimensions;
+		this.lock.readLock().lock();
+		try {
+			dimensions = (this.size == 0 && this.mappedSlots.isEmpty()) ? -1 : this.dimensions;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+		checkEmbeddings(embeddings, dimensions);
+	}
+
+	@Override
+	public void putMapped(Document document, FloatBuffer vectors, int offset, int dimensions) {
+		Assert.notNull(document, "Document must not be null");
+		Assert.notNull(vectors, "Vectors must not be null");
+		double norm = 0;
+		for (int i = 0; i < dimensions; i++) {
+			float value = vectors.get(offset + i);
+			norm += value * value;
+		}
+		if (norm == 0) {
+			throw new IllegalArgumentException("Vectors cannot have zero norm");
+		}
+
+		this.lock.writeLock().lock();
+		try {
+			checkDimensions(dimensions);
+			removeSlot(document.getId());
+			removeMapped(document.getId());
+			if (this.mappedSize == this.mappedDocuments.length) {
+				int newCapacity = Math.max(INITIAL_CAPACITY, this.mappedSize * 2);
+				this.mappedDocuments = Arrays.copyOf(this.mappedDocuments, newCapacity);
+				this.mappedVectors = Arrays.copyOf(this.mappedVectors, newCapacity);
+				this.mappedOffsets = Arrays.copyOf(this.mappedOffsets, newCapacity);
+				this.mappedInverseNorms = Arrays.copyOf(this.mappedInverseNorms, newCapacity);
+			}
+			int slot = this.mappedSize++;
+			this.mappedDocuments[slot] = document;
+			this.mappedVectors[slot] = vectors;
+			this.mappedOffsets[slot] = offset;
+			this.mappedInverseNorms[slot] = (float) (1 / Math.sqrt(norm));
+			this.mappedSlots.put(document.getId(), slot);
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(String id) {
+		this.lock.writeLock().lock();
+		try {
+			return removeSlot(id) | removeMapped(id);
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		this.lock.writeLock().lock();
+		try {
+			this.slots.clear();
+			this.documents = new Document[0];
+			this.vectors = new float[0];
+			this.dimensions = -1;
+			this.size = 0;
+			clearMapped();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.size + this.mappedSlots.size();
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the {@code topK} documents most similar to the query, ordered by decreasing
+	 * cosine similarity.
+	 * @param query the query embedding.
+	 * @param topK the maximum number of documents to return.
+	 * @param similarityThreshold the minimum cosine similarity of the returned documents.
+	 * @return the matching documents.
+	 */
+	List<Document> search(float[] query, int topK, double similarityThreshold) {
+		return search(query, topK, similarityThreshold, null);
+	}
+
+	@Override
+	public List<Document> search(float[] query, int topK, double similarityThreshold, Predicate<Document> filter) {
+		Assert.notNull(query, "Query embedding must not be null");
+		Assert.isTrue(topK >= 0, "TopK must be positive");
+		float[] normalizedQuery = normalize(query);
+
+		this.lock.readLock().lock();
+		try {
+			int totalSlots = this.size + this.mappedSize;
+			if (totalSlots == 0 || topK == 0) {
+				return List.of();
+			}
+			if (this.dimensions != normalizedQuery.length) {
+				throw new IllegalArgumentException("Vectors lengths must be equal");
+			}
+
+			TopKHeap heap;
+			ScanTask task = new ScanTask(normalizedQuery, Math.min(topK, totalSlots), similarityThreshold, filter, 0,
+					totalSlots);
+			if (totalSlots <= this.parallelismThreshold) {
+				heap = task.compute();
+			}
+			else {
+				heap = ForkJoinPool.commonPool().invoke(task);
+			}
+
+			int[] hits = heap.sortedSlots();
+			List<Document> results = new ArrayList<>(hits.length);
+			for (int slot : hits) {
+				results.add((slot < this.size) ? this.documents[slot] : this.mappedDocuments[slot - this.size]);
+			}
+			return results;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private void checkDimensions(int dimensions) {
+		if (this.size == 0 && this.mappedSlots.isEmpty() && this.dimensions != dimensions) {
+			clearMapped();
+			this.dimensions = dimensions;
+			this.vectors = new float[this.documents.length * this.dimensions];
+		}
+		else if (this.dimensions != dimensions) {
+			throw new IllegalArgumentException("Vectors lengths must be equal");
+		}
+	}
+
+	/**
+	 * Removes the heap slot of the given id. The last slot is moved into the freed one so
+	 * that the storage stays contiguous.
+	 */
+	private boolean removeSlot(String id) {
+		Integer slot = this.slots.remove(id);
+		if (slot == null) {
+			return false;
+		}
+		int last = --this.size;
+		if (slot != last) {
+			Document moved = this.documents[last];
+			this.documents[slot] = moved;
+			System.arraycopy(this.vectors, last * this.dimensions, this.vectors, slot * this.dimensions,
+					this.dimensions);
+			this.slots.put(moved.getId(), slot);
+		}
+		this.documents[last] = null;
+		return true;
+	}
+
+	/**
+	 * Clears the mapped slot of the given id. The mapped slots are released once none of
+	 * them is in use.
+	 */
+	private boolean removeMapped(String id) {
+		Integer slot = this.mappedSlots.remove(id);
+		if (slot == null) {
+			return false;
+		}
+		this.mappedDocuments[slot] = null;
+		this.mappedVectors[slot] = null;
+		if (this.mappedSlots.isEmpty()) {
+			clearMapped();
+		}
+		return true;
+	}
+
+	private void clearMapped() {
+		this.mappedSlots.clear();
+		this.mappedDocuments = new Document[0];
+		this.mappedVectors = new FloatBuffer[0];
+		this.mappedOffsets = new int[0];
+		this.mappedInverseNorms = new float[0];
+		this.mappedSize = 0;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= this.documents.length) {
+			return;
+		}
+		int newCapacity = Math.max(INITIAL_CAPACITY, Math.max(capacity, this.documents.length * 2));
+		this.documents = Arrays.copyOf(this.documents, newCapacity);
+		this.vectors = Arrays.copyOf(this.vectors, newCapacity * this.dimensions);
+	}
+
+	/**
+	 * Checks that the embeddings have a non-zero norm and the same dimensions.
+	 * @param embeddings the embeddings to check.
+	 * @param dimensions the dimensions of the indexed embeddings, or -1 if none.
+	 */
+	static void checkEmbeddings(List<float[]> embeddings, int dimensions) {
+		for (float[] embedding : embeddings) {
+			Assert.notNull(embedding, "Embedding must not be null");
+			if (dimensions == -1) {
+				dimensions = embedding.length;
+			}
+			else if (embedding.length != dimensions) {
+				throw new IllegalArgumentException("Vectors lengths must be equal");
+			}
+			if (dotProduct(embedding, 0, embedding) == 0) {
+				throw new IllegalArgumentException("Vectors cannot have zero norm");
+			}
+		}
+	}
+
+	/**
+	 * Returns a unit length copy of the given vector.
+	 */
+	static float[] normalize(float[] vector) {
+		double norm = Math.sqrt(dotProduct(vector, 0, vector));
+		if (norm == 0) {
+			throw new IllegalArgumentException("Vectors cannot have zero norm");
+		}
+		float[] result = new float[vector.length];
+		for (int i = 0; i < vector.length; i++) {
+			result[i] = (float) (vector[i] / norm);
+		}
+		return result;
+	}
+
+	/**
+	 * Dot product of {@code query} with the vector stored at {@code offset} in
+	 * {@code vectors}. Four independent accumulators break the loop carried dependency so
+	 * the JIT can keep several multiply-adds in flight.
+	 */
+	static float dotProduct(float[] vectors, int offset, float[] query) {
+		int length = query.length;
+		int upperBound = length & ~3;
+		float sum0 = 0;
+		float sum1 = 0;
+		float sum2 = 0;
+		float sum3 = 0;
+		int i = 0;
+		for (; i < upperBound; i += 4) {
+			sum0 += vectors[offset + i] * query[i];
+			sum1 += vectors[offset + i + 1] * query[i + 1];
+			sum2 += vectors[offset + i + 2] * query[i + 2];
+			sum3 += vectors[offset + i + 3] * query[i + 3];
+		}
+		for (; i < length; i++) {
+			sum0 += vectors[offset + i] * query[i];
+		}
+		return (sum0 + sum1) + (sum2 + sum3);
+	}
+
+	/**
+	 * Cosine similarity of the normalized {@code query} with a vector of a memory-mapped
+	 * snapshot, which is stored as is rather than normalized.
+	 */
+	static float dotProduct(FloatBuffer vectors, int offset, float[] query, float inverseNorm) {
+		int length = query.length;
+		int upperBound = length & ~3;
+		float sum0 = 0;
+		float sum1 = 0;
+		float sum2 = 0;
+		float sum3 = 0;
+		int i = 0;
+		for (; i < upperBound; i += 4) {
+			sum0 += vectors.get(offset + i) * query[i];
+			sum1 += vectors.get(offset + i + 1) * query[i + 1];
+			sum2 += vectors.get(offset + i + 2) * query[i + 2];
+			sum3 += vectors.get(offset + i + 3) * query[i + 3];
+		}
+		for (; i < length; i++) {
+			sum0 += vectors.get(offset + i) * query[i];
+		}
+		return ((sum0 + sum1) + (sum2 + sum3)) * inverseNorm;
+	}
+
+	/**
+	 * Scans a range of slots, forking in halves while the range is larger than the
+	 * parallelism threshold, and merges the partial heaps. Slots from {@code size} on are
+	 * the mapped slots.
+	 */
+	private final class ScanTask extends RecursiveTask<TopKHeap> {
+
+		private final float[] query;
+
+		private final int topK;
+
+		private final double similarityThreshold;
+
+		private final Predicate<Document> filter;
+
+		private final int from;
+
+		private final int to;
+
+		ScanTask(float[] query, int topK, double similarityThreshold, Predicate<Document> filter, int from, int to) {
+			this.query = query;
+			this.topK = topK;
+			this.similarityThreshold = similarityThreshold;
+			this.filter = filter;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected TopKHeap compute() {
+			if (this.to - this.from > FlatVectorIndex.this.parallelismThreshold) {
+				int middle = (this.from + this.to) >>> 1;
+				ScanTask left = new ScanTask(this.query, this.topK, this.similarityThreshold, this.filter, this.from,
+						middle);
+				ScanTask right = new ScanTask(this.query, this.topK, this.similarityThreshold, this.filter, middle,
+						this.to);
+				left.fork();
+				TopKHeap heap = right.compute();
+				heap.merge(left.join());
+				return heap;
+			}
+
+			float[] vectors = FlatVectorIndex.this.vectors;
+			Document[] documents = FlatVectorIndex.this.documents;
+			int dimensions = FlatVectorIndex.this.dimensions;
+			int size = FlatVectorIndex.this.size;
+			TopKHeap heap = new TopKHeap(this.topK);
+			int slot = this.from;
+			for (; slot < Math.min(this.to, size); slot++) {
+				if (this.filter != null && !this.filter.test(documents[slot])) {
+					continue;
+				}
+				float score = dotProduct(vectors, slot * dimensions, this.query);
+				if (score >= this.similarityThreshold) {
+					heap.offer(score, slot);
+				}
+			}
+			for (; slot < this.to; slot++) {
+				int mappedSlot = slot - size;
+				Document document = FlatVectorIndex.this.mappedDocuments[mappedSlot];
+				if (document == null || (this.filter != null && !this.filter.test(document))) {
+					continue;
+				}
+				float score = dotProduct(FlatVectorIndex.this.mappedVectors[mappedSlot],
+						FlatVectorIndex.this.mappedOffsets[mappedSlot], this.query,
+						FlatVectorIndex.this.mappedInverseNorms[mappedSlot]);
+				if (score >= this.similarityThreshold) {
+					heap.offer(score, slot);
+				}
+			}
+			return heap;
+		}
+
+	}
+
+	/**
+	 * Bounded min-heap of (score, slot) pairs that retains the highest scores offered.
+	 */
+	static final class TopKHeap {
+
+		private final int capacity;
+
+		private final float[] scores;
+
+		private final int[] slots;
+
+		private int size;
+
+		TopKHeap(int capacity) {
+			this.capacity = capacity;
+			this.scores = new float[capacity];
+			this.slots = new int[capacity];
+		}
+
+		void offer(float score, int slot) {
+			if (this.size < this.capacity) {
+				int i = this.size++;
+				this.scores[i] = score;
+				this.slots[i] = slot;
+				siftUp(i);
+			}
+			else if (this.capacity > 0 && score > this.scores[0]) {
+				this.scores[0] = score;
+				this.slots[0] = slot;
+				siftDown(0);
+			}
+		}
+
+		int size() {
+			return this.size;
+		}
+
+		boolean isFull() {
+			return this.size == this.capacity;
+		}
+
+		/**
+		 * Returns the lowest retained score. Only valid when the heap is not empty.
+		 */
+		float minScore() {
+			return this.scores[0];
+		}
+
+		void merge(TopKHeap other) {
+			for (int i = 0; i < other.size; i++) {
+				offer(other.scores[i], other.slots[i]);
+			}
+		}
+
+		/**
+		 * Drains the heap and returns the retained slots by decreasing score.
+		 */
+		int[] sortedSlots() {
+			int[] result = new int[this.size];
+			for (int i = result.length - 1; i >= 0; i--) {
+				result[i] = this.slots[0];
+				int last = --this.size;
+				this.scores[0] = this.scores[last];
+				this.slots[0] = this.slots[last];
+				siftDown(0);
+			}
+			return result;
+		}
+
+		private void siftUp(int i) {
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (this.scores[parent] <= this.scores[i]) {
+					break;
+				}
+				swap(i, parent);
+				i = parent;
+			}
+		}
+
+		private void siftDown(int i) {
+			while (true) {
+				int left = 2 * i + 1;
+				if (left >= this.size) {
+					break;
+				}
+				int smallest = left;
+				int right = left + 1;
+				if (right < this.size && this.scores[right] < this.scores[left]) {
+					smallest = right;
+				}
+				if (this.scores[i] <= this.scores[smallest]) {
+					break;
+				}
+				swap(i, smallest);
+				i = smallest;
+			}
+		}
+
+		private void swap(int i, int j) {
+			float score = this.scores[i];
+			this.scores[i] = this.scores[j];
+			this.scores[j] = score;
+			int slot = this.slots[i];
+			this.slots[i] = this.slots[j];
+			this.slots[j] = slot;
+		}
+
+	}
+
+}
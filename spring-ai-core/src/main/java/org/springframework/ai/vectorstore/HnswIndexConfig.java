@@ -0,0 +1,144 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import org.springframework.util.Assert;
+
+/**
+ * Configuration of the Hierarchical Navigable Small World (HNSW) graph index that a
+ * {@link SimpleVectorStore} can use in place of its default exact scan.
+ *
+ * @since 1.0.0
+ * @see <a href="https://arxiv.org/abs/1603.09320">Efficient and robust approximate
+ * nearest neighbor search using Hierarchical Navigable Small World graphs</a>
+ */
+public final class HnswIndexConfig {
+
+	public static final int DEFAULT_M = 16;
+
+	public static final int DEFAULT_EF_CONSTRUCTION = 200;
+
+	public static final int DEFAULT_EF_SEARCH = 100;
+
+	private final int m;
+
+	private final int efConstruction;
+
+	private final int efSearch;
+
+	private final long seed;
+
+	private HnswIndexConfig(Builder builder) {
+		this.m = builder.m;
+		this.efConstruction = builder.efConstruction;
+		this.efSearch = builder.efSearch;
+		this.seed = builder.seed;
+	}
+
+	/**
+	 * Start building a new configuration.
+	 * @return The entry point for creating a new configuration.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * {@return the default config}
+	 */
+	public static HnswIndexConfig defaultConfig() {
+		return builder().build();
+	}
+
+	public int getM() {
+		return this.m;
+	}
+
+	public int getEfConstruction() {
+		return this.efConstruction;
+	}
+
+	public int getEfSearch() {
+		return this.efSearch;
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
+	public static final class Builder {
+
+		private int m = DEFAULT_M;
+
+		private int efConstruction = DEFAULT_EF_CONSTRUCTION;
+
+		private int efSearch = DEFAULT_EF_SEARCH;
+
+		private long seed = 42;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param m the maximum number of connections per node on the upper layers. The
+		 * bottom layer allows twice as many. Higher values raise recall and memory use.
+		 * @return this builder.
+		 */
+		public Builder withM(int m) {
+			Assert.isTrue(m >= 2, "M must be at least 2");
+			this.m = m;
+			return this;
+		}
+
+		/**
+		 * @param efConstruction the size of the candidate list used when inserting a
+		 * node. Higher values build a better graph at the cost of slower inserts.
+		 * @return this builder.
+		 */
+		public Builder withEfConstruction(int efConstruction) {
+			Assert.isTrue(efConstruction > 0, "efConstruction must be greater than 0");
+			this.efConstruction = efConstruction;
+			return this;
+		}
+
+		/**
+		 * @param efSearch the size of the candidate list used when searching. It is
+		 * raised to the requested topK when lower. Higher values trade latency for
+		 * recall.
+		 * @return this builder.
+		 */
+		public Builder withEfSearch(int efSearch) {
+			Assert.isTrue(efSearch > 0, "efSearch must be greater than 0");
+			this.efSearch = efSearch;
+			return this;
+		}
+
+		/**
+		 * @param seed the seed of the random generator that assigns the node levels.
+		 * @return this builder.
+		 */
+		public Builder withSeed(long seed) {
+			this.seed = seed;
+			return this;
+		}
+
+		public HnswIndexConfig build() {
+			return new HnswIndexConfig(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,495 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.FlatVectorIndex.TopKHeap;
+import org.springframework.util.Assert;
+
+/**
+ * Approximate cosine similarity index based on a Hierarchical Navigable Small World
+ * graph.
+ *
+ * Writers are serialized by a lock while searches run without locking: every neighbor
+ * list is an immutable array that is replaced, never modified, so a concurrent search
+ * always sees a consistent, if slightly stale, graph.
+ *
+ * Deleted documents are tombstoned: their nodes keep routing searches but are never
+ * returned. Once tombstones outnumber the live documents the graph is rebuilt from the
+ * live nodes and swapped in atomically.
+ *
+ * @since 1.0.0
+ * @see HnswIndexConfig
+ */
+final class HnswVectorIndex implements VectorIndex {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int efConstruction;
+
+	private final int efSearch;
+
+	private final int maxConnections;
+
+	private final int maxConnectionsLevel0;
+
+	private final double levelMultiplier;
+
+	private final Random random;
+
+	private final Lock writeLock = new ReentrantLock();
+
+	private final Map<String, Node> liveNodes = new ConcurrentHashMap<>();
+
+	private volatile Graph graph = new Graph();
+
+	private volatile int dimensions = -1;
+
+	HnswVectorIndex(HnswIndexConfig config) {
+		Assert.notNull(config, "HnswIndexConfig must not be null");
+		this.efConstruction = config.getEfConstruction();
+		this.efSearch = config.getEfSearch();
+		this.maxConnections = config.getM();
+		this.maxConnectionsLevel0 = 2 * config.getM();
+		this.levelMultiplier = 1 / Math.log(config.getM());
+		this.random = new Random(config.getSeed());
+	}
+
+	@Override
+	public void put(Document document, float[] embedding) {
+		Assert.notNull(document, "Document must not be null");
+		Assert.notNull(embedding, "Embedding must not be null");
+		float[] normalized = FlatVectorIndex.normalize(embedding);
+
+		this.writeLock.lock();
+		try {
+			if (this.liveNodes.isEmpty() && this.dimensions != normalized.length) {
+				this.graph = new Graph();
+				this.dimensions = normalized.length;
+			}
+			else if (this.dimensions != normalized.length) {
+				throw new IllegalArgumentException("Vectors lengths must be equal");
+			}
+			Node node = new Node(document, normalized, randomLevel());
+			insert(this.graph, node);
+			Node replaced = this.liveNodes.put(document.getId(), node);
+			if (replaced != null) {
+				delete(replaced);
+			}
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	@Override
+	public void checkEmbeddings(List<float[]> embeddings) {
+		FlatVectorIndex.checkEmbeddings(embeddings, this.liveNodes.isEmpty() ? -1 : this.dimensions);
+	}
+
+	@Override
+	public boolean remove(String id) {
+		this.writeLock.lock();
+		try {
+			Node node = this.liveNodes.remove(id);
+			if (node == null) {
+				return false;
+			}
+			delete(node);
+			return true;
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		this.writeLock.lock();
+		try {
+			this.liveNodes.clear();
+			this.graph = new Graph();
+			this.dimensions = -1;
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		return this.liveNodes.size();
+	}
+
+	@Override
+	public List<Document> search(float[] query, int topK, double similarityThreshold, Predicate<Document> filter) {
+		Assert.notNull(query, "Query embedding must not be null");
+		Assert.isTrue(topK >= 0, "TopK must be positive");
+		float[] normalizedQuery = FlatVectorIndex.normalize(query);
+
+		Graph graph = this.graph;
+		Node entryPoint = graph.entryPoint;
+		if (entryPoint == null || topK == 0) {
+			return List.of();
+		}
+		if (entryPoint.vector.length != normalizedQuery.length) {
+			throw new IllegalArgumentException("Vectors lengths must be equal");
+		}
+
+		Node nearest = greedySearch(graph, normalizedQuery, entryPoint, 0);
+		Predicate<Node> accept = (filter != null) ? node -> !node.deleted && filter.test(node.document)
+				: node -> !node.deleted;
+		TopKHeap heap = searchLayer(graph, normalizedQuery, nearest, Math.max(this.efSearch, topK), 0, accept);
+
+		List<Document> results = new ArrayList<>(Math.min(topK, heap.size()));
+		for (int id : heap.sortedSlots()) {
+			Node node = graph.node(id);
+			if (results.size() == topK || similarity(normalizedQuery, node.vector) < similarityThreshold) {
+				break;
+			}
+			results.add(node.document);
+		}
+		return results;
+	}
+
+	private void insert(Graph graph, Node node) {
+		graph.allocate(node);
+		Node entryPoint = graph.entryPoint;
+		if (entryPoint == null) {
+			graph.entryPoint = node;
+			return;
+		}
+
+		Node nearest = greedySearch(graph, node.vector, entryPoint, node.level);
+		for (int level = Math.min(node.level, entryPoint.level); level >= 0; level--) {
+			TopKHeap candidates = searchLayer(graph, node.vector, nearest, this.efConstruction, level,
+					candidate -> !candidate.deleted);
+			int[] ids = candidates.sortedSlots();
+			if (ids.length == 0) {
+				continue;
+			}
+			int[] neighbors = selectNeighbors(graph, node.vector, ids, maxConnections(level));
+			// Publish the node's own links before linking to it, so that a concurrent
+			// search reaching the node can leave it again.
+			node.neighbors.set(level, neighbors);
+			for (int neighbor : neighbors) {
+				connect(graph, graph.node(neighbor), node.id, level);
+			}
+			nearest = graph.node(ids[0]);
+		}
+
+		if (node.level > entryPoint.level) {
+			graph.entryPoint = node;
+		}
+	}
+
+	private void delete(Node node) {
+		node.deleted = true;
+		Graph graph = this.graph;
+		graph.deletedCount++;
+		if (this.liveNodes.isEmpty()) {
+			this.graph = new Graph();
+		}
+		else if (graph.deletedCount > this.liveNodes.size()) {
+			rebuild(graph);
+		}
+	}
+
+	private void rebuild(Graph graph) {
+		Graph rebuilt = new Graph();
+		for (int id = 0; id < graph.size; id++) {
+			Node node = graph.node(id);
+			if (!node.deleted) {
+				Node copy = new Node(node.document, node.vector, node.level);
+				insert(rebuilt, copy);
+				this.liveNodes.put(node.document.getId(), copy);
+			}
+		}
+		this.graph = rebuilt;
+	}
+
+	/**
+	 * Descends from the entry point to the given level, moving to the closest neighbor on
+	 * each layer until no neighbor is closer to the query.
+	 */
+	private Node greedySearch(Graph graph, float[] query, Node entryPoint, int targetLevel) {
+		Node current = entryPoint;
+		float currentSimilarity = similarity(query, current.vector);
+		for (int level = entryPoint.level; level > targetLevel; level--) {
+			boolean changed = true;
+			while (changed) {
+				changed = false;
+				for (int neighbor : current.neighbors.get(level)) {
+					Node candidate = graph.node(neighbor);
+					float candidateSimilarity = similarity(query, candidate.vector);
+					if (candidateSimilarity > currentSimilarity) {
+						current = candidate;
+						currentSimilarity = candidateSimilarity;
+						changed = true;
+					}
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Best-first search of one layer. All nodes route the search, but only the accepted
+	 * ones are collected in the returned heap of at most {@code ef} nodes.
+	 */
+	private TopKHeap searchLayer(Graph graph, float[] query, Node entryPoint, int ef, int level,
+			Predicate<Node> accept) {
+		BitSet visited = new BitSet();
+		CandidateQueue candidates = new CandidateQueue();
+		TopKHeap results = new TopKHeap(ef);
+
+		float entrySimilarity = similarity(query, entryPoint.vector);
+		visited.set(entryPoint.id);
+		candidates.push(entrySimilarity, entryPoint.id);
+		if (accept.test(entryPoint)) {
+			results.offer(entrySimilarity, entryPoint.id);
+		}
+
+		while (!candidates.isEmpty()) {
+			float candidateSimilarity = candidates.peekScore();
+			if (results.isFull() && candidateSimilarity < results.minScore()) {
+				break;
+			}
+			Node candidate = graph.node(candidates.pop());
+			for (int neighbor : candidate.neighbors.get(level)) {
+				if (visited.get(neighbor)) {
+					continue;
+				}
+				visited.set(neighbor);
+				Node node = graph.node(neighbor);
+				float nodeSimilarity = similarity(query, node.vector);
+				if (!results.isFull() || nodeSimilarity > results.minScore()) {
+					candidates.push(nodeSimilarity, neighbor);
+					if (accept.test(node)) {
+						results.offer(nodeSimilarity, neighbor);
+					}
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Neighbor selection heuristic: a candidate, taken by decreasing similarity, is kept
+	 * only if it is closer to the base vector than to any neighbor already kept, which
+	 * favors links in diverse directions. Remaining slots are then filled with the
+	 * discarded candidates.
+	 */
+	private int[] selectNeighbors(Graph graph, float[] base, int[] candidates, int maxCount) {
+		if (candidates.length <= maxCount) {
+			return candidates;
+		}
+		int[] selected = new int[maxCount];
+		int count = 0;
+		boolean[] kept = new boolean[candidates.length];
+		for (int i = 0; i < candidates.length && count < maxCount; i++) {
+			float[] candidate = graph.node(candidates[i]).vector;
+			float baseSimilarity = similarity(base, candidate);
+			boolean diverse = true;
+			for (int j = 0; j < count; j++) {
+				if (similarity(candidate, graph.node(selected[j]).vector) > baseSimilarity) {
+					diverse = false;
+					break;
+				}
+			}
+			if (diverse) {
+				selected[count++] = candidates[i];
+				kept[i] = true;
+			}
+		}
+		for (int i = 0; i < candidates.length && count < maxCount; i++) {
+			if (!kept[i]) {
+				selected[count++] = candidates[i];
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * Adds a link from {@code node} to {@code neighbor}, pruning the node's links with
+	 * the selection heuristic when it has too many.
+	 */
+	private void connect(Graph graph, Node node, int neighbor, int level) {
+		int[] current = node.neighbors.get(level);
+		int[] extended = Arrays.copyOf(current, current.length + 1);
+		extended[current.length] = neighbor;
+		int maxCount = maxConnections(level);
+		if (extended.length <= maxCount) {
+			node.neighbors.set(level, extended);
+			return;
+		}
+		TopKHeap ranked = new TopKHeap(extended.length);
+		for (int id : extended) {
+			ranked.offer(similarity(node.vector, graph.node(id).vector), id);
+		}
+		node.neighbors.set(level, selectNeighbors(graph, node.vector, ranked.sortedSlots(), maxCount));
+	}
+
+	private int maxConnections(int level) {
+		return (level == 0) ? this.maxConnectionsLevel0 : this.maxConnections;
+	}
+
+	private int randomLevel() {
+		return (int) (-Math.log(1 - this.random.nextDouble()) * this.levelMultiplier);
+	}
+
+	private static float similarity(float[] x, float[] y) {
+		return FlatVectorIndex.dotProduct(x, 0, y);
+	}
+
+	/**
+	 * Graph node. Its id is the position in {@link Graph#nodes}.
+	 */
+	private static final class Node {
+
+		private final Document document;
+
+		private final float[] vector;
+
+		private final int level;
+
+		private final AtomicReferenceArray<int[]> neighbors;
+
+		private int id;
+
+		private volatile boolean deleted;
+
+		Node(Document document, float[] vector, int level) {
+			this.document = document;
+			this.vector = vector;
+			this.level = level;
+			this.neighbors = new AtomicReferenceArray<>(level + 1);
+			for (int i = 0; i <= level; i++) {
+				this.neighbors.set(i, new int[0]);
+			}
+		}
+
+	}
+
+	/**
+	 * Node storage and entry point of one generation of the graph. Only the writer
+	 * modifies it; the volatile fields publish its changes to concurrent searches.
+	 */
+	private static final class Graph {
+
+		private volatile Node[] nodes = new Node[INITIAL_CAPACITY];
+
+		private volatile Node entryPoint;
+
+		private int size;
+
+		private int deletedCount;
+
+		void allocate(Node node) {
+			Node[] current = this.nodes;
+			if (this.size == current.length) {
+				current = Arrays.copyOf(current, current.length * 2);
+			}
+			node.id = this.size;
+			current[this.size++] = node;
+			this.nodes = current;
+		}
+
+		Node node(int id) {
+			return this.nodes[id];
+		}
+
+	}
+
+	/**
+	 * Unbounded max-heap of (score, node id) pairs.
+	 */
+	private static final class CandidateQueue {
+
+		private float[] scores = new float[INITIAL_CAPACITY];
+
+		private int[] ids = new int[INITIAL_CAPACITY];
+
+		private int size;
+
+		boolean isEmpty() {
+			return this.size == 0;
+		}
+
+		float peekScore() {
+			return this.scores[0];
+		}
+
+		void push(float score, int id) {
+			if (this.size == this.scores.length) {
+				this.scores = Arrays.copyOf(this.scores, this.size * 2);
+				this.ids = Arrays.copyOf(this.ids, this.size * 2);
+			}
+			int i = this.size++;
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (this.scores[parent] >= score) {
+					break;
+				}
+				this.scores[i] = this.scores[parent];
+				this.ids[i] = this.ids[parent];
+				i = parent;
+			}
+			this.scores[i] = score;
+			this.ids[i] = id;
+		}
+
+		int pop() {
+			int result = this.ids[0];
+			int last = --this.size;
+			float score = this.scores[last];
+			int id = this.ids[last];
+			int i = 0;
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= last) {
+					break;
+				}
+				if (child + 1 < last && this.scores[child + 1] > this.scores[child]) {
+					child++;
+				}
+				if (score >= this.scores[child]) {
+					break;
+				}
+				this.scores[i] = this.scores[child];
+				this.ids[i] = this.ids[child];
+				i = child;
+			}
+			this.scores[i] = score;
+			this.ids[i] = id;
+			return result;
+		}
+
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingUtils;
+
+/**
+ * A {@link Document} loaded from a {@link SimpleVectorStoreSnapshot}, whose embedding is
+ * read from the memory-mapped vector block rather than held by the document. Each read of
+ * the embedding copies it from the mapping, until another embedding is set.
+ *
+ * @since 1.0.0
+ */
+final class MappedDocument extends Document {
+
+	private FloatBuffer vectors;
+
+	private final int offset;
+
+	private final int dimensions;
+
+	MappedDocument(Document document, FloatBuffer vectors, int offset, int dimensions) {
+		super(document.getId(), document.getContent(), List.copyOf(document.getMedia()), document.getMetadata());
+		this.vectors = vectors;
+		this.offset = offset;
+		this.dimensions = dimensions;
+	}
+
+	@Override
+	public void setEmbedding(List<Double> embedding) {
+		super.setEmbedding(embedding);
+		this.vectors = null;
+	}
+
+	@Override
+	public void setEmbedding(float[] embedding) {
+		super.setEmbedding(embedding);
+		this.vectors = null;
+	}
+
+	@Override
+	public List<Double> getEmbedding() {
+		return (this.vectors != null) ? EmbeddingUtils.toDoubleList(getEmbeddingAsFloatArray()) : super.getEmbedding();
+	}
+
+	@Override
+	public float[] getEmbeddingAsFloatArray() {
+		FloatBuffer vectors = this.vectors;
+		if (vectors == null) {
+			return super.getEmbeddingAsFloatArray();
+		}
+		float[] embedding = new float[this.dimensions];
+		vectors.get(this.offset, embedding);
+		return embedding;
+	}
+
+}
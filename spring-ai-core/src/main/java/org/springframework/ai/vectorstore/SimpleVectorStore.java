@@ -22,7 +22,11 @@ import com.fasterxml.jackson.databind.ObjectWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
+import org.springframework.ai.vectorstore.filter.FilterExpressionPredicateCompiler;
 import org.springframework.core.io.Resource;
 
 import java.io.File;
@@ -31,25 +35,40 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.FloatBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Comparator;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
  * SimpleVectorStore is a simple implementation of the VectorStore interface.
  *
  * It also provides methods to save the current state of the vectors to a file, and to
- * load vectors from a file.
+ * load vectors from a file. Besides JSON, the store can be saved as a binary snapshot
+ * with {@link #saveSnapshot(File)}. Loading a snapshot memory-maps its vectors instead of
+ * parsing them, and saving to the snapshot the store was loaded from or last saved to
+ * only appends the changes made since.
  *
  * For a deeper understanding of the mathematical concepts and computations involved in
  * calculating similarity scores among vectors, refer to this
  * [resource](https://docs.spring.io/spring-ai/reference/api/vectordbs.html#_understanding_vectors).
  *
+ * By default similarity searches are exact: the normalized embeddings are kept in a
+ * contiguous in-memory index that is scanned with a bounded top-K heap, in parallel for
+ * large stores. Alternatively an approximate HNSW graph index can be configured with a
+ * {@link HnswIndexConfig}. Metadata filter expressions are compiled into predicates with
+ * the {@link FilterExpressionPredicateCompiler} and applied before the similarity of a
+ * document is computed.
+ *
  * @author Raphael Yu
  * @author Dingmeng Xue
  * @author Mark Pollack
@@ -63,18 +82,63 @@ public class SimpleVectorStore implements VectorStore {
 
 	protected EmbeddingModel embeddingModel;
 
+	protected BatchingStrategy batchingStrategy;
+
+	private final VectorIndex index;
+
+	/**
+	 * Ids of the documents added or deleted since the last snapshot save. Tracked once a
+	 * snapshot has been saved or loaded.
+	 */
+	private final Set<String> snapshotChanges = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean trackSnapshotChanges;
+
+	private volatile SimpleVectorStoreSnapshot snapshot;
+
 	public SimpleVectorStore(EmbeddingModel embeddingModel) {
+		this(embeddingModel, new TokenCountBatchingStrategy());
+	}
+
+	public SimpleVectorStore(EmbeddingModel embeddingModel, BatchingStrategy batchingStrategy) {
+		this(embeddingModel, batchingStrategy, new FlatVectorIndex());
+	}
+
+	/**
+	 * Creates a store that answers similarity searches from an approximate HNSW graph
+	 * index instead of an exact scan. Recommended for large stores, where the exact scan
+	 * becomes too slow.
+	 * @param embeddingModel the embedding model.
+	 * @param batchingStrategy the strategy used to group documents into embedding
+	 * requests.
+	 * @param hnswIndexConfig the HNSW index configuration.
+	 */
+	public SimpleVectorStore(EmbeddingModel embeddingModel, BatchingStrategy batchingStrategy,
+			HnswIndexConfig hnswIndexConfig) {
+		this(embeddingModel, batchingStrategy, new HnswVectorIndex(hnswIndexConfig));
+	}
+
+	private SimpleVectorStore(EmbeddingModel embeddingModel, BatchingStrategy batchingStrategy, VectorIndex index) {
 		Objects.requireNonNull(embeddingModel, "EmbeddingModel must not be null");
+		Objects.requireNonNull(batchingStrategy, "BatchingStrategy must not be null");
 		this.embeddingModel = embeddingModel;
+		this.batchingStrategy = batchingStrategy;
+		this.index = index;
 	}
 
 	@Override
 	public void add(List<Document> documents) {
-		for (Document document : documents) {
-			logger.info("Calling EmbeddingModel for document id = {}", document.getId());
-			List<Double> embedding = this.embeddingModel.embed(document);
-			document.setEmbedding(embedding);
+		logger.info("Calling EmbeddingModel for {} documents", documents.size());
+		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.EMPTY, this.batchingStrategy);
+		// Reject the whole batch before adding any document, so that the store and the
+		// index are never left out of sync.
+		this.index.checkEmbeddings(embeddings);
+		for (int i = 0; i < documents.size(); i++) {
+			Document document = documents.get(i);
+			document.setEmbedding(embeddings.get(i));
+			this.index.put(document, embeddings.get(i));
 			this.store.put(document.getId(), document);
+			trackSnapshotChange(document.getId());
 		}
 	}
 
@@ -82,27 +146,23 @@ public class SimpleVectorStore implements VectorStore {
 	public Optional<Boolean> delete(List<String> idList) {
 		for (String id : idList) {
 			this.store.remove(id);
+			this.index.remove(id);
+			trackSnapshotChange(id);
 		}
 		return Optional.of(true);
 	}
 
 	@Override
 	public List<Document> similaritySearch(SearchRequest request) {
-		if (request.getFilterExpression() != null) {
-			throw new UnsupportedOperationException(
-					"The [" + this.getClass() + "] doesn't support metadata filtering!");
+		Predicate<Document> filter = null;
+		if (request.hasFilterExpression()) {
+			Predicate<Map<String, Object>> metadataFilter = FilterExpressionPredicateCompiler
+				.compile(request.getFilterExpression());
+			filter = document -> metadataFilter.test(document.getMetadata());
 		}
 
-		List<Double> userQueryEmbedding = getUserQueryEmbedding(request.getQuery());
-		return this.store.values()
-			.stream()
-			.map(entry -> new Similarity(entry.getId(),
-					EmbeddingMath.cosineSimilarity(userQueryEmbedding, entry.getEmbedding())))
-			.filter(s -> s.score >= request.getSimilarityThreshold())
-			.sorted(Comparator.<Similarity>comparingDouble(s -> s.score).reversed())
-			.limit(request.getTopK())
-			.map(s -> this.store.get(s.key))
-			.toList();
+		float[] userQueryEmbedding = getUserQueryEmbedding(request.getQuery());
+		return this.index.search(userQueryEmbedding, request.getTopK(), request.getSimilarityThreshold(), filter);
 	}
 
 	/**
@@ -150,6 +210,8 @@ public class SimpleVectorStore implements VectorStore {
 		try {
 			Map<String, Document> deserializedMap = objectMapper.readValue(file, typeRef);
 			this.store = deserializedMap;
+			this.snapshot = null;
+			rebuildIndex();
 		}
 		catch (IOException ex) {
 			throw new RuntimeException(ex);
@@ -167,12 +229,109 @@ public class SimpleVectorStore implements VectorStore {
 		try {
 			Map<String, Document> deserializedMap = objectMapper.readValue(resource.getInputStream(), typeRef);
 			this.store = deserializedMap;
+			this.snapshot = null;
+			rebuildIndex();
 		}
 		catch (IOException ex) {
 			throw new RuntimeException(ex);
 		}
 	}
 
+	/**
+	 * Save the vector store content into a file in a binary snapshot format. If the file
+	 * is the snapshot this store was loaded from or last saved to, only the documents
+	 * added or deleted since are appended to it. Otherwise, or once the appended changes
+	 * outweigh the content, the snapshot is rewritten.
+	 * @param file the file to save the vector store content
+	 */
+	public void saveSnapshot(File file) {
+		Path path = file.toPath();
+		this.trackSnapshotChanges = true;
+		try {
+			SimpleVectorStoreSnapshot snapshot = this.snapshot;
+			if (snapshot != null && snapshot.isCurrent(path) && !snapshot.needsCompaction(this.store.size())) {
+				// Take each change before reading the store, so that a concurrent update
+				// is
+				// tracked again and saved next time.
+				List<Document> added = new ArrayList<>();
+				List<String> deleted = new ArrayList<>();
+				for (Iterator<String> iterator = this.snapshotChanges.iterator(); iterator.hasNext();) {
+					String id = iterator.next();
+					iterator.remove();
+					Document document = this.store.get(id);
+					if (document != null) {
+						added.add(document);
+					}
+					else {
+						deleted.add(id);
+					}
+				}
+				logger.info("Appending {} changes to vector store snapshot: {}", added.size() + deleted.size(), file);
+				this.snapshot = null;
+				snapshot.append(added, deleted);
+				this.snapshot = snapshot;
+			}
+			else {
+				logger.info("Writing vector store snapshot: {}", file);
+				this.snapshotChanges.clear();
+				this.snapshot = SimpleVectorStoreSnapshot.write(path, List.copyOf(this.store.values()));
+			}
+		}
+		catch (IOException ex) {
+			logger.error("IOException occurred while saving vector store snapshot.", ex);
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Load the vector store content from a binary snapshot file written by
+	 * {@link #saveSnapshot(File)}. The vectors are memory-mapped rather than read, and
+	 * searched in place unless an HNSW index is configured.
+	 * @param file the file to load the vector store content
+	 */
+	public void loadSnapshot(File file) {
+		Map<String, Document> loaded = new ConcurrentHashMap<>();
+		this.trackSnapshotChanges = true;
+		this.index.clear();
+		try {
+			this.snapshot = SimpleVectorStoreSnapshot.read(file.toPath(), new SimpleVectorStoreSnapshot.Visitor() {
+
+				@Override
+				public void added(Document document, FloatBuffer vectors, int offset, int dimensions) {
+					loaded.put(document.getId(), document);
+					SimpleVectorStore.this.index.putMapped(document, vectors, offset, dimensions);
+				}
+
+				@Override
+				public void deleted(String id) {
+					loaded.remove(id);
+					SimpleVectorStore.this.index.remove(id);
+				}
+
+			});
+			this.store = loaded;
+			this.snapshotChanges.clear();
+		}
+		catch (IOException ex) {
+			this.snapshot = null;
+			rebuildIndex();
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private void trackSnapshotChange(String id) {
+		if (this.trackSnapshotChanges) {
+			this.snapshotChanges.add(id);
+		}
+	}
+
+	private void rebuildIndex() {
+		this.index.clear();
+		for (Document document : this.store.values()) {
+			this.index.put(document, document.getEmbeddingAsFloatArray());
+		}
+	}
+
 	private String getVectorDbAsJson() {
 		ObjectMapper objectMapper = new ObjectMapper();
 		ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
@@ -186,10 +345,15 @@ public class SimpleVectorStore implements VectorStore {
 		return json;
 	}
 
-	private List<Double> getUserQueryEmbedding(String query) {
-		return this.embeddingModel.embed(query);
+	private float[] getUserQueryEmbedding(String query) {
+		return this.embeddingModel.embedAsFloatArray(query);
 	}
 
+	/**
+	 * @deprecated This class is deprecated since version 1.0.0 M2 and will be removed in
+	 * a future release. The search no longer scores the documents with it.
+	 */
+	@Deprecated(since = "1.0.0 M2", forRemoval = true)
 	public static class Similarity {
 
 		private String key;
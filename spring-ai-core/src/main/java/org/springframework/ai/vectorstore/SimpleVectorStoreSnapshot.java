@@ -0,0 +1,417 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * Binary, append-only snapshot file of a {@link SimpleVectorStore}.
+ *
+ * The file starts with an 8 byte header (magic number and version) followed by segments.
+ * Each segment holds a batch of added and deleted documents:
+ * <ul>
+ * <li>a 24 byte header: magic number, dimensions, added and deleted document counts and
+ * the length of the content section.</li>
+ * <li>the vector block: the float32 embeddings of the added documents, back to back.</li>
+ * <li>the content section: the added documents as JSON without their embedding, followed
+ * by the ids of the deleted documents, each prefixed by its length. It is padded to 8
+ * bytes.</li>
+ * </ul>
+ * All numbers are little-endian. The vector blocks are memory-mapped when the file is
+ * read, so the index can search them in place. Saving appends a segment with the changes
+ * since the previous save; replaying the segments in order restores the store. The
+ * segment header is written last, so a segment torn by a crash is ignored and overwritten
+ * by the next append.
+ *
+ * @since 1.0.0
+ */
+final class SimpleVectorStoreSnapshot {
+
+	private static final int FILE_MAGIC = 0x53414956;
+
+	private static final int VERSION = 1;
+
+	private static final int FILE_HEADER_LENGTH = 8;
+
+	private static final int SEGMENT_MAGIC = 0x5345474D;
+
+	private static final int SEGMENT_HEADER_LENGTH = 24;
+
+	/**
+	 * Upper bound of the vector block of one segment, which is mapped as a single buffer.
+	 */
+	private static final long MAX_VECTOR_BLOCK_LENGTH = 1 << 30;
+
+	/**
+	 * Number of segments after which the next save rewrites the file.
+	 */
+	private static final int MAX_SEGMENT_COUNT = 64;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().addMixIn(Document.class,
+			DocumentWithoutEmbedding.class);
+
+	private final Path path;
+
+	private final Object fileKey;
+
+	private long length;
+
+	private int segmentCount;
+
+	private long recordCount;
+
+	private SimpleVectorStoreSnapshot(Path path, Object fileKey, long length, int segmentCount, long recordCount) {
+		this.path = path;
+		this.fileKey = fileKey;
+		this.length = length;
+		this.segmentCount = segmentCount;
+		this.recordCount = recordCount;
+	}
+
+	/**
+	 * Writes a new snapshot with the given documents. The file is written next to the
+	 * target and then moved over it, so a mapping of the previous file stays valid.
+	 * @param path the snapshot file.
+	 * @param documents the documents to save.
+	 * @return the written snapshot.
+	 * @throws IOException if the file cannot be written.
+	 */
+	static SimpleVectorStoreSnapshot write(Path path, List<Document> documents) throws IOException {
+		Path target = path.toAbsolutePath();
+		Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			SimpleVectorStoreSnapshot snapshot = new SimpleVectorStoreSnapshot(target, fileKey(temporary),
+					FILE_HEADER_LENGTH, 0, 0);
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+				header.putInt(FILE_MAGIC).putInt(VERSION).flip();
+				writeFully(channel, header, 0);
+				snapshot.appendSegments(channel, documents, List.of());
+				channel.force(true);
+			}
+			try {
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return snapshot;
+		}
+		finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Replays the segments of a snapshot file.
+	 * @param path the snapshot file.
+	 * @param visitor receives the added and deleted documents in file order.
+	 * @return the read snapshot, to which later changes can be appended.
+	 * @throws IOException if the file cannot be read or is not a snapshot.
+	 */
+	static SimpleVectorStoreSnapshot read(Path path, Visitor visitor) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long fileLength = channel.size();
+			ByteBuffer header = readFully(channel, 0, FILE_HEADER_LENGTH);
+			if (header.getInt() != FILE_MAGIC) {
+				throw new IOException("Not a vector store snapshot: " + path);
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported vector store snapshot version " + version + ": " + path);
+			}
+
+			long position = FILE_HEADER_LENGTH;
+			int segmentCount = 0;
+			long recordCount = 0;
+			while (position + SEGMENT_HEADER_LENGTH <= fileLength) {
+				ByteBuffer segmentHeader = readFully(channel, position, SEGMENT_HEADER_LENGTH);
+				if (segmentHeader.getInt() != SEGMENT_MAGIC) {
+					break;
+				}
+				int dimensions = segmentHeader.getInt();
+				int addedCount = segmentHeader.getInt();
+				int deletedCount = segmentHeader.getInt();
+				long contentLength = segmentHeader.getLong();
+				long vectorBlockLength = (long) addedCount * dimensions * Float.BYTES;
+				long segmentEnd = position + SEGMENT_HEADER_LENGTH + vectorBlockLength + padded(contentLength);
+				if (segmentEnd > fileLength) {
+					break;
+				}
+
+				FloatBuffer vectors = channel
+					.map(FileChannel.MapMode.READ_ONLY, position + SEGMENT_HEADER_LENGTH, vectorBlockLength)
+					.order(ByteOrder.LITTLE_ENDIAN)
+					.asFloatBuffer();
+				ByteBuffer content = readFully(channel, position + SEGMENT_HEADER_LENGTH + vectorBlockLength,
+						Math.toIntExact(contentLength));
+				for (int i = 0; i < addedCount; i++) {
+					int offset = i * dimensions;
+					// Read from the mapping on demand, the index searches it in place
+					Document document = new MappedDocument(OBJECT_MAPPER.readValue(nextEntry(content), Document.class),
+							vectors, offset, dimensions);
+					visitor.added(document, vectors, offset, dimensions);
+				}
+				for (int i = 0; i < deletedCount; i++) {
+					visitor.deleted(new String(nextEntry(content), StandardCharsets.UTF_8));
+				}
+
+				position = segmentEnd;
+				segmentCount++;
+				recordCount += addedCount + deletedCount;
+			}
+			return new SimpleVectorStoreSnapshot(path.toAbsolutePath(), fileKey(path), position, segmentCount,
+					recordCount);
+		}
+	}
+
+	/**
+	 * Tells whether the given file is this snapshot, not replaced or truncated since it
+	 * was last read or written, so that changes can be appended to it.
+	 * @param path the file to check.
+	 * @return {@code true} if changes to the file can be appended.
+	 * @throws IOException if the file attributes cannot be read.
+	 */
+	boolean isCurrent(Path path) throws IOException {
+		if (!path.toAbsolutePath().equals(this.path) || !Files.exists(path)) {
+			return false;
+		}
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		return Objects.equals(attributes.fileKey(), this.fileKey) && attributes.size() >= this.length;
+	}
+
+	/**
+	 * Tells whether the file holds so many segments or superseded records that it should
+	 * be rewritten rather than appended to.
+	 * @param documentCount the number of documents in the store.
+	 * @return {@code true} if the file should be rewritten.
+	 */
+	boolean needsCompaction(int documentCount) {
+		return this.segmentCount >= MAX_SEGMENT_COUNT || this.recordCount > 2L * Math.max(documentCount, 1);
+	}
+
+	/**
+	 * Appends the given changes to the snapshot file. Any bytes after the last complete
+	 * segment, left by an interrupted append, are overwritten.
+	 * @param added the added or updated documents.
+	 * @param deleted the ids of the deleted documents.
+	 * @throws IOException if the file cannot be written.
+	 */
+	void append(List<Document> added, List<String> deleted) throws IOException {
+		if (added.isEmpty() && deleted.isEmpty()) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.WRITE)) {
+			channel.truncate(this.length);
+			appendSegments(channel, added, deleted);
+			channel.force(true);
+		}
+	}
+
+	private void appendSegments(FileChannel channel, List<Document> added, List<String> deleted) throws IOException {
+		int dimensions = added.isEmpty() ? 0 : added.get(0).getEmbeddingAsFloatArray().length;
+		int maxSegmentSize = (int) Math.min(Integer.MAX_VALUE,
+				MAX_VECTOR_BLOCK_LENGTH / Math.max(1, dimensions * Float.BYTES));
+		int from = 0;
+		do {
+			int to = Math.min(added.size(), from + maxSegmentSize);
+			boolean last = to == added.size();
+			this.length = writeSegment(channel, this.length, dimensions, added.subList(from, to),
+					last ? deleted : List.of());
+			this.segmentCount++;
+			this.recordCount += (to - from) + (last ? deleted.size() : 0);
+			from = to;
+		}
+		while (from < added.size());
+	}
+
+	/**
+	 * Writes a segment at the given position, header last.
+	 * @return the position after the segment.
+	 */
+	private static long writeSegment(FileChannel channel, long start, int dimensions, List<Document> added,
+			List<String> deleted) throws IOException {
+		SegmentWriter writer = new SegmentWriter(channel, start + SEGMENT_HEADER_LENGTH);
+		for (Document document : added) {
+			float[] embedding = document.getEmbeddingAsFloatArray();
+			if (embedding.length != dimensions) {
+				throw new IllegalArgumentException("Vectors lengths must be equal");
+			}
+			for (float value : embedding) {
+				writer.putFloat(value);
+			}
+		}
+
+		long contentStart = writer.position();
+		for (Document document : added) {
+			writer.putEntry(OBJECT_MAPPER.writeValueAsBytes(document));
+		}
+		for (String id : deleted) {
+			writer.putEntry(id.getBytes(StandardCharsets.UTF_8));
+		}
+		long contentLength = writer.position() - contentStart;
+		writer.put(new byte[(int) (padded(contentLength) - contentLength)]);
+		long end = writer.flush();
+
+		ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(SEGMENT_MAGIC)
+			.putInt(dimensions)
+			.putInt(added.size())
+			.putInt(deleted.size())
+			.putLong(contentLength)
+			.flip();
+		writeFully(channel, header, start);
+		return end;
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of vector store snapshot");
+			}
+		}
+		return buffer.flip();
+	}
+
+	private static byte[] nextEntry(ByteBuffer content) {
+		byte[] entry = new byte[content.getInt()];
+		content.get(entry);
+		return entry;
+	}
+
+	private static Object fileKey(Path path) throws IOException {
+		return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+	}
+
+	private static long padded(long length) {
+		return (length + 7) & ~7L;
+	}
+
+	/**
+	 * Receives the content of a snapshot file as it is read.
+	 */
+	interface Visitor {
+
+		/**
+		 * Called for an added or updated document.
+		 * @param document the document, with its embedding read on demand from
+		 * {@code vectors}.
+		 * @param vectors the mapped vector block holding the document embedding.
+		 * @param offset the position of the document embedding in {@code vectors}.
+		 * @param dimensions the embedding dimensions.
+		 */
+		void added(Document document, FloatBuffer vectors, int offset, int dimensions);
+
+		/**
+		 * Called for a deleted document.
+		 * @param id the document id.
+		 */
+		void deleted(String id);
+
+	}
+
+	/**
+	 * Buffers positional writes to the snapshot file.
+	 */
+	private static final class SegmentWriter {
+
+		private final FileChannel channel;
+
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+		private long flushed;
+
+		SegmentWriter(FileChannel channel, long position) {
+			this.channel = channel;
+			this.flushed = position;
+		}
+
+		long position() {
+			return this.flushed + this.buffer.position();
+		}
+
+		void putFloat(float value) throws IOException {
+			if (this.buffer.remaining() < Float.BYTES) {
+				flush();
+			}
+			this.buffer.putFloat(value);
+		}
+
+		void putEntry(byte[] entry) throws IOException {
+			if (this.buffer.remaining() < Integer.BYTES) {
+				flush();
+			}
+			this.buffer.putInt(entry.length);
+			put(entry);
+		}
+
+		void put(byte[] bytes) throws IOException {
+			if (bytes.length > this.buffer.remaining()) {
+				flush();
+			}
+			if (bytes.length > this.buffer.remaining()) {
+				writeFully(this.channel, ByteBuffer.wrap(bytes), this.flushed);
+				this.flushed += bytes.length;
+			}
+			else {
+				this.buffer.put(bytes);
+			}
+		}
+
+		long flush() throws IOException {
+			this.buffer.flip();
+			int length = this.buffer.remaining();
+			writeFully(this.channel, this.buffer, this.flushed);
+			this.flushed += length;
+			this.buffer.clear();
+			return this.flushed;
+		}
+
+	}
+
+	@JsonIgnoreProperties({ "contentFormatter", "embedding" })
+	private abstract static class DocumentWithoutEmbedding {
+
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * In-memory cosine similarity index used by the {@link SimpleVectorStore}.
+ *
+ * @since 1.0.0
+ * @see FlatVectorIndex
+ * @see HnswVectorIndex
+ */
+interface VectorIndex {
+
+	/**
+	 * Adds the document with the given embedding, replacing any document with the same
+	 * id.
+	 * @param document the document to add.
+	 * @param embedding the document embedding. It is copied, not retained.
+	 */
+	void put(Document document, float[] embedding);
+
+	/**
+	 * Checks that all the embeddings can be added, so that a batch of documents is added
+	 * either whole or not at all.
+	 * @param embeddings the embeddings to add.
+	 * @throws IllegalArgumentException if an embedding has a zero norm, or dimensions
+	 * that differ from the other embeddings or from the indexed ones.
+	 */
+	void checkEmbeddings(List<float[]> embeddings);
+
+	/**
+	 * Adds the document with an embedding read from a memory-mapped snapshot, replacing
+	 * any document with the same id. Implementations may search the mapped vector in
+	 * place rather than keep their own copy. By default a copy of the mapped vector is
+	 * added.
+	 * @param document the document to add. Its embedding is read on demand from the
+	 * mapped vector.
+	 * @param vectors the mapped vectors.
+	 * @param offset the position of the document vector in {@code vectors}.
+	 * @param dimensions the vector dimensions.
+	 */
+	default void putMapped(Document document, FloatBuffer vectors, int offset, int dimensions) {
+		float[] embedding = new float[dimensions];
+		vectors.get(offset, embedding);
+		put(document, embedding);
+	}
+
+	/**
+	 * Removes the document with the given id.
+	 * @param id the document id.
+	 * @return {@code true} if a document was removed.
+	 */
+	boolean remove(String id);
+
+	/**
+	 * Removes all documents.
+	 */
+	void clear();
+
+	/**
+	 * @return the number of documents in the index.
+	 */
+	int size();
+
+	/**
+	 * Returns the {@code topK} documents accepted by the filter that are most similar to
+	 * the query, ordered by decreasing cosine similarity.
+	 * @param query the query embedding.
+	 * @param topK the maximum number of documents to return.
+	 * @param similarityThreshold the minimum cosine similarity of the returned documents.
+	 * @param filter the document filter, or {@code null} to accept all documents.
+	 * @return the matching documents.
+	 */
+	List<Document> search(float[] query, int topK, double similarityThreshold, Predicate<Document> filter);
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore.filter;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import org.springframework.ai.vectorstore.filter.Filter.Expression;
+import org.springframework.ai.vectorstore.filter.Filter.ExpressionType;
+import org.springframework.ai.vectorstore.filter.Filter.Group;
+import org.springframework.ai.vectorstore.filter.Filter.Key;
+import org.springframework.ai.vectorstore.filter.Filter.Operand;
+import org.springframework.ai.vectorstore.filter.Filter.Value;
+import org.springframework.util.Assert;
+
+/**
+ * Compiles a portable {@link Filter.Expression} into a {@link Predicate} that evaluates
+ * the expression against an in-memory metadata map. The expression tree is walked once,
+ * at compile time, so evaluating the predicate does no AST dispatching and no repeated
+ * constant conversion.
+ *
+ * Evaluation rules:
+ * <ul>
+ * <li>Keys are looked up verbatim, after removing any outer quotes. A dotted key that is
+ * not present verbatim is resolved through nested maps.</li>
+ * <li>Numbers are compared by value regardless of their type, so {@code year == 2020}
+ * matches a metadata value of {@code 2020L} or {@code 2020.0}.</li>
+ * <li>{@code GT}, {@code GTE}, {@code LT} and {@code LTE} compare numbers numerically and
+ * strings lexicographically. They never match a missing key or a value of another
+ * type.</li>
+ * <li>{@code EQ} and {@code IN} never match a missing key. {@code NE} and {@code NIN}
+ * always match it.</li>
+ * </ul>
+ *
+ * @since 1.0.0
+ */
+public final class FilterExpressionPredicateCompiler {
+
+	private FilterExpressionPredicateCompiler() {
+	}
+
+	/**
+	 * Compiles the given filter expression.
+	 * @param expression the filter expression to compile.
+	 * @return a predicate that returns {@code true} for the metadata maps matching the
+	 * expression.
+	 * @throws IllegalArgumentException if the expression is malformed.
+	 */
+	public static Predicate<Map<String, Object>> compile(Expression expression) {
+		Assert.notNull(expression, "Filter expression must not be null");
+		return compileOperand(expression);
+	}
+
+	private static Predicate<Map<String, Object>> compileOperand(Operand operand) {
+		if (operand instanceof Group group) {
+			return compileOperand(group.content());
+		}
+		if (!(operand instanceof Expression expression)) {
+			throw new IllegalArgumentException("Expected an expression or group operand but was: " + operand);
+		}
+
+		return switch (expression.type()) {
+			case AND -> compileOperand(expression.left()).and(compileOperand(expression.right()));
+			case OR -> compileOperand(expression.left()).or(compileOperand(expression.right()));
+			case NOT -> compileOperand(expression.left()).negate();
+			case EQ -> {
+				Function<Map<String, Object>, Object> key = key(expression);
+				Object expected = normalize(value(expression));
+				yield metadata -> {
+					Object actual = key.apply(metadata);
+					return actual != null && expected.equals(normalize(actual));
+				};
+			}
+			case NE -> {
+				Function<Map<String, Object>, Object> key = key(expression);
+				Object expected = normalize(value(expression));
+				yield metadata -> {
+					Object actual = key.apply(metadata);
+					return actual == null || !expected.equals(normalize(actual));
+				};
+			}
+			case GT -> compare(expression, result -> result > 0);
+			case GTE -> compare(expression, result -> result >= 0);
+			case LT -> compare(expression, result -> result < 0);
+			case LTE -> compare(expression, result -> result <= 0);
+			case IN -> {
+				Function<Map<String, Object>, Object> key = key(expression);
+				Set<Object> expected = normalizeAll(value(expression));
+				yield metadata -> {
+					Object actual = key.apply(metadata);
+					return actual != null && expected.contains(normalize(actual));
+				};
+			}
+			case NIN -> {
+				Function<Map<String, Object>, Object> key = key(expression);
+				Set<Object> expected = normalizeAll(value(expression));
+				yield metadata -> {
+					Object actual = key.apply(metadata);
+					return actual == null || !expected.contains(normalize(actual));
+				};
+			}
+		};
+	}
+
+	private static Predicate<Map<String, Object>> compare(Expression expression, IntPredicate test) {
+		Function<Map<String, Object>, Object> key = key(expression);
+		Object expected = value(expression);
+		if (expected instanceof Number number) {
+			double expectedNumber = number.doubleValue();
+			return metadata -> key.apply(metadata) instanceof Number actual
+					&& test.test(Double.compare(actual.doubleValue(), expectedNumber));
+		}
+		if (expected instanceof String expectedText) {
+			return metadata -> key.apply(metadata) instanceof String actual
+					&& test.test(actual.compareTo(expectedText));
+		}
+		throw new IllegalArgumentException(
+				"Expected a numeric or text value for the " + expression.type() + " expression but was: " + expected);
+	}
+
+	private static Function<Map<String, Object>, Object> key(Expression expression) {
+		if (!(expression.left() instanceof Key key)) {
+			throw new IllegalArgumentException("Expected a key as left operand of the " + expression.type()
+					+ " expression but was: " + expression.left());
+		}
+		String name = removeOuterQuotes(key.key());
+		if (!name.contains(".")) {
+			return metadata -> metadata.get(name);
+		}
+		String[] path = name.split("\\.");
+		return metadata -> {
+			if (metadata.containsKey(name)) {
+				return metadata.get(name);
+			}
+			Object current = metadata;
+			for (String segment : path) {
+				if (!(current instanceof Map<?, ?> map)) {
+					return null;
+				}
+				current = map.get(segment);
+			}
+			return current;
+		};
+	}
+
+	private static Object value(Expression expression) {
+		if (!(expression.right() instanceof Value value) || value.value() == null) {
+			throw new IllegalArgumentException("Expected a value as right operand of the " + expression.type()
+					+ " expression but was: " + expression.right());
+		}
+		return value.value();
+	}
+
+	private static Set<Object> normalizeAll(Object value) {
+		Set<Object> result = new HashSet<>();
+		if (value instanceof Collection<?> values) {
+			for (Object element : values) {
+				result.add(normalize(element));
+			}
+		}
+		else {
+			result.add(normalize(value));
+		}
+		return result;
+	}
+
+	/**
+	 * Maps all numbers with an integral value to {@link Long} and all others to
+	 * {@link Double}, so that {@link Object#equals(Object)} compares them by value.
+	 */
+	private static Object normalize(Object value) {
+		if (value instanceof Number number) {
+			if (number instanceof Long || number instanceof Integer || number instanceof Short
+					|| number instanceof Byte) {
+				return number.longValue();
+			}
+			double doubleValue = number.doubleValue();
+			long longValue = (long) doubleValue;
+			return (longValue == doubleValue) ? (Object) longValue : (Object) doubleValue;
+		}
+		if (value instanceof List<?> list) {
+			return list.stream().map(FilterExpressionPredicateCompiler::normalize).toList();
+		}
+		return value;
+	}
+
+	private static String removeOuterQuotes(String text) {
+		if (text.length() > 1
+				&& ((text.startsWith("\"") && text.endsWith("\"")) || (text.startsWith("'") && text.endsWith("'")))) {
+			return text.substring(1, text.length() - 1);
+		}
+		return text;
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.ai.chat.client;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
@@ -27,8 +28,12 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.PromptChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.SchedulingAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.InMemoryChatMemory;
 import org.springframework.ai.chat.messages.Message;
@@ -269,4 +274,48 @@ public class ChatClientAdvisorTests {
 		assertThat(mockAdvisor.chatResponse).isNotNull();
 	}
 
+	@Test
+	public void streamingAdvisesRequestsLazilyOnTheSchedulersOfTheBlockingAdvisors() {
+
+		when(chatModel.stream(promptCaptor.capture()))
+			.thenReturn(Flux.just(new ChatResponse(List.of(new Generation("Hello John")))));
+
+		List<String> threads = new CopyOnWriteArrayList<>();
+		RequestResponseAdvisor advisor = new RequestResponseAdvisor() {
+			@Override
+			public AdvisedRequest adviseRequest(AdvisedRequest request, Map<String, Object> context) {
+				threads.add(Thread.currentThread().getName());
+				return AdvisedRequest.from(request).withUserText(request.userText() + "!").build();
+			}
+		};
+		RequestResponseAdvisor memoryAdvisor = new MessageChatMemoryAdvisor(new InMemoryChatMemory()) {
+			@Override
+			public AdvisedRequest adviseRequest(AdvisedRequest request, Map<String, Object> context) {
+				threads.add(Thread.currentThread().getName());
+				return super.adviseRequest(request, context);
+			}
+		};
+		Scheduler scheduler = Schedulers.newSingle("advisor");
+
+		try {
+			var chatClient = ChatClient.builder(chatModel)
+				.defaultAdvisors(advisor, new SchedulingAdvisor(advisor, scheduler), memoryAdvisor)
+				.build();
+
+			Flux<String> content = chatClient.prompt().user("my name is John").stream().content();
+			assertThat(threads).isEmpty();
+
+			assertThat(join(content)).isEqualTo("Hello John");
+			assertThat(threads).hasSize(3);
+			// The advisors that do not block run on the subscribing thread
+			assertThat(threads.get(0)).isEqualTo(Thread.currentThread().getName());
+			assertThat(threads.get(1)).startsWith("advisor");
+			assertThat(threads.get(2)).startsWith("boundedElastic");
+			assertThat(promptCaptor.getValue().getInstructions().get(0).getContent()).isEqualTo("my name is John!!");
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
 }
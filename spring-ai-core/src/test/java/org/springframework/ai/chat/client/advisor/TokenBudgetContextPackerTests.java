@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.chat.client.advisor;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.client.advisor.TokenBudgetContextPacker.PackedContext;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBudgetContextPackerTests {
+
+	private final TokenCountEstimator wordCountEstimator = new JTokkitTokenCountEstimator() {
+
+		@Override
+		public int estimate(String text) {
+			return text.isBlank() ? 0 : text.strip().split("\\s+").length;
+		}
+
+	};
+
+	@Test
+	public void packsInScoreOrderWithinTheBudget() {
+		TokenBudgetContextPacker packer = new TokenBudgetContextPacker(this.wordCountEstimator, 6, 0.9);
+
+		PackedContext packed = packer.pack(
+				List.of(document("far away doc", 0.8), document("closest doc", 0.1), document("second best doc", 0.3)));
+
+		assertThat(packed.content()).isEqualTo("closest doc" + System.lineSeparator() + "second best doc");
+		assertThat(packed.documents()).extracting(Document::getContent)
+			.containsExactly("closest doc", "second best doc");
+		assertThat(packed.usedTokens()).isEqualTo(5);
+		assertThat(packed.totalTokens()).isEqualTo(8);
+		assertThat(packed.savedTokens()).isEqualTo(3);
+	}
+
+	@Test
+	public void skipsNearDuplicates() {
+		TokenBudgetContextPacker packer = new TokenBudgetContextPacker(this.wordCountEstimator, 100, 0.7);
+
+		PackedContext packed = packer.pack(List.of(new Document("The quick brown fox jumps over the lazy dog"),
+				new Document("the quick  brown fox jumps over the lazy dog!"),
+				new Document("A completely different chunk of text")));
+
+		assertThat(packed.documents()).extracting(Document::getContent)
+			.containsExactly("The quick brown fox jumps over the lazy dog", "A completely different chunk of text");
+		assertThat(packed.savedTokens()).isEqualTo(9);
+	}
+
+	@Test
+	public void truncatesAtSentenceBoundaries() {
+		TokenBudgetContextPacker packer = new TokenBudgetContextPacker(this.wordCountEstimator, 7, 0.9);
+
+		PackedContext packed = packer.pack(List.of(new Document("Short first."),
+				new Document("One two three. Four five six. Seven eight."), new Document("Never packed.")));
+
+		assertThat(packed.content()).isEqualTo("Short first." + System.lineSeparator() + "One two three.");
+		assertThat(packed.usedTokens()).isEqualTo(5);
+		assertThat(packed.totalTokens()).isEqualTo(12);
+	}
+
+	@Test
+	public void skipsDocumentsWhoseFirstSentenceDoesNotFit() {
+		TokenBudgetContextPacker packer = new TokenBudgetContextPacker(this.wordCountEstimator, 2, 0.9);
+
+		PackedContext packed = packer.pack(List.of(new Document("One two three. Four.")));
+
+		assertThat(packed.content()).isEmpty();
+		assertThat(packed.documents()).isEmpty();
+		assertThat(packed.savedTokens()).isEqualTo(4);
+	}
+
+	private static Document document(String content, double distance) {
+		return new Document(content, Map.of(TokenBudgetContextPacker.DISTANCE_METADATA_KEY, distance));
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.chat.memory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedInMemoryChatMemoryTests {
+
+	private final AtomicLong now = new AtomicLong();
+
+	@Test
+	public void keepsTheLastMessagesOfEachConversation() {
+		BoundedInMemoryChatMemory chatMemory = BoundedInMemoryChatMemory.builder().withMaxMessages(3).build();
+
+		chatMemory.add("a", messages("1", "2"));
+		chatMemory.add("a", messages("3", "4", "5"));
+		chatMemory.add("b", new UserMessage("6"));
+
+		assertThat(contents(chatMemory.get("a", 10))).containsExactly("3", "4", "5");
+		assertThat(contents(chatMemory.get("a", 2))).containsExactly("4", "5");
+		assertThat(contents(chatMemory.get("b", 10))).containsExactly("6");
+		assertThat(chatMemory.get("c", 10)).isEmpty();
+
+		chatMemory.clear("a");
+		assertThat(chatMemory.get("a", 10)).isEmpty();
+		assertThat(chatMemory.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void limitsTheTokensOfEachConversation() {
+		BoundedInMemoryChatMemory chatMemory = BoundedInMemoryChatMemory.builder()
+			.withMaxTokens(10)
+			.withTokenCountEstimator(new LengthTokenCountEstimator())
+			.build();
+
+		chatMemory.add("a", messages("1234", "5678", "abcd"));
+		assertThat(contents(chatMemory.get("a", 10))).containsExactly("5678", "abcd");
+
+		// The last message is kept even when it exceeds the limit on its own
+		chatMemory.add("a", messages("a very long message"));
+		assertThat(contents(chatMemory.get("a", 10))).containsExactly("a very long message");
+	}
+
+	@Test
+	public void evictsTheLeastRecentlyUsedConversations() {
+		BoundedInMemoryChatMemory chatMemory = BoundedInMemoryChatMemory.builder()
+			.withMaxConversations(2)
+			.withNanoClock(this.now::get)
+			.build();
+
+		chatMemory.add("a", messages("1"));
+		this.now.incrementAndGet();
+		chatMemory.add("b", messages("2"));
+		this.now.incrementAndGet();
+		chatMemory.get("a", 10);
+		this.now.incrementAndGet();
+		chatMemory.add("c", messages("3"));
+
+		assertThat(chatMemory.size()).isEqualTo(2);
+		assertThat(chatMemory.get("b", 10)).isEmpty();
+		assertThat(contents(chatMemory.get("a", 10))).containsExactly("1");
+		assertThat(contents(chatMemory.get("c", 10))).containsExactly("3");
+	}
+
+	@Test
+	public void keepsTheConversationsInUseWhileEvictingOthers() {
+		BoundedInMemoryChatMemory chatMemory = BoundedInMemoryChatMemory.builder().withMaxConversations(100).build();
+
+		chatMemory.add("hot", messages("1"));
+		for (int i = 0; i < 10_000; i++) {
+			chatMemory.add("cold-" + i, messages("2"));
+			if (i % 50 == 0) {
+				chatMemory.clear("cold-" + i);
+			}
+			assertThat(contents(chatMemory.get("hot", 10))).containsExactly("1");
+		}
+
+		assertThat(chatMemory.size()).isEqualTo(100);
+		assertThat(contents(chatMemory.get("cold-9999", 10))).containsExactly("2");
+		assertThat(chatMemory.get("cold-9000", 10)).isEmpty();
+	}
+
+	@Test
+	public void expiresIdleConversations() {
+		BoundedInMemoryChatMemory chatMemory = BoundedInMemoryChatMemory.builder()
+			.withTimeToIdle(Duration.ofMinutes(10))
+			.withNanoClock(this.now::get)
+			.build();
+
+		chatMemory.add("a", messages("1"));
+		chatMemory.add("b", messages("2"));
+		this.now.addAndGet(Duration.ofMinutes(5).toNanos());
+		chatMemory.get("b", 10);
+		this.now.addAndGet(Duration.ofMinutes(6).toNanos());
+
+		assertThat(chatMemory.get("a", 10)).isEmpty();
+		chatMemory.add("c", messages("3"));
+		assertThat(contents(chatMemory.get("b", 10))).containsExactly("2");
+
+		this.now.addAndGet(Duration.ofMinutes(11).toNanos());
+		chatMemory.add("d", messages("4"));
+		assertThat(chatMemory.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void addsConcurrently() throws Exception {
+		BoundedInMemoryChatMemory chatMemory = BoundedInMemoryChatMemory.builder()
+			.withMaxMessages(1000)
+			.withMaxConversations(4)
+			.build();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 800; i++) {
+				String conversationId = String.valueOf(i % 4);
+				futures.add(executor.submit(() -> {
+					chatMemory.add(conversationId, new UserMessage("message"));
+					chatMemory.get(conversationId, 10);
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		for (int i = 0; i < 4; i++) {
+			assertThat(chatMemory.get(String.valueOf(i), 1000)).hasSize(200);
+		}
+	}
+
+	private static List<Message> messages(String... contents) {
+		List<Message> messages = new ArrayList<>();
+		for (String content : contents) {
+			messages.add(new UserMessage(content));
+		}
+		return messages;
+	}
+
+	private static List<String> contents(List<Message> messages) {
+		return messages.stream().map(Message::getContent).toList();
+	}
+
+	private static class LengthTokenCountEstimator extends JTokkitTokenCountEstimator {
+
+		@Override
+		public int estimate(String text) {
+			return text.length();
+		}
+
+	}
+
+}
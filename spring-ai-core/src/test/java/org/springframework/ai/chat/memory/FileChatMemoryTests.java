@@ -0,0 +1,176 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.chat.memory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Media;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.MimeTypeUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FileChatMemoryTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void survivesRestarts() {
+		try (FileChatMemory chatMemory = FileChatMemory.builder(this.directory).build()) {
+			chatMemory.add("a", List.of(new SystemMessage("Be brief"), new UserMessage("Hello")));
+			chatMemory.add("a", new AssistantMessage("Hi", Map.of("finishReason", "STOP")));
+			chatMemory.add("b", new UserMessage("Other"));
+		}
+
+		try (FileChatMemory chatMemory = FileChatMemory.builder(this.directory).build()) {
+			List<Message> messages = chatMemory.get("a", 10);
+			assertThat(messages).extracting(Message::getMessageType)
+				.containsExactly(MessageType.SYSTEM, MessageType.USER, MessageType.ASSISTANT);
+			assertThat(messages).extracting(Message::getContent).containsExactly("Be brief", "Hello", "Hi");
+			assertThat(messages.get(2).getMetadata()).containsEntry("finishReason", "STOP");
+			assertThat(chatMemory.get("a", 1)).extracting(Message::getContent).containsExactly("Hi");
+			assertThat(chatMemory.get("b", 10)).extracting(Message::getContent).containsExactly("Other");
+			assertThat(chatMemory.get("c", 10)).isEmpty();
+		}
+	}
+
+	@Test
+	public void persistsMedia() {
+		byte[] image = "image".getBytes(StandardCharsets.UTF_8);
+		try (FileChatMemory chatMemory = FileChatMemory.builder(this.directory).build()) {
+			chatMemory.add("a",
+					new UserMessage("Describe", new Media(MimeTypeUtils.IMAGE_PNG, new ByteArrayResource(image))));
+		}
+
+		try (FileChatMemory chatMemory = FileChatMemory.builder(this.directory).build()) {
+			List<Media> media = new ArrayList<>(chatMemory.get("a", 1).get(0).getMedia());
+			assertThat(media).hasSize(1);
+			assertThat(media.get(0).getMimeType()).isEqualTo(MimeTypeUtils.IMAGE_PNG);
+			assertThat(media.get(0).getData()).isEqualTo(image);
+		}
+	}
+
+	@Test
+	public void replaysTheWritesSinceTheLastCheckpoint() throws Exception {
+		ChatMemoryLog log = new ChatMemoryLog(this.directory, 0, 1024, Integer.MAX_VALUE, 2.0, false);
+		for (int i = 0; i < 100; i++) {
+			log.add("a", List.of(("Message " + i).getBytes(StandardCharsets.UTF_8)));
+		}
+		assertThat(log.getSegmentCount()).isGreaterThan(1);
+
+		// Not closed, as after a crash
+		ChatMemoryLog reopened = new ChatMemoryLog(this.directory, 0, 1024, Integer.MAX_VALUE, 2.0, false);
+
+		assertThat(reopened.getWrittenBytes()).isEqualTo(log.getWrittenBytes());
+		assertThat(reopened.get("a", 100)).hasSize(100);
+		assertThat(reopened.get("a", 2)).extracting(bytes -> new String(bytes, StandardCharsets.UTF_8))
+			.containsExactly("Message 98", "Message 99");
+	}
+
+	@Test
+	public void compactsClearedAndDroppedMessages() throws IOException {
+		try (FileChatMemory chatMemory = FileChatMemory.builder(this.directory)
+			.withShardCount(1)
+			.withSegmentSize(1024)
+			.withMaxMessages(3)
+			.build()) {
+			for (int i = 0; i < 200; i++) {
+				chatMemory.add("a", new UserMessage("Message " + i));
+				chatMemory.add("b", new UserMessage("Message " + i));
+			}
+			chatMemory.clear("b");
+			chatMemory.compact();
+
+			assertThat(chatMemory.get("a", 10)).extracting(Message::getContent)
+				.containsExactly("Message 197", "Message 198", "Message 199");
+			assertThat(chatMemory.get("b", 10)).isEmpty();
+			assertThat(logFiles()).hasSize(1);
+		}
+
+		try (FileChatMemory chatMemory = FileChatMemory.builder(this.directory)
+			.withShardCount(1)
+			.withSegmentSize(1024)
+			.withMaxMessages(3)
+			.build()) {
+			assertThat(chatMemory.get("a", 10)).extracting(Message::getContent)
+				.containsExactly("Message 197", "Message 198", "Message 199");
+		}
+	}
+
+	@Test
+	public void rollsAgainWhenTheCompactedRecordsNearlyFillASegment() throws IOException {
+		ChatMemoryLog log = new ChatMemoryLog(this.directory, 0, 1024, 1, 2.0, false);
+		// Each record nearly fills a segment, and compacting leaves one of them live
+		for (int i = 0; i < 10; i++) {
+			byte[] message = new byte[990];
+			Arrays.fill(message, (byte) ('0' + i));
+			log.add("a", List.of(message));
+		}
+
+		assertThat(log.get("a", 1)).singleElement().satisfies(message -> assertThat(message).containsOnly('9'));
+		log.close();
+		ChatMemoryLog reopened = new ChatMemoryLog(this.directory, 0, 1024, 1, 2.0, false);
+		assertThat(reopened.get("a", 1)).singleElement().satisfies(message -> assertThat(message).containsOnly('9'));
+	}
+
+	@Test
+	public void releasesTheSegmentsOnClose() throws IOException {
+		ChatMemoryLog log = new ChatMemoryLog(this.directory, 0, 1024, Integer.MAX_VALUE, 2.0, false);
+		log.add("a", List.of("Hello".getBytes(StandardCharsets.UTF_8)));
+		log.close();
+		log.close();
+
+		assertThatThrownBy(() -> log.get("a", 1)).isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("closed");
+		ChatMemoryLog reopened = new ChatMemoryLog(this.directory, 0, 1024, Integer.MAX_VALUE, 2.0, false);
+		assertThat(reopened.get("a", 1)).extracting(bytes -> new String(bytes, StandardCharsets.UTF_8))
+			.containsExactly("Hello");
+		reopened.close();
+	}
+
+	@Test
+	public void locksTheDirectory() {
+		try (FileChatMemory chatMemory = FileChatMemory.builder(this.directory).build()) {
+			assertThatThrownBy(() -> FileChatMemory.builder(this.directory).build())
+				.isInstanceOf(IllegalStateException.class);
+		}
+	}
+
+	private List<Path> logFiles() throws IOException {
+		try (Stream<Path> paths = Files.list(this.directory)) {
+			return paths.filter(path -> path.getFileName().toString().endsWith(".log")).toList();
+		}
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.chat.prompt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CompiledPromptTemplateTests {
+
+	@Test
+	public void compilesEachTemplateOnce() {
+		CompiledPromptTemplate compiled = CompiledPromptTemplate.compile("Hello {name}, from {place}");
+
+		assertThat(CompiledPromptTemplate.compile("Hello {name}, from {place}")).isSameAs(compiled);
+		assertThat(compiled.getInputVariables()).containsExactlyInAnyOrder("name", "place");
+		assertThatThrownBy(() -> compiled.getInputVariables().add("other"))
+			.isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	public void rendersWithoutKeepingAttributes() {
+		CompiledPromptTemplate compiled = CompiledPromptTemplate.compile("{greeting} {items:{item | [{item}]}}");
+
+		assertThat(compiled.render(Map.of("greeting", "Hi", "items", List.of("a", "b"), "unused", 1)))
+			.isEqualTo("Hi [a][b]");
+		assertThat(compiled.render(Map.of("greeting", "Bye", "items", List.of("c")))).isEqualTo("Bye [c]");
+	}
+
+	@Test
+	public void rendersConcurrently() throws Exception {
+		PromptTemplate promptTemplate = new PromptTemplate("{a}:{b}");
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				int value = i;
+				results.add(executor.submit(() -> promptTemplate.render(Map.of("a", value, "b", 2 * value))
+					.equals(value + ":" + 2 * value)));
+			}
+			for (Future<Boolean> result : results) {
+				assertThat(result.get()).isTrue();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void boundsTheCache() {
+		CompiledPromptTemplate hot = CompiledPromptTemplate.compile("Hot {value}");
+		CompiledPromptTemplate cold = CompiledPromptTemplate.compile("Cold {value}");
+		for (int i = 0; i < CompiledPromptTemplate.MAX_CACHE_SIZE + 10; i++) {
+			CompiledPromptTemplate.compile("Template " + i + " {value}");
+			assertThat(CompiledPromptTemplate.compile("Hot {value}")).isSameAs(hot);
+		}
+
+		assertThat(CompiledPromptTemplate.cacheSize()).isLessThanOrEqualTo(CompiledPromptTemplate.MAX_CACHE_SIZE);
+		assertThat(CompiledPromptTemplate.compile("Cold {value}")).isNotSameAs(cold);
+	}
+
+	@Test
+	public void doesNotCacheTemplatesWithoutAttributes() {
+		CompiledPromptTemplate compiled = CompiledPromptTemplate.compile("Plain user text");
+
+		assertThat(compiled.render(Map.of())).isEqualTo("Plain user text");
+		assertThat(CompiledPromptTemplate.compile("Plain user text")).isNotSameAs(compiled);
+	}
+
+	@Test
+	public void rejectsInvalidTemplates() {
+		assertThatThrownBy(() -> CompiledPromptTemplate.compile("This is a {foo test"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("The template string is not valid.");
+	}
+
+}
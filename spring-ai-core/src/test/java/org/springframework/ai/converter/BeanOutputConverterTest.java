@@ -50,6 +50,16 @@ class BeanOutputConverterTest {
 		assertThat(objectMapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isFalse();
 	}
 
+	@Test
+	public void shouldNotShareTheDefaultObjectMapperThroughTheHook() {
+		new BeanOutputConverter<>(TestClass.class).getObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+
+		var testClass = new BeanOutputConverter<>(TestClass.class)
+			.convert("{ \"someString\": \"some value\", \"unknown\": 1 }");
+		assertThat(testClass.getSomeString()).isEqualTo("some value");
+	}
+
 	@Nested
 	class ConverterTest {
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StreamingBeanOutputConverterTests {
+
+	@Test
+	public void emitsArrayElementsAsTheyClose() {
+		var converter = StreamingBeanOutputConverter.forArrayElements(Item.class);
+		List<String> seen = new ArrayList<>();
+
+		List<Item> items = converter
+			.convert(Flux.just("```json\n[{\"na", "me\": \"a\", \"tags\": [\"x\"", "]}, {\"name\": \"b\"}",
+					", {\"name\": \"c\"}]\n```")
+				.doOnNext(seen::add))
+			.doOnNext(item -> seen.add(item.name))
+			.collectList()
+			.block();
+
+		assertThat(items).extracting(item -> item.name).containsExactly("a", "b", "c");
+		assertThat(items.get(0).tags).containsExactly("x");
+		// The first two elements are emitted before the last chunk is received
+		assertThat(seen.indexOf("a")).isLessThan(seen.size() - 2);
+		assertThat(seen.indexOf("b")).isLessThan(seen.size() - 2);
+	}
+
+	@Test
+	public void emitsPartiallyPopulatedObjects() {
+		var converter = StreamingBeanOutputConverter.forObject(Item.class);
+
+		List<Item> items = converter
+			.convert(Flux.just("{\"name\": \"a\", \"tags\": [\"x\",", "\"y\"], \"count\"", ": 42}"))
+			.collectList()
+			.block();
+
+		assertThat(items).hasSize(3);
+		assertThat(items.get(0).name).isEqualTo("a");
+		assertThat(items.get(0).tags).isNull();
+		assertThat(items.get(1).tags).containsExactly("x", "y");
+		assertThat(items.get(2).count).isEqualTo(42);
+	}
+
+	@Test
+	public void failsOnIncompleteOutput() {
+		var converter = StreamingBeanOutputConverter.forArrayElements(Item.class);
+
+		assertThatThrownBy(() -> converter.convert(Flux.just("[{\"name\": \"a\"}, {\"na")).collectList().block())
+			.isInstanceOf(RuntimeException.class);
+		assertThatThrownBy(() -> converter.convert(Flux.just("no json")).collectList().block())
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void asksForAnArrayOfTheElements() {
+		assertThat(StreamingBeanOutputConverter.forArrayElements(Item.class).getFormat())
+			.contains("\"type\" : \"array\"");
+	}
+
+	public static class Item {
+
+		public String name;
+
+		public List<String> tags;
+
+		public int count;
+
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.document;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WriteBehindDocumentWriterTests {
+
+	private final List<List<Document>> batches = new CopyOnWriteArrayList<>();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final DocumentWriter blockingWriter = documents -> {
+		try {
+			this.release.await(10, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		this.batches.add(documents);
+	};
+
+	@Test
+	public void writesInBatchesInTheBackground() {
+		try (WriteBehindDocumentWriter writer = WriteBehindDocumentWriter.builder(this.blockingWriter)
+			.withBatchSize(2)
+			.build()) {
+
+			writer.write(List.of(document("a", "1")));
+			writer.write(List.of(document("a", "2"), document("a", "3"), document("a", "4")));
+
+			// The caller is not blocked by the pending writes
+			assertThat(writer.getPendingCount()).isEqualTo(4);
+
+			this.release.countDown();
+			assertThat(writer.flush(Duration.ofSeconds(10))).isTrue();
+		}
+
+		assertThat(this.batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+		assertThat(this.batches.stream().flatMap(List::stream).map(Document::getContent)).containsExactly("1", "2", "3",
+				"4");
+	}
+
+	@Test
+	public void waitsForThePendingWritesOfOneKey() throws Exception {
+		CountDownLatch writingB = new CountDownLatch(1);
+		DocumentWriter delegate = documents -> {
+			if (documents.get(0).getMetadata().get("key").equals("b")) {
+				writingB.countDown();
+				this.blockingWriter.accept(documents);
+			}
+			else {
+				this.batches.add(documents);
+			}
+		};
+		try (WriteBehindDocumentWriter writer = WriteBehindDocumentWriter.builder(delegate)
+			.withBatchSize(1)
+			.withKeyExtractor(document -> (String) document.getMetadata().get("key"))
+			.withFlushTimeout(Duration.ofMillis(100))
+			.build()) {
+
+			writer.write(List.of(document("b", "1")));
+			assertThat(writingB.await(10, TimeUnit.SECONDS)).isTrue();
+			writer.write(List.of(document("a", "2")));
+
+			assertThat(writer.awaitWritten("b")).isFalse();
+			this.release.countDown();
+			assertThat(writer.awaitWritten("b")).isTrue();
+			assertThat(writer.awaitWritten("a")).isTrue();
+		}
+	}
+
+	@Test
+	public void appliesBackpressureWhenTheQueueIsFull() {
+		try (WriteBehindDocumentWriter writer = WriteBehindDocumentWriter.builder(this.blockingWriter)
+			.withBatchSize(1)
+			.withQueueCapacity(1)
+			.withOfferTimeout(Duration.ofMillis(50))
+			.build()) {
+
+			// The first document is being written, the second one fills the queue
+			writer.write(List.of(document("a", "1")));
+			writer.write(List.of(document("a", "2")));
+			assertThatThrownBy(() -> writer.write(List.of(document("a", "3"))))
+				.isInstanceOf(IllegalStateException.class);
+
+			this.release.countDown();
+		}
+
+		assertThat(this.batches.stream().flatMap(List::stream).map(Document::getContent)).containsExactly("1", "2");
+	}
+
+	@Test
+	public void flushesOnClose() {
+		WriteBehindDocumentWriter writer = WriteBehindDocumentWriter.builder(this.batches::add).build();
+		this.release.countDown();
+
+		writer.write(List.of(document("a", "1"), document("a", "2")));
+		writer.close();
+
+		assertThat(this.batches.stream().flatMap(List::stream)).hasSize(2);
+		assertThat(writer.getPendingCount()).isZero();
+		assertThatThrownBy(() -> writer.write(List.of(document("a", "3")))).isInstanceOf(IllegalStateException.class);
+	}
+
+	private static Document document(String key, String content) {
+		return new Document(content, Map.of("key", key));
+	}
+
+}
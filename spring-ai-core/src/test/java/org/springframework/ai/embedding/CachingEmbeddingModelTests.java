@@ -0,0 +1,130 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.embedding;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.ai.document.Document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachingEmbeddingModelTests {
+
+	private final RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+
+	@Test
+	public void forwardsOnlyMissesOfBatchedCall() {
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder(this.delegate).build();
+		model.embed(List.of("a", "bb"));
+
+		List<List<Double>> embeddings = model.embed(List.of("bb", "ccc", "a", "ccc"));
+
+		assertThat(embeddings).containsExactly(List.of(2.0), List.of(3.0), List.of(1.0), List.of(3.0));
+		assertThat(this.delegate.requests).containsExactly(List.of("a", "bb"), List.of("ccc"));
+		assertThat(model.getStats().hits()).isEqualTo(2);
+		assertThat(model.getStats().misses()).isEqualTo(4);
+	}
+
+	@Test
+	public void keysIncludeOptionsAndNamespace() {
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder(this.delegate).build();
+		model.call(new EmbeddingRequest(List.of("a"), EmbeddingOptions.EMPTY));
+		model.call(new EmbeddingRequest(List.of("a"), new TestOptions()));
+		model.call(new EmbeddingRequest(List.of("a"), EmbeddingOptions.EMPTY));
+
+		assertThat(this.delegate.requests).hasSize(2);
+	}
+
+	@Test
+	public void embedsOnlyMissingDocuments() {
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder(this.delegate).build();
+		model.embedAsFloatArray(new Document("bb"));
+
+		List<float[]> embeddings = model.embed(List.of(new Document("a"), new Document("bb"), new Document("ccc")),
+				EmbeddingOptions.EMPTY, new TokenCountBatchingStrategy());
+
+		assertThat(embeddings).extracting(vector -> vector[0]).containsExactly(1f, 2f, 3f);
+		assertThat(this.delegate.requests).containsExactly(List.of("bb"), List.of("a", "ccc"));
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedEntries() {
+		// Room for two single dimension entries.
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder(this.delegate).withMaxMemoryBytes(600).build();
+		model.embed("a");
+		model.embed("bb");
+		model.embed("a");
+		model.embed("ccc");
+
+		assertThat(model.getStats().evictions()).isEqualTo(1);
+		assertThat(model.getStats().memoryEntries()).isEqualTo(2);
+		model.embed("a");
+		model.embed("bb");
+		assertThat(this.delegate.requests).containsExactly(List.of("a"), List.of("bb"), List.of("ccc"), List.of("bb"));
+	}
+
+	@Test
+	public void readsThroughDiskTier(@TempDir Path directory) {
+		CachingEmbeddingModel model = CachingEmbeddingModel.builder(this.delegate).withDirectory(directory).build();
+		model.embed(List.of("a", "bb"));
+
+		CachingEmbeddingModel restarted = CachingEmbeddingModel.builder(this.delegate).withDirectory(directory).build();
+		assertThat(restarted.embed(List.of("bb", "a", "ccc"))).containsExactly(List.of(2.0), List.of(1.0),
+				List.of(3.0));
+
+		assertThat(this.delegate.requests).containsExactly(List.of("a", "bb"), List.of("ccc"));
+		assertThat(restarted.getStats().diskHits()).isEqualTo(2);
+		assertThat(restarted.getStats().hitRate()).isEqualTo(2 / 3.0);
+	}
+
+	/**
+	 * Embeds every text into a single dimension vector holding its length.
+	 */
+	private static class RecordingEmbeddingModel extends AbstractEmbeddingModel {
+
+		private final List<List<String>> requests = new ArrayList<>();
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			this.requests.add(request.getInstructions());
+			List<Embedding> embeddings = new ArrayList<>();
+			for (String text : request.getInstructions()) {
+				embeddings.add(new Embedding(new float[] { text.length() }, embeddings.size()));
+			}
+			return new EmbeddingResponse(embeddings);
+		}
+
+		@Override
+		public List<Double> embed(Document document) {
+			return embed(document.getContent());
+		}
+
+	}
+
+	private static class TestOptions implements EmbeddingOptions {
+
+		public String getModel() {
+			return "other";
+		}
+
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.embedding;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EmbeddingUtilsTests {
+
+	@Test
+	public void doubleListViewIsBackedByArray() {
+		float[] vector = new float[] { 0.5f, -1.0f, 2.0f };
+		List<Double> view = EmbeddingUtils.toDoubleList(vector);
+
+		assertThat(view).containsExactly(0.5, -1.0, 2.0);
+		assertThat(view).isEqualTo(List.of(0.5, -1.0, 2.0));
+		assertThat(EmbeddingUtils.toFloatArray(view)).isSameAs(vector);
+		assertThatThrownBy(() -> view.add(1.0)).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	public void toFloatArrayFromBoxedList() {
+		assertThat(EmbeddingUtils.toFloatArray(List.of(0.25, 0.5))).containsExactly(0.25f, 0.5f);
+		assertThat(EmbeddingUtils.toFloatArray(List.<Double>of())).isEmpty();
+	}
+
+	@Test
+	public void embeddingFromFloatArray() {
+		float[] vector = new float[] { 0.25f, 0.75f };
+		Embedding embedding = new Embedding(vector, 0);
+
+		assertThat(embedding.getOutputAsFloatArray()).isSameAs(vector);
+		assertThat(embedding.getOutput()).containsExactly(0.25, 0.75);
+		assertThat(embedding).isEqualTo(new Embedding(List.of(0.25, 0.75), 0));
+		assertThat(new Embedding(List.of(0.25, 0.75), 0).getOutputAsFloatArray()).containsExactly(0.25f, 0.75f);
+	}
+
+	@Test
+	public void documentEmbeddingJsonRoundTrip() throws Exception {
+		Document document = new Document("1", "content", Map.of("key", "value"));
+		document.setEmbedding(new float[] { 0.25f, 0.5f });
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		String json = objectMapper.writeValueAsString(document);
+		Document result = objectMapper.readValue(json, Document.class);
+
+		assertThat(json).contains("\"embedding\":[0.25,0.5]");
+		assertThat(result.getEmbeddingAsFloatArray()).containsExactly(0.25f, 0.5f);
+		assertThat(result.getEmbedding()).containsExactly(0.25, 0.5);
+	}
+
+}
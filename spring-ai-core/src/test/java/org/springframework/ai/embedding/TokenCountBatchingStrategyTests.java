@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.embedding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenCountBatchingStrategyTests {
+
+	@Test
+	public void batchesBySize() {
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			documents.add(new Document("doc " + i));
+		}
+
+		List<List<Document>> batches = new TokenCountBatchingStrategy(1000, 3).batch(documents);
+
+		assertThat(batches).hasSize(3);
+		assertThat(batches.get(0)).hasSize(3);
+		assertThat(batches.get(2)).hasSize(1);
+		assertThat(batches.stream().flatMap(List::stream).toList()).isEqualTo(documents);
+	}
+
+	@Test
+	public void batchesByTokenCount() {
+		// Each document counts as 10 tokens against a 25 token budget (no reserve).
+		var strategy = new TokenCountBatchingStrategy(estimator(text -> 10), 25, 0, 100,
+				Document.DEFAULT_CONTENT_FORMATTER, MetadataMode.NONE);
+		List<Document> documents = List.of(new Document("a"), new Document("b"), new Document("c"), new Document("d"),
+				new Document("e"));
+
+		List<List<Document>> batches = strategy.batch(documents);
+
+		assertThat(batches).extracting(List::size).containsExactly(2, 2, 1);
+	}
+
+	@Test
+	public void oversizedDocumentGetsItsOwnBatch() {
+		var strategy = new TokenCountBatchingStrategy(estimator(String::length), 10, 0, 100,
+				Document.DEFAULT_CONTENT_FORMATTER, MetadataMode.NONE);
+		List<Document> documents = List.of(new Document("aaa"), new Document("a".repeat(50)), new Document("bbb"));
+
+		List<List<Document>> batches = strategy.batch(documents);
+
+		assertThat(batches).extracting(List::size).containsExactly(1, 1, 1);
+	}
+
+	@Test
+	public void embedDocumentsPreservesOrderAcrossBatches() {
+		AtomicInteger calls = new AtomicInteger();
+		EmbeddingModel embeddingModel = new AbstractEmbeddingModel() {
+
+			@Override
+			public EmbeddingResponse call(EmbeddingRequest request) {
+				calls.incrementAndGet();
+				List<Embedding> embeddings = new ArrayList<>();
+				for (int i = 0; i < request.getInstructions().size(); i++) {
+					String text = request.getInstructions().get(i);
+					embeddings.add(new Embedding(new float[] { Float.parseFloat(text) }, i));
+				}
+				return new EmbeddingResponse(embeddings);
+			}
+
+			@Override
+			public List<Double> embed(Document document) {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+		List<Document> documents = List.of(new Document("1"), new Document("2"), new Document("3"), new Document("4"),
+				new Document("5"));
+
+		List<float[]> result = embeddingModel.embed(documents, EmbeddingOptions.EMPTY,
+				new TokenCountBatchingStrategy(1000, 2));
+
+		assertThat(calls.get()).isEqualTo(3);
+		assertThat(result).extracting(vector -> vector[0]).containsExactly(1f, 2f, 3f, 4f, 5f);
+	}
+
+	private static JTokkitTokenCountEstimator estimator(ToIntFunction<String> tokenCount) {
+		return new JTokkitTokenCountEstimator() {
+
+			@Override
+			public int estimate(String text) {
+				return tokenCount.applyAsInt(text);
+			}
+
+		};
+	}
+
+}
@@ -226,4 +226,17 @@ public class ModelOptionsUtilsTests {
 		assertThat(ModelOptionsUtils.getJsonPropertyValues(TestRecord.class)).containsExactly("field1", "field2");
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void cachesJsonSchemas() {
+		record TestRecord(String name, int age) {
+		}
+		String schema = ModelOptionsUtils.getJsonSchema(TestRecord.class, false);
+		String upperCaseSchema = ModelOptionsUtils.getJsonSchema(TestRecord.class, true);
+
+		assertThat(schema).contains("\"type\" : \"object\"");
+		assertThat(upperCaseSchema).contains("\"type\" : \"OBJECT\"");
+		assertThat(ModelOptionsUtils.getJsonSchema(TestRecord.class, false)).isSameAs(schema);
+		assertThat(ModelOptionsUtils.getJsonSchema(TestRecord.class, true)).isSameAs(upperCaseSchema);
+	}
+
+}
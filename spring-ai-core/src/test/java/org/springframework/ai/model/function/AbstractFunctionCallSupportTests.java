@@ -0,0 +1,198 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.model.function;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AbstractFunctionCallSupportTests {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private final TestFunctionCallSupport support = new TestFunctionCallSupport();
+
+	@AfterEach
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void runsCallsSequentiallyByDefault() {
+		register("echo", input -> input + "@" + Thread.currentThread().getName());
+
+		List<String> responses = this.support.executeFunctionCalls(List.of("echo:a", "echo:b"), this::name,
+				this::arguments);
+
+		String thread = Thread.currentThread().getName();
+		assertThat(responses).containsExactly("a@" + thread, "b@" + thread);
+	}
+
+	@Test
+	public void runsCallsConcurrentlyInRequestedOrder() {
+		register("sleep", input -> {
+			sleep(Long.parseLong(input));
+			return input;
+		});
+		this.support.setFunctionCallExecutor(this.executor);
+
+		long start = System.nanoTime();
+		List<String> responses = this.support.executeFunctionCalls(
+				List.of("sleep:300", "sleep:100", "sleep:200", "sleep:300", "sleep:100"), this::name, this::arguments);
+
+		assertThat(responses).containsExactly("300", "100", "200", "300", "100");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(900));
+	}
+
+	@Test
+	public void timesOutSlowCalls() {
+		register("sleep", input -> {
+			sleep(Long.parseLong(input));
+			return input;
+		});
+		this.support.setFunctionCallExecutor(this.executor);
+		this.support.setFunctionCallTimeout(Duration.ofMillis(100));
+
+		assertThatThrownBy(
+				() -> this.support.executeFunctionCalls(List.of("sleep:10", "sleep:2000"), this::name, this::arguments))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("sleep");
+	}
+
+	@Test
+	public void interruptsTimedOutCalls() throws InterruptedException {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		register("block", input -> {
+			try {
+				Thread.sleep(10_000);
+			}
+			catch (InterruptedException ex) {
+				interrupted.countDown();
+			}
+			return input;
+		});
+		this.support.setFunctionCallExecutor(this.executor);
+		this.support.setFunctionCallTimeout(Duration.ofMillis(100));
+
+		assertThatThrownBy(() -> this.support.executeFunctionCalls(List.of("block:a"), this::name, this::arguments))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("timed out");
+		assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void propagatesFunctionFailures() {
+		register("fail", input -> {
+			throw new IllegalArgumentException(input);
+		});
+		this.support.setFunctionCallExecutor(this.executor);
+
+		assertThatThrownBy(() -> this.support.executeFunctionCalls(List.of("fail:boom"), this::name, this::arguments))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("boom");
+	}
+
+	@Test
+	public void rejectsUnknownFunctionsBeforeCalling() {
+		register("echo", input -> {
+			throw new AssertionError("Must not be called");
+		});
+
+		assertThatThrownBy(
+				() -> this.support.executeFunctionCalls(List.of("echo:a", "missing:b"), this::name, this::arguments))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("missing");
+	}
+
+	private void register(String name, Function<String, String> function) {
+		this.support.getFunctionCallbackRegister()
+			.put(name,
+					FunctionCallbackWrapper.builder(function)
+						.withName(name)
+						.withDescription(name)
+						.withInputType(String.class)
+						.withResponseConverter(response -> response)
+						.build());
+	}
+
+	private String name(String functionCall) {
+		return functionCall.substring(0, functionCall.indexOf(':'));
+	}
+
+	private String arguments(String functionCall) {
+		return "\"" + functionCall.substring(functionCall.indexOf(':') + 1) + "\"";
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class TestFunctionCallSupport extends AbstractFunctionCallSupport<String, String, String> {
+
+		TestFunctionCallSupport() {
+			super(null);
+		}
+
+		@Override
+		protected String doCreateToolResponseRequest(String previousRequest, String responseMessage,
+				List<String> conversationHistory) {
+			return previousRequest;
+		}
+
+		@Override
+		protected List<String> doGetUserMessages(String request) {
+			return List.of(request);
+		}
+
+		@Override
+		protected String doGetToolResponseMessage(String response) {
+			return response;
+		}
+
+		@Override
+		protected String doChatCompletion(String request) {
+			return request;
+		}
+
+		@Override
+		protected Flux<String> doChatCompletionStream(String request) {
+			return Flux.just(request);
+		}
+
+		@Override
+		protected boolean isToolFunctionCall(String response) {
+			return false;
+		}
+
+	}
+
+}
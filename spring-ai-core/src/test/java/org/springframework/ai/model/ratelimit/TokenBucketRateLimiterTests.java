@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.model.ratelimit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.RateLimit;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TokenBucketRateLimiterTests {
+
+	private final AtomicLong now = new AtomicLong();
+
+	@Test
+	public void allowsBurstUpToLimitThenPaces() {
+		TokenBucketRateLimiter limiter = TokenBucketRateLimiter.builder()
+			.withRequestsPerMinute(60)
+			.withNanoClock(this.now::get)
+			.build();
+
+		for (int i = 0; i < 60; i++) {
+			assertThat(limiter.reserve(0)).isZero();
+		}
+		assertThat(limiter.reserve(0)).isEqualTo(Duration.ofSeconds(1));
+		assertThat(limiter.reserve(0)).isEqualTo(Duration.ofSeconds(2));
+
+		this.now.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertThat(limiter.reserve(0)).isZero();
+	}
+
+	@Test
+	public void limitsTokensAndChargesConsumedTokens() {
+		TokenBucketRateLimiter limiter = TokenBucketRateLimiter.builder()
+			.withTokensPerMinute(6000)
+			.withNanoClock(this.now::get)
+			.build();
+
+		assertThat(limiter.reserve(5000)).isZero();
+		limiter.consume(2000);
+		// 1000 tokens overdrawn, refilled at 100 tokens per second.
+		assertThat(limiter.reserve(0)).isEqualTo(Duration.ofSeconds(10));
+		assertThat(limiter.reserve(500)).isEqualTo(Duration.ofSeconds(15));
+	}
+
+	@Test
+	public void learnsLimitsFromServer() {
+		TokenBucketRateLimiter limiter = TokenBucketRateLimiter.builder()
+			.withRequestsPerMinute(100)
+			.withNanoClock(this.now::get)
+			.build();
+		assertThat(limiter.getTokensPerMinute()).isNull();
+
+		limiter.update(new TestRateLimit(500L, 1L, 60_000L, 0L));
+
+		assertThat(limiter.getRequestsPerMinute()).isEqualTo(100);
+		assertThat(limiter.getTokensPerMinute()).isEqualTo(60_000);
+		assertThat(limiter.reserve(0)).isZero();
+		// The token bucket is exhausted as reported by the server.
+		assertThat(limiter.reserve(1000)).isEqualTo(Duration.ofSeconds(1));
+		assertThat(limiter.reserve(0)).isEqualTo(Duration.ofMillis(1200));
+	}
+
+	@Test
+	public void ignoresMissingServerLimits() {
+		TokenBucketRateLimiter limiter = TokenBucketRateLimiter.builder().withNanoClock(this.now::get).build();
+
+		limiter.update(new TestRateLimit(0L, 0L, null, null));
+
+		assertThat(limiter.getRequestsPerMinute()).isNull();
+		assertThat(limiter.reserve(1_000_000)).isZero();
+	}
+
+	@Test
+	public void pacesChatModelCalls() {
+		TokenBucketRateLimiter limiter = TokenBucketRateLimiter.builder()
+			.withTokensPerMinute(60_000)
+			.withNanoClock(this.now::get)
+			.build();
+		ChatResponseMetadata metadata = mock(ChatResponseMetadata.class);
+		when(metadata.getUsage()).thenReturn(new TestUsage(30_000L));
+		when(metadata.getRateLimit()).thenReturn(new TestRateLimit(null, null, 60_000L, 50_000L));
+		ChatResponse response = new ChatResponse(List.of(new Generation("Hi")), metadata);
+		ChatModel delegate = mock(ChatModel.class);
+		when(delegate.call(any(Prompt.class))).thenReturn(response);
+		when(delegate.stream(any(Prompt.class))).thenReturn(Flux.just(response));
+		RateLimitedChatModel chatModel = new RateLimitedChatModel(delegate, limiter, new TestEstimator());
+
+		// Each call is charged 1000 prompt tokens and 30000 generated tokens.
+		chatModel.call(new Prompt("hello"));
+		assertThat(limiter.reserve(19_000)).isZero();
+
+		assertThat(chatModel.stream(new Prompt("hello")).collectList().block()).containsExactly(response);
+		assertThat(limiter.reserve(0)).isEqualTo(Duration.ofSeconds(21));
+	}
+
+	private static class TestEstimator extends JTokkitTokenCountEstimator {
+
+		@Override
+		public int estimate(String text) {
+			return 1000;
+		}
+
+	}
+
+	private record TestUsage(Long getGenerationTokens) implements Usage {
+
+		@Override
+		public Long getPromptTokens() {
+			return 0L;
+		}
+
+	}
+
+	private record TestRateLimit(Long getRequestsLimit, Long getRequestsRemaining, Long getTokensLimit,
+			Long getTokensRemaining) implements RateLimit {
+
+		@Override
+		public Duration getRequestsReset() {
+			return null;
+		}
+
+		@Override
+		public Duration getTokensReset() {
+			return null;
+		}
+
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.model.streaming;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SseJsonDecoderTests {
+
+	private final SseJsonDecoder<Event> decoder = new SseJsonDecoder<>(Event.class);
+
+	@Test
+	public void decodesEventsSplitAcrossBuffers() {
+		String body = "data: {\"text\":\"déjà\"}\n\n: keep-alive\n\nevent: message\ndata: {\"text\":\"東京\"}\n\n";
+
+		for (int size = 1; size < 20; size++) {
+			assertThat(decode(body, size)).containsExactly("déjà", "東京");
+		}
+	}
+
+	@Test
+	public void decodesCarriageReturnTerminatedLines() {
+		assertThat(decode("data:{\"text\":\"a\"}\r\n\r\ndata: {\"text\":\"b\"}\r\r", 3)).containsExactly("a", "b");
+	}
+
+	@Test
+	public void joinsMultipleDataLines() {
+		assertThat(decode("data: {\"text\":\ndata: \"a\"}\n\n", 5)).containsExactly("a");
+	}
+
+	@Test
+	public void decodesOneJsonValuePerLine() {
+		assertThat(decode("{\"text\":\"a\"}\n{\"text\":\"b\"}", 4)).containsExactly("a", "b");
+	}
+
+	@Test
+	public void endsAtTheDoneEvent() {
+		AtomicBoolean cancelled = new AtomicBoolean();
+
+		List<String> texts = this.decoder
+			.decode(buffers("data: {\"text\":\"a\"}\n\ndata: [DONE]\n\ndata: {\"text\":\"b\"}\n\n", 7)
+				.doOnCancel(() -> cancelled.set(true)))
+			.map(Event::text)
+			.collectList()
+			.block();
+
+		assertThat(texts).containsExactly("a");
+		assertThat(cancelled).isTrue();
+	}
+
+	@Test
+	public void failsOnInvalidJson() {
+		assertThatThrownBy(() -> decode("data: {\"text\":\n\n", 100)).isInstanceOf(RuntimeException.class)
+			.hasMessageStartingWith("Failed to json: ");
+	}
+
+	private List<String> decode(String body, int bufferSize) {
+		return this.decoder.decode(buffers(body, bufferSize)).map(Event::text).collectList().block();
+	}
+
+	private static Flux<DataBuffer> buffers(String body, int bufferSize) {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		List<DataBuffer> buffers = new ArrayList<>();
+		for (int i = 0; i < bytes.length; i += bufferSize) {
+			byte[] slice = Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + bufferSize));
+			buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(slice));
+		}
+		return Flux.fromIterable(buffers);
+	}
+
+	public record Event(String text) {
+	}
+
+}
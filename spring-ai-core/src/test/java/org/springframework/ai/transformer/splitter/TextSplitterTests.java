@@ -16,8 +16,12 @@
 package org.springframework.ai.transformer.splitter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
@@ -105,4 +109,42 @@ public class TextSplitterTests {
 
 	}
 
+	@Test
+	public void splitsInParallelPreservingTheOrder() {
+		List<Document> documents = IntStream.range(0, 200)
+			.mapToObj(i -> new Document("document " + i + " of the corpus", Map.of("index", i)))
+			.toList();
+		TextSplitter splitter = testTextSplitter;
+		List<Document> sequential = splitter.apply(documents);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			splitter.setExecutor(executor);
+			List<Document> parallel = splitter.apply(documents);
+
+			assertThat(parallel).extracting(Document::getContent)
+				.containsExactlyElementsOf(sequential.stream().map(Document::getContent).toList());
+			assertThat(parallel).extracting(Document::getMetadata)
+				.containsExactlyElementsOf(sequential.stream().map(Document::getMetadata).toList());
+		}
+		finally {
+			splitter.setExecutor(null);
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void copiesTheMetadataForEachChunk() {
+		Map<String, Object> metadata = new HashMap<>(Map.of("key1", "value1"));
+		List<Document> chunks = testTextSplitter.apply(List.of(new Document("first half, second half", metadata)));
+
+		chunks.get(0).getMetadata().put("key2", "value2");
+		chunks.get(1).getMetadata().remove("key1");
+		metadata.put("key3", "value3");
+
+		assertThat(chunks.get(0).getMetadata()).containsOnlyKeys("key1", "key2");
+		assertThat(chunks.get(1).getMetadata()).isEmpty();
+		assertThat(metadata).containsOnlyKeys("key1", "key3");
+	}
+
 }
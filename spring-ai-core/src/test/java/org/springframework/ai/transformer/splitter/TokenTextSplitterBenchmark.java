@@ -0,0 +1,188 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.transformer.splitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import com.knuddels.jtokkit.api.IntArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the {@link TokenTextSplitter} with its previous implementation, which encoded
+ * the text to boxed {@code List<Integer>} tokens, decoded each chunk and encoded it again
+ * to count its tokens. The setup fails unless both produce the same chunks.
+ *
+ * The 5M characters text, about a long book, is where encoding and decoding every chunk
+ * again dominates the split.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenTextSplitterBenchmark {
+
+	private static final String[] WORDS = { "the", "embedding", "model", "returns", "a", "vector", "for", "each",
+			"document", "chunk", "and", "stores", "it", "in", "index", "déjà", "vu", "naïve", "東京", "2024", "it's",
+			"U.S.A", "😀" };
+
+	private static final String[] SEPARATORS = { " ", " ", " ", " ", ", ", ". ", ".\n", ".\n\n", "? ", "!\n", "\n",
+			"  ", "...", ".\" ", ") " };
+
+	@Param({ "100000", "5000000" })
+	public int textLength;
+
+	private final TokenTextSplitter splitter = new TokenTextSplitter();
+
+	private final PreviousTokenTextSplitter previousSplitter = new PreviousTokenTextSplitter();
+
+	private String text;
+
+	@Setup
+	public void setup() {
+		this.text = corpus(new Random(42), this.textLength);
+		if (!this.splitter.splitText(this.text).equals(this.previousSplitter.splitText(this.text))) {
+			throw new IllegalStateException("The splitters produce different chunks");
+		}
+	}
+
+	@Benchmark
+	public List<String> previous() {
+		return this.previousSplitter.splitText(this.text);
+	}
+
+	@Benchmark
+	public List<String> current() {
+		return this.splitter.splitText(this.text);
+	}
+
+	static String corpus(Random random, int length) {
+		StringBuilder text = new StringBuilder(length + 16);
+		while (text.length() < length) {
+			text.append(WORDS[random.nextInt(WORDS.length)]);
+			text.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+		}
+		return text.toString();
+	}
+
+	/**
+	 * The previous implementation of {@link TokenTextSplitter#doSplit(String, int)}.
+	 */
+	static class PreviousTokenTextSplitter {
+
+		private final Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+		private final int defaultChunkSize;
+
+		private final int minChunkSizeChars;
+
+		private final int minChunkLengthToEmbed;
+
+		private final int maxNumChunks;
+
+		private final boolean keepSeparator;
+
+		PreviousTokenTextSplitter() {
+			this(800, 350, 5, 10000, true);
+		}
+
+		PreviousTokenTextSplitter(int defaultChunkSize, int minChunkSizeChars, int minChunkLengthToEmbed,
+				int maxNumChunks, boolean keepSeparator) {
+			this.defaultChunkSize = defaultChunkSize;
+			this.minChunkSizeChars = minChunkSizeChars;
+			this.minChunkLengthToEmbed = minChunkLengthToEmbed;
+			this.maxNumChunks = maxNumChunks;
+			this.keepSeparator = keepSeparator;
+		}
+
+		List<String> splitText(String text) {
+			if (text == null || text.trim().isEmpty()) {
+				return new ArrayList<>();
+			}
+
+			List<Integer> tokens = this.encoding.encode(text).boxed();
+			List<String> chunks = new ArrayList<>();
+			int num_chunks = 0;
+			while (!tokens.isEmpty() && num_chunks < this.maxNumChunks) {
+				List<Integer> chunk = tokens.subList(0, Math.min(this.defaultChunkSize, tokens.size()));
+				String chunkText = decodeTokens(chunk);
+
+				if (chunkText.trim().isEmpty()) {
+					tokens = tokens.subList(chunk.size(), tokens.size());
+					continue;
+				}
+
+				int lastPunctuation = Math.max(chunkText.lastIndexOf('.'), Math.max(chunkText.lastIndexOf('?'),
+						Math.max(chunkText.lastIndexOf('!'), chunkText.lastIndexOf('\n'))));
+
+				if (lastPunctuation != -1 && lastPunctuation > this.minChunkSizeChars) {
+					chunkText = chunkText.substring(0, lastPunctuation + 1);
+				}
+
+				String chunkTextToAppend = (this.keepSeparator) ? chunkText.trim()
+						: chunkText.replace(System.lineSeparator(), " ").trim();
+				if (chunkTextToAppend.length() > this.minChunkLengthToEmbed) {
+					chunks.add(chunkTextToAppend);
+				}
+
+				tokens = tokens.subList(this.encoding.encode(chunkText).boxed().size(), tokens.size());
+
+				num_chunks++;
+			}
+
+			if (!tokens.isEmpty()) {
+				String remaining_text = decodeTokens(tokens).replace(System.lineSeparator(), " ").trim();
+				if (remaining_text.length() > this.minChunkLengthToEmbed) {
+					chunks.add(remaining_text);
+				}
+			}
+
+			return chunks;
+		}
+
+		private String decodeTokens(List<Integer> tokens) {
+			var tokensIntArray = new IntArrayList(tokens.size());
+			tokens.forEach(tokensIntArray::add);
+			return this.encoding.decode(tokensIntArray);
+		}
+
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TokenTextSplitterBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
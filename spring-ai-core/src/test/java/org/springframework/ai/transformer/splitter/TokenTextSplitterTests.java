@@ -0,0 +1,42 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.transformer.splitter;
+
+import java.util.Random;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import org.springframework.ai.transformer.splitter.TokenTextSplitterBenchmark.PreviousTokenTextSplitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenTextSplitterTests {
+
+	@ParameterizedTest
+	@CsvSource({ "800, 350, true", "100, 50, true", "37, 0, false" })
+	public void splitsLikeThePreviousImplementation(int chunkSize, int minChunkSizeChars, boolean keepSeparator) {
+		var splitter = new TokenTextSplitter(chunkSize, minChunkSizeChars, 5, 10000, keepSeparator);
+		var previousSplitter = new PreviousTokenTextSplitter(chunkSize, minChunkSizeChars, 5, 10000, keepSeparator);
+		Random random = new Random(chunkSize);
+
+		for (int i = 0; i < 20; i++) {
+			String text = TokenTextSplitterBenchmark.corpus(random, random.nextInt(20_000));
+			assertThat(splitter.splitText(text)).isEqualTo(previousSplitter.splitText(text));
+		}
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SimpleVectorStore.EmbeddingMath;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FlatVectorIndexTests {
+
+	@Test
+	public void returnsTopKByDecreasingSimilarity() {
+		FlatVectorIndex index = new FlatVectorIndex();
+		index.put(new Document("x", "x", Map.of()), new float[] { 1, 0 });
+		index.put(new Document("y", "y", Map.of()), new float[] { 0, 1 });
+		index.put(new Document("xy", "xy", Map.of()), new float[] { 1, 1 });
+		index.put(new Document("-x", "-x", Map.of()), new float[] { -1, 0 });
+
+		List<Document> results = index.search(new float[] { 2, 0.5f }, 2, 0.0);
+		assertThat(results).extracting(Document::getId).containsExactly("x", "xy");
+
+		results = index.search(new float[] { 2, 0.5f }, 10, 0.0);
+		assertThat(results).extracting(Document::getId).containsExactly("x", "xy", "y");
+
+		results = index.search(new float[] { 2, 0.5f }, 10, 0.5);
+		assertThat(results).extracting(Document::getId).containsExactly("x", "xy");
+	}
+
+	@Test
+	public void replacesAndRemovesDocuments() {
+		FlatVectorIndex index = new FlatVectorIndex();
+		index.put(new Document("a", "a", Map.of()), new float[] { 1, 0 });
+		index.put(new Document("b", "b", Map.of()), new float[] { 0, 1 });
+		index.put(new Document("c", "c", Map.of()), new float[] { 1, 1 });
+
+		index.put(new Document("a", "a2", Map.of()), new float[] { 0, 1 });
+		assertThat(index.size()).isEqualTo(3);
+		assertThat(index.search(new float[] { 0, 1 }, 2, 0.99)).extracting(Document::getContent)
+			.containsExactlyInAnyOrder("a2", "b");
+
+		assertThat(index.remove("a")).isTrue();
+		assertThat(index.remove("a")).isFalse();
+		assertThat(index.size()).isEqualTo(2);
+		assertThat(index.search(new float[] { 1, 1 }, 1, 0.0)).extracting(Document::getId).containsExactly("c");
+	}
+
+	@Test
+	public void appliesDocumentFilterBeforeRanking() {
+		FlatVectorIndex index = new FlatVectorIndex();
+		index.put(new Document("a", "a", Map.of("country", "BG")), new float[] { 1, 0 });
+		index.put(new Document("b", "b", Map.of("country", "NL")), new float[] { 1, 0.1f });
+		index.put(new Document("c", "c", Map.of("country", "NL")), new float[] { 0, 1 });
+
+		List<Document> results = index.search(new float[] { 1, 0 }, 1, 0.0,
+				document -> "NL".equals(document.getMetadata().get("country")));
+
+		assertThat(results).extracting(Document::getId).containsExactly("b");
+	}
+
+	@Test
+	public void rejectsInvalidVectors() {
+		FlatVectorIndex index = new FlatVectorIndex();
+		index.put(new Document("a", "a", Map.of()), new float[] { 1, 0 });
+
+		assertThatThrownBy(() -> index.put(new Document("b", "b", Map.of()), new float[] { 1, 0, 0 }))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> index.search(new float[] { 0, 0 }, 1, 0.0))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> index.search(new float[] { 1, 0, 0 }, 1, 0.0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void parallelScanMatchesExhaustiveSort() {
+		Random random = new Random(42);
+		int dimensions = 37;
+		FlatVectorIndex index = new FlatVectorIndex(64);
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			Document document = new Document("doc-" + i, "content", Map.of());
+			document.setEmbedding(randomVector(random, dimensions));
+			documents.add(document);
+			index.put(document, document.getEmbeddingAsFloatArray());
+		}
+		float[] query = randomVector(random, dimensions);
+		Document queryDocument = new Document("query");
+		queryDocument.setEmbedding(query);
+
+		List<String> expected = documents.stream()
+			.sorted(Comparator
+				.<Document>comparingDouble(
+						d -> EmbeddingMath.cosineSimilarity(queryDocument.getEmbedding(), d.getEmbedding()))
+				.reversed())
+			.limit(25)
+			.map(Document::getId)
+			.toList();
+
+		assertThat(index.search(query, 25, -1.0)).extracting(Document::getId).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	public void parallelScanReturnsTopKLargerThanPartitions() {
+		FlatVectorIndex index = new FlatVectorIndex(2);
+		for (int i = 0; i < 10; i++) {
+			index.put(new Document("doc-" + i, "content", Map.of()), new float[] { 1, i });
+		}
+		assertThat(index.search(new float[] { 1, 0 }, 8, -1.0)).hasSize(8);
+	}
+
+	@Test
+	public void searchesMappedVectorsInPlace() {
+		FloatBuffer mapped = FloatBuffer.wrap(new float[] { 2, 0, 3, 3, 0, 5 });
+		FlatVectorIndex index = new FlatVectorIndex(2);
+		index.putMapped(mappedDocument("x", mapped, 0), mapped, 0, 2);
+		index.putMapped(mappedDocument("xy", mapped, 2), mapped, 2, 2);
+		index.putMapped(mappedDocument("y", mapped, 4), mapped, 4, 2);
+		index.put(new Document("-x", "-x", Map.of()), new float[] { -1, 0 });
+
+		assertThat(index.size()).isEqualTo(4);
+		assertThat(index.search(new float[] { 1, 0 }, 10, -1.0)).extracting(Document::getId)
+			.containsExactly("x", "xy", "y", "-x");
+
+		index.put(new Document("xy", "moved", Map.of()), new float[] { 0, -1 });
+		assertThat(index.remove("y")).isTrue();
+		assertThat(index.size()).isEqualTo(3);
+		assertThat(index.search(new float[] { 1, 0 }, 10, 0.0)).extracting(Document::getId).containsExactly("x", "xy");
+		assertThat(index.search(new float[] { 0, -1 }, 1, 0.0)).extracting(Document::getContent)
+			.containsExactly("moved");
+
+		Document other = new Document("z", "z", Map.of());
+		other.setEmbedding(new float[] { 1, 0, 0 });
+		assertThatThrownBy(() -> index.putMapped(other, FloatBuffer.wrap(new float[] { 1, 0, 0 }), 0, 3))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static Document mappedDocument(String id, FloatBuffer vectors, int offset) {
+		return new MappedDocument(new Document(id, id, Map.of()), vectors, offset, 2);
+	}
+
+	private static float[] randomVector(Random random, int dimensions) {
+		float[] vector = new float[dimensions];
+		for (int i = 0; i < dimensions; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+
+}
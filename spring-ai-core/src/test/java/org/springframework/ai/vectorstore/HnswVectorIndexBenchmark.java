@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * Search latency of the {@link HnswVectorIndex} for several {@code efSearch} values,
+ * against the exact {@link FlatVectorIndex} search over the same random vectors. The
+ * recall that a larger {@code efSearch} buys is asserted by {@link HnswVectorIndexTests},
+ * this benchmark measures what it costs; run it with {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HnswVectorIndexBenchmark {
+
+	private static final int QUERY_COUNT = 100;
+
+	@Param({ "100000" })
+	public int documentCount;
+
+	@Param({ "384" })
+	public int dimensions;
+
+	@Param({ "10" })
+	public int topK;
+
+	@Param({ "16", "64", "128", "256" })
+	public int efSearch;
+
+	private FlatVectorIndex flatIndex;
+
+	private HnswVectorIndex hnswIndex;
+
+	private float[][] queries;
+
+	private int nextQuery;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		this.flatIndex = new FlatVectorIndex();
+		this.hnswIndex = new HnswVectorIndex(HnswIndexConfig.builder().withEfSearch(this.efSearch).build());
+		for (int i = 0; i < this.documentCount; i++) {
+			Document document = new Document("doc-" + i, "content " + i, Map.of());
+			float[] vector = randomVector(random, this.dimensions);
+			this.flatIndex.put(document, vector);
+			this.hnswIndex.put(document, vector);
+		}
+		this.queries = new float[QUERY_COUNT][];
+		for (int i = 0; i < QUERY_COUNT; i++) {
+			this.queries[i] = randomVector(random, this.dimensions);
+		}
+	}
+
+	@Benchmark
+	public List<Document> flatIndex() {
+		return this.flatIndex.search(nextQuery(), this.topK, SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL);
+	}
+
+	@Benchmark
+	public List<Document> hnswIndex() {
+		return this.hnswIndex.search(nextQuery(), this.topK, SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL, null);
+	}
+
+	private float[] nextQuery() {
+		float[] query = this.queries[this.nextQuery];
+		this.nextQuery = (this.nextQuery + 1) % QUERY_COUNT;
+		return query;
+	}
+
+	private static float[] randomVector(Random random, int dimensions) {
+		float[] vector = new float[dimensions];
+		for (int i = 0; i < dimensions; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(HnswVectorIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HnswVectorIndexTests {
+
+	private static final int DIMENSIONS = 32;
+
+	@Test
+	public void recallAgainstExactSearch() {
+		assertThat(recall(HnswIndexConfig.defaultConfig())).isGreaterThan(0.9);
+	}
+
+	@Test
+	public void recallGrowsWithEfSearch() {
+		double previousRecall = 0;
+		for (int efSearch : new int[] { 10, 40, 160 }) {
+			double recall = recall(HnswIndexConfig.builder().withEfSearch(efSearch).build());
+			assertThat(recall).as("recall with efSearch=%d", efSearch).isGreaterThanOrEqualTo(previousRecall);
+			previousRecall = recall;
+		}
+		assertThat(previousRecall).isGreaterThan(0.97);
+	}
+
+	/**
+	 * The recall@10 of the HNSW index against the exact search, over 2000 random vectors.
+	 */
+	private static double recall(HnswIndexConfig config) {
+		Random random = new Random(7);
+		HnswVectorIndex hnsw = new HnswVectorIndex(config);
+		FlatVectorIndex flat = new FlatVectorIndex();
+		for (int i = 0; i < 2000; i++) {
+			Document document = new Document("doc-" + i, "content", Map.of());
+			float[] vector = randomVector(random);
+			hnsw.put(document, vector);
+			flat.put(document, vector);
+		}
+
+		int hits = 0;
+		int queries = 50;
+		for (int q = 0; q < queries; q++) {
+			float[] query = randomVector(random);
+			Set<String> expected = ids(flat.search(query, 10, -1.0));
+			for (Document document : hnsw.search(query, 10, -1.0, null)) {
+				if (expected.contains(document.getId())) {
+					hits++;
+				}
+			}
+		}
+		return hits / (double) (queries * 10);
+	}
+
+	@Test
+	public void honorsThresholdAndFilter() {
+		HnswVectorIndex index = new HnswVectorIndex(HnswIndexConfig.defaultConfig());
+		index.put(new Document("x", "x", Map.of("country", "BG")), new float[] { 1, 0 });
+		index.put(new Document("xy", "xy", Map.of("country", "NL")), new float[] { 1, 1 });
+		index.put(new Document("y", "y", Map.of("country", "NL")), new float[] { 0, 1 });
+
+		assertThat(index.search(new float[] { 1, 0 }, 10, 0.5, null)).extracting(Document::getId)
+			.containsExactly("x", "xy");
+		assertThat(index.search(new float[] { 1, 0 }, 1, 0.0, null)).extracting(Document::getId).containsExactly("x");
+		assertThat(index.search(new float[] { 1, 0 }, 10, 0.0,
+				document -> "NL".equals(document.getMetadata().get("country"))))
+			.extracting(Document::getId)
+			.containsExactly("xy", "y");
+	}
+
+	@Test
+	public void removesAndReplacesDocuments() {
+		Random random = new Random(11);
+		HnswVectorIndex index = new HnswVectorIndex(HnswIndexConfig.builder().withM(4).build());
+		for (int i = 0; i < 200; i++) {
+			index.put(new Document("doc-" + i, "content", Map.of()), randomVector(random));
+		}
+		float[] target = randomVector(random);
+		index.put(new Document("doc-0", "replaced", Map.of()), target);
+		assertThat(index.size()).isEqualTo(200);
+		assertThat(index.search(target, 1, 0.0, null)).extracting(Document::getContent).containsExactly("replaced");
+
+		// Removing most documents triggers a rebuild of the graph.
+		for (int i = 0; i < 190; i++) {
+			assertThat(index.remove("doc-" + i)).isTrue();
+		}
+		assertThat(index.remove("doc-0")).isFalse();
+		assertThat(index.size()).isEqualTo(10);
+		assertThat(ids(index.search(target, 100, -1.0, null))).hasSize(10)
+			.allMatch(id -> Integer.parseInt(id.substring(4)) >= 190);
+
+		for (int i = 190; i < 200; i++) {
+			index.remove("doc-" + i);
+		}
+		assertThat(index.search(target, 10, -1.0, null)).isEmpty();
+		index.put(new Document("other", "other", Map.of()), new float[] { 1, 0, 0 });
+		assertThat(index.search(new float[] { 1, 0, 0 }, 1, 0.0, null)).hasSize(1);
+	}
+
+	@Test
+	public void rejectsMismatchedDimensions() {
+		HnswVectorIndex index = new HnswVectorIndex(HnswIndexConfig.defaultConfig());
+		index.put(new Document("a", "a", Map.of()), new float[] { 1, 0 });
+
+		assertThatThrownBy(() -> index.put(new Document("b", "b", Map.of()), new float[] { 1, 0, 0 }))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> index.search(new float[] { 1, 0, 0 }, 1, 0.0, null))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void searchesWhileInserting() {
+		Random random = new Random(3);
+		HnswVectorIndex index = new HnswVectorIndex(HnswIndexConfig.defaultConfig());
+		index.put(new Document("seed", "seed", Map.of()), randomVector(random));
+		AtomicBoolean writing = new AtomicBoolean(true);
+
+		CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+			Random queries = new Random(5);
+			while (writing.get()) {
+				assertThat(index.search(randomVector(queries), 5, -1.0, null)).isNotEmpty();
+			}
+		});
+		for (int i = 0; i < 2000; i++) {
+			index.put(new Document("doc-" + i, "content", Map.of()), randomVector(random));
+			if (i % 3 == 0) {
+				index.remove("doc-" + (i / 2));
+			}
+		}
+		writing.set(false);
+		reader.join();
+	}
+
+	private static Set<String> ids(List<Document> documents) {
+		Set<String> ids = new HashSet<>();
+		documents.forEach(document -> ids.add(document.getId()));
+		return ids;
+	}
+
+	private static float[] randomVector(Random random) {
+		float[] vector = new float[DIMENSIONS];
+		for (int i = 0; i < DIMENSIONS; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SimpleVectorStore.EmbeddingMath;
+
+/**
+ * Compares the {@link FlatVectorIndex} search with the previous {@link SimpleVectorStore}
+ * implementation, which computed {@link EmbeddingMath#cosineSimilarity} over the boxed
+ * {@code List<Double>} embeddings of every document and sorted the whole store.
+ *
+ * The gap widens with the {@code documentCount}, as the stream sorts every score where
+ * the index only keeps the best {@code topK} in a heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimpleVectorStoreSearchBenchmark {
+
+	@Param({ "10000", "200000" })
+	public int documentCount;
+
+	@Param({ "384", "1536" })
+	public int dimensions;
+
+	@Param({ "10" })
+	public int topK;
+
+	private final Map<String, Document> store = new ConcurrentHashMap<>();
+
+	private final Map<String, List<Double>> boxedEmbeddings = new ConcurrentHashMap<>();
+
+	private final FlatVectorIndex index = new FlatVectorIndex();
+
+	private float[] query;
+
+	private List<Double> boxedQuery;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		for (int i = 0; i < this.documentCount; i++) {
+			Document document = new Document("doc-" + i, "content " + i, Map.of());
+			document.setEmbedding(randomVector(random, this.dimensions));
+			this.store.put(document.getId(), document);
+			this.boxedEmbeddings.put(document.getId(), new ArrayList<>(document.getEmbedding()));
+			this.index.put(document, document.getEmbeddingAsFloatArray());
+		}
+		Document queryDocument = new Document("query");
+		queryDocument.setEmbedding(randomVector(random, this.dimensions));
+		this.query = queryDocument.getEmbeddingAsFloatArray();
+		this.boxedQuery = new ArrayList<>(queryDocument.getEmbedding());
+	}
+
+	@Benchmark
+	public List<Document> sortedStream() {
+		return this.store.values()
+			.stream()
+			.map(entry -> new Scored(entry.getId(),
+					EmbeddingMath.cosineSimilarity(this.boxedQuery, this.boxedEmbeddings.get(entry.getId()))))
+			.filter(s -> s.score() >= SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL)
+			.sorted(Comparator.comparingDouble(Scored::score).reversed())
+			.limit(this.topK)
+			.map(s -> this.store.get(s.key()))
+			.toList();
+	}
+
+	@Benchmark
+	public List<Document> flatIndex() {
+		return this.index.search(this.query, this.topK, SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL);
+	}
+
+	private static float[] randomVector(Random random, int dimensions) {
+		float[] vector = new float[dimensions];
+		for (int i = 0; i < dimensions; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+
+	private record Scored(String key, double score) {
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SimpleVectorStoreSearchBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SimpleVectorStoreSnapshotTests {
+
+	private static final Map<String, float[]> VECTORS = Map.of("x", new float[] { 1, 0 }, "xy", new float[] { 1, 1 },
+			"y", new float[] { 0, 1 });
+
+	@TempDir
+	private Path directory;
+
+	private EmbeddingModel embeddingModel;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		this.embeddingModel = mock(EmbeddingModel.class);
+		when(this.embeddingModel.embed(anyList(), any(EmbeddingOptions.class), any(BatchingStrategy.class)))
+			.thenAnswer(invocation -> ((List<Document>) invocation.getArgument(0)).stream()
+				.map(document -> VECTORS.get(document.getContent()))
+				.toList());
+		when(this.embeddingModel.embedAsFloatArray(anyString()))
+			.thenAnswer(invocation -> VECTORS.get(invocation.<String>getArgument(0)));
+	}
+
+	@Test
+	public void savesAndLoadsSnapshot() {
+		File file = this.directory.resolve("store.bin").toFile();
+		SimpleVectorStore store = new SimpleVectorStore(this.embeddingModel);
+		store.add(List.of(new Document("1", "x", Map.of("country", "BG", "year", 2020)),
+				new Document("2", "xy", Map.of("country", "NL"))));
+		store.saveSnapshot(file);
+
+		SimpleVectorStore loaded = new SimpleVectorStore(this.embeddingModel);
+		loaded.loadSnapshot(file);
+
+		List<Document> results = loaded.similaritySearch(SearchRequest.query("x").withTopK(5));
+		assertThat(results).extracting(Document::getId).containsExactly("1", "2");
+		assertThat(results.get(0).getMetadata()).containsEntry("country", "BG").containsEntry("year", 2020);
+		assertThat(results.get(1).getEmbeddingAsFloatArray()).containsExactly(1, 1);
+		assertThat(loaded.similaritySearch(SearchRequest.query("y").withFilterExpression("country == 'NL'")))
+			.extracting(Document::getId)
+			.containsExactly("2");
+	}
+
+	@Test
+	public void savesLoadedSnapshotAsJson() {
+		File file = this.directory.resolve("store.bin").toFile();
+		SimpleVectorStore store = new SimpleVectorStore(this.embeddingModel);
+		store.add(List.of(new Document("1", "x", Map.of()), new Document("2", "xy", Map.of())));
+		store.saveSnapshot(file);
+
+		SimpleVectorStore loaded = new SimpleVectorStore(this.embeddingModel);
+		loaded.loadSnapshot(file);
+		File json = this.directory.resolve("store.json").toFile();
+		loaded.save(json);
+
+		SimpleVectorStore reloaded = new SimpleVectorStore(this.embeddingModel);
+		reloaded.load(json);
+		List<Document> results = reloaded.similaritySearch(SearchRequest.query("y").withTopK(1));
+		assertThat(results).extracting(Document::getId).containsExactly("2");
+		assertThat(results.get(0).getEmbeddingAsFloatArray()).containsExactly(1, 1);
+	}
+
+	@Test
+	public void appendsChangesToLoadedSnapshot() throws IOException {
+		File file = this.directory.resolve("store.bin").toFile();
+		SimpleVectorStore store = new SimpleVectorStore(this.embeddingModel);
+		store.add(List.of(new Document("1", "x", Map.of()), new Document("2", "xy", Map.of()),
+				new Document("3", "y", Map.of())));
+		store.saveSnapshot(file);
+		long fullLength = file.length();
+
+		// Bytes of an interrupted append are ignored and overwritten by the next one.
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.APPEND)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+		}
+
+		SimpleVectorStore loaded = new SimpleVectorStore(this.embeddingModel);
+		loaded.loadSnapshot(file);
+		loaded.delete(List.of("2"));
+		loaded.add(List.of(new Document("4", "xy", Map.of("updated", true))));
+		loaded.saveSnapshot(file);
+
+		assertThat(file.length()).isGreaterThan(fullLength);
+		SimpleVectorStore reloaded = new SimpleVectorStore(this.embeddingModel);
+		reloaded.loadSnapshot(file);
+		List<Document> results = reloaded.similaritySearch(SearchRequest.query("x").withTopK(5));
+		assertThat(results).extracting(Document::getId).containsExactly("1", "4", "3");
+		assertThat(results.get(1).getMetadata()).containsEntry("updated", true);
+	}
+
+	@Test
+	public void rewritesSnapshotOnceChangesOutweighContent() {
+		File file = this.directory.resolve("store.bin").toFile();
+		SimpleVectorStore store = new SimpleVectorStore(this.embeddingModel);
+		store.add(List.of(new Document("1", "x", Map.of())));
+		store.saveSnapshot(file);
+		long fullLength = file.length();
+
+		for (int i = 0; i < 4; i++) {
+			store.add(List.of(new Document("1", "x", Map.of())));
+			store.saveSnapshot(file);
+		}
+		assertThat(file.length()).isLessThan(fullLength * 3);
+
+		SimpleVectorStore loaded = new SimpleVectorStore(this.embeddingModel);
+		loaded.loadSnapshot(file);
+		assertThat(loaded.similaritySearch(SearchRequest.query("x"))).extracting(Document::getId).containsExactly("1");
+	}
+
+	@Test
+	public void loadsSnapshotIntoHnswIndex() {
+		File file = this.directory.resolve("store.bin").toFile();
+		SimpleVectorStore store = new SimpleVectorStore(this.embeddingModel);
+		store.add(List.of(new Document("1", "x", Map.of()), new Document("2", "y", Map.of())));
+		store.saveSnapshot(file);
+
+		SimpleVectorStore loaded = new SimpleVectorStore(this.embeddingModel, new TokenCountBatchingStrategy(),
+				HnswIndexConfig.defaultConfig());
+		loaded.loadSnapshot(file);
+		assertThat(loaded.similaritySearch(SearchRequest.query("y").withTopK(1))).extracting(Document::getId)
+			.containsExactly("2");
+	}
+
+	@Test
+	public void rejectsOtherFiles() throws IOException {
+		File file = this.directory.resolve("store.json").toFile();
+		Files.writeString(file.toPath(), "{ \"not\": \"a snapshot\" }");
+
+		SimpleVectorStore store = new SimpleVectorStore(this.embeddingModel);
+		assertThatThrownBy(() -> store.loadSnapshot(file)).hasCauseInstanceOf(IOException.class);
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SimpleVectorStoreTests {
+
+	private static final Map<String, float[]> VECTORS = Map.of("x", new float[] { 1, 0 }, "y", new float[] { 0, 1 },
+			"zero", new float[] { 0, 0 }, "xyz", new float[] { 1, 1, 1 });
+
+	private EmbeddingModel embeddingModel;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		this.embeddingModel = mock(EmbeddingModel.class);
+		when(this.embeddingModel.embed(anyList(), any(EmbeddingOptions.class), any(BatchingStrategy.class)))
+			.thenAnswer(invocation -> ((List<Document>) invocation.getArgument(0)).stream()
+				.map(document -> VECTORS.get(document.getContent()))
+				.toList());
+		when(this.embeddingModel.embedAsFloatArray(anyString()))
+			.thenAnswer(invocation -> VECTORS.get(invocation.<String>getArgument(0)));
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	public void rejectsInvalidBatchesWhole(boolean hnsw) {
+		SimpleVectorStore store = hnsw ? new SimpleVectorStore(this.embeddingModel, new TokenCountBatchingStrategy(),
+				HnswIndexConfig.builder().build()) : new SimpleVectorStore(this.embeddingModel);
+		store.add(List.of(new Document("1", "x", Map.of())));
+
+		assertThatThrownBy(
+				() -> store.add(List.of(new Document("2", "y", Map.of()), new Document("3", "zero", Map.of()))))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(
+				() -> store.add(List.of(new Document("4", "y", Map.of()), new Document("5", "xyz", Map.of()))))
+			.isInstanceOf(IllegalArgumentException.class);
+
+		assertThat(store.store).containsOnlyKeys("1");
+		assertThat(store.similaritySearch(SearchRequest.query("y").withTopK(10))).extracting(Document::getId)
+			.containsExactly("1");
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.vectorstore.filter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.vectorstore.filter.Filter.Expression;
+import org.springframework.ai.vectorstore.filter.Filter.ExpressionType;
+import org.springframework.ai.vectorstore.filter.Filter.Key;
+import org.springframework.ai.vectorstore.filter.Filter.Value;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FilterExpressionPredicateCompilerTests {
+
+	private static final Map<String, Object> BG_2020 = Map.of("country", "BG", "year", 2020, "price", 15.5, "isOpen",
+			true);
+
+	private static final Map<String, Object> NL_2019 = Map.of("country", "NL", "year", 2019L, "price", 21.0);
+
+	private final FilterExpressionTextParser parser = new FilterExpressionTextParser();
+
+	@Test
+	public void equality() {
+		assertMatches("country == 'BG'", true, false);
+		assertMatches("country != 'BG'", false, true);
+		assertMatches("year == 2019", false, true);
+		assertMatches("price == 21", false, true);
+		assertMatches("isOpen == true", true, false);
+		assertMatches("isOpen != true", false, true);
+	}
+
+	@Test
+	public void comparison() {
+		assertMatches("year >= 2020", true, false);
+		assertMatches("year > 2019", true, false);
+		assertMatches("year < 2020", false, true);
+		assertMatches("price <= 15.5", true, false);
+		assertMatches("country > 'C'", false, true);
+	}
+
+	@Test
+	public void inclusion() {
+		assertMatches("country in ['BG', 'US']", true, false);
+		assertMatches("country nin ['BG', 'US']", false, true);
+		assertMatches("year in [2019, 2021]", false, true);
+		assertMatches("isOpen in [true]", true, false);
+	}
+
+	@Test
+	public void booleanOperators() {
+		assertMatches("country == 'BG' && year >= 2020", true, false);
+		assertMatches("country == 'BG' || year == 2019", true, true);
+		assertMatches("(country == 'US' || year == 2019) && price > 20", false, true);
+		assertMatches("NOT (country == 'BG')", false, true);
+		assertMatches("NOT (country == 'BG' && year >= 2020)", false, true);
+	}
+
+	@Test
+	public void quotedAndNestedKeys() {
+		Predicate<Map<String, Object>> quoted = FilterExpressionPredicateCompiler
+			.compile(this.parser.parse("'country.1' == 'BG'"));
+		assertThat(quoted.test(Map.of("country.1", "BG"))).isTrue();
+		assertThat(quoted.test(Map.of("country", Map.of("1", "BG")))).isTrue();
+		assertThat(quoted.test(Map.of("country", "BG"))).isFalse();
+	}
+
+	@Test
+	public void builderExpressions() {
+		FilterExpressionBuilder b = new FilterExpressionBuilder();
+		Predicate<Map<String, Object>> predicate = FilterExpressionPredicateCompiler
+			.compile(b.and(b.in("country", "BG", "NL"), b.lt("year", 2020)).build());
+
+		assertThat(predicate.test(BG_2020)).isFalse();
+		assertThat(predicate.test(NL_2019)).isTrue();
+	}
+
+	@Test
+	public void missingKeys() {
+		assertMatches("isOpen == false", false, false);
+		assertMatches("isOpen != false", true, true);
+		assertMatches("city nin ['Sofia']", true, true);
+		assertMatches("city in ['Sofia']", false, false);
+		assertMatches("rating > 3", false, false);
+	}
+
+	@Test
+	public void invalidExpressions() {
+		assertThatThrownBy(() -> FilterExpressionPredicateCompiler
+			.compile(new Expression(ExpressionType.GT, new Key("isOpen"), new Value(true))))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> FilterExpressionPredicateCompiler
+			.compile(new Expression(ExpressionType.EQ, new Value("BG"), new Key("country"))))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> FilterExpressionPredicateCompiler
+			.compile(new Expression(ExpressionType.AND, new Key("a"), new Key("b"))))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private void assertMatches(String filter, boolean bg2020, boolean nl2019) {
+		Predicate<Map<String, Object>> predicate = FilterExpressionPredicateCompiler.compile(this.parser.parse(filter));
+		assertThat(predicate.test(BG_2020)).as(filter + " on BG_2020").isEqualTo(bg2020);
+		assertThat(predicate.test(NL_2019)).as(filter + " on NL_2019").isEqualTo(nl2019);
+	}
+
+}
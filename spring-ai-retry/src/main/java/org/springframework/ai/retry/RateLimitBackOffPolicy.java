@@ -0,0 +1,173 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.BackOffPolicy;
+import org.springframework.retry.backoff.Sleeper;
+import org.springframework.retry.backoff.ThreadWaitSleeper;
+import org.springframework.util.Assert;
+
+/**
+ * Exponential {@link BackOffPolicy} that honors the delay a rate limited server asks for.
+ * <p>
+ * When the last failure is a {@link TransientAiException} carrying a
+ * {@link TransientAiException#getRetryAfter() retry after} delay (as reported by the
+ * {@code Retry-After} or {@code x-ratelimit-reset-*} response headers), the policy waits
+ * for that long. Otherwise it waits for an exponentially growing interval. Both are
+ * randomized by the configured jitter so that concurrent clients hitting the same limit
+ * do not retry in lockstep. When used together with a {@link TimeBudgetRetryPolicy} the
+ * wait never exceeds the remaining time budget.
+ *
+ * @since 1.0.0
+ */
+public class RateLimitBackOffPolicy implements BackOffPolicy {
+
+	private final long initialInterval;
+
+	private final double multiplier;
+
+	private final long maxInterval;
+
+	private final double jitter;
+
+	private final Sleeper sleeper;
+
+	private RateLimitBackOffPolicy(Builder builder) {
+		this.initialInterval = builder.initialInterval.toMillis();
+		this.multiplier = builder.multiplier;
+		this.maxInterval = builder.maxInterval.toMillis();
+		this.jitter = builder.jitter;
+		this.sleeper = builder.sleeper;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public BackOffContext start(RetryContext context) {
+		return new RateLimitBackOffContext(context);
+	}
+
+	@Override
+	public void backOff(BackOffContext backOffContext) throws BackOffInterruptedException {
+		RateLimitBackOffContext context = (RateLimitBackOffContext) backOffContext;
+		Duration retryAfter = RetryUtils.getRetryAfter(context.retryContext.getLastThrowable());
+		long delay = Math.min(nextDelay(context.attempt++, retryAfter),
+				TimeBudgetRetryPolicy.getRemaining(context.retryContext).toMillis());
+		try {
+			this.sleeper.sleep(delay);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BackOffInterruptedException("Thread interrupted while sleeping", ex);
+		}
+	}
+
+	/**
+	 * Compute the delay before the next attempt.
+	 * @param attempt zero based number of the back off
+	 * @param retryAfter delay requested by the server, or {@code null}
+	 * @return the delay in milliseconds
+	 */
+	long nextDelay(int attempt, Duration retryAfter) {
+		double random = ThreadLocalRandom.current().nextDouble();
+		if (retryAfter != null) {
+			// The server knows when the limit resets, waiting less is pointless. Spread
+			// the retries after the reset instead.
+			long requested = Math.max(0, retryAfter.toMillis());
+			long spread = Math.min(Math.max(requested, 1), this.initialInterval);
+			return requested + (long) (this.jitter * random * spread);
+		}
+		double interval = Math.min(this.maxInterval, this.initialInterval * Math.pow(this.multiplier, attempt));
+		return (long) (interval * (1 - this.jitter * random));
+	}
+
+	private static class RateLimitBackOffContext implements BackOffContext {
+
+		private final RetryContext retryContext;
+
+		private int attempt;
+
+		RateLimitBackOffContext(RetryContext retryContext) {
+			this.retryContext = retryContext;
+		}
+
+	}
+
+	public static class Builder {
+
+		private Duration initialInterval = Duration.ofMillis(2000);
+
+		private double multiplier = 5;
+
+		private Duration maxInterval = Duration.ofMinutes(3);
+
+		private double jitter = 0.2;
+
+		private Sleeper sleeper = new ThreadWaitSleeper();
+
+		public Builder withInitialInterval(Duration initialInterval) {
+			Assert.notNull(initialInterval, "Initial interval must not be null");
+			Assert.isTrue(!initialInterval.isNegative(), "Initial interval must not be negative");
+			this.initialInterval = initialInterval;
+			return this;
+		}
+
+		public Builder withMultiplier(double multiplier) {
+			Assert.isTrue(multiplier >= 1, "Multiplier must be at least 1");
+			this.multiplier = multiplier;
+			return this;
+		}
+
+		public Builder withMaxInterval(Duration maxInterval) {
+			Assert.notNull(maxInterval, "Max interval must not be null");
+			Assert.isTrue(!maxInterval.isNegative(), "Max interval must not be negative");
+			this.maxInterval = maxInterval;
+			return this;
+		}
+
+		/**
+		 * @param jitter fraction, between 0 and 1, of each delay that is randomized
+		 * @return this builder
+		 */
+		public Builder withJitter(double jitter) {
+			Assert.isTrue(jitter >= 0 && jitter <= 1, "Jitter must be between 0 and 1");
+			this.jitter = jitter;
+			return this;
+		}
+
+		public Builder withSleeper(Sleeper sleeper) {
+			Assert.notNull(sleeper, "Sleeper must not be null");
+			this.sleeper = sleeper;
+			return this;
+		}
+
+		public RateLimitBackOffPolicy build() {
+			Assert.isTrue(this.initialInterval.compareTo(this.maxInterval) <= 0,
+					"Initial interval must not exceed the max interval");
+			return new RateLimitBackOffPolicy(this);
+		}
+
+	}
+
+}
@@ -18,22 +18,42 @@ package org.springframework.ai.retry;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.retry.RetryCallback;
 import org.springframework.retry.RetryContext;
 import org.springframework.retry.RetryListener;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.Assert;
 import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 /**
  * RetryUtils is a utility class for configuring and handling retry operations. It
- * provides a default RetryTemplate and a default ResponseErrorHandler.
+ * provides a default RetryTemplate, a default Reactor {@link Retry} for streaming calls
+ * and a default ResponseErrorHandler.
+ * <p>
+ * Rate limited (429) and unavailable (503) responses are retried, waiting for as long as
+ * the server asks through the {@code Retry-After}, {@code retry-after-ms} or
+ * {@code x-ratelimit-reset-*} response headers. Both retry flavors give up once a total
+ * time budget is spent.
  *
  * @author Christian Tzolov
  * @since 0.8.1
@@ -42,18 +62,43 @@ public abstract class RetryUtils {
 
 	private static final Logger logger = LoggerFactory.getLogger(RetryUtils.class);
 
-	public static final RetryTemplate DEFAULT_RETRY_TEMPLATE = RetryTemplate.builder()
-		.maxAttempts(10)
-		.retryOn(TransientAiException.class)
-		.exponentialBackoff(Duration.ofMillis(2000), 5, Duration.ofMillis(3 * 60000))
-		.withListener(new RetryListener() {
-			@Override
-			public <T extends Object, E extends Throwable> void onError(RetryContext context,
-					RetryCallback<T, E> callback, Throwable throwable) {
-				logger.warn("Retry error. Retry count:" + context.getRetryCount(), throwable);
-			};
-		})
-		.build();
+	private static final String RETRY_AFTER_MS_HEADER = "retry-after-ms";
+
+	private static final String REQUESTS_REMAINING_HEADER = "x-ratelimit-remaining-requests";
+
+	private static final String REQUESTS_RESET_HEADER = "x-ratelimit-reset-requests";
+
+	private static final String TOKENS_REMAINING_HEADER = "x-ratelimit-remaining-tokens";
+
+	private static final String TOKENS_RESET_HEADER = "x-ratelimit-reset-tokens";
+
+	/**
+	 * Matches the reset durations in the format used by OpenAI, e.g. {@code 20ms},
+	 * {@code 1.5s} or {@code 6m0s}.
+	 */
+	private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ns|us|µs|ms|h|m|s|d)");
+
+	private static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+	private static final Duration DEFAULT_RETRY_BUDGET = Duration.ofMinutes(10);
+
+	/**
+	 * Reactor counterpart of the {@link #DEFAULT_RETRY_TEMPLATE} for streaming calls.
+	 */
+	public static final Retry DEFAULT_STREAM_RETRY = streamRetry(DEFAULT_MAX_ATTEMPTS, DEFAULT_RETRY_BUDGET,
+			RateLimitBackOffPolicy.builder().build());
+
+	/**
+	 * Fails with the failure of the first attempt.
+	 */
+	private static final Retry NO_STREAM_RETRY = Retry.max(0)
+		.onRetryExhaustedThrow((retrySpec, signal) -> signal.failure());
+
+	/**
+	 * Default retry template, a {@link StreamingRetryTemplate} holding the
+	 * {@link #DEFAULT_STREAM_RETRY}.
+	 */
+	public static final RetryTemplate DEFAULT_RETRY_TEMPLATE = defaultRetryTemplate();
 
 	public static final ResponseErrorHandler DEFAULT_RESPONSE_ERROR_HANDLER = new ResponseErrorHandler() {
 
@@ -68,17 +113,220 @@ public abstract class RetryUtils {
 				String error = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
 				String message = String.format("%s - %s", response.getStatusCode().value(), error);
 				/**
-				 * Thrown on 4xx client errors, such as 401 - Incorrect API key provided,
-				 * 401 - You must be a member of an organization to use the API, 429 -
-				 * Rate limit reached for requests, 429 - You exceeded your current quota
-				 * , please check your plan and billing details.
+				 * 4xx client errors, such as 401 - Incorrect API key provided, 401 - You
+				 * must be a member of an organization to use the API or 429 - You
+				 * exceeded your current quota, please check your plan and billing
+				 * details, are non-transient. 429 - Rate limit reached for requests and
+				 * 503 - The engine is currently overloaded are retried once the server
+				 * says the limit resets.
 				 */
-				if (response.getStatusCode().is4xxClientError()) {
-					throw new NonTransientAiException(message);
+				if (isTransient(response.getStatusCode(), error)) {
+					throw new TransientAiException(message, getRetryAfter(response.getHeaders()));
 				}
-				throw new TransientAiException(message);
+				throw new NonTransientAiException(message);
 			}
 		}
 	};
 
+	private static RetryTemplate defaultRetryTemplate() {
+		RetryTemplate retryTemplate = new StreamingRetryTemplate(
+				new TimeBudgetRetryPolicy(DEFAULT_MAX_ATTEMPTS, DEFAULT_RETRY_BUDGET),
+				RateLimitBackOffPolicy.builder().build(), DEFAULT_STREAM_RETRY);
+		retryTemplate.registerListener(new RetryListener() {
+			@Override
+			public <T extends Object, E extends Throwable> void onError(RetryContext context,
+					RetryCallback<T, E> callback, Throwable throwable) {
+				logger.warn("Retry error. Retry count:" + context.getRetryCount(), throwable);
+			};
+		});
+		return retryTemplate;
+	}
+
+	/**
+	 * Get the Reactor {@link Retry} for the streaming calls of a model configured with
+	 * the given retry template. Only a {@link StreamingRetryTemplate} tells how to retry
+	 * streams, the streams of a model configured with another template are not retried
+	 * rather than retried with settings that differ from the configured ones.
+	 * @param retryTemplate the retry template of the model
+	 * @return the retry specification
+	 */
+	public static Retry streamRetry(RetryTemplate retryTemplate) {
+		Assert.notNull(retryTemplate, "RetryTemplate must not be null");
+		if (retryTemplate instanceof StreamingRetryTemplate streamingRetryTemplate) {
+			return streamingRetryTemplate.getStreamRetry();
+		}
+		return NO_STREAM_RETRY;
+	}
+
+	/**
+	 * Create a Reactor {@link Retry} that retries transient failures of streaming calls,
+	 * without a time budget.
+	 * @param maxAttempts maximum number of attempts, including the first one
+	 * @param backOffPolicy computes the delay between attempts
+	 * @return the retry specification
+	 * @see #streamRetry(int, Duration, RateLimitBackOffPolicy)
+	 */
+	public static Retry streamRetry(int maxAttempts, RateLimitBackOffPolicy backOffPolicy) {
+		return streamRetry(maxAttempts, null, backOffPolicy);
+	}
+
+	/**
+	 * Create a Reactor {@link Retry} that retries transient failures of streaming calls
+	 * the same way the {@link #DEFAULT_RETRY_TEMPLATE} does for blocking calls. Besides
+	 * {@link TransientAiException}s it retries {@link WebClientResponseException}s with a
+	 * transient status and {@link WebClientRequestException}s, which streaming clients
+	 * raise before the first element is received. The time budget starts with each
+	 * subscription.
+	 * @param maxAttempts maximum number of attempts, including the first one
+	 * @param budget total time budget of all attempts, {@code null} for no budget
+	 * @param backOffPolicy computes the delay between attempts
+	 * @return the retry specification
+	 */
+	public static Retry streamRetry(int maxAttempts, Duration budget, RateLimitBackOffPolicy backOffPolicy) {
+		Assert.isTrue(maxAttempts > 0, "Max attempts must be positive");
+		Assert.notNull(backOffPolicy, "Back off policy must not be null");
+		return Retry.from(signals -> {
+			long start = System.nanoTime();
+			return signals.map(Retry.RetrySignal::copy).concatMap(signal -> {
+				Throwable failure = signal.failure();
+				if (!isTransient(failure) || signal.totalRetries() + 1 >= maxAttempts) {
+					return Mono.<Retry.RetrySignal>error(failure);
+				}
+				Duration retryAfter = getRetryAfter(failure);
+				long remaining = (budget != null)
+						? budget.toMillis() - Duration.ofNanos(System.nanoTime() - start).toMillis() : Long.MAX_VALUE;
+				if (remaining <= 0 || (retryAfter != null && retryAfter.toMillis() > remaining)) {
+					return Mono.<Retry.RetrySignal>error(failure);
+				}
+				long delay = Math.min(backOffPolicy.nextDelay((int) signal.totalRetries(), retryAfter), remaining);
+				logger.warn("Retry error. Retry count:" + (signal.totalRetries() + 1), failure);
+				return Mono.delay(Duration.ofMillis(delay)).thenReturn(signal);
+			});
+		});
+	}
+
+	/**
+	 * @param throwable a failed call
+	 * @return whether the call might succeed when retried
+	 */
+	public static boolean isTransient(Throwable throwable) {
+		if (throwable instanceof TransientAiException) {
+			return true;
+		}
+		if (throwable instanceof WebClientResponseException ex) {
+			return isTransient(ex.getStatusCode(), ex.getResponseBodyAsString());
+		}
+		return throwable instanceof WebClientRequestException;
+	}
+
+	private static boolean isTransient(HttpStatusCode status, String body) {
+		if (status.value() == 429) {
+			// Retrying does not help once the quota of the account is exhausted.
+			return body == null || !body.contains("insufficient_quota");
+		}
+		return status.is5xxServerError();
+	}
+
+	/**
+	 * @param throwable a failed call, may be {@code null}
+	 * @return the delay the server asked to wait before retrying the call, or
+	 * {@code null} if the server did not say
+	 */
+	public static Duration getRetryAfter(Throwable throwable) {
+		if (throwable instanceof TransientAiException ex) {
+			return ex.getRetryAfter();
+		}
+		if (throwable instanceof WebClientResponseException ex && isTransient(ex)) {
+			return getRetryAfter(ex.getHeaders());
+		}
+		return null;
+	}
+
+	/**
+	 * Determine how long to wait before retrying from the response headers. The standard
+	 * {@code Retry-After} header, in seconds or as an HTTP date, and its millisecond
+	 * precision {@code retry-after-ms} variant take precedence. Otherwise the reset time
+	 * of the exhausted {@code x-ratelimit-reset-requests} or
+	 * {@code x-ratelimit-reset-tokens} limit is used, or the later of the two if it is
+	 * unknown which limit was hit.
+	 * @param headers the response headers
+	 * @return the delay, or {@code null} if the headers do not specify it
+	 */
+	public static Duration getRetryAfter(HttpHeaders headers) {
+		Duration retryAfter = parseSeconds(headers.getFirst(RETRY_AFTER_MS_HEADER), 0.001);
+		if (retryAfter != null) {
+			return retryAfter;
+		}
+		String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+		retryAfter = parseSeconds(value, 1);
+		if (retryAfter != null) {
+			return retryAfter;
+		}
+		if (StringUtils.hasText(value)) {
+			try {
+				Instant date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+				Duration delay = Duration.between(Instant.now(), date);
+				return delay.isNegative() ? Duration.ZERO : delay;
+			}
+			catch (DateTimeParseException ex) {
+				logger.debug("Ignoring invalid {} header: {}", HttpHeaders.RETRY_AFTER, value);
+			}
+		}
+		Duration requestsReset = parseDuration(headers.getFirst(REQUESTS_RESET_HEADER));
+		Duration tokensReset = parseDuration(headers.getFirst(TOKENS_RESET_HEADER));
+		boolean requestsExhausted = isZero(headers.getFirst(REQUESTS_REMAINING_HEADER));
+		boolean tokensExhausted = isZero(headers.getFirst(TOKENS_REMAINING_HEADER));
+		if (requestsExhausted != tokensExhausted) {
+			return requestsExhausted ? requestsReset : tokensReset;
+		}
+		if (requestsReset == null || (tokensReset != null && tokensReset.compareTo(requestsReset) > 0)) {
+			return tokensReset;
+		}
+		return requestsReset;
+	}
+
+	private static Duration parseSeconds(String value, double unit) {
+		if (!StringUtils.hasText(value)) {
+			return null;
+		}
+		try {
+			double seconds = Double.parseDouble(value.trim()) * unit;
+			return seconds > 0 ? Duration.ofNanos((long) (seconds * 1_000_000_000L)) : Duration.ZERO;
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	private static Duration parseDuration(String value) {
+		if (!StringUtils.hasText(value)) {
+			return null;
+		}
+		Duration seconds = parseSeconds(value, 1);
+		if (seconds != null) {
+			return seconds;
+		}
+		Matcher matcher = DURATION_PART.matcher(value);
+		Duration total = null;
+		while (matcher.find()) {
+			double amount = Double.parseDouble(matcher.group(1));
+			long nanosPerUnit = switch (matcher.group(2)) {
+				case "ns" -> 1L;
+				case "us", "µs" -> 1_000L;
+				case "ms" -> 1_000_000L;
+				case "s" -> 1_000_000_000L;
+				case "m" -> 60_000_000_000L;
+				case "h" -> 3_600_000_000_000L;
+				default -> 86_400_000_000_000L;
+			};
+			Duration part = Duration.ofNanos((long) (amount * nanosPerUnit));
+			total = (total != null) ? total.plus(part) : part;
+		}
+		return total;
+	}
+
+	private static boolean isZero(String value) {
+		return value != null && value.trim().equals("0");
+	}
+
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.retry;
+
+import reactor.util.retry.Retry;
+
+import org.springframework.retry.RetryPolicy;
+import org.springframework.retry.backoff.BackOffPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * {@link RetryTemplate} that also holds the Reactor {@link Retry} applying the same
+ * settings to streaming calls, which a blocking template cannot retry. The chat models
+ * retry their streams with {@link RetryUtils#streamRetry(RetryTemplate)}, so that both
+ * kinds of calls follow the configured settings.
+ *
+ * @since 1.0.0
+ */
+public class StreamingRetryTemplate extends RetryTemplate {
+
+	private final Retry streamRetry;
+
+	/**
+	 * @param retryPolicy decides whether blocking calls are retried
+	 * @param backOffPolicy computes the delay between the attempts of blocking calls
+	 * @param streamRetry retries the streaming calls
+	 */
+	public StreamingRetryTemplate(RetryPolicy retryPolicy, BackOffPolicy backOffPolicy, Retry streamRetry) {
+		Assert.notNull(retryPolicy, "Retry policy must not be null");
+		Assert.notNull(backOffPolicy, "Back off policy must not be null");
+		Assert.notNull(streamRetry, "Stream retry must not be null");
+		setRetryPolicy(retryPolicy);
+		setBackOffPolicy(backOffPolicy);
+		this.streamRetry = streamRetry;
+	}
+
+	/**
+	 * @return the Reactor {@link Retry} for streaming calls
+	 */
+	public Retry getStreamRetry() {
+		return this.streamRetry;
+	}
+
+}
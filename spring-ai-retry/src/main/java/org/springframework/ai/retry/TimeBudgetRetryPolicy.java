@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.retry;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.util.Assert;
+
+/**
+ * Retry policy that retries {@link TransientAiException}s up to a maximum number of
+ * attempts and within a total time budget. A retry is given up early when the server asks
+ * to wait longer than the remaining budget, rather than sleeping only to fail.
+ *
+ * @since 1.0.0
+ * @see RateLimitBackOffPolicy
+ */
+public class TimeBudgetRetryPolicy extends SimpleRetryPolicy {
+
+	private static final String DEADLINE_ATTRIBUTE = TimeBudgetRetryPolicy.class.getName() + ".deadline";
+
+	private final Duration budget;
+
+	public TimeBudgetRetryPolicy(int maxAttempts, Duration budget) {
+		super(maxAttempts, Map.of(TransientAiException.class, true));
+		Assert.notNull(budget, "Budget must not be null");
+		Assert.isTrue(!budget.isNegative(), "Budget must not be negative");
+		this.budget = budget;
+	}
+
+	public Duration getBudget() {
+		return this.budget;
+	}
+
+	@Override
+	public RetryContext open(RetryContext parent) {
+		RetryContext context = super.open(parent);
+		context.setAttribute(DEADLINE_ATTRIBUTE, System.nanoTime() + this.budget.toNanos());
+		return context;
+	}
+
+	@Override
+	public boolean canRetry(RetryContext context) {
+		if (!super.canRetry(context)) {
+			return false;
+		}
+		Duration retryAfter = RetryUtils.getRetryAfter(context.getLastThrowable());
+		Duration remaining = getRemaining(context);
+		return !remaining.isNegative() && !remaining.isZero()
+				&& (retryAfter == null || retryAfter.compareTo(remaining) <= 0);
+	}
+
+	/**
+	 * @param context the retry context
+	 * @return the time left in the budget of the given retry, or {@code Long.MAX_VALUE}
+	 * milliseconds when the retry is not governed by a time budget
+	 */
+	static Duration getRemaining(RetryContext context) {
+		Object deadline = context.getAttribute(DEADLINE_ATTRIBUTE);
+		if (deadline == null) {
+			return Duration.ofMillis(Long.MAX_VALUE);
+		}
+		return Duration.ofNanos(Math.max(0, (Long) deadline - System.nanoTime()));
+	}
+
+	@Override
+	public String toString() {
+		return "TimeBudgetRetryPolicy[maxAttempts=" + getMaxAttempts() + ", budget=" + this.budget + "]";
+	}
+
+}
@@ -15,6 +15,8 @@
  */
 package org.springframework.ai.retry;
 
+import java.time.Duration;
+
 /**
  * Root of the hierarchy of Model access exceptions that are considered transient - where
  * a previously failed operation might be able to succeed when the operation is retried
@@ -25,12 +27,34 @@ package org.springframework.ai.retry;
  */
 public class TransientAiException extends RuntimeException {
 
+	private final Duration retryAfter;
+
 	public TransientAiException(String message) {
-		super(message);
+		this(message, (Duration) null);
 	}
 
 	public TransientAiException(String message, Throwable cause) {
 		super(message, cause);
+		this.retryAfter = null;
+	}
+
+	/**
+	 * Create a new exception for a failure that the server asked to retry no earlier than
+	 * after the given delay, e.g. a 429 response with a {@code Retry-After} header.
+	 * @param message the detail message
+	 * @param retryAfter minimal delay before the next attempt, or {@code null} if unknown
+	 */
+	public TransientAiException(String message, Duration retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * @return the delay the server asked to wait before retrying, or {@code null} if the
+	 * server did not say
+	 */
+	public Duration getRetryAfter() {
+		return this.retryAfter;
 	}
 
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2023 - 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.retry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RetryUtilsTests {
+
+	@Test
+	public void classifiesRateLimitsAsTransient() {
+		MockClientHttpResponse response = new MockClientHttpResponse(
+				"{\"error\": {\"code\": \"rate_limit_exceeded\"}}".getBytes(StandardCharsets.UTF_8),
+				HttpStatus.TOO_MANY_REQUESTS);
+		response.getHeaders().set(HttpHeaders.RETRY_AFTER, "7");
+
+		assertThatThrownBy(() -> RetryUtils.DEFAULT_RESPONSE_ERROR_HANDLER.handleError(response))
+			.isInstanceOfSatisfying(TransientAiException.class,
+					ex -> assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(7)));
+	}
+
+	@Test
+	public void classifiesExhaustedQuotaAndClientErrorsAsNonTransient() {
+		MockClientHttpResponse quota = new MockClientHttpResponse(
+				"{\"error\": {\"code\": \"insufficient_quota\"}}".getBytes(StandardCharsets.UTF_8),
+				HttpStatus.TOO_MANY_REQUESTS);
+		MockClientHttpResponse unauthorized = new MockClientHttpResponse(new byte[0], HttpStatus.UNAUTHORIZED);
+
+		assertThatThrownBy(() -> RetryUtils.DEFAULT_RESPONSE_ERROR_HANDLER.handleError(quota))
+			.isInstanceOf(NonTransientAiException.class);
+		assertThatThrownBy(() -> RetryUtils.DEFAULT_RESPONSE_ERROR_HANDLER.handleError(unauthorized))
+			.isInstanceOf(NonTransientAiException.class);
+	}
+
+	@Test
+	public void readsRetryAfterFromHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		assertThat(RetryUtils.getRetryAfter(headers)).isNull();
+
+		headers.set("x-ratelimit-remaining-requests", "10");
+		headers.set("x-ratelimit-reset-requests", "6m0s");
+		headers.set("x-ratelimit-remaining-tokens", "0");
+		headers.set("x-ratelimit-reset-tokens", "1.5s");
+		assertThat(RetryUtils.getRetryAfter(headers)).isEqualTo(Duration.ofMillis(1500));
+
+		headers.remove("x-ratelimit-remaining-tokens");
+		assertThat(RetryUtils.getRetryAfter(headers)).isEqualTo(Duration.ofMinutes(6));
+
+		headers.set("retry-after-ms", "250");
+		assertThat(RetryUtils.getRetryAfter(headers)).isEqualTo(Duration.ofMillis(250));
+
+		HttpHeaders dated = new HttpHeaders();
+		dated.setZonedDateTime(HttpHeaders.RETRY_AFTER, ZonedDateTime.now().plusMinutes(2));
+		assertThat(RetryUtils.getRetryAfter(dated)).isBetween(Duration.ofSeconds(100), Duration.ofMinutes(2));
+	}
+
+	@Test
+	public void backsOffForRequestedDelay() {
+		List<Long> sleeps = new ArrayList<>();
+		RetryTemplate retryTemplate = RetryTemplate.builder()
+			.customPolicy(new TimeBudgetRetryPolicy(5, Duration.ofMinutes(1)))
+			.customBackoff(RateLimitBackOffPolicy.builder().withJitter(0).withSleeper(sleeps::add).build())
+			.build();
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = retryTemplate.execute(context -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw new TransientAiException("429", Duration.ofSeconds(3));
+			}
+			if (attempts.get() == 2) {
+				throw new TransientAiException("503");
+			}
+			return "ok";
+		});
+
+		assertThat(result).isEqualTo("ok");
+		assertThat(sleeps).containsExactly(3000L, 10000L);
+	}
+
+	@Test
+	public void givesUpWhenRequestedDelayExceedsBudget() {
+		List<Long> sleeps = new ArrayList<>();
+		RetryTemplate retryTemplate = RetryTemplate.builder()
+			.customPolicy(new TimeBudgetRetryPolicy(5, Duration.ofSeconds(30)))
+			.customBackoff(RateLimitBackOffPolicy.builder().withSleeper(sleeps::add).build())
+			.build();
+
+		assertThatThrownBy(() -> retryTemplate.execute(context -> {
+			throw new TransientAiException("429", Duration.ofMinutes(1));
+		})).isInstanceOf(TransientAiException.class);
+		assertThat(sleeps).isEmpty();
+	}
+
+	@Test
+	public void jittersBackOff() {
+		RateLimitBackOffPolicy backOffPolicy = RateLimitBackOffPolicy.builder()
+			.withInitialInterval(Duration.ofSeconds(1))
+			.withMultiplier(2)
+			.withMaxInterval(Duration.ofSeconds(5))
+			.withJitter(0.5)
+			.build();
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(backOffPolicy.nextDelay(1, null)).isBetween(1000L, 2000L);
+			assertThat(backOffPolicy.nextDelay(10, null)).isBetween(2500L, 5000L);
+			assertThat(backOffPolicy.nextDelay(0, Duration.ofSeconds(10))).isBetween(10000L, 10500L);
+		}
+	}
+
+	@Test
+	public void retriesStreamsOnTransientStatus() {
+		AtomicInteger attempts = new AtomicInteger();
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("retry-after-ms", "10");
+		WebClientResponseException tooManyRequests = WebClientResponseException.create(429, "Too Many Requests",
+				headers, new byte[0], null);
+		Flux<String> stream = Flux
+			.defer(() -> attempts.incrementAndGet() < 3 ? Flux.<String>error(tooManyRequests) : Flux.just("a", "b"));
+
+		List<String> result = stream
+			.retryWhen(RetryUtils.streamRetry(5, Duration.ofSeconds(10), RateLimitBackOffPolicy.builder().build()))
+			.collectList()
+			.block();
+
+		assertThat(result).containsExactly("a", "b");
+		assertThat(attempts).hasValue(3);
+	}
+
+	@Test
+	public void doesNotRetryStreamsOnClientErrors() {
+		AtomicInteger attempts = new AtomicInteger();
+		Flux<String> stream = Flux.defer(() -> {
+			attempts.incrementAndGet();
+			return Flux
+				.error(WebClientResponseException.create(400, "Bad Request", new HttpHeaders(), new byte[0], null));
+		});
+
+		assertThatThrownBy(() -> stream.retryWhen(RetryUtils.DEFAULT_STREAM_RETRY).blockLast())
+			.isInstanceOf(WebClientResponseException.class);
+		assertThat(attempts).hasValue(1);
+	}
+
+	@Test
+	public void retriesStreamsWithTheSettingsOfTheRetryTemplate() {
+		WebClientResponseException unavailable = WebClientResponseException.create(503, "Service Unavailable",
+				new HttpHeaders(), new byte[0], null);
+		RateLimitBackOffPolicy backOffPolicy = RateLimitBackOffPolicy.builder()
+			.withInitialInterval(Duration.ofMillis(1))
+			.withMaxInterval(Duration.ofMillis(1))
+			.build();
+		RetryTemplate retryTemplate = new StreamingRetryTemplate(new TimeBudgetRetryPolicy(2, Duration.ofSeconds(10)),
+				backOffPolicy, RetryUtils.streamRetry(2, backOffPolicy));
+
+		AtomicInteger attempts = new AtomicInteger();
+		Flux<String> stream = Flux.defer(() -> {
+			attempts.incrementAndGet();
+			return Flux.<String>error(unavailable);
+		});
+		assertThatThrownBy(() -> stream.retryWhen(RetryUtils.streamRetry(retryTemplate)).blockLast())
+			.isSameAs(unavailable);
+		assertThat(attempts).hasValue(2);
+
+		// The stream settings of other templates are unknown, the streams are not retried
+		attempts.set(0);
+		assertThatThrownBy(() -> stream.retryWhen(RetryUtils.streamRetry(RetryTemplate.builder().build())).blockLast())
+			.isSameAs(unavailable);
+		assertThat(attempts).hasValue(1);
+		assertThat(RetryUtils.streamRetry(RetryUtils.DEFAULT_RETRY_TEMPLATE)).isSameAs(RetryUtils.DEFAULT_STREAM_RETRY);
+	}
+
+}
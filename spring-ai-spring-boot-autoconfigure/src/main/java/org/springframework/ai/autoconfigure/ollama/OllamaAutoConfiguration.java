@@ -66,7 +66,10 @@ public class OllamaAutoConfiguration {
 			matchIfMissing = true)
 	public OllamaEmbeddingModel ollamaEmbeddingModel(OllamaApi ollamaApi, OllamaEmbeddingProperties properties) {
 
-		return new OllamaEmbeddingModel(ollamaApi, properties.getOptions());
+		OllamaEmbeddingModel embeddingModel = new OllamaEmbeddingModel(ollamaApi, properties.getOptions());
+		embeddingModel.setBatchSize(properties.getBatchSize());
+		embeddingModel.setMaxConcurrentRequests(properties.getMaxConcurrentRequests());
+		return embeddingModel;
 	}
 
 	private static class PropertiesOllamaConnectionDetails implements OllamaConnectionDetails {
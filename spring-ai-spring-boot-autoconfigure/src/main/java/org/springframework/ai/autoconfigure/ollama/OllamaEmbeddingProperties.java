@@ -15,6 +15,7 @@
  */
 package org.springframework.ai.autoconfigure.ollama;
 
+import org.springframework.ai.ollama.OllamaEmbeddingModel;
 import org.springframework.ai.ollama.api.OllamaOptions;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -43,6 +44,17 @@ public class OllamaEmbeddingProperties {
 	@NestedConfigurationProperty
 	private OllamaOptions options = OllamaOptions.create().withModel(OllamaOptions.DEFAULT_MODEL);
 
+	/**
+	 * Maximum number of texts embedded in a single request, when the server supports
+	 * batch embedding.
+	 */
+	private int batchSize = OllamaEmbeddingModel.DEFAULT_BATCH_SIZE;
+
+	/**
+	 * Maximum number of embedding requests sent to the server at once.
+	 */
+	private int maxConcurrentRequests = OllamaEmbeddingModel.DEFAULT_MAX_CONCURRENT_REQUESTS;
+
 	public String getModel() {
 		return this.options.getModel();
 	}
@@ -55,6 +67,22 @@ public class OllamaEmbeddingProperties {
 		return this.options;
 	}
 
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public int getMaxConcurrentRequests() {
+		return this.maxConcurrentRequests;
+	}
+
+	public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+		this.maxConcurrentRequests = maxConcurrentRequests;
+	}
+
 	public void setEnabled(boolean enabled) {
 		this.enabled = enabled;
 	}
@@ -43,7 +43,10 @@ public class PostgresMlAutoConfiguration {
 	public PostgresMlEmbeddingModel postgresMlEmbeddingModel(JdbcTemplate jdbcTemplate,
 			PostgresMlEmbeddingProperties embeddingProperties) {
 
-		return new PostgresMlEmbeddingModel(jdbcTemplate, embeddingProperties.getOptions());
+		PostgresMlEmbeddingModel embeddingModel = new PostgresMlEmbeddingModel(jdbcTemplate,
+				embeddingProperties.getOptions());
+		embeddingModel.setBatchSize(embeddingProperties.getBatchSize());
+		return embeddingModel;
 	}
 
 }
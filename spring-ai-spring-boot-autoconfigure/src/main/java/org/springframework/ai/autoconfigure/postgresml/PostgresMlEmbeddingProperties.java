@@ -40,6 +40,11 @@ public class PostgresMlEmbeddingProperties {
 	 */
 	private boolean enabled = true;
 
+	/**
+	 * The maximum number of texts embedded by a single query.
+	 */
+	private int batchSize = PostgresMlEmbeddingModel.DEFAULT_BATCH_SIZE;
+
 	@NestedConfigurationProperty
 	private PostgresMlEmbeddingOptions options = PostgresMlEmbeddingOptions.builder()
 		.withTransformer(PostgresMlEmbeddingModel.DEFAULT_TRANSFORMER_MODEL)
@@ -70,4 +75,12 @@ public class PostgresMlEmbeddingProperties {
 		this.enabled = enabled;
 	}
 
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
 }
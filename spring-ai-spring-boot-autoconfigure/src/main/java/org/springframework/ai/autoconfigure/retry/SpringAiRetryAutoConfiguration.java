@@ -20,14 +20,20 @@ import java.nio.charset.StandardCharsets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.util.retry.Retry;
 
 import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.RateLimitBackOffPolicy;
+import org.springframework.ai.retry.RetryUtils;
+import org.springframework.ai.retry.StreamingRetryTemplate;
+import org.springframework.ai.retry.TimeBudgetRetryPolicy;
 import org.springframework.ai.retry.TransientAiException;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.retry.RetryCallback;
@@ -51,19 +57,29 @@ public class SpringAiRetryAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	public RetryTemplate retryTemplate(SpringAiRetryProperties properties) {
-		return RetryTemplate.builder()
-			.maxAttempts(properties.getMaxAttempts())
-			.retryOn(NonTransientAiException.class)
-			.exponentialBackoff(properties.getBackoff().getInitialInterval(), properties.getBackoff().getMultiplier(),
-					properties.getBackoff().getMaxInterval())
-			.withListener(new RetryListener() {
-				@Override
-				public <T extends Object, E extends Throwable> void onError(RetryContext context,
-						RetryCallback<T, E> callback, Throwable throwable) {
-					logger.warn("Retry error. Retry count:" + context.getRetryCount(), throwable);
-				};
-			})
+		SpringAiRetryProperties.Backoff backoff = properties.getBackoff();
+		RateLimitBackOffPolicy backOffPolicy = RateLimitBackOffPolicy.builder()
+			.withInitialInterval(backoff.getInitialInterval())
+			.withMultiplier(backoff.getMultiplier())
+			.withMaxInterval(backoff.getMaxInterval())
+			.withJitter(backoff.getJitter())
 			.build();
+
+		// The blocking and the streaming calls retry the same transient failures, within
+		// the same time budget and with the same back off
+		Retry streamRetry = RetryUtils.streamRetry(properties.getMaxAttempts(), properties.getTimeBudget(),
+				backOffPolicy);
+		RetryTemplate retryTemplate = new StreamingRetryTemplate(
+				new TimeBudgetRetryPolicy(properties.getMaxAttempts(), properties.getTimeBudget()), backOffPolicy,
+				streamRetry);
+		retryTemplate.registerListener(new RetryListener() {
+			@Override
+			public <T extends Object, E extends Throwable> void onError(RetryContext context,
+					RetryCallback<T, E> callback, Throwable throwable) {
+				logger.warn("Retry error. Retry count:" + context.getRetryCount(), throwable);
+			};
+		});
+		return retryTemplate;
 	}
 
 	@Bean
@@ -81,11 +97,25 @@ public class SpringAiRetryAutoConfiguration {
 			public void handleError(@NonNull ClientHttpResponse response) throws IOException {
 				if (response.getStatusCode().isError()) {
 					String error = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
-					String message = String.format("%s - %s", response.getStatusCode().value(), error);
+					int status = response.getStatusCode().value();
+					String message = String.format("%s - %s", status, error);
 
 					// Explicitly configured transient codes
-					if (properties.getOnHttpCodes().contains(response.getStatusCode().value())) {
-						throw new TransientAiException(message);
+					if (properties.getOnHttpCodes().contains(status)) {
+						throw new TransientAiException(message, RetryUtils.getRetryAfter(response.getHeaders()));
+					}
+
+					// Explicitly configured non-transient codes
+					if (!CollectionUtils.isEmpty(properties.getExcludeOnHttpCodes())
+							&& properties.getExcludeOnHttpCodes().contains(status)) {
+						throw new NonTransientAiException(message);
+					}
+
+					// Rate limited and overloaded servers ask to retry later, whatever
+					// onClientErrors says
+					if (status == HttpStatus.TOO_MANY_REQUESTS.value()
+							|| status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+						throw new TransientAiException(message, RetryUtils.getRetryAfter(response.getHeaders()));
 					}
 
 					// onClientErrors - If true, do not throw a NonTransientAiException,
@@ -94,13 +124,7 @@ public class SpringAiRetryAutoConfiguration {
 					if (!properties.isOnClientErrors() && response.getStatusCode().is4xxClientError()) {
 						throw new NonTransientAiException(message);
 					}
-
-					// Explicitly configured non-transient codes
-					if (!CollectionUtils.isEmpty(properties.getExcludeOnHttpCodes())
-							&& properties.getExcludeOnHttpCodes().contains(response.getStatusCode().value())) {
-						throw new NonTransientAiException(message);
-					}
-					throw new TransientAiException(message);
+					throw new TransientAiException(message, RetryUtils.getRetryAfter(response.getHeaders()));
 				}
 			}
 		};
@@ -35,6 +35,12 @@ public class SpringAiRetryProperties {
 	 */
 	private int maxAttempts = 10;
 
+	/**
+	 * Total time budget of a call and its retries. No retry is attempted once it is
+	 * spent, nor when the server asks to wait beyond it.
+	 */
+	private Duration timeBudget = Duration.ofMinutes(10);
+
 	/**
 	 * Exponential Backoff properties.
 	 */
@@ -44,7 +50,7 @@ public class SpringAiRetryProperties {
 	/**
 	 * If false, throw a NonTransientAiException, and do not attempt retry for 4xx client
 	 * error codes. False by default. If true, throw a TransientAiException, and attempt
-	 * retry for 4xx client.
+	 * retry for 4xx client. Rate limited (429) responses are retried either way.
 	 */
 	private boolean onClientErrors = false;
 
@@ -79,6 +85,12 @@ public class SpringAiRetryProperties {
 		 */
 		private Duration maxInterval = Duration.ofMillis(3 * 60000);
 
+		/**
+		 * Fraction, between 0 and 1, of each backoff duration that is randomized so that
+		 * the clients hitting the same rate limit do not retry in lockstep.
+		 */
+		private double jitter = 0.2;
+
 		public Duration getInitialInterval() {
 			return initialInterval;
 		}
@@ -103,6 +115,14 @@ public class SpringAiRetryProperties {
 			this.maxInterval = maxInterval;
 		}
 
+		public double getJitter() {
+			return jitter;
+		}
+
+		public void setJitter(double jitter) {
+			this.jitter = jitter;
+		}
+
 	}
 
 	public int getMaxAttempts() {
@@ -113,6 +133,14 @@ public class SpringAiRetryProperties {
 		this.maxAttempts = maxAttempts;
 	}
 
+	public Duration getTimeBudget() {
+		return this.timeBudget;
+	}
+
+	public void setTimeBudget(Duration timeBudget) {
+		this.timeBudget = timeBudget;
+	}
+
 	public Backoff getBackoff() {
 		return this.backoff;
 	}
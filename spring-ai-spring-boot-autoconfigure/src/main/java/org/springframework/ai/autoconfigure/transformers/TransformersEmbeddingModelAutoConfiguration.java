@@ -52,6 +52,12 @@ public class TransformersEmbeddingModelAutoConfiguration {
 
 		embeddingModel.setGpuDeviceId(properties.getOnnx().getGpuDeviceId());
 
+		embeddingModel.setSessionPoolSize(properties.getOnnx().getSessionPoolSize());
+		embeddingModel.setIntraOpNumThreads(properties.getOnnx().getIntraOpNumThreads());
+		embeddingModel.setInterOpNumThreads(properties.getOnnx().getInterOpNumThreads());
+		embeddingModel.setMaxBatchSize(properties.getOnnx().getMaxBatchSize());
+		embeddingModel.setMaxTokensPerBatch(properties.getOnnx().getMaxTokensPerBatch());
+
 		return embeddingModel;
 	}
 
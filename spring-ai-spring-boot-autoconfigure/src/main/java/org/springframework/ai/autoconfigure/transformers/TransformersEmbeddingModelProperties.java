@@ -160,6 +160,36 @@ public class TransformersEmbeddingModelProperties {
 		 */
 		private int gpuDeviceId = -1;
 
+		/**
+		 * The number of ONNX sessions, each running one inference at a time and holding
+		 * its own copy of the model. Defaults to 1.
+		 */
+		private int sessionPoolSize = 1;
+
+		/**
+		 * The number of threads parallelizing the execution within the operators.
+		 * Defaults to 0, letting the ONNX runtime decide.
+		 */
+		private int intraOpNumThreads = 0;
+
+		/**
+		 * The number of threads parallelizing the execution of the operators. Defaults to
+		 * 0, letting the ONNX runtime decide.
+		 */
+		private int interOpNumThreads = 0;
+
+		/**
+		 * The maximum number of texts embedded in a single inference. Defaults to 32.
+		 */
+		private int maxBatchSize = TransformersEmbeddingModel.DEFAULT_MAX_BATCH_SIZE;
+
+		/**
+		 * The maximum number of tokens, padding included, embedded in a single inference.
+		 * The texts of a batch are run in sub-batches of similar lengths under this
+		 * limit. Defaults to 4096.
+		 */
+		private int maxTokensPerBatch = TransformersEmbeddingModel.DEFAULT_MAX_TOKENS_PER_BATCH;
+
 		public String getModelUri() {
 			return this.modelUri;
 		}
@@ -184,6 +214,46 @@ public class TransformersEmbeddingModelProperties {
 			this.modelOutputName = modelOutputName;
 		}
 
+		public int getSessionPoolSize() {
+			return this.sessionPoolSize;
+		}
+
+		public void setSessionPoolSize(int sessionPoolSize) {
+			this.sessionPoolSize = sessionPoolSize;
+		}
+
+		public int getIntraOpNumThreads() {
+			return this.intraOpNumThreads;
+		}
+
+		public void setIntraOpNumThreads(int intraOpNumThreads) {
+			this.intraOpNumThreads = intraOpNumThreads;
+		}
+
+		public int getInterOpNumThreads() {
+			return this.interOpNumThreads;
+		}
+
+		public void setInterOpNumThreads(int interOpNumThreads) {
+			this.interOpNumThreads = interOpNumThreads;
+		}
+
+		public int getMaxBatchSize() {
+			return this.maxBatchSize;
+		}
+
+		public void setMaxBatchSize(int maxBatchSize) {
+			this.maxBatchSize = maxBatchSize;
+		}
+
+		public int getMaxTokensPerBatch() {
+			return this.maxTokensPerBatch;
+		}
+
+		public void setMaxTokensPerBatch(int maxTokensPerBatch) {
+			this.maxTokensPerBatch = maxTokensPerBatch;
+		}
+
 	}
 
 	@NestedConfigurationProperty
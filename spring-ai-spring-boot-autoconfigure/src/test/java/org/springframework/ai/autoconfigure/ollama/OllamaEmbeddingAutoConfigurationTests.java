@@ -37,7 +37,9 @@ public class OllamaEmbeddingAutoConfigurationTests {
 			"spring.ai.ollama.base-url=TEST_BASE_URL",
 				"spring.ai.ollama.embedding.options.model=MODEL_XYZ",
 				"spring.ai.ollama.embedding.options.temperature=0.13",
-				"spring.ai.ollama.embedding.options.topK=13"
+				"spring.ai.ollama.embedding.options.topK=13",
+				"spring.ai.ollama.embedding.batch-size=64",
+				"spring.ai.ollama.embedding.max-concurrent-requests=8"
 				// @formatter:on
 		)
 			.withConfiguration(AutoConfigurations.of(RestClientAutoConfiguration.class, OllamaAutoConfiguration.class))
@@ -50,6 +52,8 @@ public class OllamaEmbeddingAutoConfigurationTests {
 				assertThat(embeddingProperties.getOptions().toMap()).containsKeys("temperature");
 				assertThat(embeddingProperties.getOptions().toMap().get("temperature")).isEqualTo(0.13);
 				assertThat(embeddingProperties.getOptions().getTopK()).isEqualTo(13);
+				assertThat(embeddingProperties.getBatchSize()).isEqualTo(64);
+				assertThat(embeddingProperties.getMaxConcurrentRequests()).isEqualTo(8);
 			});
 	}
 
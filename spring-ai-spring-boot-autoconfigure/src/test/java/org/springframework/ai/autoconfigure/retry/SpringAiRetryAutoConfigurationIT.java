@@ -15,15 +15,25 @@
  */
 package org.springframework.ai.autoconfigure.retry;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.StreamingRetryTemplate;
+import org.springframework.ai.retry.TransientAiException;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.autoconfigure.web.client.RestClientAutoConfiguration;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.web.client.ResponseErrorHandler;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * @author Christian Tzolov
@@ -37,8 +47,62 @@ public class SpringAiRetryAutoConfigurationIT {
 	void testRetryAutoConfiguration() {
 		this.contextRunner.run((context) -> {
 			assertThat(context).hasSingleBean(RetryTemplate.class);
+			assertThat(context.getBean(RetryTemplate.class)).isInstanceOf(StreamingRetryTemplate.class);
 			assertThat(context).hasSingleBean(ResponseErrorHandler.class);
 		});
 	}
 
+	@Test
+	void retriesTransientFailuresWithinTheTimeBudget() {
+		this.contextRunner
+			.withPropertyValues("spring.ai.retry.max-attempts=3", "spring.ai.retry.backoff.initial-interval=10ms",
+					"spring.ai.retry.time-budget=5s")
+			.run((context) -> {
+				RetryTemplate retryTemplate = context.getBean(RetryTemplate.class);
+
+				AtomicInteger transientAttempts = new AtomicInteger();
+				assertThatThrownBy(() -> retryTemplate.execute(retryContext -> {
+					transientAttempts.incrementAndGet();
+					throw new TransientAiException("503 - Overloaded");
+				})).isInstanceOf(TransientAiException.class);
+				assertThat(transientAttempts).hasValue(3);
+
+				AtomicInteger nonTransientAttempts = new AtomicInteger();
+				assertThatThrownBy(() -> retryTemplate.execute(retryContext -> {
+					nonTransientAttempts.incrementAndGet();
+					throw new NonTransientAiException("401 - Unauthorized");
+				})).isInstanceOf(NonTransientAiException.class);
+				assertThat(nonTransientAttempts).hasValue(1);
+
+				// The server asks to wait beyond the budget
+				AtomicInteger rateLimitedAttempts = new AtomicInteger();
+				assertThatThrownBy(() -> retryTemplate.execute(retryContext -> {
+					rateLimitedAttempts.incrementAndGet();
+					throw new TransientAiException("429 - Rate limited", Duration.ofMinutes(1));
+				})).isInstanceOf(TransientAiException.class);
+				assertThat(rateLimitedAttempts).hasValue(1);
+			});
+	}
+
+	@Test
+	void classifiesRateLimitedAndUnavailableResponsesAsTransient() {
+		this.contextRunner.run((context) -> {
+			ResponseErrorHandler errorHandler = context.getBean(ResponseErrorHandler.class);
+
+			MockClientHttpResponse tooManyRequests = new MockClientHttpResponse(new byte[0],
+					HttpStatus.TOO_MANY_REQUESTS);
+			tooManyRequests.getHeaders().set(HttpHeaders.RETRY_AFTER, "7");
+			assertThatThrownBy(() -> errorHandler.handleError(tooManyRequests)).isInstanceOfSatisfying(
+					TransientAiException.class, ex -> assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(7)));
+
+			MockClientHttpResponse unavailable = new MockClientHttpResponse(new byte[0],
+					HttpStatus.SERVICE_UNAVAILABLE);
+			assertThatThrownBy(() -> errorHandler.handleError(unavailable)).isInstanceOf(TransientAiException.class);
+
+			MockClientHttpResponse unauthorized = new MockClientHttpResponse(new byte[0], HttpStatus.UNAUTHORIZED);
+			assertThatThrownBy(() -> errorHandler.handleError(unauthorized))
+				.isInstanceOf(NonTransientAiException.class);
+		});
+	}
+
 }
@@ -15,6 +15,8 @@
  */
 package org.springframework.ai.autoconfigure.retry;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.boot.autoconfigure.AutoConfigurations;
@@ -37,6 +39,7 @@ public class SpringAiRetryPropertiesTests {
 				var retryProperties = context.getBean(SpringAiRetryProperties.class);
 
 				assertThat(retryProperties.getMaxAttempts()).isEqualTo(10);
+				assertThat(retryProperties.getTimeBudget()).isEqualTo(Duration.ofMinutes(10));
 				// do not retry on 4xx errors
 				assertThat(retryProperties.isOnClientErrors()).isFalse();
 				assertThat(retryProperties.getExcludeOnHttpCodes()).isEmpty();
@@ -44,6 +47,7 @@ public class SpringAiRetryPropertiesTests {
 				assertThat(retryProperties.getBackoff().getInitialInterval().toMillis()).isEqualTo(2000);
 				assertThat(retryProperties.getBackoff().getMultiplier()).isEqualTo(5);
 				assertThat(retryProperties.getBackoff().getMaxInterval().toMillis()).isEqualTo(3 * 60000);
+				assertThat(retryProperties.getBackoff().getJitter()).isEqualTo(0.2);
 			});
 	}
 
@@ -53,24 +57,28 @@ public class SpringAiRetryPropertiesTests {
 		new ApplicationContextRunner().withPropertyValues(
 		// @formatter:off
 				"spring.ai.retry.max-attempts=100",
+				"spring.ai.retry.time-budget=30s",
 				"spring.ai.retry.on-client-errors=false",
 				"spring.ai.retry.exclude-on-http-codes=404,500",
 				"spring.ai.retry.on-http-codes=429",
 				"spring.ai.retry.backoff.initial-interval=1000",
 				"spring.ai.retry.backoff.multiplier=2",
-				"spring.ai.retry.backoff.max-interval=60000" )
+				"spring.ai.retry.backoff.max-interval=60000",
+				"spring.ai.retry.backoff.jitter=0.5" )
 				// @formatter:on
 			.withConfiguration(AutoConfigurations.of(SpringAiRetryAutoConfiguration.class))
 			.run(context -> {
 				var retryProperties = context.getBean(SpringAiRetryProperties.class);
 
 				assertThat(retryProperties.getMaxAttempts()).isEqualTo(100);
+				assertThat(retryProperties.getTimeBudget()).isEqualTo(Duration.ofSeconds(30));
 				assertThat(retryProperties.isOnClientErrors()).isFalse();
 				assertThat(retryProperties.getExcludeOnHttpCodes()).containsExactly(404, 500);
 				assertThat(retryProperties.getOnHttpCodes()).containsExactly(429);
 				assertThat(retryProperties.getBackoff().getInitialInterval().toMillis()).isEqualTo(1000);
 				assertThat(retryProperties.getBackoff().getMultiplier()).isEqualTo(2);
 				assertThat(retryProperties.getBackoff().getMaxInterval().toMillis()).isEqualTo(60000);
+				assertThat(retryProperties.getBackoff().getJitter()).isEqualTo(0.5);
 			});
 	}
 
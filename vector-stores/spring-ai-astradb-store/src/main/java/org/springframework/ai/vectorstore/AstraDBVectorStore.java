@@ -27,7 +27,10 @@ import com.datastax.astra.internal.command.LoggingCommandObserver;
 import com.dtsx.astra.sdk.utils.Assert;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.util.StringUtils;
 
@@ -67,6 +70,11 @@ public class AstraDBVectorStore implements VectorStore, InitializingBean {
 	 */
 	private final EmbeddingModel embeddingModel;
 
+	/**
+	 * Strategy used to group documents into embedding requests.
+	 */
+	private final BatchingStrategy batchingStrategy;
+
 	/**
 	 * Main client to interact with AstraDB
 	 */
@@ -83,8 +91,21 @@ public class AstraDBVectorStore implements VectorStore, InitializingBean {
 	 * @param embeddingModel embedding model
 	 */
 	public AstraDBVectorStore(AstraDBVectorStoreConfig config, EmbeddingModel embeddingModel) {
+		this(config, embeddingModel, new TokenCountBatchingStrategy());
+	}
+
+	/**
+	 * Initialization of the store with an EXISTING collection.
+	 * @param config configuration of the vector store
+	 * @param embeddingModel embedding model
+	 * @param batchingStrategy strategy used to group documents into embedding requests
+	 */
+	public AstraDBVectorStore(AstraDBVectorStoreConfig config, EmbeddingModel embeddingModel,
+			BatchingStrategy batchingStrategy) {
+		Assert.notNull(batchingStrategy, "Batching strategy must not be null");
 		this.config = config;
 		this.embeddingModel = embeddingModel;
+		this.batchingStrategy = batchingStrategy;
 		this.dataAPIClient = new DataAPIClient(config.getToken(), config.getDataAPIOptions());
 	}
 
@@ -123,21 +144,18 @@ public class AstraDBVectorStore implements VectorStore, InitializingBean {
 	/**
 	 * Mapping Spring => Astra.
 	 * @param springDoc spring document representing embedding and Meta-data
+	 * @param contentVector vector computed for the content, or null when no embedding
+	 * model is configured
 	 * @return astra document astra document representing embedding and Meta-data
 	 */
-	private Document mapSpring2AstraDocument(org.springframework.ai.document.Document springDoc) {
+	private Document mapSpring2AstraDocument(org.springframework.ai.document.Document springDoc,
+			float[] contentVector) {
 		Assert.notNull(springDoc, "Astra Document must not be null");
 		Document astraDoc = new Document();
 		astraDoc.id(springDoc.getId());
 		astraDoc.putAll(springDoc.getMetadata());
 		// Map Vector
-		if (springDoc.getEmbedding() != null) {
-			float[] floatArray = new float[springDoc.getEmbedding().size()];
-			for (int i = 0; i < springDoc.getEmbedding().size(); i++) {
-				floatArray[i] = springDoc.getEmbedding().get(i).floatValue();
-			}
-			astraDoc.vector(floatArray);
-		}
+		astraDoc.vector(springDoc.getEmbeddingAsFloatArray());
 		if (springDoc.getContent() != null) {
 			astraDoc.append(config.getEmbed(), springDoc.getContent());
 			if (embeddingModel == null) {
@@ -146,13 +164,7 @@ public class AstraDBVectorStore implements VectorStore, InitializingBean {
 				}
 			}
 			else {
-				// Converting the content to a vector of float
-				List<Double> doubles = embeddingModel.embed(springDoc.getContent());
-				float[] queryVector = new float[doubles.size()];
-				for (int i = 0; i < doubles.size(); i++) {
-					queryVector[i] = doubles.get(i).floatValue();
-				}
-				astraDoc.append(DataAPIKeywords.VECTOR.getKeyword(), queryVector);
+				astraDoc.append(DataAPIKeywords.VECTOR.getKeyword(), contentVector);
 			}
 		}
 		return astraDoc;
@@ -187,7 +199,17 @@ public class AstraDBVectorStore implements VectorStore, InitializingBean {
 	@Override
 	public void add(List<org.springframework.ai.document.Document> documents) {
 		if (documents != null && !documents.isEmpty()) {
-			astraDBCollection.insertMany(documents.stream().map(this::mapSpring2AstraDocument).toList());
+			// Converting the contents to vectors of float, in as few calls as possible
+			List<float[]> contentVectors = null;
+			if (embeddingModel != null) {
+				contentVectors = embeddingModel.embed(documents, EmbeddingOptions.EMPTY, batchingStrategy);
+			}
+			List<Document> astraDocs = new ArrayList<>(documents.size());
+			for (int i = 0; i < documents.size(); i++) {
+				astraDocs.add(mapSpring2AstraDocument(documents.get(i),
+						contentVectors != null ? contentVectors.get(i) : null));
+			}
+			astraDBCollection.insertMany(astraDocs);
 		}
 	}
 
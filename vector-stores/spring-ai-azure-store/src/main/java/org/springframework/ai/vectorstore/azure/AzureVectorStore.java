@@ -37,7 +37,11 @@ import com.azure.search.documents.models.VectorizedQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingUtils;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
@@ -98,6 +102,8 @@ public class AzureVectorStore implements VectorStore, InitializingBean {
 
 	private final FilterExpressionConverter filterExpressionConverter;
 
+	private final BatchingStrategy batchingStrategy;
+
 	private int defaultTopK = DEFAULT_TOP_K;
 
 	private Double defaultSimilarityThreshold = DEFAULT_SIMILARITY_THRESHOLD;
@@ -165,16 +171,34 @@ public class AzureVectorStore implements VectorStore, InitializingBean {
 	 */
 	public AzureVectorStore(SearchIndexClient searchIndexClient, EmbeddingModel embeddingModel,
 			boolean initializeSchema, List<MetadataField> filterMetadataFields) {
+		this(searchIndexClient, embeddingModel, initializeSchema, filterMetadataFields,
+				new TokenCountBatchingStrategy());
+	}
+
+	/**
+	 * Constructs a new AzureCognitiveSearchVectorStore.
+	 * @param searchIndexClient A pre-configured Azure {@link SearchIndexClient} that CRUD
+	 * for Azure search indexes and factory for {@link SearchClient}.
+	 * @param embeddingModel The client for embedding operations.
+	 * @param filterMetadataFields List of metadata fields (as field name and type) that
+	 * can be used in similarity search query filter expressions.
+	 * @param batchingStrategy The strategy used to group documents into embedding
+	 * requests.
+	 */
+	public AzureVectorStore(SearchIndexClient searchIndexClient, EmbeddingModel embeddingModel,
+			boolean initializeSchema, List<MetadataField> filterMetadataFields, BatchingStrategy batchingStrategy) {
 
 		Assert.notNull(embeddingModel, "The embedding model can not be null.");
 		Assert.notNull(searchIndexClient, "The search index client can not be null.");
 		Assert.notNull(filterMetadataFields, "The filterMetadataFields can not be null.");
+		Assert.notNull(batchingStrategy, "The batching strategy can not be null.");
 
 		this.initializeSchema = initializeSchema;
 		this.searchIndexClient = searchIndexClient;
 		this.embeddingModel = embeddingModel;
 		this.filterMetadataFields = filterMetadataFields;
 		this.filterExpressionConverter = new AzureAiSearchFilterExpressionConverter(filterMetadataFields);
+		this.batchingStrategy = batchingStrategy;
 	}
 
 	/**
@@ -214,11 +238,14 @@ public class AzureVectorStore implements VectorStore, InitializingBean {
 			return; // nothing to do;
 		}
 
-		final var searchDocuments = documents.stream().map(document -> {
-			final var embeddings = this.embeddingModel.embed(document);
+		final var embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.EMPTY, this.batchingStrategy);
+
+		final var searchDocuments = new ArrayList<SearchDocument>(documents.size());
+		for (int i = 0; i < documents.size(); i++) {
+			Document document = documents.get(i);
 			SearchDocument searchDocument = new SearchDocument();
 			searchDocument.put(ID_FIELD_NAME, document.getId());
-			searchDocument.put(EMBEDDING_FIELD_NAME, embeddings);
+			searchDocument.put(EMBEDDING_FIELD_NAME, EmbeddingUtils.toDoubleList(embeddings.get(i)));
 			searchDocument.put(CONTENT_FIELD_NAME, document.getContent());
 			searchDocument.put(METADATA_FIELD_NAME, new JSONObject(document.getMetadata()).toJSONString());
 
@@ -230,8 +257,8 @@ public class AzureVectorStore implements VectorStore, InitializingBean {
 				}
 			}
 
-			return searchDocument;
-		}).toList();
+			searchDocuments.add(searchDocument);
+		}
 
 		IndexDocumentsResult result = this.searchClient.uploadDocuments(searchDocuments);
 
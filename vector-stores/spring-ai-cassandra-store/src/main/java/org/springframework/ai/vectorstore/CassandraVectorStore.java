@@ -31,7 +31,11 @@ import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingUtils;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.CassandraVectorStoreConfig.SchemaColumn;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 
@@ -124,13 +128,22 @@ public class CassandraVectorStore implements VectorStore, AutoCloseable {
 
 	private final Similarity similarity;
 
+	private final BatchingStrategy batchingStrategy;
+
 	public CassandraVectorStore(CassandraVectorStoreConfig conf, EmbeddingModel embeddingModel) {
+		this(conf, embeddingModel, new TokenCountBatchingStrategy());
+	}
+
+	public CassandraVectorStore(CassandraVectorStoreConfig conf, EmbeddingModel embeddingModel,
+			BatchingStrategy batchingStrategy) {
 
 		Preconditions.checkArgument(null != conf, "Config must not be null");
 		Preconditions.checkArgument(null != embeddingModel, "Embedding client must not be null");
+		Preconditions.checkArgument(null != batchingStrategy, "Batching strategy must not be null");
 
 		this.conf = conf;
 		this.embeddingModel = embeddingModel;
+		this.batchingStrategy = batchingStrategy;
 		conf.ensureSchemaExists(embeddingModel.dimensions());
 		prepareAddStatement(Set.of());
 		this.deleteStmt = prepareDeleteStatement();
@@ -150,6 +163,17 @@ public class CassandraVectorStore implements VectorStore, AutoCloseable {
 
 	@Override
 	public void add(List<Document> documents) {
+		List<Document> documentsToEmbed = documents.stream()
+			.filter(d -> d.getEmbeddingAsFloatArray().length == 0)
+			.toList();
+		if (!documentsToEmbed.isEmpty()) {
+			List<float[]> embeddings = this.embeddingModel.embed(documentsToEmbed, EmbeddingOptions.EMPTY,
+					this.batchingStrategy);
+			for (int j = 0; j < documentsToEmbed.size(); j++) {
+				documentsToEmbed.get(j).setEmbedding(embeddings.get(j));
+			}
+		}
+
 		var futures = new CompletableFuture[documents.size()];
 
 		int i = 0;
@@ -157,10 +181,6 @@ public class CassandraVectorStore implements VectorStore, AutoCloseable {
 			futures[i++] = CompletableFuture.runAsync(() -> {
 				List<Object> primaryKeyValues = this.conf.documentIdTranslator.apply(d.getId());
 
-				if (null == d.getEmbedding() || d.getEmbedding().isEmpty()) {
-					d.setEmbedding(this.embeddingModel.embed(d));
-				}
-
 				BoundStatementBuilder builder = prepareAddStatement(d.getMetadata().keySet()).boundStatementBuilder();
 				for (int k = 0; k < primaryKeyValues.size(); ++k) {
 					SchemaColumn keyColumn = this.conf.getPrimaryKeyColumn(k);
@@ -169,7 +189,7 @@ public class CassandraVectorStore implements VectorStore, AutoCloseable {
 
 				builder = builder.setString(this.conf.schema.content(), d.getContent())
 					.setVector(this.conf.schema.embedding(),
-							CqlVector.newInstance(d.getEmbedding().stream().map(Double::floatValue).toList()),
+							CqlVector.newInstance(EmbeddingUtils.toFloatList(d.getEmbeddingAsFloatArray())),
 							Float.class);
 
 				for (var metadataColumn : this.conf.schema.metadataColumns()
@@ -203,8 +223,8 @@ public class CassandraVectorStore implements VectorStore, AutoCloseable {
 	@Override
 	public List<Document> similaritySearch(SearchRequest request) {
 		Preconditions.checkArgument(request.getTopK() <= 1000);
-		var embedding = toFloatArray(this.embeddingModel.embed(request.getQuery()));
-		CqlVector<Float> cqlVector = CqlVector.newInstance(embedding);
+		var embedding = this.embeddingModel.embedAsFloatArray(request.getQuery());
+		CqlVector<Float> cqlVector = CqlVector.newInstance(EmbeddingUtils.toFloatList(embedding));
 
 		String whereClause = "";
 		if (request.hasFilterExpression()) {
@@ -235,10 +255,8 @@ public class CassandraVectorStore implements VectorStore, AutoCloseable {
 			Document doc = new Document(getDocumentId(row), row.getString(this.conf.schema.content()), docFields);
 
 			if (this.conf.returnEmbeddings) {
-				doc.setEmbedding(row.getVector(this.conf.schema.embedding(), Float.class)
-					.stream()
-					.map(Float::doubleValue)
-					.toList());
+				CqlVector<Float> vector = row.getVector(this.conf.schema.embedding(), Float.class);
+				doc.setEmbedding(EmbeddingUtils.toFloatArray(vector.stream().toList()));
 			}
 			documents.add(doc);
 		}
@@ -353,13 +371,4 @@ public class CassandraVectorStore implements VectorStore, AutoCloseable {
 		return this.conf.primaryKeyTranslator.apply(primaryKeyValues);
 	}
 
-	private static Float[] toFloatArray(List<Double> embeddingDouble) {
-		Float[] embeddingFloat = new Float[embeddingDouble.size()];
-		int i = 0;
-		for (Double d : embeddingDouble) {
-			embeddingFloat[i++] = d.floatValue();
-		}
-		return embeddingFloat;
-	}
-
 }
@@ -26,7 +26,10 @@ import org.springframework.ai.chroma.ChromaApi.AddEmbeddingsRequest;
 import org.springframework.ai.chroma.ChromaApi.DeleteEmbeddingsRequest;
 import org.springframework.ai.chroma.ChromaApi.Embedding;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.ai.vectorstore.filter.converter.ChromaFilterExpressionConverter;
 import org.springframework.beans.factory.InitializingBean;
@@ -63,16 +66,25 @@ public class ChromaVectorStore implements VectorStore, InitializingBean {
 
 	private final boolean initializeSchema;
 
+	private final BatchingStrategy batchingStrategy;
+
 	public ChromaVectorStore(EmbeddingModel embeddingModel, ChromaApi chromaApi, boolean initializeSchema) {
 		this(embeddingModel, chromaApi, DEFAULT_COLLECTION_NAME, initializeSchema);
 	}
 
 	public ChromaVectorStore(EmbeddingModel embeddingModel, ChromaApi chromaApi, String collectionName,
 			boolean initializeSchema) {
+		this(embeddingModel, chromaApi, collectionName, initializeSchema, new TokenCountBatchingStrategy());
+	}
+
+	public ChromaVectorStore(EmbeddingModel embeddingModel, ChromaApi chromaApi, String collectionName,
+			boolean initializeSchema, BatchingStrategy batchingStrategy) {
+		Assert.notNull(batchingStrategy, "BatchingStrategy must not be null");
 		this.embeddingModel = embeddingModel;
 		this.chromaApi = chromaApi;
 		this.collectionName = collectionName;
 		this.initializeSchema = initializeSchema;
+		this.batchingStrategy = batchingStrategy;
 		this.filterExpressionConverter = new ChromaFilterExpressionConverter();
 	}
 
@@ -91,14 +103,14 @@ public class ChromaVectorStore implements VectorStore, InitializingBean {
 		List<String> ids = new ArrayList<>();
 		List<Map<String, Object>> metadatas = new ArrayList<>();
 		List<String> contents = new ArrayList<>();
-		List<float[]> embeddings = new ArrayList<>();
+		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.EMPTY, this.batchingStrategy);
 
-		for (Document document : documents) {
+		for (int i = 0; i < documents.size(); i++) {
+			Document document = documents.get(i);
 			ids.add(document.getId());
 			metadatas.add(document.getMetadata());
 			contents.add(document.getContent());
-			document.setEmbedding(this.embeddingModel.embed(document));
-			embeddings.add(JsonUtils.toFloatArray(document.getEmbedding()));
+			document.setEmbedding(embeddings.get(i));
 		}
 
 		this.chromaApi.upsertEmbeddings(this.collectionId,
@@ -34,7 +34,10 @@ import org.elasticsearch.client.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.beans.factory.InitializingBean;
@@ -70,15 +73,24 @@ public class ElasticsearchVectorStore implements VectorStore, InitializingBean {
 
 	private final boolean initializeSchema;
 
+	private final BatchingStrategy batchingStrategy;
+
 	public ElasticsearchVectorStore(RestClient restClient, EmbeddingModel embeddingModel, boolean initializeSchema) {
 		this(new ElasticsearchVectorStoreOptions(), restClient, embeddingModel, initializeSchema);
 	}
 
 	public ElasticsearchVectorStore(ElasticsearchVectorStoreOptions options, RestClient restClient,
 			EmbeddingModel embeddingModel, boolean initializeSchema) {
+		this(options, restClient, embeddingModel, initializeSchema, new TokenCountBatchingStrategy());
+	}
+
+	public ElasticsearchVectorStore(ElasticsearchVectorStoreOptions options, RestClient restClient,
+			EmbeddingModel embeddingModel, boolean initializeSchema, BatchingStrategy batchingStrategy) {
 		this.initializeSchema = initializeSchema;
 		Objects.requireNonNull(embeddingModel, "RestClient must not be null");
 		Objects.requireNonNull(embeddingModel, "EmbeddingModel must not be null");
+		Objects.requireNonNull(batchingStrategy, "BatchingStrategy must not be null");
+		this.batchingStrategy = batchingStrategy;
 		this.elasticsearchClient = new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper(
 				new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false))));
 		this.embeddingModel = embeddingModel;
@@ -98,11 +110,19 @@ public class ElasticsearchVectorStore implements VectorStore, InitializingBean {
 	public void add(List<Document> documents) {
 		BulkRequest.Builder builkRequestBuilder = new BulkRequest.Builder();
 
-		for (Document document : documents) {
-			if (Objects.isNull(document.getEmbedding()) || document.getEmbedding().isEmpty()) {
-				logger.debug("Calling EmbeddingModel for document id = " + document.getId());
-				document.setEmbedding(this.embeddingModel.embed(document));
+		List<Document> documentsToEmbed = documents.stream()
+			.filter(document -> document.getEmbeddingAsFloatArray().length == 0)
+			.toList();
+		if (!documentsToEmbed.isEmpty()) {
+			logger.debug("Calling EmbeddingModel for {} documents", documentsToEmbed.size());
+			List<float[]> embeddings = this.embeddingModel.embed(documentsToEmbed, EmbeddingOptions.EMPTY,
+					this.batchingStrategy);
+			for (int i = 0; i < documentsToEmbed.size(); i++) {
+				documentsToEmbed.get(i).setEmbedding(embeddings.get(i));
 			}
+		}
+
+		for (Document document : documents) {
 			builkRequestBuilder.operations(op -> op
 				.index(idx -> idx.index(this.options.getIndexName()).id(document.getId()).document(document)));
 		}
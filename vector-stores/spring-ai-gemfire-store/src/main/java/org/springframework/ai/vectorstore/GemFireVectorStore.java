@@ -18,6 +18,7 @@ package org.springframework.ai.vectorstore;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,7 +32,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.util.Assert;
@@ -68,6 +72,8 @@ public class GemFireVectorStore implements VectorStore {
 
 	private final String documentField;
 
+	private final BatchingStrategy batchingStrategy;
+
 	public static final class GemFireVectorStoreConfig {
 
 		private final WebClient client;
@@ -193,8 +199,15 @@ public class GemFireVectorStore implements VectorStore {
 	}
 
 	public GemFireVectorStore(GemFireVectorStoreConfig config, EmbeddingModel embedding) {
+		this(config, embedding, new TokenCountBatchingStrategy());
+	}
+
+	public GemFireVectorStore(GemFireVectorStoreConfig config, EmbeddingModel embedding,
+			BatchingStrategy batchingStrategy) {
 		Assert.notNull(config, "GemFireVectorStoreConfig must not be null");
 		Assert.notNull(embedding, "EmbeddingModel must not be null");
+		Assert.notNull(batchingStrategy, "BatchingStrategy must not be null");
+		this.batchingStrategy = batchingStrategy;
 		this.client = config.client;
 		this.embeddingModel = embedding;
 		this.topKPerBucket = config.topKPerBucket;
@@ -296,12 +309,12 @@ public class GemFireVectorStore implements VectorStore {
 
 			private final String key;
 
-			private List<Float> vector;
+			private float[] vector;
 
 			@JsonInclude(JsonInclude.Include.NON_NULL)
 			private Map<String, Object> metadata;
 
-			public Embedding(@JsonProperty("key") String key, @JsonProperty("vector") List<Float> vector,
+			public Embedding(@JsonProperty("key") String key, @JsonProperty("vector") float[] vector,
 					String contentName, String content, @JsonProperty("metadata") Map<String, Object> metadata) {
 				this.key = key;
 				this.vector = vector;
@@ -313,7 +326,7 @@ public class GemFireVectorStore implements VectorStore {
 				return key;
 			}
 
-			public List<Float> getVector() {
+			public float[] getVector() {
 				return vector;
 			}
 
@@ -329,7 +342,7 @@ public class GemFireVectorStore implements VectorStore {
 
 		@JsonProperty("vector")
 		@NonNull
-		private final List<Float> vector;
+		private final float[] vector;
 
 		@JsonProperty("top-k")
 		private final int k;
@@ -340,14 +353,14 @@ public class GemFireVectorStore implements VectorStore {
 		@JsonProperty("include-metadata")
 		private final boolean includeMetadata;
 
-		public QueryRequest(List<Float> vector, int k, int kPerBucket, boolean includeMetadata) {
+		public QueryRequest(float[] vector, int k, int kPerBucket, boolean includeMetadata) {
 			this.vector = vector;
 			this.k = k;
 			this.kPerBucket = kPerBucket;
 			this.includeMetadata = includeMetadata;
 		}
 
-		public List<Float> getVector() {
+		public float[] getVector() {
 			return vector;
 		}
 
@@ -415,13 +428,16 @@ public class GemFireVectorStore implements VectorStore {
 
 	@Override
 	public void add(List<Document> documents) {
-		UploadRequest upload = new UploadRequest(documents.stream().map(document -> {
-			// Compute and assign an embedding to the document.
-			document.setEmbedding(this.embeddingModel.embed(document));
-			List<Float> floatVector = document.getEmbedding().stream().map(Double::floatValue).toList();
-			return new UploadRequest.Embedding(document.getId(), floatVector, documentField, document.getContent(),
-					document.getMetadata());
-		}).toList());
+		// Compute and assign the embeddings to the documents.
+		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.EMPTY, this.batchingStrategy);
+		List<UploadRequest.Embedding> uploadEmbeddings = new ArrayList<>(documents.size());
+		for (int i = 0; i < documents.size(); i++) {
+			Document document = documents.get(i);
+			document.setEmbedding(embeddings.get(i));
+			uploadEmbeddings.add(new UploadRequest.Embedding(document.getId(), document.getEmbeddingAsFloatArray(),
+					documentField, document.getContent(), document.getMetadata()));
+		}
+		UploadRequest upload = new UploadRequest(uploadEmbeddings);
 
 		ObjectMapper objectMapper = new ObjectMapper();
 		String embeddingsJson = null;
@@ -465,8 +481,7 @@ public class GemFireVectorStore implements VectorStore {
 		if (request.hasFilterExpression()) {
 			throw new UnsupportedOperationException("Gemfire does not support metadata filter expressions yet.");
 		}
-		List<Double> vector = this.embeddingModel.embed(request.getQuery());
-		List<Float> floatVector = vector.stream().map(Double::floatValue).toList();
+		float[] floatVector = this.embeddingModel.embedAsFloatArray(request.getQuery());
 
 		return client.post()
 			.uri("/" + indexName + QUERY)
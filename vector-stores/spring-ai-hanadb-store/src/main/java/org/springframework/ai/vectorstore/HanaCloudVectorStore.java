@@ -19,7 +19,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
+import org.springframework.util.Assert;
 
 import java.util.Collections;
 import java.util.List;
@@ -68,24 +72,33 @@ public class HanaCloudVectorStore implements VectorStore {
 
 	private final HanaCloudVectorStoreConfig config;
 
+	private final BatchingStrategy batchingStrategy;
+
 	public HanaCloudVectorStore(HanaVectorRepository<? extends HanaVectorEntity> repository,
 			EmbeddingModel embeddingModel, HanaCloudVectorStoreConfig config) {
+		this(repository, embeddingModel, config, new TokenCountBatchingStrategy());
+	}
+
+	public HanaCloudVectorStore(HanaVectorRepository<? extends HanaVectorEntity> repository,
+			EmbeddingModel embeddingModel, HanaCloudVectorStoreConfig config, BatchingStrategy batchingStrategy) {
+		Assert.notNull(batchingStrategy, "BatchingStrategy must not be null");
 		this.repository = repository;
 		this.embeddingModel = embeddingModel;
 		this.config = config;
+		this.batchingStrategy = batchingStrategy;
 	}
 
 	@Override
 	public void add(List<Document> documents) {
-		int count = 1;
-		for (Document document : documents) {
-			logger.info("[{}/{}] Calling EmbeddingModel for document id = {}", count++, documents.size(),
-					document.getId());
+		logger.info("Calling EmbeddingModel for {} documents", documents.size());
+		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.EMPTY, this.batchingStrategy);
+		for (int i = 0; i < documents.size(); i++) {
+			Document document = documents.get(i);
 			String content = document.getContent().replaceAll("\\s+", " ");
-			String embedding = getEmbedding(document);
+			String embedding = toVectorString(embeddings.get(i));
 			repository.save(config.getTableName(), document.getId(), embedding, content);
 		}
-		logger.info("Embeddings saved in HanaCloudVectorStore for {} documents", count - 1);
+		logger.info("Embeddings saved in HanaCloudVectorStore for {} documents", documents.size());
 	}
 
 	@Override
@@ -130,15 +143,18 @@ public class HanaCloudVectorStore implements VectorStore {
 	}
 
 	private String getEmbedding(SearchRequest searchRequest) {
-		return "[" + this.embeddingModel.embed(searchRequest.getQuery())
-			.stream()
-			.map(String::valueOf)
-			.collect(Collectors.joining(", ")) + "]";
+		return toVectorString(this.embeddingModel.embedAsFloatArray(searchRequest.getQuery()));
 	}
 
-	private String getEmbedding(Document document) {
-		return "[" + this.embeddingModel.embed(document).stream().map(String::valueOf).collect(Collectors.joining(", "))
-				+ "]";
+	private static String toVectorString(float[] embedding) {
+		StringBuilder sb = new StringBuilder(embedding.length * 12).append('[');
+		for (int i = 0; i < embedding.length; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(embedding[i]);
+		}
+		return sb.append(']').toString();
 	}
 
 }
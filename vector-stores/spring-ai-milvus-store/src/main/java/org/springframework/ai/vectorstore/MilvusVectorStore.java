@@ -52,7 +52,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingUtils;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.ai.vectorstore.filter.converter.MilvusFilterExpressionConverter;
 import org.springframework.beans.factory.InitializingBean;
@@ -98,6 +102,8 @@ public class MilvusVectorStore implements VectorStore, InitializingBean {
 
 	private final boolean initializeSchema;
 
+	private final BatchingStrategy batchingStrategy;
+
 	/**
 	 * Configuration for the Milvus vector store.
 	 */
@@ -251,14 +257,21 @@ public class MilvusVectorStore implements VectorStore, InitializingBean {
 
 	public MilvusVectorStore(MilvusServiceClient milvusClient, EmbeddingModel embeddingModel,
 			MilvusVectorStoreConfig config, boolean initializeSchema) {
+		this(milvusClient, embeddingModel, config, initializeSchema, new TokenCountBatchingStrategy());
+	}
+
+	public MilvusVectorStore(MilvusServiceClient milvusClient, EmbeddingModel embeddingModel,
+			MilvusVectorStoreConfig config, boolean initializeSchema, BatchingStrategy batchingStrategy) {
 		this.initializeSchema = initializeSchema;
 
 		Assert.notNull(milvusClient, "MilvusServiceClient must not be null");
 		Assert.notNull(milvusClient, "EmbeddingModel must not be null");
+		Assert.notNull(batchingStrategy, "BatchingStrategy must not be null");
 
 		this.milvusClient = milvusClient;
 		this.embeddingModel = embeddingModel;
 		this.config = config;
+		this.batchingStrategy = batchingStrategy;
 	}
 
 	@Override
@@ -271,15 +284,18 @@ public class MilvusVectorStore implements VectorStore, InitializingBean {
 		List<JSONObject> metadataArray = new ArrayList<>();
 		List<List<Float>> embeddingArray = new ArrayList<>();
 
-		for (Document document : documents) {
-			List<Double> embedding = this.embeddingModel.embed(document);
+		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.EMPTY, this.batchingStrategy);
+
+		for (int i = 0; i < documents.size(); i++) {
+			Document document = documents.get(i);
+			float[] embedding = embeddings.get(i);
 
 			docIdArray.add(document.getId());
 			// Use a (future) DocumentTextLayoutFormatter instance to extract
 			// the content used to compute the embeddings
 			contentArray.add(document.getContent());
 			metadataArray.add(new JSONObject(document.getMetadata()));
-			embeddingArray.add(toFloatList(embedding));
+			embeddingArray.add(EmbeddingUtils.toFloatList(embedding));
 		}
 
 		List<InsertParam.Field> fields = new ArrayList<>();
@@ -332,7 +348,7 @@ public class MilvusVectorStore implements VectorStore, InitializingBean {
 
 		Assert.notNull(request.getQuery(), "Query string must not be null");
 
-		List<Double> embedding = this.embeddingModel.embed(request.getQuery());
+		float[] embedding = this.embeddingModel.embedAsFloatArray(request.getQuery());
 
 		var searchParamBuilder = SearchParam.newBuilder()
 			.withCollectionName(this.config.collectionName)
@@ -340,7 +356,7 @@ public class MilvusVectorStore implements VectorStore, InitializingBean {
 			.withMetricType(this.config.metricType)
 			.withOutFields(SEARCH_OUTPUT_FIELDS)
 			.withTopK(request.getTopK())
-			.withVectors(List.of(toFloatList(embedding)))
+			.withVectors(List.of(EmbeddingUtils.toFloatList(embedding)))
 			.withVectorFieldName(EMBEDDING_FIELD_NAME);
 
 		if (StringUtils.hasText(nativeFilterExpressions)) {
@@ -375,10 +391,6 @@ public class MilvusVectorStore implements VectorStore, InitializingBean {
 				: (1 - distance);
 	}
 
-	private List<Float> toFloatList(List<Double> embeddingDouble) {
-		return embeddingDouble.stream().map(Number::floatValue).toList();
-	}
-
 	// ---------------------------------------------------------------------------------
 	// Initialization
 	// ---------------------------------------------------------------------------------
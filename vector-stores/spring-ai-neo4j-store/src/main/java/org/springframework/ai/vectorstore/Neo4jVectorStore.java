@@ -20,11 +20,15 @@ import org.neo4j.driver.Driver;
 import org.neo4j.driver.SessionConfig;
 import org.neo4j.driver.Values;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.filter.Neo4jVectorFilterExpressionConverter;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -275,15 +279,24 @@ public class Neo4jVectorStore implements VectorStore, InitializingBean {
 
 	private final boolean initializeSchema;
 
+	private final BatchingStrategy batchingStrategy;
+
 	public Neo4jVectorStore(Driver driver, EmbeddingModel embeddingModel, Neo4jVectorStoreConfig config,
 			boolean initializeSchema) {
+		this(driver, embeddingModel, config, initializeSchema, new TokenCountBatchingStrategy());
+	}
+
+	public Neo4jVectorStore(Driver driver, EmbeddingModel embeddingModel, Neo4jVectorStoreConfig config,
+			boolean initializeSchema, BatchingStrategy batchingStrategy) {
 		this.initializeSchema = initializeSchema;
 
 		Assert.notNull(driver, "Neo4j driver must not be null");
 		Assert.notNull(embeddingModel, "Embedding client must not be null");
+		Assert.notNull(batchingStrategy, "Batching strategy must not be null");
 
 		this.driver = driver;
 		this.embeddingModel = embeddingModel;
+		this.batchingStrategy = batchingStrategy;
 
 		this.config = config;
 	}
@@ -291,7 +304,12 @@ public class Neo4jVectorStore implements VectorStore, InitializingBean {
 	@Override
 	public void add(List<Document> documents) {
 
-		var rows = documents.stream().map(this::documentToRecord).toList();
+		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.EMPTY, this.batchingStrategy);
+
+		var rows = new ArrayList<Map<String, Object>>(documents.size());
+		for (int i = 0; i < documents.size(); i++) {
+			rows.add(documentToRecord(documents.get(i), embeddings.get(i)));
+		}
 
 		try (var session = this.driver.session()) {
 			var statement = """
@@ -332,7 +350,7 @@ public class Neo4jVectorStore implements VectorStore, InitializingBean {
 		Assert.isTrue(request.getSimilarityThreshold() >= 0 && request.getSimilarityThreshold() <= 1,
 				"The similarity score is bounded between 0 and 1; least to most similar respectively.");
 
-		var embedding = Values.value(toFloatArray(this.embeddingModel.embed(request.getQuery())));
+		var embedding = Values.value(this.embeddingModel.embedAsFloatArray(request.getQuery()));
 		try (var session = this.driver.session(this.config.sessionConfig)) {
 			StringBuilder condition = new StringBuilder("score >= $threshold");
 			if (request.hasFilterExpression()) {
@@ -379,8 +397,7 @@ public class Neo4jVectorStore implements VectorStore, InitializingBean {
 		}
 	}
 
-	private Map<String, Object> documentToRecord(Document document) {
-		var embedding = this.embeddingModel.embed(document);
+	private Map<String, Object> documentToRecord(Document document, float[] embedding) {
 		document.setEmbedding(embedding);
 
 		var row = new HashMap<String, Object>();
@@ -393,19 +410,10 @@ public class Neo4jVectorStore implements VectorStore, InitializingBean {
 		document.getMetadata().forEach((k, v) -> properties.put("metadata." + k, Values.value(v)));
 		row.put("properties", properties);
 
-		row.put(this.config.embeddingProperty, Values.value(toFloatArray(embedding)));
+		row.put(this.config.embeddingProperty, Values.value(embedding));
 		return row;
 	}
 
-	private static float[] toFloatArray(List<Double> embeddingDouble) {
-		float[] embeddingFloat = new float[embeddingDouble.size()];
-		int i = 0;
-		for (Double d : embeddingDouble) {
-			embeddingFloat[i++] = d.floatValue();
-		}
-		return embeddingFloat;
-	}
-
 	private Document recordToDocument(org.neo4j.driver.Record neoRecord) {
 		var node = neoRecord.get("node").asNode();
 		var score = neoRecord.get("score").asFloat();
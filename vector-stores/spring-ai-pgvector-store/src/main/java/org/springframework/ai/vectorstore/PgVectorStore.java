@@ -22,7 +22,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.IntStream;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -32,7 +31,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.ai.vectorstore.filter.converter.PgVectorFilterExpressionConverter;
 import org.springframework.beans.factory.InitializingBean;
@@ -42,6 +44,7 @@ import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SqlTypeValue;
 import org.springframework.jdbc.core.StatementCreatorUtils;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
@@ -81,6 +84,8 @@ public class PgVectorStore implements VectorStore, InitializingBean {
 
 	private final boolean initializeSchema;
 
+	private final BatchingStrategy batchingStrategy;
+
 	/**
 	 * By default, pgvector performs exact nearest neighbor search, which provides perfect
 	 * recall. You can add an index to use approximate nearest neighbor search, which
@@ -177,16 +182,11 @@ public class PgVectorStore implements VectorStore, InitializingBean {
 			metadata.put(COLUMN_DISTANCE, distance);
 
 			Document document = new Document(id, content, metadata);
-			document.setEmbedding(toDoubleList(embedding));
+			document.setEmbedding(new PGvector(embedding.getValue()).toArray());
 
 			return document;
 		}
 
-		private List<Double> toDoubleList(PGobject embedding) throws SQLException {
-			float[] floatArray = new PGvector(embedding.getValue()).toArray();
-			return IntStream.range(0, floatArray.length).mapToDouble(i -> floatArray[i]).boxed().toList();
-		}
-
 		private Map<String, Object> toMap(PGobject pgObject) {
 
 			String source = pgObject.getValue();
@@ -213,6 +213,15 @@ public class PgVectorStore implements VectorStore, InitializingBean {
 	public PgVectorStore(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel, int dimensions,
 			PgDistanceType distanceType, boolean removeExistingVectorStoreTable, PgIndexType createIndexMethod,
 			boolean initializeSchema) {
+		this(jdbcTemplate, embeddingModel, dimensions, distanceType, removeExistingVectorStoreTable, createIndexMethod,
+				initializeSchema, new TokenCountBatchingStrategy());
+	}
+
+	public PgVectorStore(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel, int dimensions,
+			PgDistanceType distanceType, boolean removeExistingVectorStoreTable, PgIndexType createIndexMethod,
+			boolean initializeSchema, BatchingStrategy batchingStrategy) {
+
+		Assert.notNull(batchingStrategy, "BatchingStrategy must not be null");
 
 		this.jdbcTemplate = jdbcTemplate;
 		this.embeddingModel = embeddingModel;
@@ -221,6 +230,7 @@ public class PgVectorStore implements VectorStore, InitializingBean {
 		this.removeExistingVectorStoreTable = removeExistingVectorStoreTable;
 		this.createIndexMethod = createIndexMethod;
 		this.initializeSchema = initializeSchema;
+		this.batchingStrategy = batchingStrategy;
 	}
 
 	public PgDistanceType getDistanceType() {
@@ -232,6 +242,8 @@ public class PgVectorStore implements VectorStore, InitializingBean {
 
 		int size = documents.size();
 
+		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.EMPTY, this.batchingStrategy);
+
 		this.jdbcTemplate.batchUpdate(
 				"INSERT INTO " + VECTOR_TABLE_NAME + " (id, content, metadata, embedding) VALUES (?, ?, ?::jsonb, ?) "
 						+ "ON CONFLICT (id) DO " + "UPDATE SET content = ? , metadata = ?::jsonb , embedding = ? ",
@@ -242,7 +254,7 @@ public class PgVectorStore implements VectorStore, InitializingBean {
 						var document = documents.get(i);
 						var content = document.getContent();
 						var json = toJson(document.getMetadata());
-						var pGvector = new PGvector(toFloatArray(embeddingModel.embed(document)));
+						var pGvector = new PGvector(embeddings.get(i));
 
 						StatementCreatorUtils.setParameterValue(ps, 1, SqlTypeValue.TYPE_UNKNOWN,
 								UUID.fromString(document.getId()));
@@ -270,15 +282,6 @@ public class PgVectorStore implements VectorStore, InitializingBean {
 		}
 	}
 
-	private float[] toFloatArray(List<Double> embeddingDouble) {
-		float[] embeddingFloat = new float[embeddingDouble.size()];
-		int i = 0;
-		for (Double d : embeddingDouble) {
-			embeddingFloat[i++] = d.floatValue();
-		}
-		return embeddingFloat;
-	}
-
 	@Override
 	public Optional<Boolean> delete(List<String> idList) {
 		int updateCount = 0;
@@ -325,8 +328,7 @@ public class PgVectorStore implements VectorStore, InitializingBean {
 	}
 
 	private PGvector getQueryEmbedding(String query) {
-		List<Double> embedding = this.embeddingModel.embed(query);
-		return new PGvector(toFloatArray(embedding));
+		return new PGvector(this.embeddingModel.embedAsFloatArray(query));
 	}
 
 	private String comparisonOperator() {
@@ -15,6 +15,7 @@
  */
 package org.springframework.ai.vectorstore.qdrant;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -32,7 +33,11 @@ import io.qdrant.client.grpc.Points.ScoredPoint;
 import io.qdrant.client.grpc.Points.SearchPoints;
 import io.qdrant.client.grpc.Points.UpdateStatus;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingUtils;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.beans.factory.InitializingBean;
@@ -71,6 +76,8 @@ public class QdrantVectorStore implements VectorStore, InitializingBean {
 
 	private final boolean initializeSchema;
 
+	private final BatchingStrategy batchingStrategy;
+
 	/**
 	 * Configuration class for the QdrantVectorStore.
 	 *
@@ -153,11 +160,25 @@ public class QdrantVectorStore implements VectorStore, InitializingBean {
 	 */
 	public QdrantVectorStore(QdrantClient qdrantClient, String collectionName, EmbeddingModel embeddingModel,
 			boolean initializeSchema) {
+		this(qdrantClient, collectionName, embeddingModel, initializeSchema, new TokenCountBatchingStrategy());
+	}
+
+	/**
+	 * Constructs a new QdrantVectorStore.
+	 * @param qdrantClient A {@link QdrantClient} instance for interfacing with Qdrant.
+	 * @param collectionName The name of the collection to use in Qdrant.
+	 * @param embeddingModel The client for embedding operations.
+	 * @param batchingStrategy The strategy used to batch documents for embedding.
+	 */
+	public QdrantVectorStore(QdrantClient qdrantClient, String collectionName, EmbeddingModel embeddingModel,
+			boolean initializeSchema, BatchingStrategy batchingStrategy) {
 		Assert.notNull(qdrantClient, "QdrantClient must not be null");
 		Assert.notNull(collectionName, "collectionName must not be null");
 		Assert.notNull(embeddingModel, "EmbeddingModel must not be null");
+		Assert.notNull(batchingStrategy, "BatchingStrategy must not be null");
 
 		this.initializeSchema = initializeSchema;
+		this.batchingStrategy = batchingStrategy;
 		this.embeddingModel = embeddingModel;
 		this.collectionName = collectionName;
 		this.qdrantClient = qdrantClient;
@@ -170,16 +191,21 @@ public class QdrantVectorStore implements VectorStore, InitializingBean {
 	@Override
 	public void add(List<Document> documents) {
 		try {
-			List<PointStruct> points = documents.stream().map(document -> {
-				// Compute and assign an embedding to the document.
-				document.setEmbedding(this.embeddingModel.embed(document));
+			// Compute and assign the embeddings to the documents.
+			List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.EMPTY,
+					this.batchingStrategy);
+
+			List<PointStruct> points = new ArrayList<>(documents.size());
+			for (int i = 0; i < documents.size(); i++) {
+				Document document = documents.get(i);
+				document.setEmbedding(embeddings.get(i));
 
-				return PointStruct.newBuilder()
+				points.add(PointStruct.newBuilder()
 					.setId(id(UUID.fromString(document.getId())))
-					.setVectors(vectors(toFloatList(document.getEmbedding())))
+					.setVectors(vectors(EmbeddingUtils.toFloatList(document.getEmbeddingAsFloatArray())))
 					.putAllPayload(toPayload(document))
-					.build();
-			}).toList();
+					.build());
+			}
 
 			this.qdrantClient.upsertAsync(this.collectionName, points).get();
 		}
@@ -220,13 +246,13 @@ public class QdrantVectorStore implements VectorStore, InitializingBean {
 					? this.filterExpressionConverter.convertExpression(request.getFilterExpression())
 					: Filter.getDefaultInstance();
 
-			List<Double> queryEmbedding = this.embeddingModel.embed(request.getQuery());
+			float[] queryEmbedding = this.embeddingModel.embedAsFloatArray(request.getQuery());
 
 			var searchPoints = SearchPoints.newBuilder()
 				.setCollectionName(this.collectionName)
 				.setLimit(request.getTopK())
 				.setWithPayload(enable(true))
-				.addAllVector(toFloatList(queryEmbedding))
+				.addAllVector(EmbeddingUtils.toFloatList(queryEmbedding))
 				.setFilter(filter)
 				.setScoreThreshold((float) request.getSimilarityThreshold())
 				.build();
@@ -280,15 +306,6 @@ public class QdrantVectorStore implements VectorStore, InitializingBean {
 		}
 	}
 
-	/**
-	 * Converts a list of doubles to a list of floats.
-	 * @param doubleList The list of doubles.
-	 * @return The converted list of floats.
-	 */
-	private List<Float> toFloatList(List<Double> doubleList) {
-		return doubleList.stream().map(d -> d.floatValue()).toList();
-	}
-
 	@Override
 	public void afterPropertiesSet() throws Exception {
 
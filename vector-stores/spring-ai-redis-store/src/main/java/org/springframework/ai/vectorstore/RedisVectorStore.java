@@ -29,7 +29,10 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.filter.FilterExpressionConverter;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.util.Assert;
@@ -287,11 +290,20 @@ public class RedisVectorStore implements VectorStore, InitializingBean {
 
 	private FilterExpressionConverter filterExpressionConverter;
 
+	private final BatchingStrategy batchingStrategy;
+
 	public RedisVectorStore(RedisVectorStoreConfig config, EmbeddingModel embeddingModel, boolean initializeSchema) {
+		this(config, embeddingModel, initializeSchema, new TokenCountBatchingStrategy());
+	}
+
+	public RedisVectorStore(RedisVectorStoreConfig config, EmbeddingModel embeddingModel, boolean initializeSchema,
+			BatchingStrategy batchingStrategy) {
 
 		Assert.notNull(config, "Config must not be null");
 		Assert.notNull(embeddingModel, "Embedding client must not be null");
+		Assert.notNull(batchingStrategy, "BatchingStrategy must not be null");
 		this.initializeSchema = initializeSchema;
+		this.batchingStrategy = batchingStrategy;
 
 		this.jedis = new JedisPooled(config.uri);
 		this.embeddingModel = embeddingModel;
@@ -305,9 +317,11 @@ public class RedisVectorStore implements VectorStore, InitializingBean {
 
 	@Override
 	public void add(List<Document> documents) {
+		List<float[]> embeddings = this.embeddingModel.embed(documents, EmbeddingOptions.EMPTY, this.batchingStrategy);
 		try (Pipeline pipeline = this.jedis.pipelined()) {
-			for (Document document : documents) {
-				var embedding = this.embeddingModel.embed(document);
+			for (int i = 0; i < documents.size(); i++) {
+				Document document = documents.get(i);
+				float[] embedding = embeddings.get(i);
 				document.setEmbedding(embedding);
 
 				var fields = new HashMap<String, Object>();
@@ -367,7 +381,7 @@ public class RedisVectorStore implements VectorStore, InitializingBean {
 		returnFields.add(this.config.embeddingFieldName);
 		returnFields.add(this.config.contentFieldName);
 		returnFields.add(DISTANCE_FIELD_NAME);
-		var embedding = toFloatArray(this.embeddingModel.embed(request.getQuery()));
+		float[] embedding = this.embeddingModel.embedAsFloatArray(request.getQuery());
 		Query query = new Query(queryString).addParam(EMBEDDING_PARAM_NAME, RediSearchUtil.toByteArray(embedding))
 			.returnFields(returnFields.toArray(new String[0]))
 			.setSortBy(DISTANCE_FIELD_NAME, true)
@@ -472,13 +486,4 @@ public class RedisVectorStore implements VectorStore, InitializingBean {
 		return JSON_PATH_PREFIX + field;
 	}
 
-	private static float[] toFloatArray(List<Double> embeddingDouble) {
-		float[] embeddingFloat = new float[embeddingDouble.size()];
-		int i = 0;
-		for (Double d : embeddingDouble) {
-			embeddingFloat[i++] = d.floatValue();
-		}
-		return embeddingFloat;
-	}
-
 }
\ No newline at end of file
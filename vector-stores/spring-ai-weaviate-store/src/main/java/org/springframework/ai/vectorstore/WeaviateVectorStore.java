@@ -43,7 +43,11 @@ import io.weaviate.client.v1.graphql.query.fields.Field;
 import io.weaviate.client.v1.graphql.query.fields.Fields;
 
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingUtils;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
 import org.springframework.ai.vectorstore.WeaviateVectorStore.WeaviateVectorStoreConfig.ConsistentLevel;
 import org.springframework.ai.vectorstore.WeaviateVectorStore.WeaviateVectorStoreConfig.MetadataField;
 import org.springframework.beans.factory.InitializingBean;
@@ -85,6 +89,8 @@ public class WeaviateVectorStore implements VectorStore, InitializingBean {
 
 	private final WeaviateClient weaviateClient;
 
+	private final BatchingStrategy batchingStrategy;
+
 	private final ConsistentLevel consistencyLevel;
 
 	private final String weaviateObjectClass;
@@ -282,8 +288,23 @@ public class WeaviateVectorStore implements VectorStore, InitializingBean {
 	 */
 	public WeaviateVectorStore(WeaviateVectorStoreConfig vectorStoreConfig, EmbeddingModel embeddingModel,
 			WeaviateClient weaviateClient, boolean initializeSchema) {
+		this(vectorStoreConfig, embeddingModel, weaviateClient, initializeSchema, new TokenCountBatchingStrategy());
+	}
+
+	/**
+	 * Constructs a new WeaviateVectorStore.
+	 * @param vectorStoreConfig The configuration for the store.
+	 * @param embeddingModel The client for embedding operations.
+	 * @param weaviateClient The client for the Weaviate operations.
+	 * @param initializeSchema Whether to initialize the schema.
+	 * @param batchingStrategy The strategy used to group documents into embedding
+	 * requests.
+	 */
+	public WeaviateVectorStore(WeaviateVectorStoreConfig vectorStoreConfig, EmbeddingModel embeddingModel,
+			WeaviateClient weaviateClient, boolean initializeSchema, BatchingStrategy batchingStrategy) {
 		Assert.notNull(vectorStoreConfig, "WeaviateVectorStoreConfig must not be null");
 		Assert.notNull(embeddingModel, "EmbeddingModel must not be null");
+		Assert.notNull(batchingStrategy, "BatchingStrategy must not be null");
 
 		this.initializeSchema = initializeSchema;
 		this.embeddingModel = embeddingModel;
@@ -293,6 +314,7 @@ public class WeaviateVectorStore implements VectorStore, InitializingBean {
 		this.filterExpressionConverter = new WeaviateFilterExpressionConverter(
 				this.filterMetadataFields.stream().map(MetadataField::name).toList());
 		this.weaviateClient = weaviateClient;
+		this.batchingStrategy = batchingStrategy;
 		this.weaviateSimilaritySearchFields = buildWeaviateSimilaritySearchFields();
 	}
 
@@ -323,6 +345,17 @@ public class WeaviateVectorStore implements VectorStore, InitializingBean {
 			return;
 		}
 
+		List<Document> documentsToEmbed = documents.stream()
+			.filter(document -> document.getEmbeddingAsFloatArray().length == 0)
+			.toList();
+		if (!documentsToEmbed.isEmpty()) {
+			List<float[]> embeddings = this.embeddingModel.embed(documentsToEmbed, EmbeddingOptions.EMPTY,
+					this.batchingStrategy);
+			for (int i = 0; i < documentsToEmbed.size(); i++) {
+				documentsToEmbed.get(i).setEmbedding(embeddings.get(i));
+			}
+		}
+
 		List<WeaviateObject> weaviateObjects = documents.stream().map(this::toWeaviateObject).toList();
 
 		Result<ObjectGetResponse[]> response = this.weaviateClient.batch()
@@ -361,11 +394,6 @@ public class WeaviateVectorStore implements VectorStore, InitializingBean {
 
 	private WeaviateObject toWeaviateObject(Document document) {
 
-		if (CollectionUtils.isEmpty(document.getEmbedding())) {
-			List<Double> embedding = this.embeddingModel.embed(document);
-			document.setEmbedding(embedding);
-		}
-
 		// https://weaviate.io/developers/weaviate/config-refs/datatypes
 		Map<String, Object> fields = new HashMap<>();
 		fields.put(CONTENT_FIELD_NAME, document.getContent());
@@ -388,7 +416,7 @@ public class WeaviateVectorStore implements VectorStore, InitializingBean {
 		return WeaviateObject.builder()
 			.className(this.weaviateObjectClass)
 			.id(document.getId())
-			.vector(toFloatArray(document.getEmbedding()))
+			.vector(EmbeddingUtils.toBoxedFloatArray(document.getEmbeddingAsFloatArray()))
 			.properties(fields)
 			.build();
 	}